@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.client.grpc;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.factcast.core.subscription.InternalSubscription;
+import org.factcast.grpc.api.gen.FactStoreProto.MSG_Notification;
+import org.factcast.grpc.api.gen.FactStoreProto.MSG_SubscriptionRequest;
+
+/**
+ * Variant of {@link ClientStreamObserver}, that does not block the transport thread while the
+ * subscription processes a notification.
+ *
+ * <p>Notifications are handed off to a bounded {@link SpscRingBuffer} and drained by a worker of a
+ * pool shared by all subscriptions. Backpressure is propagated to the server via gRPC flow control:
+ * only as many notifications as fit into the buffer are requested, and more are requested once the
+ * subscription processed them.
+ *
+ * <p>Completion and errors are delivered after all buffered notifications have been processed.
+ */
+@Slf4j
+class BufferedClientStreamObserver extends ClientStreamObserver
+    implements ClientResponseObserver<MSG_SubscriptionRequest, MSG_Notification> {
+
+  /** shared by all subscriptions */
+  @VisibleForTesting
+  static final ExecutorService DISPATCHER =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder()
+              .setNameFormat("factcast-client-dispatch-%d")
+              .setDaemon(true)
+              .build());
+
+  private final SpscRingBuffer<MSG_Notification> buffer;
+  private final int replenishThreshold;
+
+  private final AtomicBoolean draining = new AtomicBoolean();
+  private final AtomicReference<Runnable> terminal = new AtomicReference<>();
+  private final AtomicBoolean terminated = new AtomicBoolean();
+  private volatile boolean failed;
+
+  private volatile ClientCallStreamObserver<MSG_SubscriptionRequest> requestStream;
+
+  BufferedClientStreamObserver(
+      @NonNull InternalSubscription subscription, long keepAliveInterval, int bufferSize) {
+    super(subscription, keepAliveInterval);
+    buffer = new SpscRingBuffer<>(bufferSize);
+    replenishThreshold = Math.max(1, buffer.capacity() / 2);
+  }
+
+  @Override
+  public void beforeStart(@NonNull ClientCallStreamObserver<MSG_SubscriptionRequest> stream) {
+    requestStream = stream;
+    stream.disableAutoRequestWithInitial(buffer.capacity());
+  }
+
+  @Override
+  public void onNext(MSG_Notification f) {
+    notificationReceived();
+    if (failed) {
+      // already cancelled, just drop what is still in flight
+      return;
+    }
+    if (!buffer.offer(f)) {
+      fail(new IllegalStateException("Received more notifications than requested. THIS IS A BUG!"));
+      return;
+    }
+    scheduleDrain();
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    terminate(() -> super.onError(t));
+  }
+
+  @Override
+  public void onCompleted() {
+    terminate(super::onCompleted);
+  }
+
+  private void terminate(Runnable r) {
+    if (terminal.compareAndSet(null, r)) {
+      scheduleDrain();
+    }
+  }
+
+  private void fail(Throwable t) {
+    failed = true;
+    terminate(() -> super.onError(t));
+    if (requestStream != null) {
+      requestStream.cancel("Client failed to process notification", t);
+    }
+  }
+
+  private void scheduleDrain() {
+    if (draining.compareAndSet(false, true)) {
+      try {
+        DISPATCHER.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        draining.set(false);
+        log.error("Dispatcher rejected notifications", e);
+      }
+    }
+  }
+
+  private void drain() {
+    do {
+      int consumed = 0;
+      MSG_Notification n;
+      while ((n = buffer.poll()) != null) {
+        if (!failed) {
+          try {
+            process(n);
+          } catch (Exception e) {
+            fail(e);
+          }
+        }
+        if (++consumed == replenishThreshold) {
+          requestMore(consumed);
+          consumed = 0;
+        }
+      }
+      if (consumed > 0) {
+        requestMore(consumed);
+      }
+
+      Runnable r = terminal.get();
+      if (r != null && buffer.isEmpty() && terminated.compareAndSet(false, true)) {
+        r.run();
+      }
+      draining.set(false);
+      // re-check, as the producer might have offered after our last poll, but before the flag was
+      // reset
+    } while (hasWork() && draining.compareAndSet(false, true));
+  }
+
+  private boolean hasWork() {
+    return !buffer.isEmpty() || (terminal.get() != null && !terminated.get());
+  }
+
+  private void requestMore(int n) {
+    if (!failed && terminal.get() == null && requestStream != null) {
+      requestStream.request(n);
+    }
+  }
+}
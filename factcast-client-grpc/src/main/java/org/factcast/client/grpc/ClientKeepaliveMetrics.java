@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.client.grpc;
+
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import org.factcast.grpc.api.KeepaliveScheduler;
+
+/** Exposes the number of subscriptions watched for staleness and the number of stale ones. */
+public class ClientKeepaliveMetrics implements MeterBinder {
+
+  public static final String METRIC_NAME_STREAMS = "factcast.client.keepalive.streams";
+  public static final String METRIC_NAME_STALE = "factcast.client.keepalive.stale";
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    KeepaliveScheduler scheduler = ClientStreamObserver.SCHEDULER;
+    Gauge.builder(METRIC_NAME_STREAMS, scheduler, KeepaliveScheduler::activeStreams)
+        .description("Subscriptions currently watched for missing keepalives")
+        .register(registry);
+    FunctionCounter.builder(METRIC_NAME_STALE, scheduler, KeepaliveScheduler::idleStreamsDetected)
+        .description("Subscriptions failed because of missing keepalives")
+        .register(registry);
+  }
+}
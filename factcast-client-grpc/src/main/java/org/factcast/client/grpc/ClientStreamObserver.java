@@ -18,8 +18,6 @@
 import com.google.common.annotations.VisibleForTesting;
 import io.grpc.stub.StreamObserver;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -35,6 +33,7 @@
 import org.factcast.core.subscription.StaleSubscriptionDetectedException;
 import org.factcast.core.subscription.Subscription;
 import org.factcast.core.util.ExceptionHelper;
+import org.factcast.grpc.api.KeepaliveScheduler;
 import org.factcast.grpc.api.conv.ProtoConverter;
 import org.factcast.grpc.api.gen.FactStoreProto;
 import org.factcast.grpc.api.gen.FactStoreProto.MSG_Notification;
@@ -50,6 +49,9 @@
 @Slf4j
 class ClientStreamObserver implements StreamObserver<FactStoreProto.MSG_Notification> {
 
+  /** shared by all subscriptions */
+  static final KeepaliveScheduler SCHEDULER = new KeepaliveScheduler("factcast-client-keepalive");
+
   private final ProtoConverter converter = new ProtoConverter();
   private final AtomicLong lastNotification = new AtomicLong(0);
 
@@ -86,7 +88,7 @@ void tryShutdown() {
 
   @Override
   public void onNext(MSG_Notification f) {
-    lastNotification.set(System.currentTimeMillis());
+    notificationReceived();
 
     try {
       if (clientBoundExecutor.isShutdown()) {
@@ -104,7 +106,12 @@ public void onNext(MSG_Notification f) {
     }
   }
 
-  private void process(MSG_Notification f) {
+  /** resets the staleness detection */
+  void notificationReceived() {
+    lastNotification.set(System.currentTimeMillis());
+  }
+
+  void process(MSG_Notification f) {
     switch (f.getType()) {
       case Info:
         log.trace("received info signal");
@@ -138,6 +145,15 @@ private void process(MSG_Notification f) {
         facts.forEach(subscription::notifyElement);
         subscription.flush();
         break;
+      case TypedFacts:
+        List<Fact> typedFacts = converter.fromProto(f.getTypedFacts());
+        log.trace(
+            "received {} typed facts translating to {} decompressed bytes",
+            typedFacts.size(),
+            f.getSerializedSize());
+        typedFacts.forEach(subscription::notifyElement);
+        subscription.flush();
+        break;
       case Ffwd:
         log.debug("received fastforward signal");
         // if the server is <0.7.5, the fwd notification does not contain a serial. In this case, we
@@ -185,38 +201,25 @@ public void onCompleted() {
     }
   }
 
+  /** Fails the subscription, if nothing was received from the server for too long. */
   class ClientKeepalive {
-    private final Timer t = new Timer("client-keepalive-" + System.currentTimeMillis(), true);
-    private final long interval;
     private final long gracePeriod;
+    private final KeepaliveScheduler.Registration registration;
 
     ClientKeepalive(long interval) {
-      this.interval = interval;
       gracePeriod =
           interval * 2 + 200; // 2 times the interval and 200ms extra for potential network i/o
       lastNotification.set(System.currentTimeMillis());
-      reschedule();
+      registration = SCHEDULER.register(gracePeriod, lastNotification::get, this::onStale);
     }
 
-    void reschedule() {
-      t.schedule(
-          new TimerTask() {
-            @Override
-            public void run() {
-              long last = lastNotification.get();
-
-              if (System.currentTimeMillis() - last > gracePeriod) {
-                onError(new StaleSubscriptionDetectedException(last, gracePeriod));
-              } else {
-                reschedule();
-              }
-            }
-          },
-          interval);
+    private void onStale() {
+      shutdown();
+      onError(new StaleSubscriptionDetectedException(lastNotification.get(), gracePeriod));
     }
 
     void shutdown() {
-      t.cancel(); // the timer and related threads altogether
+      registration.cancel();
     }
   }
 }
@@ -38,6 +38,31 @@ public class FactCastGrpcClientProperties implements InitializingBean {
 
   private boolean enableFastForward = true;
 
+  /**
+   * If the server supports it, subscriptions receive facts with their header attributes as typed
+   * protobuf fields rather than as JSON, so that the header does not need to be parsed.
+   *
+   * @since 0.12.2
+   */
+  private boolean enableTypedFacts;
+
+  /**
+   * Hands notifications off to a bounded buffer per subscription, that is drained by a shared pool,
+   * instead of blocking the transport thread until each notification is processed. Backpressure is
+   * applied via gRPC flow control.
+   *
+   * @since 0.12.2
+   */
+  private boolean enableBufferedDispatch;
+
+  /**
+   * Number of notifications (each possibly containing a batch of facts) buffered per subscription,
+   * if buffered dispatch is enabled. Rounded up to the next power of two.
+   *
+   * @since 0.12.2
+   */
+  private int dispatchBufferSize = 8;
+
   private String id;
 
   private String user;
@@ -79,6 +79,8 @@ public class GrpcFactStore implements FactStore {
 
   @VisibleForTesting @Setter private boolean fastStateToken;
 
+  @VisibleForTesting @Setter private boolean publishIfUnchangedSinceSupported;
+
   @Autowired
   @Generated
   public GrpcFactStore(
@@ -203,7 +205,10 @@ public Subscription internalSubscribe(
         () -> {
           InternalSubscription subscription = SubscriptionImpl.on(observer);
           StreamObserver<FactStoreProto.MSG_Notification> responseObserver =
-              new ClientStreamObserver(subscription, req.keepaliveIntervalInMs());
+              properties.isEnableBufferedDispatch()
+                  ? new BufferedClientStreamObserver(
+                      subscription, req.keepaliveIntervalInMs(), properties.getDispatchBufferSize())
+                  : new ClientStreamObserver(subscription, req.keepaliveIntervalInMs());
           RemoteFactStoreGrpc.RemoteFactStoreStub remoteFactStoreStub = stubs.nonBlocking();
           ClientCall<MSG_SubscriptionRequest, MSG_Notification> call =
               remoteFactStoreStub
@@ -264,6 +269,14 @@ public synchronized void initializeIfNecessary() {
               .map(Boolean::parseBoolean)
               .orElse(false);
 
+      this.publishIfUnchangedSinceSupported =
+          Optional.ofNullable(
+                  serverProperties.get(Capabilities.PUBLISH_IF_UNCHANGED_SINCE.toString()))
+              .map(Boolean::parseBoolean)
+              .orElse(false);
+
+      configureTypedFacts(serverProperties);
+
       initialized.set(true);
       log.info("Handshake successful.");
     }
@@ -355,6 +368,20 @@ private void configureCompressionAndMetaData(String codecListFromServer) {
             });
   }
 
+  @VisibleForTesting
+  void configureTypedFacts(@NonNull Map<String, String> serverProperties) {
+    // the server might have changed due to failover, so check every time
+    boolean supported =
+        Optional.ofNullable(serverProperties.get(Capabilities.TYPED_FACTS.toString()))
+            .map(Boolean::parseBoolean)
+            .orElse(false);
+    boolean typedFacts = properties.isEnableTypedFacts() && supported;
+    if (typedFacts) {
+      log.info("requesting typed facts for subscriptions");
+    }
+    stubs.typedFacts(typedFacts);
+  }
+
   @VisibleForTesting
   static Metadata prepareMetaData(
       @NonNull FactCastGrpcClientProperties p, @Nullable String clientId) {
@@ -419,6 +446,26 @@ public boolean publishIfUnchanged(
         });
   }
 
+  @Override
+  public boolean publishIfUnchangedSince(
+      @NonNull List<? extends Fact> factsToPublish,
+      @NonNull Collection<FactSpec> specs,
+      long serial) {
+    return callAndHandle(
+        () -> {
+          MSG_ConditionalPublishSinceRequest msg =
+              converter.toProto(new ConditionalPublishSinceRequest(factsToPublish, specs, serial));
+          MSG_ConditionalPublishResult r = stubs.blocking().publishIfUnchangedSince(msg);
+          return r.getSuccess();
+        });
+  }
+
+  @Override
+  public boolean supportsPublishIfUnchangedSince() {
+    // the capability is only known after the handshake
+    return callAndHandle(() -> publishIfUnchangedSinceSupported);
+  }
+
   @Override
   @NonNull
   public StateToken stateFor(@NonNull Collection<FactSpec> specs) {
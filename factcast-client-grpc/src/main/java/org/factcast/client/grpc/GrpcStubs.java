@@ -46,4 +46,9 @@ default RemoteFactStoreGrpc.RemoteFactStoreBlockingStub blocking() {
   RemoteFactStoreGrpc.RemoteFactStoreStub nonBlocking();
 
   GrpcStubs compression(@Nullable String compressionId);
+
+  /**
+   * @param typedFacts if true, subscriptions ask the server for typed fact notifications
+   */
+  GrpcStubs typedFacts(boolean typedFacts);
 }
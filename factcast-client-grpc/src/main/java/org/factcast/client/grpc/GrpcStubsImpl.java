@@ -40,6 +40,7 @@ public class GrpcStubsImpl implements GrpcStubs {
 
   // can change at runtime (failover)
   @Setter @Nullable private String compression;
+  @Setter private boolean typedFacts;
 
   public GrpcStubsImpl(
       @NonNull FactCastGrpcChannelFactory channelFactory,
@@ -69,7 +70,8 @@ public RemoteFactStoreGrpc.RemoteFactStoreBlockingStub blocking(@Nullable Deadli
   @Override
   @NonNull
   public RemoteFactStoreGrpc.RemoteFactStoreStub nonBlocking() {
-    return configureCompression(configure(RemoteFactStoreGrpc.newStub(channel), null));
+    return configureTypedFacts(
+        configureCompression(configure(RemoteFactStoreGrpc.newStub(channel), null)));
   }
 
   @VisibleForTesting
@@ -103,6 +105,18 @@ <T extends AbstractStub<T>> T configureCompression(@NonNull T stub) {
     }
   }
 
+  @VisibleForTesting
+  @NonNull
+  <T extends AbstractStub<T>> T configureTypedFacts(@NonNull T stub) {
+    if (typedFacts) {
+      Metadata m = new Metadata();
+      m.put(Headers.TYPED_FACTS, "true");
+      return stub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(m));
+    } else {
+      return stub;
+    }
+  }
+
   @NonNull
   private Metadata forCompression(@NonNull String compressionId) {
     Metadata m = new Metadata();
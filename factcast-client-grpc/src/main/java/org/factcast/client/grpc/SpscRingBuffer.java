@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.client.grpc;
+
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.NonNull;
+
+/**
+ * Bounded, lock-free queue for exactly one producer thread and one consumer thread at a time.
+ *
+ * <p>The consumer thread may change over time, as long as consumers are handed over with a
+ * happens-before edge (like a CAS on a shared flag).
+ */
+final class SpscRingBuffer<E> {
+
+  private final Object[] elements;
+  private final int mask;
+
+  /** next index to read, only written by the consumer */
+  private final AtomicLong head = new AtomicLong();
+
+  /** next index to write, only written by the producer */
+  private final AtomicLong tail = new AtomicLong();
+
+  /**
+   * @param capacity rounded up to the next power of two
+   */
+  SpscRingBuffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive, but was " + capacity);
+    }
+    int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    elements = new Object[size];
+    mask = size - 1;
+  }
+
+  int capacity() {
+    return elements.length;
+  }
+
+  /**
+   * @return false if the buffer is full
+   */
+  boolean offer(@NonNull E e) {
+    long t = tail.get();
+    if (t - head.get() == elements.length) {
+      return false;
+    }
+    elements[(int) t & mask] = e;
+    // publishes the element to the consumer
+    tail.lazySet(t + 1);
+    return true;
+  }
+
+  /**
+   * @return null if the buffer is empty
+   */
+  @SuppressWarnings("unchecked")
+  E poll() {
+    long h = head.get();
+    if (h == tail.get()) {
+      return null;
+    }
+    int i = (int) h & mask;
+    E e = (E) elements[i];
+    elements[i] = null;
+    // frees the slot for the producer
+    head.lazySet(h + 1);
+    return e;
+  }
+
+  boolean isEmpty() {
+    return head.get() == tail.get();
+  }
+
+  int size() {
+    return (int) (tail.get() - head.get());
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.client.grpc;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.factcast.core.Fact;
+import org.factcast.core.subscription.SubscriptionImpl;
+import org.factcast.core.subscription.observer.FactObserver;
+import org.factcast.grpc.api.conv.ProtoConverter;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BufferedClientStreamObserverTest {
+
+  @Mock FactObserver factObserver;
+
+  final ProtoConverter converter = new ProtoConverter();
+  final CreditedCallStreamObserver requestStream = new CreditedCallStreamObserver();
+
+  SubscriptionImpl subscription;
+  BufferedClientStreamObserver uut;
+
+  @BeforeEach
+  void setUp() {
+    subscription = spy(new SubscriptionImpl(factObserver));
+    uut = new BufferedClientStreamObserver(subscription, 0L, 4);
+    uut.beforeStart(requestStream);
+  }
+
+  static Fact fact() {
+    return Fact.of("{\"ns\":\"ns\",\"id\":\"" + UUID.randomUUID() + "\"}", "{}");
+  }
+
+  @Test
+  void requestsBufferSizeInitially() {
+    assertThat(requestStream.availableCredits()).isEqualTo(4);
+  }
+
+  @Test
+  void deliversInOrder() {
+    List<Fact> facts = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Fact f = fact();
+      facts.add(f);
+      requestStream.awaitCredit();
+      uut.onNext(converter.createNotificationFor(f));
+    }
+
+    verify(factObserver, timeout(1000).times(100)).onNext(any());
+    InOrder inOrder = inOrder(factObserver);
+    facts.forEach(f -> inOrder.verify(factObserver).onNext(f));
+  }
+
+  @Test
+  void doesNotBlockTransportWhileProcessing() {
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(i -> await(release)).when(factObserver).onNext(any());
+
+    for (int i = 0; i < 4; i++) {
+      uut.onNext(converter.createNotificationFor(fact()));
+    }
+
+    // the buffer is full, but no more credits were granted
+    assertThat(requestStream.availableCredits()).isEqualTo(4);
+    release.countDown();
+    verify(factObserver, timeout(1000).times(4)).onNext(any());
+  }
+
+  @Test
+  void grantsCreditsAfterProcessing() {
+    for (int i = 0; i < 4; i++) {
+      requestStream.awaitCredit();
+      uut.onNext(converter.createNotificationFor(fact()));
+    }
+
+    verify(factObserver, timeout(1000).times(4)).onNext(any());
+    awaitCredits(4);
+  }
+
+  @Test
+  void completesAfterBufferedNotifications() {
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(i -> await(release)).when(factObserver).onNext(any());
+
+    uut.onNext(converter.createNotificationFor(fact()));
+    uut.onCompleted();
+
+    verify(factObserver, after(100).never()).onComplete();
+    release.countDown();
+
+    InOrder inOrder = inOrder(factObserver);
+    inOrder.verify(factObserver, timeout(1000)).onNext(any());
+    inOrder.verify(factObserver, timeout(1000)).onComplete();
+  }
+
+  @Test
+  void deliversErrorOnce() {
+    uut.onError(new IOException());
+    uut.onCompleted();
+
+    verify(subscription, timeout(1000)).notifyError(any());
+    verify(subscription, after(100).never()).notifyComplete();
+  }
+
+  @Test
+  void cancelsCallOnProcessingError() {
+    UnsupportedOperationException e = new UnsupportedOperationException();
+    doThrow(e).when(factObserver).onNext(any());
+
+    uut.onNext(converter.createNotificationFor(fact()));
+    uut.onNext(converter.createNotificationFor(fact()));
+
+    verify(subscription, timeout(1000)).notifyError(e);
+    assertThat(requestStream.cancelCause()).isSameAs(e);
+    verify(factObserver, times(1)).onNext(any());
+  }
+
+  @Test
+  void failsOnOverflow() {
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(i -> await(release)).when(factObserver).onNext(any());
+
+    for (int i = 0; i < 6; i++) {
+      uut.onNext(converter.createNotificationFor(fact()));
+    }
+    release.countDown();
+
+    verify(subscription, timeout(1000)).notifyError(any(IllegalStateException.class));
+    assertThat(requestStream.cancelCause()).isInstanceOf(IllegalStateException.class);
+  }
+
+  @SneakyThrows
+  static Object await(CountDownLatch latch) {
+    latch.await(10, TimeUnit.SECONDS);
+    return null;
+  }
+
+  @SneakyThrows
+  void awaitCredits(int expected) {
+    long deadline = System.currentTimeMillis() + 1000;
+    while (requestStream.availableCredits() < expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(requestStream.availableCredits()).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.client.grpc;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.factcast.core.subscription.SubscriptionImpl;
+import org.factcast.core.subscription.observer.FactObserver;
+import org.junit.jupiter.api.Test;
+
+class ClientKeepaliveMetricsTest {
+
+  final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void exposesWatchedSubscriptions() {
+    new ClientKeepaliveMetrics().bindTo(registry);
+    double before = registry.get(ClientKeepaliveMetrics.METRIC_NAME_STREAMS).gauge().value();
+
+    ClientStreamObserver observer =
+        new ClientStreamObserver(new SubscriptionImpl(mock(FactObserver.class)), 60000L);
+    assertThat(registry.get(ClientKeepaliveMetrics.METRIC_NAME_STREAMS).gauge().value())
+        .isEqualTo(before + 1);
+
+    observer.disableKeepalive();
+    assertThat(registry.get(ClientKeepaliveMetrics.METRIC_NAME_STREAMS).gauge().value())
+        .isEqualTo(before);
+    assertThat(registry.get(ClientKeepaliveMetrics.METRIC_NAME_STALE).functionCounter())
+        .isNotNull();
+  }
+}
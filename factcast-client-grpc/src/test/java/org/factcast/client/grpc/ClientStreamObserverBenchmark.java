@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.client.grpc;
+
+import java.util.*;
+import java.util.concurrent.*;
+import lombok.NonNull;
+import org.factcast.core.Fact;
+import org.factcast.core.subscription.SubscriptionImpl;
+import org.factcast.core.subscription.observer.FactObserver;
+import org.factcast.grpc.api.conv.ProtoConverter;
+import org.factcast.grpc.api.gen.FactStoreProto.MSG_Notification;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the throughput of a single subscription with the blocking hand-off of {@link
+ * ClientStreamObserver} to the buffered one of {@link BufferedClientStreamObserver}.
+ */
+@State(Scope.Thread)
+public class ClientStreamObserverBenchmark {
+
+  private static final int NOTIFICATIONS = 2_000;
+  private static final int FACTS_PER_NOTIFICATION = 10;
+
+  private static final MSG_Notification[] notifications = new MSG_Notification[NOTIFICATIONS];
+
+  static {
+    ProtoConverter converter = new ProtoConverter();
+    for (int i = 0; i < NOTIFICATIONS; i++) {
+      List<Fact> facts = new ArrayList<>(FACTS_PER_NOTIFICATION);
+      for (int j = 0; j < FACTS_PER_NOTIFICATION; j++) {
+        facts.add(
+            Fact.builder()
+                .ns("ns")
+                .type("type")
+                .aggId(UUID.randomUUID())
+                .version(1)
+                .build("{\"payload\":" + j + "}"));
+      }
+      notifications[i] = converter.createNotificationFor(facts);
+    }
+  }
+
+  @Param({"8", "32"})
+  public int bufferSize;
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 2)
+  public void blocking(Blackhole bh) throws Exception {
+    CountingObserver observer = new CountingObserver(bh);
+    ClientStreamObserver uut = new ClientStreamObserver(new SubscriptionImpl(observer), 0L);
+    for (MSG_Notification n : notifications) {
+      uut.onNext(n);
+    }
+    uut.onCompleted();
+    observer.await();
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 2)
+  public void buffered(Blackhole bh) throws Exception {
+    CountingObserver observer = new CountingObserver(bh);
+    BufferedClientStreamObserver uut =
+        new BufferedClientStreamObserver(new SubscriptionImpl(observer), 0L, bufferSize);
+    CreditedCallStreamObserver transport = new CreditedCallStreamObserver();
+    uut.beforeStart(transport);
+    for (MSG_Notification n : notifications) {
+      transport.awaitCredit();
+      uut.onNext(n);
+    }
+    uut.onCompleted();
+    observer.await();
+  }
+
+  static class CountingObserver implements FactObserver {
+    private final Blackhole bh;
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    CountingObserver(Blackhole bh) {
+      this.bh = bh;
+    }
+
+    @Override
+    public void onNext(@NonNull Fact element) {
+      bh.consume(element.id());
+    }
+
+    @Override
+    public void onComplete() {
+      completed.countDown();
+    }
+
+    void await() throws InterruptedException {
+      completed.await();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Main.main(args);
+  }
+}
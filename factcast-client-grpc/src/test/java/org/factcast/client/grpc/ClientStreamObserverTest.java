@@ -146,6 +146,22 @@ void testOnNextList() {
     verify(factObserver).flush();
   }
 
+  @Test
+  void testOnNextTypedList() {
+    UUID id1 = UUID.randomUUID();
+    UUID id2 = UUID.randomUUID();
+    Fact f1 = Fact.of("{\"ns\":\"ns\",\"id\":\"" + id1 + "\",\"meta\":{\"_ser\":1}}", "{}");
+    Fact f2 = Fact.of("{\"ns\":\"ns\",\"id\":\"" + id2 + "\",\"meta\":{\"_ser\":2}}", "{}");
+    MSG_Notification n = converter.createTypedNotificationFor(Lists.newArrayList(f1, f2));
+    uut.onNext(n);
+
+    ArgumentCaptor<Fact> captor = ArgumentCaptor.forClass(Fact.class);
+    verify(factObserver, times(2)).onNext(captor.capture());
+    assertThat(captor.getAllValues()).extracting(Fact::id).containsExactly(id1, id2);
+    assertThat(captor.getAllValues()).extracting(f -> f.header().serial()).containsExactly(1L, 2L);
+    verify(factObserver).flush();
+  }
+
   @Test
   void testOnNextFailsOnUnknownMessage() {
     assertThrows(
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.client.grpc;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import java.util.concurrent.Semaphore;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import org.factcast.grpc.api.gen.FactStoreProto.MSG_SubscriptionRequest;
+
+/** Mimics gRPC manual flow control by handing out credits for requested messages. */
+class CreditedCallStreamObserver extends ClientCallStreamObserver<MSG_SubscriptionRequest> {
+
+  private final Semaphore credits = new Semaphore(0);
+
+  @Getter private volatile Throwable cancelCause;
+
+  /** blocks until the observer requested another message, like the transport would. */
+  @SneakyThrows
+  void awaitCredit() {
+    credits.acquire();
+  }
+
+  int availableCredits() {
+    return credits.availablePermits();
+  }
+
+  @Override
+  public void disableAutoRequestWithInitial(int request) {
+    credits.release(request);
+  }
+
+  @Override
+  public void request(int count) {
+    credits.release(count);
+  }
+
+  @Override
+  public void cancel(String message, Throwable cause) {
+    cancelCause = cause;
+  }
+
+  @Override
+  public boolean isReady() {
+    return true;
+  }
+
+  @Override
+  public void setOnReadyHandler(Runnable onReadyHandler) {}
+
+  @Override
+  public void disableAutoInboundFlowControl() {}
+
+  @Override
+  public void setMessageCompression(boolean enable) {}
+
+  @Override
+  public void onNext(MSG_SubscriptionRequest value) {}
+
+  @Override
+  public void onError(Throwable t) {}
+
+  @Override
+  public void onCompleted() {}
+}
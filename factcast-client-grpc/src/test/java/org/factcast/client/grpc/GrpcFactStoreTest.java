@@ -44,6 +44,7 @@
 import org.factcast.grpc.api.Capabilities;
 import org.factcast.grpc.api.CompressionCodecs;
 import org.factcast.grpc.api.ConditionalPublishRequest;
+import org.factcast.grpc.api.ConditionalPublishSinceRequest;
 import org.factcast.grpc.api.Headers;
 import org.factcast.grpc.api.conv.ProtoConverter;
 import org.factcast.grpc.api.conv.ProtocolVersion;
@@ -136,6 +137,67 @@ void configureCompressionSkipCompression() {
     verify(grpcStubs, never()).compression(anyString());
   }
 
+  @Test
+  void requestsTypedFactsIfEnabledAndSupported() {
+    Map<String, String> serverProps = new HashMap<>();
+    serverProps.put(Capabilities.TYPED_FACTS.toString(), "true");
+    when(uncompressedBlockingStub.handshake(any()))
+        .thenReturn(conv.toProto(ServerConfig.of(PROTOCOL_VERSION, serverProps)));
+    when(properties.isEnableTypedFacts()).thenReturn(true);
+    uut.reset();
+    uut.initializeIfNecessary();
+    verify(grpcStubs).typedFacts(true);
+  }
+
+  @Test
+  void skipsTypedFactsIfNotSupported() {
+    when(properties.isEnableTypedFacts()).thenReturn(true);
+    uut.reset();
+    uut.initializeIfNecessary();
+    verify(grpcStubs).typedFacts(false);
+  }
+
+  @Test
+  void skipsTypedFactsIfNotEnabled() {
+    Map<String, String> serverProps = new HashMap<>();
+    serverProps.put(Capabilities.TYPED_FACTS.toString(), "true");
+    when(uncompressedBlockingStub.handshake(any()))
+        .thenReturn(conv.toProto(ServerConfig.of(PROTOCOL_VERSION, serverProps)));
+    uut.reset();
+    uut.initializeIfNecessary();
+    verify(grpcStubs).typedFacts(false);
+  }
+
+  @Test
+  void supportsPublishIfUnchangedSinceIfServerDoes() {
+    Map<String, String> serverProps = new HashMap<>();
+    serverProps.put(Capabilities.PUBLISH_IF_UNCHANGED_SINCE.toString(), "true");
+    when(uncompressedBlockingStub.handshake(any()))
+        .thenReturn(conv.toProto(ServerConfig.of(PROTOCOL_VERSION, serverProps)));
+    uut.reset();
+    uut.initializeIfNecessary();
+    assertThat(uut.supportsPublishIfUnchangedSince()).isTrue();
+  }
+
+  @Test
+  void handshakesBeforeTellingIfPublishIfUnchangedSinceIsSupported() {
+    Map<String, String> serverProps = new HashMap<>();
+    serverProps.put(Capabilities.PUBLISH_IF_UNCHANGED_SINCE.toString(), "true");
+    when(uncompressedBlockingStub.handshake(any()))
+        .thenReturn(conv.toProto(ServerConfig.of(PROTOCOL_VERSION, serverProps)));
+    uut.reset();
+
+    assertThat(uut.supportsPublishIfUnchangedSince()).isTrue();
+    verify(uncompressedBlockingStub).handshake(any());
+  }
+
+  @Test
+  void doesNotSupportPublishIfUnchangedSinceOnOlderServers() {
+    uut.reset();
+    uut.initializeIfNecessary();
+    assertThat(uut.supportsPublishIfUnchangedSince()).isFalse();
+  }
+
   @Test
   void configureWithFastForwardEnabled() {
     when(properties.isEnableFastForward()).thenReturn(true);
@@ -519,6 +581,30 @@ void testPublishIfUnchangedNegative() {
     }
   }
 
+  @Test
+  void testPublishIfUnchangedSince() {
+    TestFact fact = new TestFact();
+    List<FactSpec> specs = Collections.singletonList(FactSpec.ns("foo"));
+    when(blockingStub.publishIfUnchangedSince(any())).thenReturn(conv.toProto(false));
+
+    assertThat(uut.publishIfUnchangedSince(Collections.singletonList(fact), specs, 42)).isFalse();
+
+    verify(blockingStub)
+        .publishIfUnchangedSince(
+            conv.toProto(
+                new ConditionalPublishSinceRequest(Collections.singletonList(fact), specs, 42)));
+  }
+
+  @Test
+  void testPublishIfUnchangedSinceNegative() {
+    when(blockingStub.publishIfUnchangedSince(any()))
+        .thenThrow(new StatusRuntimeException(Status.UNAVAILABLE));
+    List<FactSpec> specs = Collections.singletonList(FactSpec.ns("foo"));
+
+    assertThatThrownBy(() -> uut.publishIfUnchangedSince(Collections.emptyList(), specs, 42))
+        .isInstanceOf(RetryableException.class);
+  }
+
   @Test
   void testInternalSubscribe() {
     assertThrows(
@@ -543,6 +629,25 @@ void testSubscribeWithoutResilience() {
     assertThat(s).isInstanceOf(Subscription.class).isNotInstanceOf(ResilientGrpcSubscription.class);
   }
 
+  @Test
+  void testSubscribeWithBufferedDispatch() {
+    Channel channel = mock(Channel.class);
+    ClientCall call = mock(ClientCall.class);
+    when(nonBlockingStub.getCallOptions()).thenReturn(CallOptions.DEFAULT);
+    when(nonBlockingStub.getChannel()).thenReturn(channel);
+    when(channel.newCall(any(), any())).thenReturn(call);
+    when(properties.isEnableBufferedDispatch()).thenReturn(true);
+    when(properties.getDispatchBufferSize()).thenReturn(8);
+
+    resilienceConfig.setEnabled(false);
+    SubscriptionRequestTO req =
+        new SubscriptionRequestTO(SubscriptionRequest.catchup(FactSpec.ns("foo")).fromScratch());
+    uut.subscribe(req, elements -> {});
+
+    // flow control is manual, starting with the buffer size
+    verify(call).request(8);
+  }
+
   @Test
   void testSubscribeWithResilience() {
     resilienceConfig.setEnabled(true);
@@ -21,6 +21,7 @@
 import java.util.concurrent.TimeUnit;
 import lombok.NonNull;
 import org.assertj.core.api.Assertions;
+import org.factcast.grpc.api.Headers;
 import org.factcast.grpc.api.gen.RemoteFactStoreGrpc;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -187,4 +188,29 @@ void withCompression() {
       Assertions.assertThat(stub.getCallOptions().getCompressor()).isEqualTo(COMP);
     }
   }
+
+  @Test
+  void typedFactsAttachHeader() {
+    underTest = new GrpcStubsImpl(factory, CHANNEL_NAME, meta, null, properties);
+    RemoteFactStoreGrpc.RemoteFactStoreStub stub =
+        mock(RemoteFactStoreGrpc.RemoteFactStoreStub.class);
+    when(stub.withInterceptors(any())).thenReturn(stub);
+    underTest.typedFacts(true);
+    underTest.configureTypedFacts(stub);
+    ArgumentCaptor<ClientInterceptor> captor = ArgumentCaptor.forClass(ClientInterceptor.class);
+    verify(stub).withInterceptors(captor.capture());
+
+    Assertions.assertThat(captor.getValue())
+        .extracting("extraHeaders")
+        .satisfies(h -> Assertions.assertThat(((Metadata) h).get(Headers.TYPED_FACTS)).isNotNull());
+  }
+
+  @Test
+  void noTypedFactsHeaderByDefault() {
+    underTest = new GrpcStubsImpl(factory, CHANNEL_NAME, meta, null, properties);
+    RemoteFactStoreGrpc.RemoteFactStoreStub stub =
+        mock(RemoteFactStoreGrpc.RemoteFactStoreStub.class);
+    Assertions.assertThat(underTest.configureTypedFacts(stub)).isSameAs(stub);
+    verifyNoInteractions(stub);
+  }
 }
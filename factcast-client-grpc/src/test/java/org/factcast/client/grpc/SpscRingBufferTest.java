@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.client.grpc;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class SpscRingBufferTest {
+
+  @Test
+  void rejectsNonPositiveCapacity() {
+    assertThatThrownBy(() -> new SpscRingBuffer<String>(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void roundsCapacityToPowerOfTwo() {
+    assertThat(new SpscRingBuffer<String>(1).capacity()).isEqualTo(1);
+    assertThat(new SpscRingBuffer<String>(8).capacity()).isEqualTo(8);
+    assertThat(new SpscRingBuffer<String>(9).capacity()).isEqualTo(16);
+  }
+
+  @Test
+  void keepsOrderAndBounds() {
+    SpscRingBuffer<Integer> uut = new SpscRingBuffer<>(4);
+    assertThat(uut.isEmpty()).isTrue();
+    assertThat(uut.poll()).isNull();
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(uut.offer(i)).isTrue();
+    }
+    assertThat(uut.offer(4)).isFalse();
+    assertThat(uut.size()).isEqualTo(4);
+
+    assertThat(uut.poll()).isEqualTo(0);
+    assertThat(uut.offer(4)).isTrue();
+    assertThat(uut.poll()).isEqualTo(1);
+    assertThat(uut.poll()).isEqualTo(2);
+    assertThat(uut.poll()).isEqualTo(3);
+    assertThat(uut.poll()).isEqualTo(4);
+    assertThat(uut.isEmpty()).isTrue();
+  }
+
+  @Test
+  @SneakyThrows
+  void handsOverBetweenThreads() {
+    int count = 100_000;
+    SpscRingBuffer<Integer> uut = new SpscRingBuffer<>(16);
+    List<Integer> received = new ArrayList<>(count);
+
+    ExecutorService es = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> consumer =
+          es.submit(
+              () -> {
+                while (received.size() < count) {
+                  Integer i = uut.poll();
+                  if (i != null) {
+                    received.add(i);
+                  } else {
+                    Thread.onSpinWait();
+                  }
+                }
+              });
+
+      for (int i = 0; i < count; i++) {
+        while (!uut.offer(i)) {
+          Thread.onSpinWait();
+        }
+      }
+      consumer.get(10, TimeUnit.SECONDS);
+    } finally {
+      es.shutdownNow();
+    }
+
+    for (int i = 0; i < count; i++) {
+      assertThat(received.get(i)).isEqualTo(i);
+    }
+  }
+}
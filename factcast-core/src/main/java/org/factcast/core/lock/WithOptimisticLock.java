@@ -45,12 +45,21 @@ public class WithOptimisticLock {
   @NonNull
   public PublishingResult attempt(@NonNull Attempt operation)
       throws AttemptAbortedException, OptimisticRetriesExceededException, ExceptionAfterPublish {
+    // without tokens, there is nothing to create upfront or to invalidate afterwards
+    boolean withoutToken = store.supportsPublishIfUnchangedSince();
+
     while (++count <= retry) {
 
       boolean publishIfUnchanged = false;
 
       // fetch current state
-      StateToken token = store.currentStateFor(factSpecs);
+      long serial = 0;
+      StateToken token = null;
+      if (withoutToken) {
+        serial = store.latestSerial();
+      } else {
+        token = store.currentStateFor(factSpecs);
+      }
 
       try {
 
@@ -74,7 +83,11 @@ public PublishingResult attempt(@NonNull Attempt operation)
         publishIfUnchanged = true;
 
         // try to publish
-        if (store.publishIfUnchanged(r.factsToPublish(), Optional.of(token))) {
+        boolean published =
+            withoutToken
+                ? store.publishIfUnchangedSince(factsToPublish, factSpecs, serial)
+                : store.publishIfUnchanged(factsToPublish, Optional.of(token));
+        if (published) {
 
           executeAndThen(r, factsToPublish);
 
@@ -85,7 +98,7 @@ public PublishingResult attempt(@NonNull Attempt operation)
           sleep();
         }
       } finally {
-        if (!publishIfUnchanged) {
+        if (!publishIfUnchanged && token != null) {
           store.invalidate(token);
         }
       }
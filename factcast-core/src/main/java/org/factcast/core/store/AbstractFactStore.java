@@ -57,6 +57,24 @@ public boolean publishIfUnchanged(
     }
   }
 
+  @Override
+  public boolean publishIfUnchangedSince(
+      @NonNull List<? extends Fact> factsToPublish,
+      @NonNull Collection<FactSpec> specs,
+      long serial) {
+    if (isStateUnchanged(State.of(specs, serial))) {
+      publish(factsToPublish);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean supportsPublishIfUnchangedSince() {
+    return true;
+  }
+
   @Override
   public void invalidate(@NonNull StateToken token) {
     tokenStore.invalidate(token);
@@ -60,6 +60,79 @@ public interface FactStore {
   boolean publishIfUnchanged(
       @NonNull List<? extends Fact> factsToPublish, @NonNull Optional<StateToken> token);
 
+  /**
+   * Publishes a large number of facts, for instance when migrating or importing into a fresh
+   * store, in a way that is faster than {@link #publish(List)} for thousands of facts. Like
+   * publish, all the given facts are published or none of them, so that callers importing millions
+   * of facts are expected to call this once per chunk.
+   *
+   * @since 0.12.2
+   */
+  default void publishBulk(@NonNull List<? extends Fact> factsToPublish) {
+    throw new UnsupportedOperationException("publishBulk is not supported");
+  }
+
+  /**
+   * @return true, if {@link #publishBulk(List)} can be used
+   * @since 0.12.2
+   */
+  default boolean supportsPublishBulk() {
+    return false;
+  }
+
+  /**
+   * Publishes the given facts, if no fact matching the given specs has been published after the
+   * given serial. Other than {@link #publishIfUnchanged(List, Optional)}, this needs no state token
+   * to be created (and invalidated) beforehand.
+   *
+   * @param serial the serial the caller based its decision on, for instance the latest serial
+   *     before it started
+   * @return false, if a fact matching the specs has been published after the given serial
+   * @since 0.12.2
+   */
+  default boolean publishIfUnchangedSince(
+      @NonNull List<? extends Fact> factsToPublish,
+      @NonNull Collection<FactSpec> specs,
+      long serial) {
+    throw new UnsupportedOperationException("publishIfUnchangedSince is not supported");
+  }
+
+  /**
+   * @return true, if {@link #publishIfUnchangedSince(List, Collection, long)} can be used
+   * @since 0.12.2
+   */
+  default boolean supportsPublishIfUnchangedSince() {
+    return false;
+  }
+
+  /**
+   * Fetches one page of raw facts matching the given specs, with a serial greater than afterSerial
+   * and not greater than untilSerial. Other than a catchup subscription, this only reads the facts
+   * of the requested page, so that paging through a large store by passing the last serial seen
+   * (keyset pagination) costs the same for every page.
+   *
+   * @param descending if true, the page contains the facts right before (and including)
+   *     untilSerial, newest first; otherwise the facts right after afterSerial, oldest first
+   * @since 0.12.2
+   */
+  @NonNull
+  default List<Fact> fetchPage(
+      @NonNull Collection<FactSpec> specs,
+      long afterSerial,
+      long untilSerial,
+      int limit,
+      boolean descending) {
+    throw new UnsupportedOperationException("fetchPage is not supported");
+  }
+
+  /**
+   * @return true, if {@link #fetchPage(Collection, long, long, int, boolean)} can be used
+   * @since 0.12.2
+   */
+  default boolean supportsFetchPage() {
+    return false;
+  }
+
   @NonNull
   StateToken stateFor(@NonNull Collection<FactSpec> specs);
 
@@ -15,8 +15,15 @@
  */
 package org.factcast.core.lock;
 
-import java.util.Collections;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+import org.factcast.core.Fact;
+import org.factcast.core.spec.FactSpec;
 import org.factcast.core.store.FactStore;
+import org.factcast.core.store.StateToken;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
 
@@ -30,4 +37,49 @@ void attemptReturnsNullShouldBeAnAbort() {
 
     Assertions.assertThrows(AttemptAbortedException.class, () -> uut.attempt(() -> null));
   }
+
+  @Nested
+  class WhenStoreSupportsPublishIfUnchangedSince {
+    final FactStore store = mock(FactStore.class);
+    final List<FactSpec> specs = List.of(FactSpec.ns("ns"));
+    final Fact fact = Fact.builder().ns("ns").buildWithoutPayload();
+
+    @BeforeEach
+    void setup() {
+      when(store.supportsPublishIfUnchangedSince()).thenReturn(true);
+    }
+
+    @Test
+    void publishesWithoutToken() throws Exception {
+      when(store.latestSerial()).thenReturn(42L);
+      when(store.publishIfUnchangedSince(List.of(fact), specs, 42L)).thenReturn(true);
+
+      PublishingResult result =
+          new WithOptimisticLock(store, specs).attempt(() -> Attempt.publish(fact));
+
+      assertThat(result.publishedFacts()).containsExactly(fact);
+      verify(store, never()).currentStateFor(any());
+      verify(store, never()).invalidate(any());
+    }
+
+    @Test
+    void retriesWithLatestSerial() throws Exception {
+      when(store.latestSerial()).thenReturn(42L, 43L);
+      when(store.publishIfUnchangedSince(List.of(fact), specs, 42L)).thenReturn(false);
+      when(store.publishIfUnchangedSince(List.of(fact), specs, 43L)).thenReturn(true);
+
+      new WithOptimisticLock(store, specs).attempt(() -> Attempt.publish(fact));
+
+      verify(store, times(2)).latestSerial();
+    }
+
+    @Test
+    void abortsWithoutInvalidation() {
+      WithOptimisticLock uut = new WithOptimisticLock(store, specs);
+
+      assertThatThrownBy(() -> uut.attempt(() -> Attempt.abort("no")))
+          .isInstanceOf(AttemptAbortedException.class);
+      verify(store, never()).invalidate(any(StateToken.class));
+    }
+  }
 }
@@ -91,6 +91,26 @@ void shouldPublishIfStateUnchanged() {
     assert published;
   }
 
+  @Test
+  void shouldPublishIfUnchangedSinceSerial() {
+    List<FactSpec> specs = Arrays.asList(FactSpec.ns("foo"));
+    when(uut.getStateFor(specs, 7L)).thenReturn(State.of(specs, 0L));
+    boolean published = uut.publishIfUnchangedSince(Lists.emptyList(), specs, 7L);
+    verify(uut).publish(any());
+    verifyNoInteractions(tokenStore);
+    assert published;
+  }
+
+  @Test
+  void shouldNotPublishIfChangedSinceSerial() {
+    List<FactSpec> specs = Arrays.asList(FactSpec.ns("foo"));
+    when(uut.getStateFor(specs, 7L)).thenReturn(State.of(specs, 8L));
+    boolean published = uut.publishIfUnchangedSince(Lists.emptyList(), specs, 7L);
+    verify(uut, never()).publish(any());
+    verifyNoInteractions(tokenStore);
+    assert !published;
+  }
+
   @Test
   void shouldCallInvalidateOnTokenStore() {
     StateToken token = new StateToken(UUID.randomUUID());
@@ -34,6 +34,7 @@
 import org.factcast.core.spec.FactSpec;
 import org.factcast.core.subscription.*;
 import org.factcast.core.subscription.observer.FactObserver;
+import org.factcast.factus.aggregate.cache.*;
 import org.factcast.factus.batch.*;
 import org.factcast.factus.event.*;
 import org.factcast.factus.event.EventObject;
@@ -276,11 +277,32 @@ public <A extends Aggregate> Optional<A> find(
     return factusMetrics.timed(
         TimedOperation.FIND_DURATION,
         Tags.of(Tag.of(CLASS, aggregateClass.getName())),
-        () -> doFind(aggregateClass, aggregateId));
+        () -> doFind(aggregateClass, aggregateId).map(ProjectionAndState::projectionInstance));
   }
 
+  @Override
+  @NonNull
+  public <A extends Aggregate> Optional<A> find(
+      @NonNull AggregateCache<A> cache, @NonNull UUID aggregateId) {
+    if (cache instanceof ApplyForwardAggregateCache<A> applyForward) {
+      Class<A> aggregateClass = cache.aggregateType();
+      return applyForward.find(
+          aggregateId,
+          () ->
+              factusMetrics.timed(
+                  TimedOperation.FIND_DURATION,
+                  Tags.of(Tag.of(CLASS, aggregateClass.getName())),
+                  () -> doFind(aggregateClass, aggregateId)));
+    }
+    return Factus.super.find(cache, aggregateId);
+  }
+
+  /**
+   * @return the aggregate along with the id of the last fact applied to it
+   */
   @SneakyThrows
-  private <A extends Aggregate> Optional<A> doFind(Class<A> aggregateClass, UUID aggregateId) {
+  private <A extends Aggregate> Optional<ProjectionAndState<A>> doFind(
+      Class<A> aggregateClass, UUID aggregateId) {
     assertNotClosed();
 
     ProjectionAndState<A> projectionAndState =
@@ -306,9 +328,10 @@ void createSnapshot(Aggregate projection, UUID state) {
       if (projectionAndState.lastFactIdApplied() == null) {
         return Optional.empty();
       }
+      state = projectionAndState.lastFactIdApplied();
     }
 
-    return Optional.of(aggregate);
+    return Optional.of(ProjectionAndState.of(aggregate, state));
   }
 
   private <P extends Projection> void catchupProjection(
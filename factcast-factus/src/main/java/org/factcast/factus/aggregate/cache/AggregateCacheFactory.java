@@ -17,11 +17,14 @@
 
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.Nullable;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.factcast.factus.Factus;
 import org.factcast.factus.projection.Aggregate;
 import org.factcast.factus.projector.FactSpecProvider;
+import org.factcast.factus.projector.ProjectorFactory;
+import org.factcast.factus.snapshot.SnapshotSerializerSelector;
 import org.springframework.beans.factory.DisposableBean;
 
 @Slf4j
@@ -29,8 +32,14 @@
 public class AggregateCacheFactory implements DisposableBean {
   @NonNull private final Factus factus;
   @NonNull private final FactSpecProvider specProvider;
+  @Nullable private final ProjectorFactory projectorFactory;
+  @Nullable private final SnapshotSerializerSelector serializerSelector;
   private List<DefaultAggregateCache<?>> caches = new CopyOnWriteArrayList<>();
 
+  public AggregateCacheFactory(@NonNull Factus factus, @NonNull FactSpecProvider specProvider) {
+    this(factus, specProvider, null, null);
+  }
+
   @NonNull
   public <T extends Aggregate> AggregateCache<T> create(
       @NonNull Class<T> aggregateClass, int cacheSize) {
@@ -47,6 +56,37 @@ public <T extends Aggregate> AggregateCache<T> create(@NonNull Class<T> aggregat
     return create(aggregateClass, DefaultAggregateCache.DEFAULT_CACHE_SIZE);
   }
 
+  /**
+   * creates a cache that applies followed facts to the cached aggregates rather than invalidating
+   * them.
+   *
+   * @see ApplyForwardAggregateCache
+   */
+  @NonNull
+  public <T extends Aggregate> ApplyForwardAggregateCache<T> createApplyForward(
+      @NonNull Class<T> aggregateClass, int cacheSize) {
+    if (projectorFactory == null || serializerSelector == null) {
+      throw new IllegalStateException(
+          "Apply-forward caches need a ProjectorFactory and a SnapshotSerializerSelector to be"
+              + " passed to the AggregateCacheFactory");
+    }
+    ApplyForwardAggregateCache<T> c =
+        new ApplyForwardAggregateCache<>(
+            aggregateClass,
+            cacheBuilder -> cacheBuilder.maximumSize(cacheSize),
+            projectorFactory,
+            serializerSelector.selectSeralizerFor(aggregateClass));
+    caches.add(c);
+    c.start(factus, specProvider);
+    return c;
+  }
+
+  @NonNull
+  public <T extends Aggregate> ApplyForwardAggregateCache<T> createApplyForward(
+      @NonNull Class<T> aggregateClass) {
+    return createApplyForward(aggregateClass, DefaultAggregateCache.DEFAULT_CACHE_SIZE);
+  }
+
   @Override
   public void destroy() throws Exception {
     for (DefaultAggregateCache<?> c : caches) {
@@ -0,0 +1,306 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.factus.aggregate.cache;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import javax.annotation.Nullable;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.factcast.core.Fact;
+import org.factcast.core.FactStreamPosition;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.core.subscription.observer.FactObserver;
+import org.factcast.factus.Factus;
+import org.factcast.factus.FilterByAggIdProperty;
+import org.factcast.factus.projection.Aggregate;
+import org.factcast.factus.projector.*;
+import org.factcast.factus.serializer.SnapshotSerializer;
+import org.factcast.factus.snapshot.ProjectionAndState;
+
+/**
+ * Aggregate cache that applies followed facts to the cached aggregates, rather than just
+ * invalidating them, so that hot aggregates do not need to be reloaded after every change.
+ *
+ * <p>The position of the last fact applied is tracked per cached aggregate, so that facts already
+ * contained in a freshly loaded aggregate are not applied twice. Whenever applying is not possible
+ * (unknown position, failing handler, aggregate filtering by aggId property), the aggregate is
+ * invalidated as in {@link DefaultAggregateCache}.
+ *
+ * <p>Followed facts are applied to a copy of the cached aggregate (made via its snapshot
+ * serializer), which then replaces it. Aggregates handed out by {@link #find} are never changed
+ * afterward, so that callers can read them without synchronization.
+ */
+@Slf4j
+public class ApplyForwardAggregateCache<A extends Aggregate> extends DefaultAggregateCache<A> {
+
+  private final ProjectorFactory projectorFactory;
+  private final SnapshotSerializer serializer;
+
+  // identity based, so that an entry vanishes as soon as its aggregate is evicted and collected.
+  private final ConcurrentMap<A, FactStreamPosition> entries = new MapMaker().weakKeys().makeMap();
+  // outlives evicted aggregates, so that reloading them needs no lookup of the serial
+  private final Cache<UUID, FactStreamPosition> knownPositions;
+  private final ConcurrentMap<UUID, Loading> loading = new ConcurrentHashMap<>();
+
+  private Factus factus;
+  private boolean applyForward;
+
+  ApplyForwardAggregateCache(
+      @NonNull Class<A> aggregateType,
+      @NonNull Consumer<CacheBuilder<?, ?>> configurer,
+      @NonNull ProjectorFactory projectorFactory,
+      @NonNull SnapshotSerializer serializer) {
+    super(aggregateType, configurer);
+    this.projectorFactory = projectorFactory;
+    this.serializer = serializer;
+    CacheBuilder<?, ?> builder = CacheBuilder.newBuilder();
+    configurer.accept(builder);
+    this.knownPositions = (Cache<UUID, FactStreamPosition>) builder.build();
+  }
+
+  @Override
+  protected void start(Factus factus, FactSpecProvider factSpecProvider) {
+    this.factus = factus;
+    applyForward = canApplyForward(aggregateType(), factSpecProvider.forSnapshot(aggregateType()));
+    if (!applyForward) {
+      log.info(
+          "{} filters by aggregate id property or static ids, falling back to invalidation.",
+          aggregateType().getSimpleName());
+    }
+    super.start(factus, factSpecProvider);
+  }
+
+  /**
+   * the subscription of the cache follows the specs without aggregate ids, so it can only decide
+   * on the applicability of a fact, if the handlers do not filter by anything else than the facts
+   * aggregate ids.
+   */
+  @VisibleForTesting
+  static boolean canApplyForward(
+      @NonNull Class<? extends Aggregate> type, @NonNull Collection<FactSpec> specs) {
+    for (FactSpec spec : specs) {
+      if (!spec.aggIds().isEmpty() || !spec.aggIdProperties().isEmpty()) {
+        return false;
+      }
+    }
+    for (Class<?> c = type; c != null && c != Aggregate.class; c = c.getSuperclass()) {
+      for (Method m : c.getDeclaredMethods()) {
+        if (m.isAnnotationPresent(FilterByAggIdProperty.class)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the cached aggregate, or loads it and adds it to the cache along with the position of
+   * the last fact applied, if no fact for it was followed while loading.
+   *
+   * @param loader returns the aggregate and the id of the last fact applied to it
+   */
+  @NonNull
+  public Optional<A> find(
+      @NonNull UUID aggregateId, @NonNull Supplier<Optional<ProjectionAndState<A>>> loader) {
+    A cached = get(aggregateId);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+
+    loading.compute(aggregateId, (k, l) -> l == null ? new Loading() : l.begin());
+    A loaded = null;
+    FactStreamPosition position = null;
+    try {
+      Optional<ProjectionAndState<A>> found = loader.get();
+      if (found.isPresent()) {
+        loaded = found.get().projectionInstance();
+        position = positionOf(aggregateId, found.get().lastFactIdApplied());
+      }
+      return Optional.ofNullable(loaded);
+    } finally {
+      A aggregate = loaded;
+      FactStreamPosition pos = position;
+      loading.computeIfPresent(
+          aggregateId,
+          (k, l) -> {
+            if (aggregate != null) {
+              cacheLoaded(aggregateId, aggregate, pos, l.maxSerialSeen);
+            }
+            return l.end();
+          });
+    }
+  }
+
+  @Nullable
+  private FactStreamPosition positionOf(UUID aggregateId, @Nullable UUID lastFactIdApplied) {
+    if (lastFactIdApplied == null || !applyForward) {
+      return null;
+    }
+    FactStreamPosition known = knownPositions.getIfPresent(aggregateId);
+    if (known != null && known.factId().equals(lastFactIdApplied)) {
+      return known;
+    }
+    OptionalLong serial = factus.serialOf(lastFactIdApplied);
+    return serial.isPresent() ? FactStreamPosition.of(lastFactIdApplied, serial.getAsLong()) : null;
+  }
+
+  // called with the loading entry locked, so that no fact for this aggregate can slip through
+  private void cacheLoaded(
+      UUID aggregateId, A aggregate, @Nullable FactStreamPosition pos, long maxSerialSeen) {
+    if (maxSerialSeen == Loading.NONE) {
+      if (pos != null) {
+        track(aggregateId, aggregate, pos);
+      }
+      put(aggregateId, aggregate);
+    } else if (pos != null && maxSerialSeen <= pos.serial()) {
+      // everything followed while loading was already contained
+      track(aggregateId, aggregate, pos);
+      put(aggregateId, aggregate);
+    }
+    // otherwise, facts were followed that the loaded aggregate might lack, so we do not cache it
+  }
+
+  @Override
+  @VisibleForTesting
+  @NonNull
+  FactObserver createFactObserver() {
+    FactObserver invalidating = super.createFactObserver();
+    return new FactObserver() {
+      @Override
+      public void onNext(@NonNull Fact f) {
+        Set<UUID> uuids = f.header().aggIds();
+        if (uuids == null) {
+          return;
+        }
+        Long serial = f.header().serial();
+        long s = serial == null ? Long.MAX_VALUE : serial;
+        for (UUID id : uuids) {
+          loading.computeIfPresent(id, (k, l) -> l.seen(s));
+          if (!applyTo(id, f)) {
+            invalidate(id);
+          }
+        }
+      }
+
+      @Override
+      public void onError(@NonNull Throwable t) {
+        invalidating.onError(t);
+      }
+    };
+  }
+
+  /**
+   * @return false if the aggregate needs to be invalidated
+   */
+  @VisibleForTesting
+  boolean applyTo(@NonNull UUID aggregateId, @NonNull Fact f) {
+    // only called from the subscription, so that there is no concurrent applying
+    A aggregate = get(aggregateId);
+    if (aggregate == null) {
+      return true;
+    }
+    FactStreamPosition position = entries.get(aggregate);
+    if (position == null || f.header().serial() == null) {
+      return false;
+    }
+    FactStreamPosition pos = FactStreamPosition.from(f);
+    if (!pos.isAfter(position)) {
+      // already contained
+      return true;
+    }
+    try {
+      A next = copyOf(aggregate);
+      projectorFactory.create(next).apply(Collections.singletonList(f));
+      track(aggregateId, next, pos);
+      // if the aggregate was evicted or reloaded meanwhile, there is nothing to replace
+      replace(aggregateId, aggregate, next);
+      return true;
+    } catch (Exception ex) {
+      log.warn(
+          "While applying fact {} to cached {}, invalidating.",
+          f.id(),
+          aggregateType().getSimpleName(),
+          ex);
+      entries.remove(aggregate);
+      return false;
+    }
+  }
+
+  private A copyOf(A aggregate) {
+    return serializer.deserialize(aggregateType(), serializer.serialize(aggregate));
+  }
+
+  private void track(UUID aggregateId, A aggregate, FactStreamPosition pos) {
+    entries.put(aggregate, pos);
+    knownPositions.put(aggregateId, pos);
+  }
+
+  @Override
+  public void invalidate(UUID uuid) {
+    A aggregate = get(uuid);
+    if (aggregate != null) {
+      entries.remove(aggregate);
+    }
+    super.invalidate(uuid);
+  }
+
+  @Override
+  void invalidate(@NonNull Set<UUID> uuids) {
+    uuids.forEach(this::invalidate);
+  }
+
+  @Override
+  public void invalidateAll() {
+    entries.clear();
+    super.invalidateAll();
+  }
+
+  @VisibleForTesting
+  @Nullable
+  FactStreamPosition cachedPositionOf(@NonNull A aggregate) {
+    return entries.get(aggregate);
+  }
+
+  /** tracks the followed facts for an aggregate, while it is being loaded. */
+  private static class Loading {
+    static final long NONE = -1;
+
+    private int loads = 1;
+    private long maxSerialSeen = NONE;
+
+    Loading begin() {
+      loads++;
+      return this;
+    }
+
+    @Nullable
+    Loading end() {
+      return --loads == 0 ? null : this;
+    }
+
+    Loading seen(long serial) {
+      maxSerialSeen = Math.max(maxSerialSeen, serial);
+      return this;
+    }
+  }
+}
@@ -80,6 +80,17 @@ public void put(@NonNull UUID id, @NonNull A aggregate) {
     withCache(c -> c.put(id, aggregate));
   }
 
+  /**
+   * replaces the cached aggregate, if it still is the expected instance. Values are soft
+   * referenced, which makes the cache compare them by identity.
+   *
+   * @return true if replaced
+   */
+  boolean replace(@NonNull UUID id, @NonNull A expected, @NonNull A replacement) {
+    Cache<@NonNull UUID, @NonNull A> c = cache.get();
+    return c != null && c.asMap().replace(id, expected, replacement);
+  }
+
   // package private
 
   DefaultAggregateCache(
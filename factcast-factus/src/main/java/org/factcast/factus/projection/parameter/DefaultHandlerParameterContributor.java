@@ -103,12 +103,12 @@ public Object apply(
 @SuppressWarnings({"java:S1872"})
 class MetaProvider implements HandlerParameterProvider {
   private final String key;
-  private final Class<?> targetType;
+  // decided once, rather than per call
+  private final boolean optional;
+  private final boolean multiValued;
 
   public MetaProvider(
       Meta meta, Class<?> targetType, Type genericType, Set<Annotation> annotations) {
-    this.targetType = targetType;
-
     key = meta.value();
 
     checkPreconditionsForAllowedTypes(targetType);
@@ -116,6 +116,9 @@ public MetaProvider(
     checkPreconditionsForString(targetType, annotations);
     checkPreconditionsForOptional(targetType, genericType);
     checkPreconditionsForCollection(targetType, genericType);
+
+    optional = targetType == Optional.class;
+    multiValued = isList(targetType) || isIterable(targetType);
   }
 
   private void checkPreconditionsForCollection(Class<?> targetType, Type genericType) {
@@ -176,22 +179,21 @@ private static void checkPreconditionsForOptional(Class<?> targetType, Type gene
   @Override
   public Object apply(
       @NonNull EventSerializer s, @NonNull Fact fact, @NonNull Projection projection) {
-    String value = fact.header().meta().getFirst(key);
-    if (targetType == Optional.class) {
-      return Optional.ofNullable(value);
+    if (optional) {
+      return Optional.ofNullable(fact.header().meta().getFirst(key));
     }
-    if (isList(targetType) || isIterable(targetType)) {
+    if (multiValued) {
       return fact.header().meta().getAll(key);
     } else {
-      return value;
+      return fact.header().meta().getFirst(key);
     }
   }
 
-  private boolean isList(Class<?> targetType) {
+  private static boolean isList(Class<?> targetType) {
     return targetType.isAssignableFrom(List.class);
   }
 
-  private boolean isIterable(Class<?> targetType) {
+  private static boolean isIterable(Class<?> targetType) {
     return targetType.isAssignableFrom(Iterable.class);
   }
 }
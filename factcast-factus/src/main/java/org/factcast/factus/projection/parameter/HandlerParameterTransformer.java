@@ -15,6 +15,7 @@
  */
 package org.factcast.factus.projection.parameter;
 
+import jakarta.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.*;
@@ -29,6 +30,16 @@
  */
 public interface HandlerParameterTransformer
     extends TriFunction<@NonNull EventSerializer, @NonNull Fact, @NonNull Projection, Object[]> {
+
+  /**
+   * @return the providers per parameter, if known, so that callers can pass parameters without
+   *     creating an array per call. Returns null by default.
+   */
+  @Nullable
+  default HandlerParameterProvider[] providers() {
+    return null;
+  }
+
   @NonNull
   static HandlerParameterTransformer forCalling(
       @NonNull Method m, HandlerParameterContributors handlerParameterContributors) {
@@ -56,16 +67,7 @@ static HandlerParameterTransformer forCalling(
                               + m.toString()));
     }
 
-    // executed per call:
-    return (serializer, fact, p) -> {
-      Object[] parameters = new Object[providers.length];
-
-      for (int i = 0; i < providers.length; i++) {
-        // create parameter for this call
-        parameters[i] = providers[i].apply(serializer, fact, p);
-      }
-      return parameters;
-    };
+    return new ProviderBasedHandlerParameterTransformer(providers);
   }
 
   @NonNull
@@ -80,3 +82,27 @@ static Optional<HandlerParameterProvider> chooseProvider(
         .findFirst();
   }
 }
+
+class ProviderBasedHandlerParameterTransformer implements HandlerParameterTransformer {
+  private final HandlerParameterProvider[] providers;
+
+  ProviderBasedHandlerParameterTransformer(@NonNull HandlerParameterProvider[] providers) {
+    this.providers = providers;
+  }
+
+  @Override
+  public Object[] apply(
+      @NonNull EventSerializer serializer, @NonNull Fact fact, @NonNull Projection p) {
+    Object[] parameters = new Object[providers.length];
+    for (int i = 0; i < providers.length; i++) {
+      // create parameter for this call
+      parameters[i] = providers[i].apply(serializer, fact, p);
+    }
+    return parameters;
+  }
+
+  @Override
+  public HandlerParameterProvider[] providers() {
+    return providers.clone();
+  }
+}
@@ -15,19 +15,23 @@
  */
 package org.factcast.factus.projector;
 
+import jakarta.annotation.Nullable;
+import java.lang.invoke.*;
 import java.lang.reflect.*;
-import lombok.NonNull;
-import lombok.Value;
+import lombok.*;
 import org.factcast.core.Fact;
 import org.factcast.core.spec.FactSpec;
 import org.factcast.core.util.ExceptionHelper;
 import org.factcast.factus.event.EventSerializer;
 import org.factcast.factus.projection.Projection;
-import org.factcast.factus.projection.parameter.HandlerParameterTransformer;
+import org.factcast.factus.projection.parameter.*;
 
 @Value
 class Dispatcher {
 
+  // handlers with up to this number of parameters are called without a parameter array
+  static final int MAX_SPREAD_ARITY = 3;
+
   @NonNull Method dispatchMethod;
   @NonNull HandlerParameterTransformer transformer;
 
@@ -35,13 +39,97 @@ class Dispatcher {
 
   @NonNull FactSpec spec;
 
+  /**
+   * resolved once, shaped as (Object target, Object p0, ...)void if {@link #providers} are
+   * known, or as (Object target, Object[] params)void otherwise. Null if the method is not
+   * accessible, in which case we fall back to reflection.
+   */
+  @Getter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  @Nullable
+  MethodHandle handle;
+
+  @Getter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  @Nullable
+  HandlerParameterProvider[] providers;
+
+  Dispatcher(
+      @NonNull Method dispatchMethod,
+      @NonNull HandlerParameterTransformer transformer,
+      @NonNull ProjectorImpl.TargetObjectResolver objectResolver,
+      @NonNull FactSpec spec) {
+    this.dispatchMethod = dispatchMethod;
+    this.transformer = transformer;
+    this.objectResolver = objectResolver;
+    this.spec = spec;
+
+    HandlerParameterProvider[] p = transformer.providers();
+    if (p != null && p.length > MAX_SPREAD_ARITY) {
+      p = null;
+    }
+    providers = p;
+    handle = createHandle(dispatchMethod, p != null);
+  }
+
+  @Nullable
+  private static MethodHandle createHandle(@NonNull Method m, boolean spread) {
+    MethodHandle mh;
+    try {
+      mh = MethodHandles.lookup().unreflect(m);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+    if (Modifier.isStatic(m.getModifiers())) {
+      mh = MethodHandles.dropArguments(mh, 0, Object.class);
+    }
+    int arity = m.getParameterCount();
+    if (spread) {
+      return mh.asType(MethodType.genericMethodType(arity + 1).changeReturnType(void.class));
+    } else {
+      return mh.asSpreader(Object[].class, arity)
+          .asType(MethodType.methodType(void.class, Object.class, Object[].class));
+    }
+  }
+
   void invoke(
       @NonNull EventSerializer deserializer, @NonNull Projection projection, @NonNull Fact f) {
     // choose the target object (nested)
     Object targetObject = objectResolver.apply(projection);
-    // create actual parameters
-    Object[] parameters = transformer.apply(deserializer, f, projection);
+    if (handle == null) {
+      invokeReflectively(targetObject, transformer.apply(deserializer, f, projection));
+      return;
+    }
     // fire
+    try {
+      if (providers == null) {
+        handle.invokeExact(targetObject, transformer.apply(deserializer, f, projection));
+      } else {
+        switch (providers.length) {
+          case 0 -> handle.invokeExact(targetObject);
+          case 1 ->
+              handle.invokeExact(targetObject, providers[0].apply(deserializer, f, projection));
+          case 2 ->
+              handle.invokeExact(
+                  targetObject,
+                  providers[0].apply(deserializer, f, projection),
+                  providers[1].apply(deserializer, f, projection));
+          default ->
+              handle.invokeExact(
+                  targetObject,
+                  providers[0].apply(deserializer, f, projection),
+                  providers[1].apply(deserializer, f, projection),
+                  providers[2].apply(deserializer, f, projection));
+        }
+      }
+    } catch (Throwable e) {
+      throw ExceptionHelper.toRuntime(e);
+    }
+  }
+
+  private void invokeReflectively(Object targetObject, Object[] parameters) {
     try {
       dispatchMethod.invoke(targetObject, parameters);
     } catch (IllegalAccessException e) {
@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.factus.projector;
+
+import jakarta.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.NonNull;
+import org.factcast.core.spec.FactSpecCoordinates;
+
+/**
+ * Resolves the {@link Dispatcher} for a fact by its namespace, type and version, without creating
+ * a {@link FactSpecCoordinates} instance per fact.
+ *
+ * <p>Dispatchers resolved by wildcard matching can be added later on, so that the matching needs to
+ * happen only once per coordinates.
+ */
+class DispatcherLookup {
+
+  // versions beyond this are not indexed, and will be resolved by matching every time
+  static final int MAX_INDEXED_VERSION = 255;
+
+  private final Map<String, Map<String, Versions>> dispatchers = new ConcurrentHashMap<>();
+
+  DispatcherLookup(@NonNull Map<FactSpecCoordinates, Dispatcher> dispatchInfo) {
+    dispatchInfo.forEach((k, d) -> put(k.ns(), k.type(), k.version(), d));
+  }
+
+  /**
+   * @return the dispatcher for exactly these coordinates, or the one for version 0 as a fallback
+   */
+  @Nullable
+  Dispatcher get(@Nullable String ns, @Nullable String type, int version) {
+    if (ns == null || type == null) {
+      return null;
+    }
+    Map<String, Versions> types = dispatchers.get(ns);
+    if (types == null) {
+      return null;
+    }
+    Versions versions = types.get(type);
+    if (versions == null) {
+      return null;
+    }
+    Dispatcher d = versions.get(version);
+    return d != null ? d : versions.get(0);
+  }
+
+  void put(@Nullable String ns, @Nullable String type, int version, @NonNull Dispatcher d) {
+    if (ns == null || type == null || version < 0 || version > MAX_INDEXED_VERSION) {
+      return;
+    }
+    dispatchers
+        .computeIfAbsent(ns, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(type, k -> new Versions())
+        .put(version, d);
+  }
+
+  /** copy-on-write, as dispatchers are added rarely but looked up per fact. */
+  private static class Versions {
+    private volatile Dispatcher[] byVersion = new Dispatcher[0];
+
+    @Nullable
+    Dispatcher get(int version) {
+      Dispatcher[] a = byVersion;
+      return version >= 0 && version < a.length ? a[version] : null;
+    }
+
+    synchronized void put(int version, @NonNull Dispatcher d) {
+      Dispatcher[] a = Arrays.copyOf(byVersion, Math.max(byVersion.length, version + 1));
+      a[version] = d;
+      byVersion = a;
+    }
+  }
+}
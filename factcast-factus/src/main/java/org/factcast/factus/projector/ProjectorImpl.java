@@ -47,6 +47,8 @@
   @Getter(AccessLevel.PROTECTED)
   private final Map<FactSpecCoordinates, Dispatcher> dispatchInfo;
 
+  private final DispatcherLookup dispatcherLookup;
+
   private final EventSerializer serializer;
   private final HandlerParameterContributors generalContributors;
 
@@ -61,6 +63,7 @@ public ProjectorImpl(
     projection = p;
 
     dispatchInfo = ReflectionUtils.getDispatcherInfo(p, generalContributors);
+    dispatcherLookup = ReflectionUtils.getDispatcherLookup(p, generalContributors);
   }
 
   /**
@@ -183,15 +186,12 @@ private UUID callHandlerFor(@NonNull Fact f)
       throws InvocationTargetException, IllegalAccessException {
     UUID factId = f.id();
     log.trace("Dispatching fact {}", factId);
-    FactSpecCoordinates coords = FactSpecCoordinates.from(f);
-    Dispatcher dispatch = dispatchInfo.get(coords);
-    if (dispatch == null) {
-      // try to find one with no version as a fallback
-      dispatch = dispatchInfo.get(coords.withVersion(0));
-    }
+    // exact or version-less match, resolved without allocation
+    Dispatcher dispatch = dispatcherLookup.get(f.ns(), f.type(), f.version());
 
     if (dispatch == null) {
       // fallback for wildcard usage
+      FactSpecCoordinates coords = FactSpecCoordinates.from(f);
 
       List<Map.Entry<FactSpecCoordinates, Dispatcher>> found =
           dispatchInfo.entrySet().stream().filter(e -> coords.matches(e.getKey())).toList();
@@ -213,7 +213,7 @@ private UUID callHandlerFor(@NonNull Fact f)
 
       dispatch = found.iterator().next().getValue();
 
-      dispatchInfo.put(coords, dispatch);
+      dispatcherLookup.put(coords.ns(), coords.type(), coords.version(), dispatch);
     }
     dispatch.invoke(serializer, projection, f);
     return factId;
@@ -41,6 +41,9 @@ public class ReflectionUtils {
   private static final Map<Class<? extends Projection>, Map<FactSpecCoordinates, Dispatcher>>
       dispatcherCache = new ConcurrentHashMap<>();
 
+  private static final Map<Class<? extends Projection>, DispatcherLookup> dispatcherLookupCache =
+      new ConcurrentHashMap<>();
+
   private static Class<? extends Projection> getRelevantClass(@NonNull Projection p) {
     Class<? extends Projection> c = p.getClass();
     return getRelevantClass(c);
@@ -263,6 +266,13 @@ public static Map<FactSpecCoordinates, Dispatcher> getDispatcherInfo(
         ReflectionUtils.getRelevantClass(p), c -> discoverDispatchInfo(p, generalContributors));
   }
 
+  static DispatcherLookup getDispatcherLookup(
+      @NonNull Projection p, HandlerParameterContributors generalContributors) {
+    return dispatcherLookupCache.computeIfAbsent(
+        ReflectionUtils.getRelevantClass(p),
+        c -> new DispatcherLookup(getDispatcherInfo(p, generalContributors)));
+  }
+
   @SuppressWarnings("java:S3011")
   private Map<FactSpecCoordinates, Dispatcher> discoverDispatchInfo(
       Projection p, HandlerParameterContributors generalContributors) {
@@ -299,6 +309,8 @@ private Map<FactSpecCoordinates, Dispatcher> discoverDispatchInfo(
                     FactSpec fs = ReflectionUtils.discoverFactSpec(p, m);
                     FactSpecCoordinates key = FactSpecCoordinates.from(fs);
 
+                    // needs to happen before the dispatcher resolves its method handle
+                    m.setAccessible(true);
                     Dispatcher dispatcher =
                         new Dispatcher(
                             m,
@@ -317,8 +329,6 @@ private Map<FactSpecCoordinates, Dispatcher> discoverDispatchInfo(
                     }
 
                     log.debug("Discovered Event handling method {}", m);
-
-                    m.setAccessible(true);
                   });
         });
 
@@ -38,6 +38,7 @@
 import org.factcast.core.subscription.*;
 import org.factcast.core.subscription.observer.FactObserver;
 import org.factcast.factus.aggregate.cache.AggregateCache;
+import org.factcast.factus.aggregate.cache.ApplyForwardAggregateCache;
 import org.factcast.factus.batch.*;
 import org.factcast.factus.event.*;
 import org.factcast.factus.event.EventObject;
@@ -150,6 +151,23 @@ void find_withCache_missReturnsEmpty_whenNotFound() {
       verify(cache, never()).put(any(), any());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void find_withApplyForwardCache_delegatesLoading() {
+      // given
+      Agg loaded = new Agg();
+      ApplyForwardAggregateCache<Agg> applyForward = mock(ApplyForwardAggregateCache.class);
+      when(applyForward.aggregateType()).thenReturn(Agg.class);
+      when(applyForward.find(eq(ID), any())).thenReturn(Optional.of(loaded));
+
+      // when
+      Optional<Agg> res = underTest.find(applyForward, ID);
+
+      // then
+      assertThat(res).containsSame(loaded);
+      verify(applyForward, never()).put(any(), any());
+    }
+
     @Test
     void fetch_byClass_unwrapsOrThrows_successPath() {
       // given
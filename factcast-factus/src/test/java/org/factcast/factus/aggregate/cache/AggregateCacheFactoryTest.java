@@ -26,6 +26,9 @@
 import org.factcast.factus.Factus;
 import org.factcast.factus.projection.Aggregate;
 import org.factcast.factus.projector.FactSpecProvider;
+import org.factcast.factus.projector.ProjectorFactory;
+import org.factcast.factus.serializer.SnapshotSerializer;
+import org.factcast.factus.snapshot.SnapshotSerializerSelector;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -74,6 +77,27 @@ void testCreate_withSize() {
     assertThat(result.size()).isEqualTo(7);
   }
 
+  @Test
+  void testCreateApplyForward() {
+    // given
+    SnapshotSerializerSelector selector = mock(SnapshotSerializerSelector.class);
+    when(selector.selectSeralizerFor(TestAggregate.class))
+        .thenReturn(mock(SnapshotSerializer.class));
+    underTest =
+        new AggregateCacheFactory(factus, specProvider, mock(ProjectorFactory.class), selector);
+    when(specProvider.forSnapshot(TestAggregate.class))
+        .thenReturn(Collections.singletonList(FactSpec.ns("ns").type("type")));
+    when(factCast.subscribe(any(), any())).thenReturn(subscription);
+
+    // when
+    AggregateCache<TestAggregate> result = underTest.createApplyForward(TestAggregate.class, 7);
+
+    // then
+    assertThat(result).isInstanceOf(ApplyForwardAggregateCache.class);
+    assertThat(result.aggregateType()).isEqualTo(TestAggregate.class);
+    verify(factCast).subscribe(any(), any());
+  }
+
   @Test
   void testDestroy() throws Exception {
     // given
@@ -0,0 +1,291 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.factus.aggregate.cache;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+import lombok.Value;
+import org.factcast.core.*;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.core.subscription.observer.FactObserver;
+import org.factcast.core.util.FactCastJson;
+import org.factcast.factus.*;
+import org.factcast.factus.event.*;
+import org.factcast.factus.projection.Aggregate;
+import org.factcast.factus.projection.parameter.HandlerParameterContributors;
+import org.factcast.factus.projector.*;
+import org.factcast.factus.serializer.DefaultSnapshotSerializer;
+import org.factcast.factus.snapshot.ProjectionAndState;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ApplyForwardAggregateCacheTest {
+
+  @Mock private Factus factus;
+  @Mock private FactCast factCast;
+  @Mock private FactSpecProvider specProvider;
+
+  private final DefaultEventSerializer serializer =
+      new DefaultEventSerializer(FactCastJson.mapper());
+  private final EventConverter converter = new EventConverter(serializer);
+  private final ProjectorFactory projectorFactory =
+      new DefaultProjectorFactory(serializer, new HandlerParameterContributors());
+
+  private final UUID id = UUID.randomUUID();
+  private final UUID lastFactId = UUID.randomUUID();
+
+  private ApplyForwardAggregateCache<Counter> underTest;
+  private FactObserver observer;
+
+  @Specification(ns = "test")
+  @Value
+  static class Incremented implements EventObject {
+    UUID aggId;
+    boolean fail;
+
+    @Override
+    public Set<UUID> aggregateIds() {
+      return Collections.singleton(aggId);
+    }
+  }
+
+  static class Counter extends Aggregate {
+    int count;
+
+    @Handler
+    void apply(Incremented e) {
+      if (e.fail()) {
+        throw new IllegalStateException("expected");
+      }
+      count++;
+    }
+  }
+
+  static class FilteringCounter extends Counter {
+    @Override
+    @Handler
+    @FilterByAggIdProperty("aggId")
+    void apply(Incremented e) {
+      super.apply(e);
+    }
+  }
+
+  Fact incremented(long serial) {
+    return incremented(serial, false);
+  }
+
+  Fact incremented(long serial, boolean fail) {
+    Fact f = converter.toFact(new Incremented(id, fail));
+    return Fact.builder()
+        .id(f.id())
+        .ns(f.ns())
+        .type(f.type())
+        .aggId(id)
+        .serial(serial)
+        .build(f.jsonPayload());
+  }
+
+  void start(FactSpec spec) {
+    when(factus.factCast()).thenReturn(factCast);
+    when(specProvider.forSnapshot(Counter.class)).thenReturn(Collections.singletonList(spec));
+    underTest =
+        new ApplyForwardAggregateCache<>(
+            Counter.class,
+            b -> b.maximumSize(10),
+            projectorFactory,
+            new DefaultSnapshotSerializer());
+    underTest.start(factus, specProvider);
+    observer = underTest.createFactObserver();
+  }
+
+  Counter load(long serialOfLastFact) {
+    when(factus.serialOf(lastFactId)).thenReturn(OptionalLong.of(serialOfLastFact));
+    Counter c = new Counter();
+    assertThat(underTest.find(id, () -> Optional.of(ProjectionAndState.of(c, lastFactId))))
+        .containsSame(c);
+    return c;
+  }
+
+  @Nested
+  class WhenApplyingForward {
+    @BeforeEach
+    void setUp() {
+      start(FactSpec.ns("test").type("Incremented"));
+    }
+
+    @Test
+    void cachesLoadedAggregateWithPosition() {
+      Counter c = load(5);
+
+      assertThat(underTest.get(id)).isSameAs(c);
+      assertThat(underTest.cachedPositionOf(c)).isEqualTo(FactStreamPosition.of(lastFactId, 5));
+    }
+
+    @Test
+    void returnsCachedWithoutLoading() {
+      Counter c = load(5);
+
+      assertThat(underTest.find(id, () -> fail("must not load"))).containsSame(c);
+    }
+
+    @Test
+    void appliesFollowedFactsToCopy() {
+      Counter c = load(5);
+
+      observer.onNext(incremented(6));
+      observer.onNext(incremented(7));
+
+      Counter cached = underTest.get(id);
+      assertThat(cached).isNotSameAs(c).isEqualTo(c);
+      assertThat(cached.count).isEqualTo(2);
+      assertThat(underTest.cachedPositionOf(cached).serial()).isEqualTo(7);
+      // instances handed out are left untouched
+      assertThat(c.count).isZero();
+      assertThat(underTest.cachedPositionOf(c).serial()).isEqualTo(5);
+    }
+
+    @Test
+    void reusesKnownPositionWhenReloading() {
+      load(5);
+      observer.onNext(incremented(6));
+      Fact last = incremented(7);
+      observer.onNext(last);
+      underTest.invalidate(id);
+
+      Counter c = new Counter();
+      underTest.find(id, () -> Optional.of(ProjectionAndState.of(c, last.id())));
+
+      assertThat(underTest.get(id)).isSameAs(c);
+      assertThat(underTest.cachedPositionOf(c)).isEqualTo(FactStreamPosition.of(last.id(), 7));
+      verify(factus, never()).serialOf(last.id());
+    }
+
+    @Test
+    void skipsFactsAlreadyApplied() {
+      Counter c = load(5);
+
+      observer.onNext(incremented(4));
+      observer.onNext(incremented(5));
+
+      assertThat(underTest.get(id)).isSameAs(c);
+      assertThat(c.count).isZero();
+    }
+
+    @Test
+    void doesNotCacheIfFactsWereFollowedWhileLoading() {
+      when(factus.serialOf(lastFactId)).thenReturn(OptionalLong.of(5));
+      Counter c = new Counter();
+
+      Optional<Counter> found =
+          underTest.find(
+              id,
+              () -> {
+                observer.onNext(incremented(6));
+                return Optional.of(ProjectionAndState.of(c, lastFactId));
+              });
+
+      assertThat(found).containsSame(c);
+      assertThat(underTest.get(id)).isNull();
+    }
+
+    @Test
+    void cachesIfFactsFollowedWhileLoadingWereContained() {
+      when(factus.serialOf(lastFactId)).thenReturn(OptionalLong.of(6));
+      Counter c = new Counter();
+
+      underTest.find(
+          id,
+          () -> {
+            observer.onNext(incremented(6));
+            return Optional.of(ProjectionAndState.of(c, lastFactId));
+          });
+
+      assertThat(underTest.get(id)).isSameAs(c);
+    }
+
+    @Test
+    void doesNotCacheMissingAggregate() {
+      assertThat(underTest.find(id, Optional::empty)).isEmpty();
+      assertThat(underTest.size()).isZero();
+      verify(factus, never()).serialOf(any());
+    }
+
+    @Test
+    void invalidatesWithoutPosition() {
+      underTest.put(id, new Counter());
+
+      observer.onNext(incremented(6));
+
+      assertThat(underTest.get(id)).isNull();
+    }
+
+    @Test
+    void invalidatesIfApplyFails() {
+      Counter c = load(5);
+
+      observer.onNext(incremented(6, true));
+
+      assertThat(underTest.get(id)).isNull();
+      assertThat(underTest.cachedPositionOf(c)).isNull();
+    }
+
+    @Test
+    void invalidatesFactWithoutSerial() {
+      load(5);
+
+      observer.onNext(converter.toFact(new Incremented(id, false)));
+
+      assertThat(underTest.get(id)).isNull();
+    }
+  }
+
+  @Nested
+  class WhenNotApplicable {
+    @Test
+    void fallsBackToInvalidation() {
+      start(FactSpec.ns("test").type("Incremented").aggId(UUID.randomUUID()));
+      Counter c = new Counter();
+
+      underTest.find(id, () -> Optional.of(ProjectionAndState.of(c, lastFactId)));
+      assertThat(underTest.get(id)).isSameAs(c);
+      verify(factus, never()).serialOf(any());
+
+      observer.onNext(incremented(6));
+      assertThat(underTest.get(id)).isNull();
+      assertThat(c.count).isZero();
+    }
+
+    @Test
+    void detectsFilterByAggIdProperty() {
+      assertThat(
+              ApplyForwardAggregateCache.canApplyForward(
+                  FilteringCounter.class,
+                  Collections.singletonList(FactSpec.ns("test").type("Incremented"))))
+          .isFalse();
+      assertThat(
+              ApplyForwardAggregateCache.canApplyForward(
+                  Counter.class,
+                  Collections.singletonList(FactSpec.ns("test").type("Incremented"))))
+          .isTrue();
+    }
+  }
+}
@@ -89,6 +89,21 @@ void testInvalidate() {
       assertThat(underTest.get(id)).isNull();
     }
 
+    @Test
+    void testReplaceComparesByIdentity() {
+      UUID id = UUID.randomUUID();
+      TestAggregate agg = new TestAggregate();
+      TestAggregate replacement = new TestAggregate();
+      underTest.put(id, agg);
+
+      // equal, but not the cached instance
+      assertThat(underTest.replace(id, new TestAggregate(), replacement)).isFalse();
+      assertThat(underTest.get(id)).isSameAs(agg);
+
+      assertThat(underTest.replace(id, agg, replacement)).isTrue();
+      assertThat(underTest.get(id)).isSameAs(replacement);
+    }
+
     @Test
     void testInvalidateAll() {
       underTest.put(UUID.randomUUID(), new TestAggregate());
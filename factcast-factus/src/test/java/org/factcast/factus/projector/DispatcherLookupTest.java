@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.factus.projector;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.*;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.core.spec.FactSpecCoordinates;
+import org.junit.jupiter.api.Test;
+
+class DispatcherLookupTest {
+
+  final Dispatcher v1 = mock(Dispatcher.class);
+  final Dispatcher v0 = mock(Dispatcher.class);
+  final Dispatcher other = mock(Dispatcher.class);
+
+  DispatcherLookup underTest() {
+    Map<FactSpecCoordinates, Dispatcher> info = new HashMap<>();
+    info.put(FactSpecCoordinates.from(FactSpec.ns("ns").type("type").version(1)), v1);
+    info.put(FactSpecCoordinates.from(FactSpec.ns("ns").type("other")), v0);
+    info.put(FactSpecCoordinates.from(FactSpec.ns("ns2").type("type").version(1)), other);
+    return new DispatcherLookup(info);
+  }
+
+  @Test
+  void findsExactMatch() {
+    DispatcherLookup uut = underTest();
+
+    assertThat(uut.get("ns", "type", 1)).isSameAs(v1);
+    assertThat(uut.get("ns2", "type", 1)).isSameAs(other);
+  }
+
+  @Test
+  void fallsBackToVersionZero() {
+    DispatcherLookup uut = underTest();
+
+    assertThat(uut.get("ns", "other", 3)).isSameAs(v0);
+    assertThat(uut.get("ns", "type", 2)).isNull();
+  }
+
+  @Test
+  void returnsNullForUnknownCoordinates() {
+    DispatcherLookup uut = underTest();
+
+    assertThat(uut.get("unknown", "type", 1)).isNull();
+    assertThat(uut.get("ns", "unknown", 1)).isNull();
+    assertThat(uut.get("ns", null, 1)).isNull();
+    assertThat(uut.get(null, "type", 1)).isNull();
+  }
+
+  @Test
+  void remembersResolvedDispatchers() {
+    DispatcherLookup uut = underTest();
+
+    uut.put("alien", "type", 7, other);
+
+    assertThat(uut.get("alien", "type", 7)).isSameAs(other);
+    assertThat(uut.get("alien", "type", 6)).isNull();
+    assertThat(uut.get("ns", "type", 1)).isSameAs(v1);
+  }
+
+  @Test
+  void ignoresVersionsBeyondIndex() {
+    DispatcherLookup uut = underTest();
+
+    uut.put("alien", "type", DispatcherLookup.MAX_INDEXED_VERSION + 1, other);
+
+    assertThat(uut.get("alien", "type", DispatcherLookup.MAX_INDEXED_VERSION + 1)).isNull();
+  }
+}
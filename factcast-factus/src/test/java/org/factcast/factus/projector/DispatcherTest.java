@@ -16,14 +16,14 @@
 package org.factcast.factus.projector;
 
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.*;
 
 import java.lang.reflect.Method;
 import org.factcast.core.Fact;
 import org.factcast.core.spec.FactSpec;
 import org.factcast.factus.event.EventSerializer;
 import org.factcast.factus.projection.Projection;
-import org.factcast.factus.projection.parameter.HandlerParameterTransformer;
+import org.factcast.factus.projection.parameter.*;
 import org.junit.jupiter.api.Test;
 
 class DispatcherTest {
@@ -46,6 +46,32 @@ private void secret(String s) {
     public void explode() {
       throw new IllegalStateException("boom");
     }
+
+    public void many(String a, String b, String c, Fact f) {
+      lastArgs = new Object[] {a, b, c, f};
+    }
+  }
+
+  static class ProviderTransformer implements HandlerParameterTransformer {
+    final HandlerParameterProvider[] providers;
+
+    ProviderTransformer(HandlerParameterProvider... providers) {
+      this.providers = providers;
+    }
+
+    @Override
+    public Object[] apply(EventSerializer s, Fact f, Projection p) {
+      Object[] params = new Object[providers.length];
+      for (int i = 0; i < providers.length; i++) {
+        params[i] = providers[i].apply(s, f, p);
+      }
+      return params;
+    }
+
+    @Override
+    public HandlerParameterProvider[] providers() {
+      return providers;
+    }
   }
 
   @Test
@@ -111,4 +137,63 @@ void unwrapsInvocationTargetExceptionAndRethrowsCause() throws Exception {
         .isInstanceOf(IllegalStateException.class)
         .hasMessage("boom");
   }
+
+  @Test
+  void passesProvidedParametersDirectly() throws Exception {
+    EventSerializer ser = mock(EventSerializer.class);
+    MyProjection projection = new MyProjection();
+    Fact fact = Fact.builder().ns("ns").type("type").version(1).serial(1).buildWithoutPayload();
+
+    Method m = Nested.class.getMethod("handle", String.class, Fact.class);
+    HandlerParameterTransformer transformer =
+        spy(new ProviderTransformer((s, f, p) -> "hello", (s, f, p) -> f));
+    ProjectorImpl.TargetObjectResolver resolver = p -> ((MyProjection) p).nested;
+    FactSpec spec = FactSpec.ns("ns").type("type").version(1);
+
+    Dispatcher underTest = new Dispatcher(m, transformer, resolver, spec);
+    underTest.invoke(ser, projection, fact);
+
+    assertThat(projection.nested.lastArgs).containsExactly("hello", fact);
+    verify(transformer, never()).apply(any(), any(), any());
+  }
+
+  @Test
+  void usesParameterArrayForManyParameters() throws Exception {
+    EventSerializer ser = mock(EventSerializer.class);
+    MyProjection projection = new MyProjection();
+    Fact fact = Fact.builder().ns("ns").type("type").version(1).serial(1).buildWithoutPayload();
+
+    Method m =
+        Nested.class.getMethod("many", String.class, String.class, String.class, Fact.class);
+    HandlerParameterTransformer transformer =
+        spy(
+            new ProviderTransformer(
+                (s, f, p) -> "a", (s, f, p) -> "b", (s, f, p) -> "c", (s, f, p) -> f));
+    ProjectorImpl.TargetObjectResolver resolver = p -> ((MyProjection) p).nested;
+    FactSpec spec = FactSpec.ns("ns").type("type").version(1);
+
+    Dispatcher underTest = new Dispatcher(m, transformer, resolver, spec);
+    underTest.invoke(ser, projection, fact);
+
+    assertThat(projection.nested.lastArgs).containsExactly("a", "b", "c", fact);
+    verify(transformer).apply(ser, fact, projection);
+  }
+
+  @Test
+  void rethrowsExceptionFromProvidedCall() throws Exception {
+    EventSerializer ser = mock(EventSerializer.class);
+    MyProjection projection = new MyProjection();
+    Fact fact = Fact.builder().ns("ns").type("type").version(1).serial(1).buildWithoutPayload();
+
+    Method m = Nested.class.getMethod("explode");
+    HandlerParameterTransformer transformer = new ProviderTransformer();
+    ProjectorImpl.TargetObjectResolver resolver = p -> ((MyProjection) p).nested;
+    FactSpec spec = FactSpec.ns("ns").type("type").version(1);
+
+    Dispatcher underTest = new Dispatcher(m, transformer, resolver, spec);
+
+    assertThatThrownBy(() -> underTest.invoke(ser, projection, fact))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("boom");
+  }
 }
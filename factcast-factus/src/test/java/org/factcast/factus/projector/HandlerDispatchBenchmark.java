@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.factus.projector;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+import org.factcast.core.*;
+import org.factcast.core.util.FactCastJson;
+import org.factcast.factus.*;
+import org.factcast.factus.event.*;
+import org.factcast.factus.projection.Projection;
+import org.factcast.factus.projection.parameter.HandlerParameterContributors;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Measures the dispatch of facts to handlers, per kind of handler parameters. */
+@State(Scope.Thread)
+public class HandlerDispatchBenchmark {
+
+  private static final int FACTS = 1_000;
+  private static final DefaultEventSerializer serializer =
+      new DefaultEventSerializer(FactCastJson.mapper());
+
+  @Specification(ns = "bench")
+  @Value
+  static class Created implements EventObject {
+    UUID aggId;
+    String name;
+
+    @Override
+    public Set<UUID> aggregateIds() {
+      return Collections.singleton(aggId);
+    }
+  }
+
+  static class BenchmarkProjection implements Projection {
+    Blackhole bh;
+
+    @Handler
+    void apply(Created e) {
+      bh.consume(e);
+    }
+
+    @HandlerFor(ns = "bench", type = "Raw")
+    void apply(Fact f) {
+      bh.consume(f);
+    }
+
+    @HandlerFor(ns = "bench", type = "Id")
+    void apply(UUID id) {
+      bh.consume(id);
+    }
+
+    @HandlerFor(ns = "bench", type = "Header")
+    void apply(FactHeader h, FactStreamPosition pos) {
+      bh.consume(h);
+      bh.consume(pos);
+    }
+
+    @HandlerFor(ns = "bench", type = "Meta")
+    void apply(Fact f, @Meta("user") Optional<String> user, @Meta("tags") List<String> tags) {
+      bh.consume(f);
+      bh.consume(user);
+      bh.consume(tags);
+    }
+
+    @HandlerFor(ns = "bench", type = "Many")
+    void apply(Fact f, UUID id, FactHeader h, FactStreamPosition pos) {
+      bh.consume(f);
+      bh.consume(id);
+      bh.consume(h);
+      bh.consume(pos);
+    }
+  }
+
+  private final BenchmarkProjection projection = new BenchmarkProjection();
+  private final Projector<BenchmarkProjection> projector =
+      new ProjectorImpl<>(projection, serializer, new HandlerParameterContributors());
+
+  private List<Fact> eventObjects;
+  private List<Fact> raw;
+  private List<Fact> ids;
+  private List<Fact> headers;
+  private List<Fact> metas;
+  private List<Fact> many;
+
+  @Setup
+  public void setup(Blackhole bh) {
+    projection.bh = bh;
+    EventConverter converter = new EventConverter(serializer);
+    eventObjects = new ArrayList<>(FACTS);
+    for (int i = 0; i < FACTS; i++) {
+      Fact f = converter.toFact(new Created(UUID.randomUUID(), "name" + i));
+      eventObjects.add(
+          Fact.builder()
+              .id(f.id())
+              .ns(f.ns())
+              .type(f.type())
+              .serial(i)
+              .build(f.jsonPayload()));
+    }
+    raw = facts("Raw");
+    ids = facts("Id");
+    headers = facts("Header");
+    metas = facts("Meta");
+    many = facts("Many");
+  }
+
+  private static List<Fact> facts(String type) {
+    List<Fact> l = new ArrayList<>(FACTS);
+    for (int i = 0; i < FACTS; i++) {
+      l.add(
+          Fact.builder()
+              .ns("bench")
+              .type(type)
+              .serial(i)
+              .setMeta("user", "user" + i)
+              .addMeta("tags", "a")
+              .addMeta("tags", "b")
+              .build("{}"));
+    }
+    return l;
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 2)
+  public void eventObject() {
+    projector.apply(eventObjects);
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 2)
+  public void fact() {
+    projector.apply(raw);
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 2)
+  public void factId() {
+    projector.apply(ids);
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 2)
+  public void headerAndPosition() {
+    projector.apply(headers);
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 2)
+  public void meta() {
+    projector.apply(metas);
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 2)
+  public void parameterArray() {
+    projector.apply(many);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Main.main(args);
+  }
+}
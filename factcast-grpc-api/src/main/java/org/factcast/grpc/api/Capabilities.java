@@ -18,7 +18,9 @@
 public enum Capabilities {
   FACTCAST_IMPL_VERSION,
   CODECS,
-  FAST_STATE_TOKEN;
+  FAST_STATE_TOKEN,
+  TYPED_FACTS,
+  PUBLISH_IF_UNCHANGED_SINCE;
 
   @Override
   public String toString() {
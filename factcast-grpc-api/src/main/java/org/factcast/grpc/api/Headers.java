@@ -24,6 +24,8 @@ public class Headers {
   // questionable, should be part of request?
   private static final String GRPC_FAST_FORWARD = "fc-ffwd";
 
+  private static final String GRPC_TYPED_FACTS = "fc-typedfacts";
+
   private static final String GRPC_CLIENT_ID = "fc-id";
   private static final String GRPC_CLIENT_VERSION = "fc-version";
   private static final String GRPC_CLIENT_MAX_INBOUND_MESSAGE_SIZE = "fc-maxmsg";
@@ -34,6 +36,9 @@ public class Headers {
   public static final Metadata.Key<String> FAST_FORWARD =
       Metadata.Key.of(Headers.GRPC_FAST_FORWARD, Metadata.ASCII_STRING_MARSHALLER);
 
+  public static final Metadata.Key<String> TYPED_FACTS =
+      Metadata.Key.of(Headers.GRPC_TYPED_FACTS, Metadata.ASCII_STRING_MARSHALLER);
+
   public static final Metadata.Key<String> CLIENT_ID =
       Metadata.Key.of(Headers.GRPC_CLIENT_ID, Metadata.ASCII_STRING_MARSHALLER);
 
@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.grpc.api;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.LongSupplier;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Watches any number of streams for inactivity with one shared timer thread, rather than one timer
+ * thread per stream.
+ *
+ * <p>Every stream is checked when it could have become idle at the earliest, according to its last
+ * activity. Only if it has been idle for the given time, the callback is run. Callbacks run on a
+ * separate pool, so that a callback blocking on a slow stream cannot delay the others.
+ */
+@Slf4j
+public class KeepaliveScheduler implements AutoCloseable {
+
+  private final ScheduledThreadPoolExecutor timer;
+  private final ExecutorService callbacks;
+  private final LongSupplier clock;
+
+  private final AtomicInteger activeStreams = new AtomicInteger();
+  private final AtomicLong idleStreamsDetected = new AtomicLong();
+
+  public KeepaliveScheduler(@NonNull String name) {
+    this(name, System::currentTimeMillis);
+  }
+
+  @VisibleForTesting
+  KeepaliveScheduler(@NonNull String name, @NonNull LongSupplier clock) {
+    this.clock = clock;
+    timer =
+        new ScheduledThreadPoolExecutor(
+            1, new ThreadFactoryBuilder().setNameFormat(name).setDaemon(true).build());
+    timer.setRemoveOnCancelPolicy(true);
+    callbacks =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+  }
+
+  /**
+   * @param idleMillis time without activity, after which onIdle is run
+   * @param lastActivity timestamp of the last activity on the stream in milliseconds
+   * @param onIdle run whenever the stream has been idle for idleMillis. If it does not update the
+   *     last activity or cancel the registration, it is run again after another idleMillis.
+   */
+  @NonNull
+  public Registration register(
+      long idleMillis, @NonNull LongSupplier lastActivity, @NonNull Runnable onIdle) {
+    if (idleMillis <= 0) {
+      throw new IllegalArgumentException("idleMillis must be positive, but was " + idleMillis);
+    }
+    Registration r = new Registration(idleMillis, lastActivity, onIdle);
+    activeStreams.incrementAndGet();
+    r.schedule(Math.max(0, idleMillis - (clock.getAsLong() - lastActivity.getAsLong())));
+    return r;
+  }
+
+  /**
+   * @return number of streams currently watched
+   */
+  public int activeStreams() {
+    return activeStreams.get();
+  }
+
+  /**
+   * @return number of times a stream was found idle
+   */
+  public long idleStreamsDetected() {
+    return idleStreamsDetected.get();
+  }
+
+  @Override
+  public void close() {
+    timer.shutdownNow();
+    callbacks.shutdownNow();
+  }
+
+  public final class Registration {
+    private final long idleMillis;
+    private final LongSupplier lastActivity;
+    private final Runnable onIdle;
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private volatile ScheduledFuture<?> next;
+
+    private Registration(long idleMillis, LongSupplier lastActivity, Runnable onIdle) {
+      this.idleMillis = idleMillis;
+      this.lastActivity = lastActivity;
+      this.onIdle = onIdle;
+    }
+
+    public boolean isCancelled() {
+      return cancelled.get();
+    }
+
+    /** stops watching the stream. Idempotent. */
+    public void cancel() {
+      if (cancelled.compareAndSet(false, true)) {
+        activeStreams.decrementAndGet();
+        ScheduledFuture<?> f = next;
+        if (f != null) {
+          f.cancel(false);
+        }
+      }
+    }
+
+    private void schedule(long delayMillis) {
+      if (!cancelled.get()) {
+        try {
+          next = timer.schedule(this::check, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+          // scheduler closed
+          cancel();
+          return;
+        }
+        if (cancelled.get()) {
+          // cancelled concurrently
+          next.cancel(false);
+        }
+      }
+    }
+
+    private void check() {
+      if (cancelled.get()) {
+        return;
+      }
+      long idleFor = clock.getAsLong() - lastActivity.getAsLong();
+      if (idleFor < idleMillis) {
+        schedule(idleMillis - idleFor);
+      } else {
+        idleStreamsDetected.incrementAndGet();
+        try {
+          callbacks.execute(this::runOnIdle);
+        } catch (RejectedExecutionException e) {
+          // scheduler closed
+          cancel();
+        }
+      }
+    }
+
+    private void runOnIdle() {
+      try {
+        onIdle.run();
+      } catch (Exception e) {
+        log.warn("While running idle callback:", e);
+      } finally {
+        long idleFor = clock.getAsLong() - lastActivity.getAsLong();
+        schedule(idleFor < idleMillis ? idleMillis - idleFor : idleMillis);
+      }
+    }
+  }
+}
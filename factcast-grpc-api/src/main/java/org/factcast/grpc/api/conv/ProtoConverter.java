@@ -30,6 +30,7 @@
 import org.factcast.core.subscription.SubscriptionRequestTO;
 import org.factcast.core.util.FactCastJson;
 import org.factcast.grpc.api.ConditionalPublishRequest;
+import org.factcast.grpc.api.ConditionalPublishSinceRequest;
 import org.factcast.grpc.api.EnumerateVersionsRequest;
 import org.factcast.grpc.api.StateForRequest;
 import org.factcast.grpc.api.gen.FactStoreProto.*;
@@ -47,6 +48,8 @@ public class ProtoConverter {
 
   private static final MSG_Empty EMPTY = MSG_Empty.newBuilder().build();
 
+  private final TypedFactCodec typedFactCodec = new TypedFactCodec();
+
   @NonNull
   public MSG_Notification createCatchupNotification() {
     return MSG_Notification.newBuilder().setType(MSG_Notification.Type.Catchup).build();
@@ -72,6 +75,18 @@ public MSG_Notification createNotificationFor(List<Fact> stagedFacts) {
     return builder.build();
   }
 
+  @NonNull
+  public MSG_Notification createTypedNotificationFor(@NonNull List<? extends Fact> stagedFacts) {
+    MSG_TypedFacts.Builder facts = MSG_TypedFacts.newBuilder();
+    for (Fact fact : stagedFacts) {
+      facts.addFact(typedFactCodec.encode(fact));
+    }
+    return MSG_Notification.newBuilder()
+        .setType(MSG_Notification.Type.TypedFacts)
+        .setTypedFacts(facts)
+        .build();
+  }
+
   @NonNull
   public MSG_Notification createNotificationForFactId(@NonNull UUID id) {
     MSG_Notification.Builder builder =
@@ -298,10 +313,30 @@ public ConditionalPublishRequest fromProto(@NonNull MSG_ConditionalPublishReques
     return new ConditionalPublishRequest(fromProto(request.getFacts()), token);
   }
 
+  @NonNull
+  public ConditionalPublishSinceRequest fromProto(
+      @NonNull MSG_ConditionalPublishSinceRequest request) {
+    return new ConditionalPublishSinceRequest(
+        fromProto(request.getFacts()), fromProto(request.getSpecs()), request.getSerial());
+  }
+
+  @NonNull
+  public MSG_ConditionalPublishSinceRequest toProto(@NonNull ConditionalPublishSinceRequest req) {
+    return MSG_ConditionalPublishSinceRequest.newBuilder()
+        .setFacts(toProto(req.facts()))
+        .setSpecs(toProtoFactSpecs(req.specs()))
+        .setSerial(req.serial())
+        .build();
+  }
+
   public @NonNull List<Fact> fromProto(@NonNull MSG_Facts facts) {
     return facts.getFactList().stream().map(this::fromProto).collect(Collectors.toList());
   }
 
+  public @NonNull List<Fact> fromProto(@NonNull MSG_TypedFacts facts) {
+    return facts.getFactList().stream().map(typedFactCodec::decode).collect(Collectors.toList());
+  }
+
   @NonNull
   public MSG_ConditionalPublishResult toProto(boolean result) {
     return MSG_ConditionalPublishResult.newBuilder().setSuccess(result).build();
@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.grpc.api.conv;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.*;
+import com.google.protobuf.ByteString;
+import jakarta.annotation.Nullable;
+import java.io.*;
+import java.util.*;
+import lombok.*;
+import org.factcast.core.*;
+import org.factcast.core.util.FactCastJson;
+import org.factcast.factus.event.MetaMap;
+import org.factcast.grpc.api.gen.FactStoreProto.*;
+
+/**
+ * Fact as received via {@link MSG_TypedFact}.
+ *
+ * <p>id, ns, type, version, aggIds, serial and timestamp are available without any JSON parsing.
+ * Payload and meta are only decoded when asked for, the JSON header is only put together when asked
+ * for.
+ *
+ * @since 0.12.2
+ */
+@EqualsAndHashCode(of = "id")
+public class TypedFact implements Fact, Serializable {
+
+  @Getter @NonNull final UUID id;
+  @Getter @NonNull final String ns;
+  @Getter final String type;
+  @Getter final int version;
+  @Getter @NonNull final Set<UUID> aggIds;
+  final Long serial;
+  final Long timestamp;
+  final transient ByteString headerRest;
+  final transient ByteString payload;
+
+  private transient volatile String jsonPayload;
+  private transient volatile String jsonHeader;
+  private transient volatile Header header;
+
+  TypedFact(@NonNull MSG_TypedFact proto) {
+    id = TypedFactCodec.fromProto(proto.getId());
+    ns = proto.getNs();
+    type = proto.getType().isEmpty() ? null : proto.getType();
+    version = proto.getVersion();
+    Set<UUID> ids = new LinkedHashSet<>();
+    proto.getAggIdsList().forEach(a -> ids.add(TypedFactCodec.fromProto(a)));
+    aggIds = ids;
+    serial = proto.getSerialPresent() ? proto.getSerial() : null;
+    timestamp = proto.getTimestampPresent() ? proto.getTimestamp() : null;
+    headerRest = proto.getHeaderRest();
+    payload = proto.getPayload();
+  }
+
+  @Override
+  public @NonNull String jsonPayload() {
+    String p = jsonPayload;
+    if (p == null) {
+      p = payload.toStringUtf8();
+      jsonPayload = p;
+    }
+    return p;
+  }
+
+  @Override
+  public @NonNull String jsonHeader() {
+    String h = jsonHeader;
+    if (h == null) {
+      h = composeHeader();
+      jsonHeader = h;
+    }
+    return h;
+  }
+
+  @Override
+  public @NonNull FactHeader header() {
+    Header h = header;
+    if (h == null) {
+      h = new Header();
+      header = h;
+    }
+    return h;
+  }
+
+  @Override
+  @Deprecated
+  public String meta(@NonNull String key) {
+    return header().meta().getFirst(key);
+  }
+
+  @Override
+  @Deprecated
+  public long serial() {
+    if (serial == null) {
+      throw new IllegalStateException("'_ser' Meta attribute not found. Fact not yet published?");
+    }
+    return serial;
+  }
+
+  @Override
+  @Deprecated
+  public Long timestamp() {
+    return timestamp;
+  }
+
+  @Override
+  public String toString() {
+    return "TypedFact [id=" + id + "]";
+  }
+
+  @SneakyThrows
+  private String composeHeader() {
+    StringWriter w = new StringWriter(headerRest.size() + 256);
+    try (JsonGenerator g = TypedFactCodec.json.createGenerator(w);
+        JsonParser p = TypedFactCodec.json.createParser(headerRest.newInput())) {
+      g.writeStartObject();
+      g.writeStringField(TypedFactCodec.ID, id.toString());
+      g.writeStringField(TypedFactCodec.NS, ns);
+      if (type != null) {
+        g.writeStringField(TypedFactCodec.TYPE, type);
+      }
+      g.writeNumberField(TypedFactCodec.VERSION, version);
+      g.writeArrayFieldStart(TypedFactCodec.AGG_IDS);
+      for (UUID aggId : aggIds) {
+        g.writeString(aggId.toString());
+      }
+      g.writeEndArray();
+      if (p.nextToken() == JsonToken.START_OBJECT) {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+          g.copyCurrentStructure(p);
+        }
+      }
+      g.writeEndObject();
+    }
+    return w.toString();
+  }
+
+  // received facts are serialized the way they would have been without typed encoding
+  @Serial
+  private Object writeReplace() {
+    return DefaultFact.of(jsonHeader(), jsonPayload());
+  }
+
+  /** Header with the typed attributes set right away and meta decoded on first access. */
+  class Header extends FactHeader {
+
+    private volatile MetaMap decodedMeta;
+
+    Header() {
+      id(TypedFact.this.id);
+      ns(TypedFact.this.ns);
+      type(TypedFact.this.type);
+      version(TypedFact.this.version);
+      aggIds(TypedFact.this.aggIds);
+    }
+
+    @Override
+    @JsonProperty("meta")
+    public @NonNull MetaMap meta() {
+      MetaMap m = decodedMeta;
+      if (m == null) {
+        m = FactCastJson.readValue(FactHeader.class, headerRest.toStringUtf8()).meta();
+        decodedMeta = m;
+      }
+      return m;
+    }
+
+    @Override
+    @Deprecated
+    public String meta(@NonNull String key) {
+      return meta().getFirst(key);
+    }
+
+    @Override
+    public @Nullable Long serial() {
+      return TypedFact.this.serial;
+    }
+
+    @Override
+    public @Nullable Long timestamp() {
+      return TypedFact.this.timestamp;
+    }
+  }
+}
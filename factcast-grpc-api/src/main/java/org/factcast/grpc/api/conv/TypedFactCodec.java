@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.grpc.api.conv;
+
+import com.fasterxml.jackson.core.*;
+import com.google.protobuf.ByteString;
+import java.io.*;
+import java.util.*;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.factcast.core.Fact;
+import org.factcast.core.util.FactCastJson;
+import org.factcast.grpc.api.gen.FactStoreProto.*;
+
+/**
+ * Converts facts to {@link MSG_TypedFact} and back.
+ *
+ * <p>id, ns, type, version and aggIds are taken from the fact rather than from its header, all
+ * other header attributes are streamed into headerRest without building a tree. Serial and
+ * timestamp are picked up from meta on the way, but left in meta, so that the client can restore
+ * the header as it was.
+ *
+ * @since 0.12.2
+ */
+public class TypedFactCodec {
+
+  static final String ID = "id";
+  static final String NS = "ns";
+  static final String TYPE = "type";
+  static final String VERSION = "version";
+  static final String AGG_IDS = "aggIds";
+  static final String META = "meta";
+  static final String SERIAL = "_ser";
+  static final String TIMESTAMP = "_ts";
+
+  static final JsonFactory json = FactCastJson.mapper().getFactory();
+
+  @NonNull
+  @SneakyThrows
+  public MSG_TypedFact encode(@NonNull Fact fact) {
+    MSG_TypedFact.Builder b =
+        MSG_TypedFact.newBuilder()
+            .setId(toProto(fact.id()))
+            .setNs(fact.ns())
+            .setVersion(fact.version());
+    String type = fact.type();
+    if (type != null) {
+      b.setType(type);
+    }
+    for (UUID aggId : fact.aggIds()) {
+      b.addAggIds(toProto(aggId));
+    }
+
+    ByteString.Output rest = ByteString.newOutput();
+    try (JsonParser p = json.createParser(fact.jsonHeader());
+        JsonGenerator g = json.createGenerator(rest)) {
+      if (p.nextToken() != JsonToken.START_OBJECT) {
+        throw new IllegalArgumentException("Header is not a JSON object: " + fact.jsonHeader());
+      }
+      g.writeStartObject();
+      while (p.nextToken() == JsonToken.FIELD_NAME) {
+        String name = p.currentName();
+        p.nextToken();
+        switch (name) {
+          case ID, NS, TYPE, VERSION, AGG_IDS -> p.skipChildren();
+          case META -> copyMeta(p, g, b);
+          default -> {
+            g.writeFieldName(name);
+            g.copyCurrentStructure(p);
+          }
+        }
+      }
+      g.writeEndObject();
+    }
+
+    return b.setHeaderRest(rest.toByteString())
+        .setPayload(ByteString.copyFromUtf8(fact.jsonPayload()))
+        .build();
+  }
+
+  private static void copyMeta(JsonParser p, JsonGenerator g, MSG_TypedFact.Builder b)
+      throws IOException {
+    g.writeFieldName(META);
+    if (p.currentToken() != JsonToken.START_OBJECT) {
+      g.copyCurrentStructure(p);
+      return;
+    }
+    g.writeStartObject();
+    while (p.nextToken() == JsonToken.FIELD_NAME) {
+      String key = p.currentName();
+      p.nextToken();
+      if (SERIAL.equals(key)) {
+        Long serial = scalarLong(p);
+        if (serial != null) {
+          b.setSerialPresent(true).setSerial(serial);
+        }
+      } else if (TIMESTAMP.equals(key)) {
+        Long ts = scalarLong(p);
+        if (ts != null) {
+          b.setTimestampPresent(true).setTimestamp(ts);
+        }
+      }
+      g.writeFieldName(key);
+      g.copyCurrentStructure(p);
+    }
+    g.writeEndObject();
+  }
+
+  private static Long scalarLong(JsonParser p) throws IOException {
+    JsonToken t = p.currentToken();
+    if (t == JsonToken.VALUE_NUMBER_INT) {
+      return p.getLongValue();
+    }
+    if (t == JsonToken.VALUE_STRING) {
+      try {
+        return Long.parseLong(p.getText());
+      } catch (NumberFormatException e) {
+        // left to whoever reads meta
+        return null;
+      }
+    }
+    return null;
+  }
+
+  @NonNull
+  public Fact decode(@NonNull MSG_TypedFact proto) {
+    return new TypedFact(proto);
+  }
+
+  static MSG_UUID toProto(UUID id) {
+    return MSG_UUID
+        .newBuilder()
+        .setLsb(id.getLeastSignificantBits())
+        .setMsb(id.getMostSignificantBits())
+        .build();
+  }
+
+  static UUID fromProto(MSG_UUID id) {
+    return new UUID(id.getMsb(), id.getLsb());
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.grpc.api;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.*;
+
+class KeepaliveSchedulerTest {
+
+  final KeepaliveScheduler uut = new KeepaliveScheduler("test-keepalive");
+  final AtomicLong lastActivity = new AtomicLong(System.currentTimeMillis());
+
+  @AfterEach
+  void tearDown() {
+    uut.close();
+  }
+
+  @SneakyThrows
+  static void sleep(long ms) {
+    Thread.sleep(ms);
+  }
+
+  @SneakyThrows
+  static void await(CountDownLatch latch) {
+    latch.await();
+  }
+
+  @Test
+  void rejectsNonPositiveInterval() {
+    assertThatThrownBy(() -> uut.register(0, lastActivity::get, () -> {}))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @SneakyThrows
+  void runsCallbackWhenIdle() {
+    CountDownLatch idle = new CountDownLatch(1);
+    uut.register(50, lastActivity::get, idle::countDown);
+
+    assertThat(idle.await(1, TimeUnit.SECONDS)).isTrue();
+    assertThat(uut.idleStreamsDetected()).isOne();
+  }
+
+  @Test
+  void skipsCallbackWhileActive() {
+    AtomicInteger calls = new AtomicInteger();
+    KeepaliveScheduler.Registration r =
+        uut.register(100, lastActivity::get, calls::incrementAndGet);
+
+    for (int i = 0; i < 10; i++) {
+      sleep(20);
+      lastActivity.set(System.currentTimeMillis());
+    }
+    r.cancel();
+
+    assertThat(calls).hasValue(0);
+    assertThat(uut.idleStreamsDetected()).isZero();
+  }
+
+  @Test
+  @SneakyThrows
+  void repeatsCallbackWhileIdle() {
+    CountDownLatch idle = new CountDownLatch(3);
+    uut.register(20, lastActivity::get, idle::countDown);
+
+    assertThat(idle.await(1, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  @SneakyThrows
+  void continuesAfterFailingCallback() {
+    CountDownLatch idle = new CountDownLatch(2);
+    uut.register(
+        20,
+        lastActivity::get,
+        () -> {
+          idle.countDown();
+          throw new IllegalStateException("expected");
+        });
+
+    assertThat(idle.await(1, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void stopsAfterCancel() {
+    AtomicInteger calls = new AtomicInteger();
+    KeepaliveScheduler.Registration r = uut.register(30, lastActivity::get, calls::incrementAndGet);
+    assertThat(uut.activeStreams()).isOne();
+
+    r.cancel();
+    r.cancel();
+    sleep(100);
+
+    assertThat(r.isCancelled()).isTrue();
+    assertThat(uut.activeStreams()).isZero();
+    assertThat(calls).hasValue(0);
+  }
+
+  @Test
+  @SneakyThrows
+  void doesNotBlockOtherStreams() {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch other = new CountDownLatch(1);
+    uut.register(10, lastActivity::get, () -> await(release));
+    uut.register(50, lastActivity::get, other::countDown);
+
+    try {
+      assertThat(other.await(1, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      release.countDown();
+    }
+  }
+}
@@ -31,6 +31,7 @@
 import org.factcast.core.subscription.FactStreamInfo;
 import org.factcast.core.subscription.SubscriptionRequestTO;
 import org.factcast.grpc.api.ConditionalPublishRequest;
+import org.factcast.grpc.api.ConditionalPublishSinceRequest;
 import org.factcast.grpc.api.EnumerateVersionsRequest;
 import org.factcast.grpc.api.StateForRequest;
 import org.factcast.grpc.api.gen.FactStoreProto;
@@ -211,6 +212,19 @@ void testCreateNotificationForList() {
     assertEquals(probe2.ns(), uut.fromProto(n.getFacts().getFact(1)).ns());
   }
 
+  @Test
+  void testCreateTypedNotificationForList() {
+    Fact probe1 = Fact.builder().ns("123").type("a").aggId(UUID.randomUUID()).build("{}");
+    Fact probe2 = Fact.builder().ns("456").serial(2).build("{\"foo\":1}");
+    MSG_Notification n = uut.createTypedNotificationFor(Lists.newArrayList(probe1, probe2));
+    assertNotNull(n);
+    assertEquals(Type.TypedFacts, n.getType());
+    List<Fact> facts = uut.fromProto(n.getTypedFacts());
+    assertFactEqualTo(probe1, facts.get(0));
+    assertFactEqualTo(probe2, facts.get(1));
+    assertEquals(2L, facts.get(1).header().serial());
+  }
+
   @Test
   void testCreateNotificationForUUID() {
     UUID probe = UUID.randomUUID();
@@ -450,6 +464,20 @@ public void testToProtoBoolean() {
     assertTrue(uut.toProto(true).getSuccess());
   }
 
+  @Test
+  void convertsConditionalPublishSinceRequest() {
+    TestFact f1 = new TestFact();
+    List<FactSpec> specs = List.of(FactSpec.ns("ns").type("type").aggId(new UUID(1, 2)));
+
+    ConditionalPublishSinceRequest r =
+        uut.fromProto(uut.toProto(new ConditionalPublishSinceRequest(List.of(f1), specs, 42)));
+
+    assertThat(r.facts()).hasSize(1);
+    assertThat(r.facts().get(0).id()).isEqualTo(f1.id());
+    assertThat(r.specs()).isEqualTo(specs);
+    assertThat(r.serial()).isEqualTo(42);
+  }
+
   @Test
   public void testFromProtoMSG_ConditionalPublishRequest() {
 
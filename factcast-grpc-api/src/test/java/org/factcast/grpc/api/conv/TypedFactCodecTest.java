@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.grpc.api.conv;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.*;
+import java.util.*;
+import lombok.SneakyThrows;
+import org.factcast.core.*;
+import org.factcast.core.util.FactCastJson;
+import org.factcast.grpc.api.gen.FactStoreProto.*;
+import org.junit.jupiter.api.*;
+
+class TypedFactCodecTest {
+
+  final TypedFactCodec uut = new TypedFactCodec();
+
+  final UUID id = UUID.randomUUID();
+  final UUID aggId1 = UUID.randomUUID();
+  final UUID aggId2 = UUID.randomUUID();
+
+  final Fact published =
+      Fact.of(
+          "{\"id\":\""
+              + id
+              + "\",\"ns\":\"ns\",\"type\":\"type\",\"version\":3,\"aggIds\":[\""
+              + aggId1
+              + "\",\""
+              + aggId2
+              + "\"],\"meta\":{\"_ser\":42,\"_ts\":1700000000000,\"foo\":[\"a\",\"b\"]},"
+              + "\"custom\":{\"x\":1}}",
+          "{\"bar\":\"baz\",\"big\":12345678901234567890}");
+
+  Fact roundTrip(Fact f) {
+    return uut.decode(uut.encode(f));
+  }
+
+  @Test
+  void encodesTypedAttributes() {
+    MSG_TypedFact proto = uut.encode(published);
+
+    assertThat(TypedFactCodec.fromProto(proto.getId())).isEqualTo(id);
+    assertThat(proto.getNs()).isEqualTo("ns");
+    assertThat(proto.getType()).isEqualTo("type");
+    assertThat(proto.getVersion()).isEqualTo(3);
+    assertThat(proto.getAggIdsList())
+        .extracting(TypedFactCodec::fromProto)
+        .containsExactly(aggId1, aggId2);
+    assertThat(proto.getSerialPresent()).isTrue();
+    assertThat(proto.getSerial()).isEqualTo(42L);
+    assertThat(proto.getTimestampPresent()).isTrue();
+    assertThat(proto.getTimestamp()).isEqualTo(1700000000000L);
+  }
+
+  @Test
+  void keepsOnlyRemainingAttributesInHeaderRest() {
+    MSG_TypedFact proto = uut.encode(published);
+
+    Map<?, ?> rest = FactCastJson.readValue(Map.class, proto.getHeaderRest().toStringUtf8());
+    assertThat(rest).containsOnlyKeys("meta", "custom");
+  }
+
+  @Test
+  void restoresFact() {
+    Fact f = roundTrip(published);
+
+    assertThat(f.id()).isEqualTo(id);
+    assertThat(f.ns()).isEqualTo("ns");
+    assertThat(f.type()).isEqualTo("type");
+    assertThat(f.version()).isEqualTo(3);
+    assertThat(f.aggIds()).containsExactly(aggId1, aggId2);
+    assertThat(f.jsonPayload()).isEqualTo(published.jsonPayload());
+  }
+
+  @Test
+  void restoresHeader() {
+    FactHeader h = roundTrip(published).header();
+
+    assertThat(h.id()).isEqualTo(id);
+    assertThat(h.ns()).isEqualTo("ns");
+    assertThat(h.type()).isEqualTo("type");
+    assertThat(h.version()).isEqualTo(3);
+    assertThat(h.aggIds()).containsExactlyInAnyOrder(aggId1, aggId2);
+    assertThat(h.serial()).isEqualTo(42L);
+    assertThat(h.timestamp()).isEqualTo(1700000000000L);
+    assertThat(h.meta().getAll("foo")).containsExactly("a", "b");
+    assertThat(h.meta().getFirst("_ser")).isEqualTo("42");
+  }
+
+  @Test
+  void restoresJsonHeader() throws Exception {
+    Fact f = roundTrip(published);
+
+    assertThat(FactCastJson.readTree(f.jsonHeader()))
+        .isEqualTo(FactCastJson.readTree(published.jsonHeader()));
+  }
+
+  @Test
+  void handlesMinimalHeader() {
+    Fact minimal = Fact.of("{\"id\":\"" + id + "\",\"ns\":\"ns\"}", "{}");
+
+    MSG_TypedFact proto = uut.encode(minimal);
+    assertThat(proto.getSerialPresent()).isFalse();
+    assertThat(proto.getTimestampPresent()).isFalse();
+
+    Fact f = uut.decode(proto);
+    assertThat(f.type()).isNull();
+    assertThat(f.aggIds()).isEmpty();
+    assertThat(f.header().serial()).isNull();
+    assertThat(f.header().timestamp()).isNull();
+    assertThat(f.header().meta().keySet()).isEmpty();
+    assertThat(DefaultFact.of(f.jsonHeader(), f.jsonPayload()).id()).isEqualTo(id);
+  }
+
+  @Test
+  void readsSerialFromString() {
+    Fact f = Fact.of("{\"id\":\"" + id + "\",\"ns\":\"ns\",\"meta\":{\"_ser\":\"7\"}}", "{}");
+
+    assertThat(roundTrip(f).header().serial()).isEqualTo(7L);
+  }
+
+  @Test
+  void ignoresUnparsableSerial() {
+    Fact f = Fact.of("{\"id\":\"" + id + "\",\"ns\":\"ns\",\"meta\":{\"_ser\":\"x\"}}", "{}");
+
+    assertThat(uut.encode(f).getSerialPresent()).isFalse();
+  }
+
+  @Test
+  void equalsById() {
+    assertThat(roundTrip(published)).isEqualTo(roundTrip(published));
+  }
+
+  @Test
+  @SneakyThrows
+  void serializesAsDefaultFact() {
+    Fact f = roundTrip(published);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(f);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      Fact read = (Fact) in.readObject();
+      assertThat(read).isInstanceOf(DefaultFact.class);
+      assertThat(read.id()).isEqualTo(id);
+      assertThat(read.header().serial()).isEqualTo(42L);
+      assertThat(read.jsonPayload()).isEqualTo(published.jsonPayload());
+    }
+  }
+}
@@ -73,7 +73,10 @@ public Supplier<GrpcRequestMetadata> grpcRequestMetadataObjectProvider() {
 
   @Bean
   public ServerMetrics serverMetrics(@NonNull MeterRegistry reg) {
-    return new ServerMetricsImpl(reg);
+    ServerMetricsImpl metrics = new ServerMetricsImpl(reg);
+    metrics.gauge(
+        ServerMetrics.GAUGE.KEEPALIVE_STREAMS, GrpcObserverAdapter.SCHEDULER::activeStreams);
+    return metrics;
   }
 
   @Bean
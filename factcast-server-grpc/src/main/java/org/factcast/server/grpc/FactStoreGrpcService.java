@@ -327,6 +327,9 @@ private Map<String, String> collectProperties() {
     properties.put(Capabilities.CODECS.toString(), codecs.available());
     // since 0.5.2
     properties.put(Capabilities.FAST_STATE_TOKEN.toString(), Boolean.TRUE.toString());
+    // since 0.12.2
+    properties.put(Capabilities.TYPED_FACTS.toString(), Boolean.TRUE.toString());
+    properties.put(Capabilities.PUBLISH_IF_UNCHANGED_SINCE.toString(), Boolean.TRUE.toString());
 
     log.info("{}handshake (serverConfig={})", clientIdPrefix(), properties);
     return properties;
@@ -433,6 +436,31 @@ public void publishConditional(
     responseObserver.onCompleted();
   }
 
+  @Override
+  @Secured(FactCastAuthority.AUTHENTICATED)
+  public void publishIfUnchangedSince(
+      MSG_ConditionalPublishSinceRequest request,
+      StreamObserver<MSG_ConditionalPublishResult> responseObserver) {
+    initialize(responseObserver);
+
+    ConditionalPublishSinceRequest req = converter.fromProto(request);
+
+    List<? extends Fact> facts = req.facts();
+    assertCanWrite(facts.stream().map(Fact::ns).distinct().collect(Collectors.toList()));
+    // as the result tells about the state of the specs
+    assertCanRead(req.specs().stream().map(FactSpec::ns).distinct().collect(Collectors.toList()));
+
+    final var clientId = grpcRequestMetadataProvider.get().clientId();
+    if (clientId.isPresent()) {
+      final var id = clientId.get();
+      facts = facts.stream().map(f -> tagFactSource(f, id)).toList();
+    }
+
+    boolean result = store.publishIfUnchangedSince(facts, req.specs(), req.serial());
+    responseObserver.onNext(converter.toProto(result));
+    responseObserver.onCompleted();
+  }
+
   @Override
   @Secured(FactCastAuthority.AUTHENTICATED)
   public void stateFor(MSG_StateForRequest request, StreamObserver<MSG_UUID> responseObserver) {
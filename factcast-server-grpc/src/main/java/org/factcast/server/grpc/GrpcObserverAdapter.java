@@ -17,12 +17,13 @@
 
 import static org.factcast.server.grpc.metrics.ServerMetrics.EVENT.BYTES_SENT;
 import static org.factcast.server.grpc.metrics.ServerMetrics.EVENT.FACTS_SENT;
+import static org.factcast.server.grpc.metrics.ServerMetrics.EVENT.KEEPALIVES_SENT;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.grpc.stub.StreamObserver;
 import io.micrometer.core.instrument.Tags;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
@@ -31,6 +32,7 @@
 import org.factcast.core.FactStreamPosition;
 import org.factcast.core.subscription.FactStreamInfo;
 import org.factcast.core.subscription.observer.FactObserver;
+import org.factcast.grpc.api.KeepaliveScheduler;
 import org.factcast.grpc.api.conv.ProtoConverter;
 import org.factcast.grpc.api.gen.FactStoreProto.MSG_Notification;
 import org.factcast.server.grpc.metrics.NOPServerMetrics;
@@ -44,6 +46,9 @@
 @Slf4j
 class GrpcObserverAdapter implements FactObserver {
 
+  /** shared by all subscriptions */
+  static final KeepaliveScheduler SCHEDULER = new KeepaliveScheduler("factcast-server-keepalive");
+
   private final ProtoConverter converter = new ProtoConverter();
 
   @NonNull private final String id;
@@ -58,8 +63,11 @@ class GrpcObserverAdapter implements FactObserver {
   @VisibleForTesting
   private final ServerKeepalive keepalive;
 
+  private final AtomicLong lastSent = new AtomicLong(System.currentTimeMillis());
+
   private final StagedFacts stagedFacts;
   private final boolean supportsFastForward;
+  private final boolean supportsTypedFacts;
   private final long keepaliveInMilliseconds;
 
   public GrpcObserverAdapter(
@@ -72,16 +80,17 @@ public GrpcObserverAdapter(
     this.id = id;
     this.notificationStreamObserver = observer;
     supportsFastForward = meta.supportsFastForward();
+    supportsTypedFacts = meta.supportsTypedFacts();
     this.keepaliveInMilliseconds = keepaliveInMilliseconds;
     stagedFacts = new StagedFacts(meta.clientMaxInboundMessageSize());
     this.serverExceptionLogger = serverExceptionLogger;
+    this.serverMetrics = serverMetrics;
+    this.metricTags = Tags.of(ServerMetrics.MetricsTag.CLIENT_ID_KEY, meta.clientIdAsString());
     if (keepaliveInMilliseconds > 0) {
       keepalive = new ServerKeepalive();
     } else {
       keepalive = null;
     }
-    this.serverMetrics = serverMetrics;
-    this.metricTags = Tags.of(ServerMetrics.MetricsTag.CLIENT_ID_KEY, meta.clientIdAsString());
   }
 
   @VisibleForTesting
@@ -149,7 +158,7 @@ public void onComplete() {
     disableKeepalive();
     flush();
     log.debug("{} onComplete – sending complete notification", id);
-    notificationStreamObserver.onNext(converter.createCompleteNotification());
+    send(converter.createCompleteNotification());
     tryComplete();
   }
 
@@ -179,7 +188,7 @@ private void tryComplete() {
   public void onCatchup() {
     flush();
     log.debug("{} onCatchup – sending catchup notification", id);
-    notificationStreamObserver.onNext(converter.createCatchupNotification());
+    send(converter.createCatchupNotification());
   }
 
   @Override
@@ -192,7 +201,11 @@ public void flush() {
       int bytes = stagedFacts.currentBytes();
       int facts = stagedFacts.size();
 
-      notificationStreamObserver.onNext(converter.createNotificationFor(stagedFacts.popAll()));
+      List<Fact> batch = stagedFacts.popAll();
+      send(
+          supportsTypedFacts
+              ? converter.createTypedNotificationFor(batch)
+              : converter.createNotificationFor(batch));
 
       // should be emitted AFTER sending
       serverMetrics.count(BYTES_SENT, metricTags, bytes);
@@ -213,45 +226,46 @@ public void onFastForward(@NonNull FactStreamPosition position) {
     if (supportsFastForward) {
       log.debug("{} sending ffwd notification to fact id {}", id, position);
       // we have not sent any fact. check for ffwding
-      notificationStreamObserver.onNext(converter.toProto(position));
+      send(converter.toProto(position));
     }
   }
 
   @Override
   public void onFactStreamInfo(FactStreamInfo info) {
-    notificationStreamObserver.onNext(converter.createInfoNotification(info));
+    send(converter.createInfoNotification(info));
   }
 
   public void shutdown() {
     disableKeepalive();
   }
 
+  private void send(MSG_Notification notification) {
+    notificationStreamObserver.onNext(notification);
+    lastSent.set(System.currentTimeMillis());
+  }
+
+  /** Sends a keepalive notification, if nothing else was sent for the keepalive interval. */
   class ServerKeepalive {
-    private Timer t;
+    private final KeepaliveScheduler.Registration registration;
 
     ServerKeepalive() {
-      t = new Timer("server-keepalive-" + System.currentTimeMillis(), true);
-      reschedule();
+      registration =
+          SCHEDULER.register(keepaliveInMilliseconds, lastSent::get, this::sendKeepalive);
     }
 
     @VisibleForTesting
-    synchronized void reschedule() {
-      if (t != null) {
-        t.schedule(
-            new TimerTask() {
-              @Override
-              public void run() {
-                notificationStreamObserver.onNext(converter.createKeepaliveNotification());
-                reschedule();
-              }
-            },
-            keepaliveInMilliseconds);
-      }
+    void sendKeepalive() {
+      send(converter.createKeepaliveNotification());
+      serverMetrics.count(KEEPALIVES_SENT, metricTags);
     }
 
     @VisibleForTesting
-    synchronized void shutdown() {
-      t.cancel();
+    boolean isShutdown() {
+      return registration.isCancelled();
+    }
+
+    void shutdown() {
+      registration.cancel();
     }
   }
 }
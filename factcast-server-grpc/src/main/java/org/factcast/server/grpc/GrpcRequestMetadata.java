@@ -52,6 +52,10 @@ boolean supportsFastForward() {
     return headers.containsKey(Headers.FAST_FORWARD);
   }
 
+  boolean supportsTypedFacts() {
+    return headers.containsKey(Headers.TYPED_FACTS);
+  }
+
   @VisibleForTesting
   public static GrpcRequestMetadata forTest() {
     return forTest(1024 * 1024L);
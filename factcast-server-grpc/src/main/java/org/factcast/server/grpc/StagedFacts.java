@@ -50,6 +50,10 @@ public boolean add(@NonNull Fact fact) {
     }
   }
 
+  /**
+   * Estimates the size of the fact when sent as MSG_Fact. This is also a safe estimation for
+   * MSG_TypedFact, as the typed attributes are encoded more compactly than their JSON counterparts.
+   */
   @VisibleForTesting
   int byteSizeOf(@NonNull Fact fact) {
     return fact.jsonPayload().getBytes(StandardCharsets.UTF_8).length
@@ -79,4 +79,9 @@ public void count(EVENT event, Tags tags) {
   public void count(EVENT event, Tags tags, int value) {
     // no operation
   }
+
+  @Override
+  public void gauge(GAUGE gauge, Supplier<Number> value) {
+    // no operation
+  }
 }
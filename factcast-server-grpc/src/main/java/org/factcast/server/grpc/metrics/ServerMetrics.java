@@ -51,6 +51,8 @@ <R, E extends Exception> R timed(
 
   void count(EVENT event, Tags tags, int incrementBy);
 
+  void gauge(GAUGE gauge, Supplier<Number> value);
+
   enum OP {
     HANDSHAKE("handshake");
 
@@ -65,7 +67,8 @@ enum EVENT {
     SOME_EVENT_CHANGE_ME("something"),
     CLIENT_VERSION("clientversion"),
     FACTS_SENT("factsSent"),
-    BYTES_SENT("bytesSent");
+    BYTES_SENT("bytesSent"),
+    KEEPALIVES_SENT("keepalivesSent");
 
     @NonNull @Getter final String event;
 
@@ -74,6 +77,16 @@ enum EVENT {
     }
   }
 
+  enum GAUGE {
+    KEEPALIVE_STREAMS("keepaliveStreams");
+
+    @NonNull @Getter final String gauge;
+
+    GAUGE(@NonNull String gauge) {
+      this.gauge = gauge;
+    }
+  }
+
   @UtilityClass
   class MetricsTag {
     public static final String CLIENT_ID_KEY = "id";
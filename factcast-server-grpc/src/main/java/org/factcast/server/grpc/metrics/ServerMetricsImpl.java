@@ -28,6 +28,8 @@ public class ServerMetricsImpl implements ServerMetrics, InitializingBean {
 
   public static final String METRIC_NAME_COUNTS = "factcast.server.meter";
 
+  public static final String METRIC_NAME_GAUGES = "factcast.server.gauge";
+
   private final MeterRegistry meterRegistry;
 
   public ServerMetricsImpl(MeterRegistry meterRegistry) {
@@ -134,6 +136,13 @@ public void count(@NonNull EVENT event, Tags tags, int incrementBy) {
     counter.increment(incrementBy);
   }
 
+  @Override
+  public void gauge(@NonNull GAUGE gauge, @NonNull Supplier<Number> value) {
+    Gauge.builder(METRIC_NAME_GAUGES, value)
+        .tags(Tags.of(Tag.of(MetricsTag.NAME_KEY, gauge.gauge())))
+        .register(meterRegistry);
+  }
+
   @Override
   public void afterPropertiesSet() throws Exception {
     /*
@@ -48,6 +48,7 @@
 import org.factcast.core.subscription.observer.HighWaterMarkFetcher;
 import org.factcast.grpc.api.CompressionCodecs;
 import org.factcast.grpc.api.ConditionalPublishRequest;
+import org.factcast.grpc.api.ConditionalPublishSinceRequest;
 import org.factcast.grpc.api.EnumerateVersionsRequest;
 import org.factcast.grpc.api.StateForRequest;
 import org.factcast.grpc.api.conv.ProtoConverter;
@@ -728,6 +729,66 @@ void testSourceTaggingPublishConditional() {
     verify(o).onCompleted();
   }
 
+  @Test
+  void testPublishIfUnchangedSince() {
+    Fact f = Fact.builder().ns("foo").type("bar").buildWithoutPayload();
+    List<FactSpec> specs = List.of(FactSpec.ns("foo").type("bar"));
+    MSG_ConditionalPublishSinceRequest req =
+        conv.toProto(new ConditionalPublishSinceRequest(List.of(f), specs, 42));
+    StreamObserver o = mock(StreamObserver.class);
+    when(backend.publishIfUnchangedSince(any(), eq(specs), eq(42L))).thenReturn(false);
+
+    uut.publishIfUnchangedSince(req, o);
+
+    verify(o).onNext(conv.toProto(false));
+    verify(o).onCompleted();
+  }
+
+  @Test
+  void testPublishIfUnchangedSinceNotAllowedToReadSpecs() {
+    Fact f = Fact.builder().ns("foo").type("bar").buildWithoutPayload();
+    MSG_ConditionalPublishSinceRequest req =
+        conv.toProto(
+            new ConditionalPublishSinceRequest(List.of(f), List.of(FactSpec.ns("denied")), 42));
+
+    FactCastUser mockedFactCastUser = mock(FactCastUser.class);
+    when(mockedFactCastUser.canWrite("foo")).thenReturn(true);
+    when(mockedFactCastUser.canRead("denied")).thenReturn(false);
+    Authentication mockedAuthentication = mock(Authentication.class);
+    when(mockedAuthentication.getPrincipal()).thenReturn(mockedFactCastUser);
+    SecurityContext mockedSecurityContext = mock(SecurityContext.class);
+    when(mockedSecurityContext.getAuthentication()).thenReturn(mockedAuthentication);
+
+    try (MockedStatic<SecurityContextHolder> utilities =
+        Mockito.mockStatic(SecurityContextHolder.class)) {
+      utilities.when(SecurityContextHolder::getContext).thenReturn(mockedSecurityContext);
+      StreamObserver o = mock(StreamObserver.class);
+
+      assertThatThrownBy(() -> uut.publishIfUnchangedSince(req, o))
+          .isInstanceOf(StatusRuntimeException.class);
+      verifyNoInteractions(backend);
+    }
+  }
+
+  @Test
+  void testSourceTaggingPublishIfUnchangedSince() {
+    String clientId = "someApplication";
+    when(grpcRequestMetadata.clientId()).thenReturn(Optional.of(clientId));
+    uut = new FactStoreGrpcService(backend, grpcRequestMetadataSupplier);
+
+    Fact f = Fact.builder().ns("foo").type("bar").buildWithoutPayload();
+    MSG_ConditionalPublishSinceRequest req =
+        conv.toProto(
+            new ConditionalPublishSinceRequest(List.of(f), List.of(FactSpec.ns("foo")), 1));
+    StreamObserver o = mock(StreamObserver.class);
+    when(backend.publishIfUnchangedSince(acFactList.capture(), any(), eq(1L))).thenReturn(true);
+
+    uut.publishIfUnchangedSince(req, o);
+
+    assertThat(acFactList.getValue().get(0).meta("source")).isEqualTo(clientId);
+    verify(o).onNext(conv.toProto(true));
+  }
+
   @Test
   void testAssertCanReadString() {
 
@@ -30,6 +30,7 @@
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLFeatureNotSupportedException;
 import lombok.NonNull;
+import lombok.SneakyThrows;
 import org.assertj.core.api.Assertions;
 import org.factcast.core.Fact;
 import org.factcast.core.FactStreamPosition;
@@ -57,6 +58,8 @@ class GrpcObserverAdapterTest {
 
   @Captor private ArgumentCaptor<MSG_Notification> msg;
 
+  private final ProtoConverter converter = new ProtoConverter();
+
   @Test
   void testOnComplete() {
     GrpcObserverAdapter uut = new GrpcObserverAdapter("foo", observer, serverExceptionLogger);
@@ -216,11 +219,56 @@ void doesNotCreateKeepAliveMonitorIfUnnecessary() {
   @Test
   void shutdownDelegates() {
     GrpcObserverAdapter uut = new GrpcObserverAdapter("foo", observer, 3000);
+    assertThat(uut.keepalive().isShutdown()).isFalse();
+
     uut.shutdown();
 
-    // if keepalive is shutdown, reschedule should throw illegalstateexceptions
-    assertThatThrownBy(() -> uut.keepalive().reschedule())
-        .isInstanceOf(IllegalStateException.class);
+    assertThat(uut.keepalive().isShutdown()).isTrue();
+  }
+
+  @Test
+  void sendsKeepaliveWhenIdle() {
+    GrpcObserverAdapter uut = new GrpcObserverAdapter("foo", observer, 50);
+
+    verify(observer, timeout(1000).atLeastOnce())
+        .onNext(
+            argThat((MSG_Notification n) -> n.getType() == MSG_Notification.Type.KeepAlive));
+    uut.shutdown();
+  }
+
+  @Test
+  void skipsKeepaliveWhileSending() {
+    GrpcObserverAdapter uut = new GrpcObserverAdapter("foo", observer, 200);
+
+    for (int i = 0; i < 6; i++) {
+      uut.onNext(new TestFact());
+      uut.flush();
+      sleep(50);
+    }
+    uut.shutdown();
+
+    verify(observer, never())
+        .onNext(
+            argThat((MSG_Notification n) -> n.getType() == MSG_Notification.Type.KeepAlive));
+  }
+
+  @Test
+  void countsKeepalives() {
+    ServerMetrics metrics = mock(ServerMetrics.class);
+    GrpcRequestMetadata meta = mock(GrpcRequestMetadata.class);
+    when(meta.clientMaxInboundMessageSize()).thenReturn(1024);
+    when(meta.clientIdAsString()).thenReturn("testClient");
+    GrpcObserverAdapter uut =
+        new GrpcObserverAdapter("foo", observer, meta, serverExceptionLogger, metrics, 60000L);
+
+    uut.keepalive().sendKeepalive();
+    uut.shutdown();
+
+    verify(observer).onNext(converter.createKeepaliveNotification());
+    verify(metrics)
+        .count(
+            ServerMetrics.EVENT.KEEPALIVES_SENT,
+            Tags.of(ServerMetrics.MetricsTag.CLIENT_ID_KEY, "testClient"));
   }
 
   @Test
@@ -279,6 +327,28 @@ void testFlushDelegation() {
     verifyNoMoreInteractions(observer);
   }
 
+  @Test
+  void testFlushTypedFacts() {
+    GrpcRequestMetadata meta = mock(GrpcRequestMetadata.class);
+    when(meta.clientMaxInboundMessageSize()).thenReturn(1024 * 1024);
+    when(meta.clientIdAsString()).thenReturn("testClient");
+    when(meta.supportsTypedFacts()).thenReturn(true);
+    GrpcObserverAdapter uut = new GrpcObserverAdapter("foo", observer, meta);
+    Fact f1 = new TestFact();
+    Fact f2 = new TestFact();
+    uut.onNext(f1);
+    uut.onNext(f2);
+    uut.flush();
+
+    ArgumentCaptor<MSG_Notification> cap = ArgumentCaptor.forClass(MSG_Notification.class);
+    verify(observer).onNext(cap.capture());
+
+    MSG_Notification msg = cap.getValue();
+    Assertions.assertThat(msg.getType()).isEqualTo(MSG_Notification.Type.TypedFacts);
+    Assertions.assertThat(msg.getTypedFacts().getFactCount()).isEqualTo(2);
+    Assertions.assertThat(msg.hasFacts()).isFalse();
+  }
+
   @Test
   void testMetricsOnFlush() {
     ServerMetrics metrics = mock(ServerMetrics.class);
@@ -308,4 +378,9 @@ void testMetricsOnFlush() {
     verify(metrics)
         .count(FACTS_SENT, Tags.of(ServerMetrics.MetricsTag.CLIENT_ID_KEY, "testClient"), 2);
   }
+
+  @SneakyThrows
+  private void sleep(long ms) {
+    Thread.sleep(ms);
+  }
 }
@@ -94,6 +94,27 @@ void extractsUnset() {
     }
   }
 
+  @Nested
+  class WhenSupportingTypedFacts {
+    @Test
+    void extracts() {
+      Metadata headers = new Metadata();
+      headers.put(Headers.TYPED_FACTS, "true");
+
+      underTest = new GrpcRequestMetadata(headers);
+
+      assertThat(underTest.supportsTypedFacts()).isTrue();
+    }
+
+    @Test
+    void extractsUnset() {
+      Metadata headers = new Metadata();
+      underTest = new GrpcRequestMetadata(headers);
+
+      assertThat(underTest.supportsTypedFacts()).isFalse();
+    }
+  }
+
   @Nested
   class WhenForingTest {
     @BeforeEach
@@ -115,12 +115,61 @@ public Optional<UUID> findIdOfSerial(long longValue) {
   @Override
   public List<Fact> fetchChunk(FullFilterBean bean) {
     Long untilSerial = Optional.ofNullable(bean.getTo()).map(BigDecimal::longValue).orElse(null);
+    if (fs.supportsFetchPage()) {
+      int offset = bean.getOffsetOrDefault();
+      List<Fact> page =
+          fetchPage(
+              bean,
+              bean.resolveFromOrZero(),
+              untilSerial == null ? Long.MAX_VALUE : untilSerial,
+              offset + bean.getLimitOrDefault(),
+              false);
+      return newestFirst(page.subList(Math.min(offset, page.size()), page.size()));
+    }
+
     ListObserver obs =
         new ListObserver(untilSerial, bean.getLimitOrDefault(), bean.getOffsetOrDefault());
     fetch(bean, obs);
     return obs.list();
   }
 
+  @Override
+  public List<Fact> fetchChunkAfter(FullFilterBean bean, long serial) {
+    long untilSerial =
+        Optional.ofNullable(bean.getTo()).map(BigDecimal::longValue).orElse(Long.MAX_VALUE);
+    return newestFirst(
+        fetchPage(
+            bean,
+            Math.max(serial, bean.resolveFromOrZero()),
+            untilSerial,
+            bean.getLimitOrDefault(),
+            false));
+  }
+
+  @Override
+  public List<Fact> fetchChunkBefore(FullFilterBean bean, long serial) {
+    long untilSerial =
+        Optional.ofNullable(bean.getTo()).map(BigDecimal::longValue).orElse(Long.MAX_VALUE);
+    return fetchPage(
+        bean,
+        bean.resolveFromOrZero(),
+        Math.min(serial - 1, untilSerial),
+        bean.getLimitOrDefault(),
+        true);
+  }
+
+  private List<Fact> fetchPage(
+      FilterBean bean, long afterSerial, long untilSerial, int limit, boolean descending) {
+    Set<FactSpec> specs = securityService.filterReadable(bean.createFactSpecs());
+    return fs.fetchPage(specs, afterSerial, untilSerial, limit, descending);
+  }
+
+  private static List<Fact> newestFirst(List<Fact> ascending) {
+    List<Fact> l = new ArrayList<>(ascending);
+    Collections.reverse(l);
+    return l;
+  }
+
   @SneakyThrows
   @Override
   public long fetchAndProcessAll(ReportFilterBean bean, Consumer<Fact> consumer) {
@@ -28,6 +28,8 @@
 import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.factcast.core.Fact;
@@ -67,7 +69,10 @@ public class FullQueryPage extends VerticalLayout implements HasUrlParameter<Str
   private final FilterCriteriaViews<FullFilterBean> factCriteriaViews;
   private final Button queryBtn = new Button("Query");
   private final Button exportJsonBtn = new Button("Export JSON");
+  private final Button olderBtn = new Button("Older");
+  private final Button newerBtn = new Button("Newer");
   private JsonViewEntries queryResult;
+  private List<Fact> currentPage = List.of();
 
   public FullQueryPage(
       @NonNull FactRepository repo, @NonNull JsonViewPluginService jsonViewPluginService) {
@@ -164,16 +169,27 @@ public void setParameter(BeforeEvent event, @OptionalParameter String parameter)
   }
 
   private void runQuery() {
+    currentPage = List.of();
+    runQuery(repo::fetchChunk);
+  }
+
+  private void runQuery(Function<FullFilterBean, List<Fact>> query) {
     try {
       queryBtn.setEnabled(false);
       binder.writeBean(formBean);
       log.info("{} runs query for {}", getLoggedInUserName(), formBean);
 
-      List<Fact> dataFromStore = repo.fetchChunk(formBean);
+      List<Fact> dataFromStore = query.apply(formBean);
       JsonViewEntries processedByPlugins = jsonViewPluginService.process(dataFromStore);
       jsonView.renderFacts(processedByPlugins, formBean.getCriteria().size());
       queryResult = processedByPlugins;
+      if (!dataFromStore.isEmpty()) {
+        // keep the last page as reference, so that we can page back from an empty one
+        currentPage = dataFromStore;
+      }
       exportJsonBtn.setEnabled(true);
+      olderBtn.setEnabled(!currentPage.isEmpty());
+      newerBtn.setEnabled(!currentPage.isEmpty());
     } catch (ValidationException e) {
       Notifications.warn(e.getMessage());
     } catch (Exception e) {
@@ -197,16 +213,39 @@ private HorizontalLayout formButtons() {
           binder.readBean(formBean);
           factCriteriaViews.rebuild();
           jsonView.clear();
+          currentPage = List.of();
+          olderBtn.setEnabled(false);
+          newerBtn.setEnabled(false);
         });
 
+    // keyset pagination relative to the facts shown, which are ordered newest first
+    olderBtn.setEnabled(false);
+    olderBtn.addClickListener(
+        event -> runQuery(bean -> repo.fetchChunkBefore(bean, oldestSerialShown())));
+    newerBtn.setEnabled(false);
+    newerBtn.addClickListener(
+        event -> runQuery(bean -> repo.fetchChunkAfter(bean, newestSerialShown())));
+
     final var jsonDownload = configureDownloadWrapper(exportJsonBtn);
-    final var hl = new HorizontalLayout(queryBtn, resetBtn, jsonDownload);
+    final var hl = new HorizontalLayout(queryBtn, resetBtn, olderBtn, newerBtn, jsonDownload);
     hl.setWidthFull();
     hl.addClassName("label-padding");
 
     return hl;
   }
 
+  private long oldestSerialShown() {
+    return serialOf(currentPage.get(currentPage.size() - 1));
+  }
+
+  private long newestSerialShown() {
+    return serialOf(currentPage.get(0));
+  }
+
+  private static long serialOf(Fact f) {
+    return Objects.requireNonNull(f.header().serial(), "fact without serial");
+  }
+
   private FileDownloadWrapper configureDownloadWrapper(Button button) {
     button.setEnabled(false);
     FileDownloadWrapper buttonWrapper =
@@ -48,6 +48,16 @@ public interface FactRepository {
 
   List<Fact> fetchChunk(FullFilterBean bean);
 
+  /**
+   * returns the page of facts following the given serial within the beans range, newest first
+   */
+  List<Fact> fetchChunkAfter(FullFilterBean bean, long serial);
+
+  /**
+   * returns the page of facts preceding the given serial within the beans range, newest first
+   */
+  List<Fact> fetchChunkBefore(FullFilterBean bean, long serial);
+
   /** returns number of processed facts */
   long fetchAndProcessAll(ReportFilterBean bean, Consumer<Fact> consumer);
 }
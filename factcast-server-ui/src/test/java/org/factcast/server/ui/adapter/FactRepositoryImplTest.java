@@ -20,6 +20,7 @@
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -362,6 +363,64 @@ void propagatesUsernameToDebugInfo() {
     }
   }
 
+  @Nested
+  class WhenFetchingPages {
+    @Mock private FullFilterBean bean;
+
+    private final Fact f1 = Fact.builder().serial(11L).buildWithoutPayload();
+    private final Fact f2 = Fact.builder().serial(12L).buildWithoutPayload();
+    private final Fact f3 = Fact.builder().serial(13L).buildWithoutPayload();
+
+    @BeforeEach
+    void setup() {
+      when(bean.createFactSpecs()).thenReturn(nameSpaces);
+      when(securityService.filterReadable(nameSpaces))
+          .thenReturn(Set.copyOf(nameSpacesAfterFiltering));
+      when(bean.getLimitOrDefault()).thenReturn(2);
+    }
+
+    @Test
+    void pushesRangeAndLimitDown() {
+      when(fs.supportsFetchPage()).thenReturn(true);
+      when(bean.getOffsetOrDefault()).thenReturn(1);
+      when(bean.resolveFromOrZero()).thenReturn(10L);
+      when(bean.getTo()).thenReturn(BigDecimal.valueOf(100));
+      when(fs.fetchPage(Set.copyOf(nameSpacesAfterFiltering), 10L, 100L, 3, false))
+          .thenReturn(List.of(f1, f2, f3));
+
+      assertThat(underTest.fetchChunk(bean)).containsExactly(f3, f2);
+      verify(fs, never()).subscribe(any(), any());
+    }
+
+    @Test
+    void pushesOpenRangeDown() {
+      when(fs.supportsFetchPage()).thenReturn(true);
+      when(fs.fetchPage(Set.copyOf(nameSpacesAfterFiltering), 0L, Long.MAX_VALUE, 2, false))
+          .thenReturn(List.of(f1));
+
+      assertThat(underTest.fetchChunk(bean)).containsExactly(f1);
+    }
+
+    @Test
+    void fetchesAfter() {
+      when(bean.resolveFromOrZero()).thenReturn(10L);
+      when(fs.fetchPage(Set.copyOf(nameSpacesAfterFiltering), 20L, Long.MAX_VALUE, 2, false))
+          .thenReturn(List.of(f1, f2));
+
+      assertThat(underTest.fetchChunkAfter(bean, 20L)).containsExactly(f2, f1);
+    }
+
+    @Test
+    void fetchesBefore() {
+      when(bean.resolveFromOrZero()).thenReturn(10L);
+      when(bean.getTo()).thenReturn(BigDecimal.valueOf(100));
+      when(fs.fetchPage(Set.copyOf(nameSpacesAfterFiltering), 10L, 19L, 2, true))
+          .thenReturn(List.of(f2, f1));
+
+      assertThat(underTest.fetchChunkBefore(bean, 20L)).containsExactly(f2, f1);
+    }
+  }
+
   @Nested
   class WhenFetchingAndProcessingAll {
     @Mock private ReportFilterBean bean;
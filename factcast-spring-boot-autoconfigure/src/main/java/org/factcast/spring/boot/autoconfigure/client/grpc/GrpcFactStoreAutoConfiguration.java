@@ -82,6 +82,12 @@ GrpcChannelBuilderCustomizer<T> retryChannelConfigurer() {
     return (name, channelBuilder) -> channelBuilder.enableRetry().maxRetryAttempts(100);
   }
 
+  @Bean
+  @ConditionalOnMissingBean
+  public ClientKeepaliveMetrics clientKeepaliveMetrics() {
+    return new ClientKeepaliveMetrics();
+  }
+
   @Bean
   public CompressionCodecs compressionCodecs(CompressorRegistry compressorRegistry) {
     return new CompressionCodecs(compressorRegistry);
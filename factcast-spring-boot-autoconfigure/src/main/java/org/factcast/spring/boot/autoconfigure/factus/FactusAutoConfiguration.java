@@ -71,8 +71,12 @@ public ProjectorFactory projectorFactory(EventSerializer ser) {
 
   @Bean
   @ConditionalOnMissingBean
-  public AggregateCacheFactory aggregateCacheFactory(Factus factus, FactSpecProvider fsp) {
-    return new AggregateCacheFactory(factus, fsp);
+  public AggregateCacheFactory aggregateCacheFactory(
+      Factus factus,
+      FactSpecProvider fsp,
+      ProjectorFactory projectorFactory,
+      SnapshotSerializerSelector snapshotSerializerSelector) {
+    return new AggregateCacheFactory(factus, fsp, projectorFactory, snapshotSerializerSelector);
   }
 
   @Bean
@@ -882,7 +882,7 @@ void happyPath() {
                   return Attempt.publish(fact(agg1));
                 });
 
-    verify(store).publishIfUnchanged(any(), any());
+    verifyConditionalPublish();
     assertThat(catchup()).hasSize(2);
     assertThat(ret).isNotNull();
   }
@@ -902,7 +902,7 @@ void happyPathWithEmptyStore() {
                   return Attempt.publish(fact(agg1));
                 });
 
-    verify(store).publishIfUnchanged(any(), any());
+    verifyConditionalPublish();
     assertThat(catchup()).hasSize(1);
     assertThat(ret).isNotNull();
   }
@@ -942,7 +942,7 @@ void happyPathWithGlobalLock() {
                   return Attempt.publish(fact(agg1));
                 });
 
-    verify(store).publishIfUnchanged(any(), any());
+    verifyConditionalPublish();
     assertThat(catchup()).hasSize(2);
     assertThat(ret).isNotNull();
   }
@@ -964,7 +964,7 @@ void happyPathWithMoreThanOneAggregate() {
                   return Attempt.publish(fact(agg1));
                 });
 
-    verify(store).publishIfUnchanged(any(), any());
+    verifyConditionalPublish();
     assertThat(catchup()).hasSize(2);
     assertThat(ret).isNotNull();
   }
@@ -1261,8 +1261,7 @@ void shouldReleaseTokenOnAbort() {
     } catch (AttemptAbortedException expected) {
     }
 
-    verify(store, times(1)).currentStateFor(any());
-    verify(store, times(1)).invalidate(any());
+    verifyTokenHandling(1);
   }
 
   @Test
@@ -1275,8 +1274,7 @@ void shouldNotReleaseTokenOnPublish() {
 
     uut.lock(NS).on(agg1).attempt(() -> Attempt.publish(fact(agg1)));
 
-    verify(store, times(1)).currentStateFor(any());
-    verify(store, times(0)).invalidate(any());
+    verifyTokenHandling(0);
   }
 
   @Test
@@ -1289,8 +1287,41 @@ void shouldReleaseTokenOnEmptyPublications() {
     } catch (AttemptAbortedException expected) {
     }
 
-    verify(store, times(1)).currentStateFor(any());
-    verify(store, times(1)).invalidate(any());
+    verifyTokenHandling(1);
+  }
+
+  @Test
+  void publishIfUnchangedSinceRejectsMatchingFactsAfterSerial() {
+    Assumptions.assumeTrue(store.supportsPublishIfUnchangedSince());
+    UUID agg1 = UUID.randomUUID();
+    UUID agg2 = UUID.randomUUID();
+    List<FactSpec> specs = List.of(FactSpec.ns(NS).aggId(agg1));
+    long serial = store.latestSerial();
+
+    uut.publish(fact(agg2));
+    assertThat(store.publishIfUnchangedSince(List.of(fact(agg1)), specs, serial)).isTrue();
+    assertThat(store.publishIfUnchangedSince(List.of(fact(agg1)), specs, serial)).isFalse();
+    assertThat(catchup(FactSpec.ns(NS).aggId(agg1))).hasSize(1);
+  }
+
+  private void verifyConditionalPublish() {
+    if (store.supportsPublishIfUnchangedSince()) {
+      verify(store).publishIfUnchangedSince(any(), any(), anyLong());
+    } else {
+      verify(store).publishIfUnchanged(any(), any());
+    }
+  }
+
+  /** tokens are only used, if the store does not support publishIfUnchangedSince */
+  private void verifyTokenHandling(int invalidations) {
+    if (store.supportsPublishIfUnchangedSince()) {
+      verify(store, times(1)).latestSerial();
+      verify(store, never()).currentStateFor(any());
+      verify(store, never()).invalidate(any());
+    } else {
+      verify(store, times(1)).currentStateFor(any());
+      verify(store, times(invalidations)).invalidate(any());
+    }
   }
 
   static class ToListObserver implements FactObserver {
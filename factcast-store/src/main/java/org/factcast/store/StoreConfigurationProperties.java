@@ -24,7 +24,9 @@
 import lombok.*;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
+import org.factcast.store.internal.catchup.tools.fetching.PreFetchingQuery;
 import org.factcast.store.internal.pipeline.AutoFlushingServerPipeline;
+import org.factcast.store.internal.query.PgFactIdToSerialMapper;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
@@ -58,6 +60,15 @@ public class StoreConfigurationProperties implements InitializingBean {
   @Max(9999)
   int transformationCacheBufferSize = 50;
 
+  /**
+   * if greater than zero, the persistent transformation cache is queried in the background for
+   * every chunk of this many Facts scheduled for transformation, so that the lookup is already done
+   * when the transformations are executed. Should be a fraction of transformationCachePageSize.
+   * (Defaults to 0, which disables prefetching)
+   */
+  @Min(0)
+  int transformationCachePrefetchChunkSize = 0;
+
   /**
    * Optional URL to a Schema Registry. If this is null, validation will be disabled and a warning
    * will be issued. (Defaults to null) Currently a String type due to the fact that "classpath:" is
@@ -86,13 +97,23 @@ public class StoreConfigurationProperties implements InitializingBean {
   boolean persistentTransformationCache;
 
   /**
-   * when using the inmem impl of the transformation cache, this is the max number of entries
-   * cached.
+   * when using the inmem impl of the transformation cache, this used to be the max number of
+   * entries cached.
+   *
+   * @deprecated no longer used, as the cache is bounded by {@link
+   *     #inMemTransformationCacheMaxBytes}
    */
   @Positive
   @Min(100)
+  @Deprecated
   int inMemTransformationCacheCapacity = 100;
 
+  /**
+   * when using the inmem impl of the transformation cache, this is the max number of bytes of
+   * header and payload of the facts cached.
+   */
+  @Positive long inMemTransformationCacheMaxBytes = 64L * 1024 * 1024;
+
   /**
    * If validation is enabled, this controls if publishing facts, that are not validatable (due to
    * missing meta-data or due to missing schema in the registry) are allowed to be published or
@@ -173,6 +194,16 @@ public class StoreConfigurationProperties implements InitializingBean {
    */
   Duration tailCreationTimeout = Duration.ofDays(1).minusMinutes(1);
 
+  /**
+   * The number of serials per partition, once the fact table is partitioned (see
+   * db/changelog/factcast/fact_partitioning/fact_partitioning.sql). Tail indexes are no longer
+   * maintained then, as the indexes of each partition stay small anyway.
+   */
+  @Positive long factPartitionSize = 50_000_000;
+
+  /** The number of partitions kept ahead of the serials published. */
+  @Positive int factPartitionsAhead = 2;
+
   /**
    * This is the number of threads we create for handling new subscriptions requests. It's
    * implemented via a fixed thread pool. As soon as the subscription request finishes or enters
@@ -189,6 +220,13 @@ public class StoreConfigurationProperties implements InitializingBean {
    */
   int sizeOfThreadPoolForBufferedTransformations = 25;
 
+  /**
+   * This is the number of threads we create for validating published facts against their schema.
+   * A publication is split into this many chunks, the first of which is validated by the
+   * publishing thread. In earlier versions we used the common FJP.
+   */
+  @Positive int sizeOfThreadPoolForValidation = Runtime.getRuntime().availableProcessors();
+
   /**
    * Configures the FactStore to work in read-only mode. You cannot publish any events in this mode
    * and certain functionality like tail index generation or state token generation is disabled.
@@ -230,6 +268,102 @@ public enum CatchupStrategy {
 
   boolean catchupAsyncFetch = false; // might default to true in the future
 
+  /**
+   * The max estimated heap size of the rows fetched ahead of processing, if catchupAsyncFetch is
+   * enabled. A single row is always fetched, even if it exceeds this limit.
+   */
+  @Positive long catchupAsyncFetchMaxBytes = PreFetchingQuery.DEFAULT_MAX_BYTES;
+
+  /**
+   * If enabled, subscriptions in follow mode no longer query the database on their own for every
+   * insert notification. Instead, a single tail reader per node fetches new facts once and matches
+   * them in memory against all followers. A follower only falls back to its own query, if it lags
+   * behind the window of facts kept by the tail reader. (Defaults to false)
+   */
+  boolean sharedTailFollowEnabled;
+
+  /**
+   * The max number of facts the shared tail reader keeps in memory for followers to pick up from.
+   * Followers that fall behind this window will fall back to querying the database on their own.
+   */
+  @Positive
+  @Min(100)
+  @Max(100_000)
+  int sharedTailWindowSize = 1000;
+
+  /** The number of threads used to hand facts from the shared tail reader to the followers. */
+  @Positive int sizeOfThreadPoolForSharedTailDispatch = 16;
+
+  /**
+   * If enabled, concurrent catchups with equivalent fact specs (for instance after restarting many
+   * replicas of a service) share a single database scan, rather than each scanning the fact table
+   * on its own. (Defaults to false)
+   */
+  boolean catchupCoalescingEnabled;
+
+  /**
+   * The max number of facts buffered for a catchup attached to a shared scan. Catchups falling
+   * further behind the scan detach from it and continue on their own.
+   */
+  @Positive
+  @Min(100)
+  @Max(1_000_000)
+  int catchupCoalescingBufferSize = 10_000;
+
+  /**
+   * If enabled, subscriptions are connected on an unbounded thread pool instead of the fixed one
+   * (see sizeOfThreadPoolForSubscriptions), and the number of concurrent catchups is limited per
+   * database instead. Catchups waiting for admission are served round robin per client, so that
+   * one client replaying a lot of subscriptions does not hold back everyone else's. (Defaults to
+   * false)
+   */
+  boolean catchupSchedulingEnabled;
+
+  /** The max number of catchups running concurrently on the primary database. */
+  @Positive int maxConcurrentCatchupsOnPrimary = 20;
+
+  /** The max number of catchups running concurrently on the offload database, if configured. */
+  @Positive int maxConcurrentCatchupsOnOffload = 20;
+
+  /**
+   * If enabled, the aggregate ids of every fact published are kept in a narrow lookup table as
+   * well, and the facts already published are added to it in chunks in the background. Once this
+   * backfill is complete, catchups and state queries constraining aggregate ids use the lookup
+   * table instead of the GIN index on the header. (Defaults to false)
+   */
+  boolean aggIdLookupEnabled;
+
+  /** The number of serials covered per transaction when backfilling the aggregate id lookup. */
+  @Positive int aggIdLookupBackfillChunkSize = 100_000;
+
+  /**
+   * The max number of idle GraalJS contexts kept per filter script. Contexts are reused across
+   * facts and subscriptions using the same filter script, so that the script does not need to be
+   * evaluated again for every fact. Should roughly match the number of subscriptions expected to
+   * use the same filter script concurrently.
+   */
+  @Positive int maxIdleFilterScriptContextsPerScript = 8;
+
+  /**
+   * If enabled, conditional publishes lock only what is matched by the fact specs of their state
+   * token, so that publishes concerning disjoint specs (for instance different aggregates) no
+   * longer wait for each other. Needs to be enabled on all nodes of a cluster. (Defaults to false)
+   */
+  boolean specScopedPublishLockEnabled;
+
+  /**
+   * If set, state tokens for optimistic locking are signed with this key and carry the state
+   * themselves, rather than being stored in the tokenstore table. Needs to be the same on all
+   * nodes of a cluster. (Defaults to null, which means tokens are stored)
+   */
+  String stateTokenSigningKey;
+
+  /**
+   * The max number of fact ids kept in memory along with their serials, in order to find the
+   * position of resuming subscriptions without querying the database. Needs 24 bytes per entry.
+   */
+  @Positive int serialLookupCacheSize = PgFactIdToSerialMapper.DEFAULT_CACHE_SIZE;
+
   @Data
   public static class PublishBatch {
     boolean enabled = false;
@@ -42,13 +42,14 @@ public class FactFilter implements PGFactMatcher {
 
   private final List<PGFactMatcher> matchers = new LinkedList<>();
 
-  public FactFilter(@NonNull SubscriptionRequest req) {
+  public FactFilter(
+      @NonNull SubscriptionRequest req, @NonNull JSFilterScriptContextPool filterScripts) {
 
     for (FactSpec spec : req.specs()) {
       // in order to test to true, we need to find ANY spec for which we match ALL matchers
       // (1A && 1B && 1C) || (2A && 2B) || ...
 
-      @Nullable PGFactMatcher js = JSFilterScriptMatcher.matches(spec);
+      @Nullable PGFactMatcher js = JSFilterScriptMatcher.matches(spec, filterScripts);
       @Nullable PGFactMatcher aggID = AggIdPropertyMatcher.matches(spec);
 
       if (js != null || aggID != null) {
@@ -40,6 +40,8 @@ public class PgConstants {
 
   public static final String TABLE_PUBLISHED_SCHEMA_VERSIONS = "published_schema_versions";
 
+  public static final String TABLE_FACT_AGGID = "fact_aggid";
+
   public static final String TAIL_INDEX_NAME_PREFIX = "idx_fact_tail_";
 
   public static final String INDEX_NAME_COLUMN = "index_name";
@@ -72,6 +74,7 @@ public class PgConstants {
           + "'";
 
   private static final String TABLE_TOKENSTORE = "tokenstore";
+  private static final String TABLE_STATE_TOKEN_SPECS = "state_token_specs";
 
   public static final String CHANNEL_NUDGE = "nudge";
   public static final String CHANNEL_BLACKLIST_CHANGE = "blacklist_change";
@@ -99,12 +102,18 @@ public class PgConstants {
 
   public static final String COLUMN_CID = "cid";
 
+  public static final String COLUMN_AGG_ID = "agg_id";
+
   private static final String COLUMN_STATE = "state";
 
   private static final String COLUMN_NAMESPACE = "ns";
 
   private static final String COLUMN_TOKEN = "token";
 
+  private static final String COLUMN_SPECS = "specs";
+
+  private static final String COLUMN_HASH = "hash";
+
   public static final String ALIAS_ID = "id";
 
   public static final String ALIAS_NS = "ns";
@@ -136,6 +145,15 @@ public class PgConstants {
           + COLUMN_PAYLOAD
           + ") VALUES (cast(? as jsonb),cast (? as jsonb))";
 
+  public static final String COPY_FACT =
+      "COPY "
+          + TABLE_FACT
+          + "("
+          + COLUMN_HEADER
+          + ","
+          + COLUMN_PAYLOAD
+          + ") FROM STDIN (FORMAT binary)";
+
   public static final String INSERT_TOKEN =
       "INSERT INTO "
           + TABLE_TOKENSTORE
@@ -200,6 +218,17 @@ public class PgConstants {
           + //
           " @> cast (? as jsonb) ORDER BY ser DESC LIMIT 1";
 
+  public static final String SELECT_TAIL =
+      "SELECT "
+          + PROJECTION_FACT
+          + " FROM "
+          + TABLE_FACT
+          + " WHERE "
+          + COLUMN_SER
+          + ">? ORDER BY "
+          + COLUMN_SER
+          + " ASC LIMIT ?";
+
   public static final String SELECT_BY_HEADER_JSON =
       "SELECT " + COLUMN_SER + " FROM " + TABLE_FACT + " WHERE " + COLUMN_HEADER + " @> ?::jsonb";
 
@@ -289,9 +318,42 @@ public class PgConstants {
           + ALIAS_ID
           + "')::uuid) = CAST(? as uuid)";
 
+  public static final String SELECT_SER_BY_IDS =
+      "SELECT "
+          + COLUMN_SER
+          + ", "
+          + fromHeader(ALIAS_ID)
+          + " FROM "
+          + TABLE_FACT
+          + " WHERE "
+          + " (("
+          + COLUMN_HEADER
+          + "->>'"
+          + ALIAS_ID
+          + "')::uuid) = ANY(?)";
+
   public static final String SELECT_STATE_FROM_TOKEN =
       "SELECT " + COLUMN_STATE + " FROM " + TABLE_TOKENSTORE + " WHERE " + COLUMN_TOKEN + "=?";
 
+  // updates the existing row, so that its id is returned as well
+  public static final String INSERT_STATE_TOKEN_SPECS =
+      "INSERT INTO "
+          + TABLE_STATE_TOKEN_SPECS
+          + " ("
+          + COLUMN_HASH
+          + ","
+          + COLUMN_SPECS
+          + ") VALUES (?, cast (? as jsonb)) ON CONFLICT ("
+          + COLUMN_HASH
+          + ") DO UPDATE SET "
+          + COLUMN_HASH
+          + "=EXCLUDED."
+          + COLUMN_HASH
+          + " RETURNING id";
+
+  public static final String SELECT_STATE_TOKEN_SPECS =
+      "SELECT " + COLUMN_SPECS + " FROM " + TABLE_STATE_TOKEN_SPECS + " WHERE id=?";
+
   public static final String SELECT_NS_FROM_TOKEN =
       "SELECT " + COLUMN_NAMESPACE + " FROM " + TABLE_TOKENSTORE + " WHERE " + COLUMN_TOKEN + "=?";
 
@@ -362,6 +424,17 @@ public static String createTailIndex(
           + " OR query ~* 'reindex'"
           + ")";
 
+  public static final String FACT_TABLE_IS_PARTITIONED =
+      "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = '"
+          + TABLE_FACT
+          + "'::regclass)";
+
+  public static final String COUNT_FACT_PARTITIONS =
+      "SELECT COUNT(*) FROM pg_inherits WHERE inhparent = '" + TABLE_FACT + "'::regclass";
+
+  public static final String CREATE_FACT_PARTITIONS_AHEAD =
+      "SELECT createFactPartitionsAhead(?, ?)";
+
   @NonNull
   public static String tailIndexName(long epoch) {
     return TAIL_INDEX_NAME_PREFIX + epoch;
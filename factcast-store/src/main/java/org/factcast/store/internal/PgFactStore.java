@@ -31,11 +31,13 @@
 import org.factcast.core.subscription.observer.FactObserver;
 import org.factcast.core.util.ExceptionHelper;
 import org.factcast.store.StoreConfigurationProperties;
+import org.factcast.store.internal.filter.blacklist.Blacklist;
 import org.factcast.store.internal.lock.FactTableWriteLock;
 import org.factcast.store.internal.query.*;
 import org.factcast.store.internal.transformation.*;
 import org.factcast.store.registry.SchemaRegistry;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.dao.*;
 import org.springframework.jdbc.core.*;
 import org.springframework.transaction.*;
@@ -64,6 +66,10 @@ public class PgFactStore extends AbstractFactStore {
 
   @NonNull private final StoreConfigurationProperties props;
 
+  @NonNull private final Blacklist blacklist;
+
+  @Nullable private final AggIdLookup aggIdLookup;
+
   private final @NonNull UnconditionalPublishQueue queue;
   private final @NonNull TransactionTemplate tx;
 
@@ -77,7 +83,37 @@ public PgFactStore(
       @NonNull PgFactIdToSerialMapper pgFactIdToSerialMapper,
       @NonNull PgMetrics metrics,
       @NonNull StoreConfigurationProperties props,
-      @NonNull PlatformTransactionManager platformTransactionManager) {
+      @NonNull PlatformTransactionManager platformTransactionManager,
+      @NonNull Blacklist blacklist) {
+    this(
+        jdbcTemplate,
+        subscriptionFactory,
+        tokenStore,
+        schemaRegistry,
+        lock,
+        factTransformerService,
+        pgFactIdToSerialMapper,
+        metrics,
+        props,
+        platformTransactionManager,
+        blacklist,
+        null);
+  }
+
+  @SuppressWarnings("java:S107")
+  public PgFactStore(
+      @NonNull JdbcTemplate jdbcTemplate,
+      @NonNull PgSubscriptionFactory subscriptionFactory,
+      @NonNull TokenStore tokenStore,
+      @NonNull SchemaRegistry schemaRegistry,
+      @NonNull FactTableWriteLock lock,
+      @NonNull FactTransformerService factTransformerService,
+      @NonNull PgFactIdToSerialMapper pgFactIdToSerialMapper,
+      @NonNull PgMetrics metrics,
+      @NonNull StoreConfigurationProperties props,
+      @NonNull PlatformTransactionManager platformTransactionManager,
+      @NonNull Blacklist blacklist,
+      @Nullable AggIdLookup aggIdLookup) {
     super(tokenStore);
 
     this.jdbcTemplate = jdbcTemplate;
@@ -88,6 +124,8 @@ public PgFactStore(
     this.metrics = metrics;
     this.factTransformerService = factTransformerService;
     this.props = props;
+    this.blacklist = blacklist;
+    this.aggIdLookup = aggIdLookup;
 
     this.tx = new TransactionTemplate(platformTransactionManager);
     this.queue = new UnconditionalPublishQueue(this, props.getPublishBatch().getMaxBatchSize());
@@ -108,6 +146,35 @@ public PgFactStore(
                 .findFirst());
   }
 
+  @Override
+  public @NonNull List<Fact> fetchPage(
+      @NonNull Collection<FactSpec> specs,
+      long afterSerial,
+      long untilSerial,
+      int limit,
+      boolean descending) {
+    if (specs.isEmpty() || limit <= 0 || untilSerial <= afterSerial) {
+      return Collections.emptyList();
+    }
+    PgQueryBuilder q = createQueryBuilder(specs);
+    return metrics.time(
+        StoreMetrics.OP.FETCH_PAGE,
+        () ->
+            jdbcTemplate
+                .query(
+                    q.createPageSQL(descending),
+                    q.createPageStatementSetter(afterSerial, untilSerial, limit),
+                    this::extractFactFromResultSet)
+                .stream()
+                .filter(f -> !blacklist.isBlocked(f.id()))
+                .toList());
+  }
+
+  @Override
+  public boolean supportsFetchPage() {
+    return true;
+  }
+
   @Override
   public @NonNull Optional<Fact> fetchByIdAndVersion(@NonNull UUID id, int version)
       throws TransformationException {
@@ -148,6 +215,52 @@ public void publish(@NonNull List<? extends Fact> factsToPublish) {
     else publishDirectly(defensiveCopy);
   }
 
+  @Override
+  public void publishBulk(@NonNull List<? extends Fact> factsToPublish) {
+    if (props.isReadOnlyModeEnabled()) {
+      throw new UnsupportedOperationException("Publishing is not allowed in read-only mode");
+    }
+    if (factsToPublish.isEmpty()) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    metrics.time(
+        StoreMetrics.OP.PUBLISH_BULK,
+        () -> {
+          try {
+            tx.execute(
+                ts -> {
+                  copyInTransaction(factsToPublish);
+                  return null;
+                });
+          } catch (TransactionException e) {
+            throw ExceptionHelper.toRuntime(e.getCause());
+          }
+        });
+    long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+    int count = factsToPublish.size();
+    metrics.counter(StoreMetrics.EVENT.FACTS_BULK_PUBLISHED).increment(count);
+    log.debug(
+        "Bulk published {} fact(s) in {}ms ({} facts/s)", count, millis, count * 1000L / millis);
+  }
+
+  @Override
+  public boolean supportsPublishBulk() {
+    return true;
+  }
+
+  void copyInTransaction(List<? extends Fact> facts) {
+    try {
+      lock.acquireSharedTXLock(facts);
+      jdbcTemplate.execute((ConnectionCallback<Long>) con -> PgFactCopy.copy(con, facts));
+      // adding serials to headers is done via trigger, just as for inserts
+    } catch (DuplicateKeyException dupkey) {
+      throw new DuplicateFactException(dupkey.getMessage());
+    }
+  }
+
   void publishDirectly(@NonNull List<? extends Fact> factsToPublish) {
     metrics.time(StoreMetrics.OP.PUBLISH, () -> batchPublish(factsToPublish));
   }
@@ -282,14 +395,65 @@ public boolean publishIfUnchanged(
       return metrics.time(
           StoreMetrics.OP.PUBLISH_IF_UNCHANGED,
           () -> {
-            lock.acquireExclusiveTXLock();
-            boolean successful = PgFactStore.super.publishIfUnchanged(defensiveCopy, optionalToken);
+            boolean successful = publishIfUnchangedLocked(defensiveCopy, optionalToken.get());
             if (!successful)
               metrics.counter(StoreMetrics.EVENT.UNSUCCESSFUL_CONDITIONAL_PUBLISH).increment();
             return successful;
           });
   }
 
+  /**
+   * same as in AbstractFactStore, but locking according to the specs of the token, before its
+   * state is checked.
+   */
+  private boolean publishIfUnchangedLocked(
+      @NonNull List<? extends Fact> factsToPublish, @NonNull StateToken token) {
+    Optional<State> state = tokenStore.get(token);
+    if (state.isEmpty()) {
+      // token is unknown, just reject.
+      return false;
+    }
+    try {
+      return publishIfUnchangedLocked(factsToPublish, state.get());
+    } finally {
+      invalidate(token);
+    }
+  }
+
+  private boolean publishIfUnchangedLocked(
+      @NonNull List<? extends Fact> factsToPublish, @NonNull State state) {
+    lock.acquireExclusiveTXLock(state.specs(), factsToPublish);
+    if (isStateUnchanged(state)) {
+      publish(factsToPublish);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.REQUIRED)
+  @SuppressWarnings("java:S6809") // as we started a transaction already
+  public boolean publishIfUnchangedSince(
+      @NonNull List<? extends Fact> factsToPublish,
+      @NonNull Collection<FactSpec> specs,
+      long serial) {
+    if (props.isReadOnlyModeEnabled()) {
+      throw new UnsupportedOperationException("Publishing is not allowed in read-only mode");
+    }
+
+    var defensiveCopy = new ArrayList<>(factsToPublish);
+    return metrics.time(
+        StoreMetrics.OP.PUBLISH_IF_UNCHANGED,
+        () -> {
+          boolean successful =
+              publishIfUnchangedLocked(defensiveCopy, State.of(new ArrayList<>(specs), serial));
+          if (!successful)
+            metrics.counter(StoreMetrics.EVENT.UNSUCCESSFUL_CONDITIONAL_PUBLISH).increment();
+          return successful;
+        });
+  }
+
   @Override
   @NonNull
   protected State getStateFor(@NonNull Collection<FactSpec> specs) {
@@ -307,7 +471,7 @@ State doGetState(@NotNull Collection<FactSpec> specs, long lastMatchingSerial) {
     return metrics.time(
         StoreMetrics.OP.GET_STATE_FOR,
         () -> {
-          PgQueryBuilder pgQueryBuilder = new PgQueryBuilder(specs);
+          PgQueryBuilder pgQueryBuilder = createQueryBuilder(specs);
           String stateSQL = pgQueryBuilder.createStateSQL();
           PreparedStatementSetter statementSetter =
               pgQueryBuilder.createStatementSetter(new AtomicLong(lastMatchingSerial));
@@ -325,6 +489,12 @@ State doGetState(@NotNull Collection<FactSpec> specs, long lastMatchingSerial) {
         });
   }
 
+  @VisibleForTesting
+  PgQueryBuilder createQueryBuilder(@NonNull Collection<FactSpec> specs) {
+    PgQueryBuilder b = new PgQueryBuilder(specs);
+    return aggIdLookup != null && aggIdLookup.isComplete() ? b.useAggIdLookup() : b;
+  }
+
   @Override
   @NonNull
   protected State getCurrentStateFor(Collection<FactSpec> specs) {
@@ -420,7 +590,7 @@ void batchPublish(List<? extends Fact> facts) {
 
   void batchPublishInTransaction(List<? extends Fact> facts) {
     try {
-      lock.acquireSharedTXLock();
+      lock.acquireSharedTXLock(facts);
       jdbcTemplate.batchUpdate(
           PgConstants.INSERT_FACT,
           facts,
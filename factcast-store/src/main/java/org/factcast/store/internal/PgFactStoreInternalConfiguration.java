@@ -35,9 +35,12 @@
 import org.factcast.core.store.*;
 import org.factcast.core.subscription.observer.HighWaterMarkFetcher;
 import org.factcast.store.*;
+import org.factcast.store.internal.catchup.CatchupCoalescer;
+import org.factcast.store.internal.catchup.CatchupScheduler;
 import org.factcast.store.internal.catchup.PgCatchUpFactoryImpl;
 import org.factcast.store.internal.catchup.PgCatchupFactory;
 import org.factcast.store.internal.check.IndexCheck;
+import org.factcast.store.internal.filter.JSFilterScriptContextPool;
 import org.factcast.store.internal.filter.blacklist.*;
 import org.factcast.store.internal.listen.*;
 import org.factcast.store.internal.lock.*;
@@ -108,8 +111,11 @@ public EventBus regularEventBus(@NonNull PgMetrics metrics) {
 
   @Bean
   @DependsOnDatabaseInitialization
-  public PgCatchupFactory pgCatchupFactory(StoreConfigurationProperties props, PgMetrics metrics) {
-    return new PgCatchUpFactoryImpl(props, metrics);
+  public PgCatchupFactory pgCatchupFactory(
+      StoreConfigurationProperties props,
+      PgMetrics metrics,
+      @Nullable AggIdLookup aggIdLookup) {
+    return new PgCatchUpFactoryImpl(props, metrics, aggIdLookup);
   }
 
   @Bean
@@ -133,7 +139,9 @@ public FactStore factStore(
       PgFactIdToSerialMapper pgFactIdToSerialMapper,
       PgMetrics pgMetrics,
       StoreConfigurationProperties props,
-      PlatformTransactionManager platformTransactionManager) {
+      PlatformTransactionManager platformTransactionManager,
+      Blacklist blacklist,
+      @Nullable AggIdLookup aggIdLookup) {
     return new PgFactStore(
         jdbcTemplate,
         subscriptionFactory,
@@ -144,7 +152,9 @@ public FactStore factStore(
         pgFactIdToSerialMapper,
         pgMetrics,
         props,
-        platformTransactionManager);
+        platformTransactionManager,
+        blacklist,
+        aggIdLookup);
   }
 
   @Bean
@@ -159,7 +169,10 @@ public PgSubscriptionFactory pgSubscriptionFactory(
       PgStoreTelemetry telemetry,
       ServerPipelineFactory pipelineFactory,
       PgMetrics metrics,
-      LogSuppression logsup) {
+      LogSuppression logsup,
+      @Nullable SharedTailReader sharedTailReader,
+      @Nullable CatchupCoalescer catchupCoalescer,
+      @Nullable CatchupScheduler catchupScheduler) {
     return new PgSubscriptionFactory(
         connectionSupplier,
         offloadDataSource,
@@ -171,7 +184,57 @@ public PgSubscriptionFactory pgSubscriptionFactory(
         pipelineFactory,
         metrics,
         telemetry,
-        logsup);
+        logsup,
+        sharedTailReader,
+        catchupCoalescer,
+        catchupScheduler);
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = StoreConfigurationProperties.PROPERTIES_PREFIX,
+      name = "shared-tail-follow-enabled",
+      havingValue = "true")
+  public SharedTailReader sharedTailReader(
+      EventBus eventBus,
+      JdbcTemplate jdbcTemplate,
+      PgMetrics metrics,
+      PgFactIdToSerialMapper pgFactIdToSerialMapper,
+      StoreConfigurationProperties props) {
+    return new SharedTailReader(eventBus, jdbcTemplate, metrics, pgFactIdToSerialMapper, props);
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = StoreConfigurationProperties.PROPERTIES_PREFIX,
+      name = "catchup-coalescing-enabled",
+      havingValue = "true")
+  public CatchupCoalescer catchupCoalescer(
+      PgMetrics metrics, StoreConfigurationProperties props) {
+    return new CatchupCoalescer(metrics, props);
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = StoreConfigurationProperties.PROPERTIES_PREFIX,
+      name = "catchup-scheduling-enabled",
+      havingValue = "true")
+  public CatchupScheduler catchupScheduler(
+      PgMetrics metrics, StoreConfigurationProperties props) {
+    return new CatchupScheduler(metrics, props);
+  }
+
+  @Bean
+  @DependsOnDatabaseInitialization
+  @ConditionalOnProperty(
+      prefix = StoreConfigurationProperties.PROPERTIES_PREFIX,
+      name = "agg-id-lookup-enabled",
+      havingValue = "true")
+  public AggIdLookup aggIdLookup(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager platformTransactionManager,
+      StoreConfigurationProperties props) {
+    return new AggIdLookup(jdbcTemplate, platformTransactionManager, props);
   }
 
   @Bean
@@ -197,14 +260,24 @@ public PgListener pgListener(
 
   @Bean
   public PgFactIdToSerialMapper pgFactIdToSerialMapper(
-      JdbcTemplate jdbcTemplate, PgMetrics metrics, MeterRegistry registry) {
-    return new PgFactIdToSerialMapper(jdbcTemplate, metrics, registry);
+      JdbcTemplate jdbcTemplate,
+      PgMetrics metrics,
+      MeterRegistry registry,
+      StoreConfigurationProperties props) {
+    return new PgFactIdToSerialMapper(
+        jdbcTemplate, metrics, registry, props.getSerialLookupCacheSize());
   }
 
   @Bean
   @IsReadAndWriteEnv
-  public TokenStore pgTokenStore(JdbcTemplate jdbcTemplate, PgMetrics metrics) {
-    return new PgTokenStore(jdbcTemplate, metrics);
+  public TokenStore pgTokenStore(
+      JdbcTemplate jdbcTemplate, PgMetrics metrics, StoreConfigurationProperties props) {
+    PgTokenStore pgTokenStore = new PgTokenStore(jdbcTemplate, metrics);
+    String key = props.getStateTokenSigningKey();
+    if (key != null) {
+      return new SignedTokenStore(jdbcTemplate, pgTokenStore, key);
+    }
+    return pgTokenStore;
   }
 
   @Bean
@@ -214,7 +287,11 @@ public TokenStore roTokenStore() {
   }
 
   @Bean
-  public FactTableWriteLock factTableWriteLock(JdbcTemplate tpl) {
+  public FactTableWriteLock factTableWriteLock(
+      JdbcTemplate tpl, StoreConfigurationProperties props, PgMetrics metrics) {
+    if (props.isSpecScopedPublishLockEnabled()) {
+      return new SpecScopedAdvisoryWriteLock(tpl, metrics);
+    }
     return new AdvisoryWriteLock(tpl);
   }
 
@@ -323,18 +400,28 @@ public ServerPipelineFactory factPipelineFactory(
       FactTransformerService transformerService,
       Blacklist blacklist,
       PgMetrics metrics,
-      StoreConfigurationProperties properties) {
+      StoreConfigurationProperties properties,
+      JSFilterScriptContextPool filterScripts) {
     return ServerPipelineFactory.builder()
         .factTransformerService(transformerService)
         .blacklist(blacklist)
         .metrics(metrics)
         .properties(properties)
+        .filterScripts(filterScripts)
         .build();
   }
 
   @Bean
-  public Transformer transformer() {
-    return new JsTransformer();
+  public JSFilterScriptContextPool jsFilterScriptContextPool(
+      PgMetrics metrics, StoreConfigurationProperties properties) {
+    return new JSFilterScriptContextPool(
+        metrics, properties.getMaxIdleFilterScriptContextsPerScript());
+  }
+
+  @Bean
+  public Transformer transformer(StoreConfigurationProperties properties) {
+    // transformations run in a pool of this size, so that there is no point in keeping more
+    return new JsTransformer(properties.getSizeOfThreadPoolForBufferedTransformations());
   }
 
   @Bean
@@ -18,6 +18,7 @@
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.eventbus.EventBus;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -41,10 +42,14 @@
 import org.factcast.store.internal.query.CurrentStatementHolder;
 import org.factcast.store.internal.query.PgFactIdToSerialMapper;
 import org.factcast.store.internal.query.PgQueryBuilder;
+import org.factcast.store.internal.rowmapper.PgFactExtractor;
 import org.factcast.store.internal.telemetry.PgStoreTelemetry;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.datasource.*;
 
 /**
@@ -70,6 +75,12 @@ public class PgFactStream {
 
   final LogSuppression logSuppression;
 
+  @Nullable final SharedTailReader sharedTailReader;
+
+  @Nullable final CatchupCoalescer catchupCoalescer;
+
+  @Nullable final CatchupScheduler catchupScheduler;
+
   QueryExecutor queryExecutor;
 
   @VisibleForTesting
@@ -119,6 +130,99 @@ public PgFactStream(
       StoreConfigurationProperties props,
       SubscriptionRequestTO request,
       LogSuppression logSuppression) {
+    this(
+        connectionSupplier,
+        offloadDataSource,
+        eventBus,
+        idToSerMapper,
+        pgCatchupFactory,
+        hwmFetcher,
+        pipeline,
+        telemetry,
+        props,
+        request,
+        logSuppression,
+        null);
+  }
+
+  @SuppressWarnings("java:S107")
+  public PgFactStream(
+      PgConnectionSupplier connectionSupplier,
+      @Nullable OffloadDataSource offloadDataSource,
+      EventBus eventBus,
+      PgFactIdToSerialMapper idToSerMapper,
+      PgCatchupFactory pgCatchupFactory,
+      HighWaterMarkFetcher hwmFetcher,
+      ServerPipeline pipeline,
+      PgStoreTelemetry telemetry,
+      StoreConfigurationProperties props,
+      SubscriptionRequestTO request,
+      LogSuppression logSuppression,
+      @Nullable SharedTailReader sharedTailReader) {
+    this(
+        connectionSupplier,
+        offloadDataSource,
+        eventBus,
+        idToSerMapper,
+        pgCatchupFactory,
+        hwmFetcher,
+        pipeline,
+        telemetry,
+        props,
+        request,
+        logSuppression,
+        sharedTailReader,
+        null);
+  }
+
+  @SuppressWarnings("java:S107")
+  public PgFactStream(
+      PgConnectionSupplier connectionSupplier,
+      @Nullable OffloadDataSource offloadDataSource,
+      EventBus eventBus,
+      PgFactIdToSerialMapper idToSerMapper,
+      PgCatchupFactory pgCatchupFactory,
+      HighWaterMarkFetcher hwmFetcher,
+      ServerPipeline pipeline,
+      PgStoreTelemetry telemetry,
+      StoreConfigurationProperties props,
+      SubscriptionRequestTO request,
+      LogSuppression logSuppression,
+      @Nullable SharedTailReader sharedTailReader,
+      @Nullable CatchupCoalescer catchupCoalescer) {
+    this(
+        connectionSupplier,
+        offloadDataSource,
+        eventBus,
+        idToSerMapper,
+        pgCatchupFactory,
+        hwmFetcher,
+        pipeline,
+        telemetry,
+        props,
+        request,
+        logSuppression,
+        sharedTailReader,
+        catchupCoalescer,
+        null);
+  }
+
+  @SuppressWarnings("java:S107")
+  public PgFactStream(
+      PgConnectionSupplier connectionSupplier,
+      @Nullable OffloadDataSource offloadDataSource,
+      EventBus eventBus,
+      PgFactIdToSerialMapper idToSerMapper,
+      PgCatchupFactory pgCatchupFactory,
+      HighWaterMarkFetcher hwmFetcher,
+      ServerPipeline pipeline,
+      PgStoreTelemetry telemetry,
+      StoreConfigurationProperties props,
+      SubscriptionRequestTO request,
+      LogSuppression logSuppression,
+      @Nullable SharedTailReader sharedTailReader,
+      @Nullable CatchupCoalescer catchupCoalescer,
+      @Nullable CatchupScheduler catchupScheduler) {
     this.connectionSupplier = connectionSupplier;
     this.eventBus = eventBus;
     this.idToSerMapper = idToSerMapper;
@@ -130,6 +234,9 @@ public PgFactStream(
     this.offloadDataSource = offloadDataSource;
     this.request = request;
     this.logSuppression = logSuppression;
+    this.sharedTailReader = sharedTailReader;
+    this.catchupCoalescer = catchupCoalescer;
+    this.catchupScheduler = catchupScheduler;
   }
 
   void connect() {
@@ -172,7 +279,10 @@ PgSynchronizedQuery createPgSynchronizedQuery() {
         this::isConnected,
         serial,
         hwmFetcher,
-        statementHolder);
+        statementHolder,
+        idToSerMapper,
+        new PgSynchronizedQuery.RangeQuery(
+            q.createRangeSQL(), until -> q.createRangeStatementSetter(serial, until)));
   }
 
   @VisibleForTesting
@@ -191,8 +301,14 @@ void follow(@NonNull SubscriptionRequestTO request, @NonNull PgSynchronizedQuery
         log.debug("{} entering follow mode", request);
         // signal follow
         telemetry.onFollow(request);
-        queryExecutor = createQueryExecutor(request, query);
-        eventBus.register(queryExecutor);
+        if (sharedTailReader != null) {
+          SharedTailFollower follower = createSharedTailFollower(request, query);
+          sharedTailReader.register(follower);
+          queryExecutor = follower;
+        } else {
+          queryExecutor = createQueryExecutor(request, query);
+          eventBus.register(queryExecutor);
+        }
         // catchup phase 3 – make sure, we did not miss any fact due to
         // slow registration
         queryExecutor.trigger();
@@ -212,6 +328,19 @@ QueryExecutor createQueryExecutor(
     return new QueryExecutor(query, this::isConnected, request.specs());
   }
 
+  @VisibleForTesting
+  @NonNull
+  SharedTailFollower createSharedTailFollower(
+      @NonNull SubscriptionRequest request, @NonNull PgSynchronizedQuery query) {
+    return new SharedTailFollower(
+        query,
+        this::isConnected,
+        request.specs(),
+        pipeline,
+        serial,
+        Objects.requireNonNull(sharedTailReader));
+  }
+
   @VisibleForTesting
   @NonNull
   List<ConnectionModifier> catchupConnectionModifiers(@NonNull SubscriptionRequest request) {
@@ -268,17 +397,28 @@ void doCatchup() {
         long phase1HighwaterMark = -1;
 
         if (offloadDataSource != null) {
-          // we're creating a SCDS for offload, that we destroy right after
-          try (SingleConnectionDataSource secondary = createCatchupDataSource(offloadDataSource)) {
-            phase1HighwaterMark = catchupPhaseOne(secondary);
+          try (var admission = admit(CatchupScheduler.Database.OFFLOAD, false)) {
+            if (!isConnected()) return;
+            // we're creating a SCDS for offload, that we destroy right after
+            try (SingleConnectionDataSource secondary =
+                createCatchupDataSource(offloadDataSource)) {
+              phase1HighwaterMark = catchupPhaseOne(secondary);
+            }
           }
         } else {
-          phase1HighwaterMark = catchupPhaseOne(primary.get());
+          try (var admission = admit(CatchupScheduler.Database.PRIMARY, false)) {
+            if (!isConnected()) return;
+            phase1HighwaterMark = catchupPhaseOne(primary.get());
+          }
         }
 
         if (!isConnected()) return;
 
-        catchupPhaseTwo(primary, phase1HighwaterMark);
+        // phase 2 usually is short and ends in follow mode, so it is admitted first
+        try (var admission = admit(CatchupScheduler.Database.PRIMARY, true)) {
+          if (!isConnected()) return;
+          catchupPhaseTwo(primary, phase1HighwaterMark);
+        }
 
         // now that phase 1&2 are done, we can ffwd to the initial HWM on the primary
         fastForward(highWaterMark);
@@ -286,6 +426,19 @@ void doCatchup() {
     }
   }
 
+  /**
+   * @return the admission for a catchup on the given database, or null if there is no scheduler
+   *     (or the subscription was disconnected while waiting)
+   */
+  @Nullable
+  @VisibleForTesting
+  CatchupScheduler.Admission admit(@NonNull CatchupScheduler.Database db, boolean priority) {
+    if (catchupScheduler == null) {
+      return null;
+    }
+    return catchupScheduler.admit(db, request, priority, this::isConnected);
+  }
+
   @VisibleForTesting
   void catchupPhaseTwo(PrimaryDataSourceSupplier primary, long phase1HighwaterMark) {
     // proceed to phase 2 on the primary
@@ -323,15 +476,20 @@ long catchupPhaseOne(@NonNull SingleConnectionDataSource dataSourceToUseForP1) {
       return from;
     } else {
 
-      pgCatchupFactory
-          .create(
-              request,
-              pipeline,
-              serial,
-              statementHolder,
-              dataSourceToUseForP1,
-              PgCatchupFactory.Phase.PHASE_1)
-          .run();
+      boolean done =
+          catchupCoalescer != null
+              && catchupCoalescer.catchup(
+                  request.specs(),
+                  pipeline,
+                  serial,
+                  this::isConnected,
+                  p -> runPhaseOne(p, dataSourceToUseForP1),
+                  until -> catchupRange(dataSourceToUseForP1, until));
+
+      // if attached to a shared scan, we continue from where it left off
+      if (!done && isConnected()) {
+        runPhaseOne(pipeline, dataSourceToUseForP1);
+      }
 
       // serial might be higher than hwm, because of concurrent inserts, but it also may be much
       // smaller
@@ -340,6 +498,45 @@ long catchupPhaseOne(@NonNull SingleConnectionDataSource dataSourceToUseForP1) {
     }
   }
 
+  private void runPhaseOne(
+      @NonNull ServerPipeline pipe, @NonNull SingleConnectionDataSource dataSourceToUseForP1) {
+    pgCatchupFactory
+        .create(
+            request,
+            pipe,
+            serial,
+            statementHolder,
+            dataSourceToUseForP1,
+            PgCatchupFactory.Phase.PHASE_1)
+        .run();
+  }
+
+  /** catches up on the facts after the current serial, up to (and including) the given one. */
+  @VisibleForTesting
+  void catchupRange(@NonNull SingleConnectionDataSource ds, long untilSerial) {
+    PgQueryBuilder b = new PgQueryBuilder(request.specs(), statementHolder);
+    PgFactExtractor extractor = new PgFactExtractor(serial);
+    JdbcTemplate jdbc = new JdbcTemplate(ds);
+    jdbc.setFetchSize(props.getPageSize());
+
+    RowCallbackHandler handler =
+        rs -> {
+          if (!statementHolder.wasCanceled()) {
+            pipeline.process(Signal.of(extractor.mapRow(rs, 0)));
+          }
+        };
+    try {
+      jdbc.query(
+          b.createRangeSQL(), b.createRangeStatementSetter(serial, untilSerial), handler);
+    } catch (DataAccessException e) {
+      if (!statementHolder.wasCanceled()) {
+        throw e;
+      }
+    } finally {
+      statementHolder.clear();
+    }
+  }
+
   @VisibleForTesting
   boolean isConnected() {
     return !disconnected.get();
@@ -349,7 +546,9 @@ public synchronized void close() {
     log.trace("{} disconnecting ", request);
     disconnected.set(true);
     if (queryExecutor != null) {
-      eventBus.unregister(queryExecutor);
+      if (sharedTailReader == null) {
+        eventBus.unregister(queryExecutor);
+      }
       queryExecutor.cancel();
       queryExecutor = null;
     }
@@ -123,6 +123,13 @@ public Timer timer(@NonNull StoreMetrics.OP operation) {
     return timerBuilder(operation, StoreMetrics.TAG_EXCEPTION_VALUE_NONE).register(registry);
   }
 
+  @NonNull
+  public Timer timer(@NonNull StoreMetrics.OP operation, @NonNull Tags tags) {
+    return timerBuilder(operation, StoreMetrics.TAG_EXCEPTION_VALUE_NONE)
+        .tags(tags)
+        .register(registry);
+  }
+
   @NonNull
   public Timer timer(@NonNull StoreMetrics.OP operation, boolean fromScratch) {
     return timerBuilder(operation, StoreMetrics.TAG_EXCEPTION_VALUE_NONE)
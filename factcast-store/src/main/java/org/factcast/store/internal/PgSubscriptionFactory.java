@@ -25,6 +25,8 @@
 import org.factcast.core.subscription.MissingTransformationInformationException;
 import org.factcast.core.subscription.observer.*;
 import org.factcast.store.*;
+import org.factcast.store.internal.catchup.CatchupCoalescer;
+import org.factcast.store.internal.catchup.CatchupScheduler;
 import org.factcast.store.internal.catchup.PgCatchupFactory;
 import org.factcast.store.internal.listen.PgConnectionSupplier;
 import org.factcast.store.internal.logsuppression.LogSuppression;
@@ -53,6 +55,9 @@ public class PgSubscriptionFactory implements AutoCloseable {
   final OffloadDataSource offloadDataSource;
   private final int maxPipelineBufferSize;
   private final LogSuppression logSuppression;
+  @Nullable private final SharedTailReader sharedTailReader;
+  @Nullable private final CatchupCoalescer catchupCoalescer;
+  @Nullable private final CatchupScheduler catchupScheduler;
 
   public PgSubscriptionFactory(
       PgConnectionSupplier connectionSupplier,
@@ -66,6 +71,99 @@ public PgSubscriptionFactory(
       PgMetrics metrics,
       PgStoreTelemetry telemetry,
       LogSuppression logSuppression) {
+    this(
+        connectionSupplier,
+        offloadDataSource,
+        eventBus,
+        idToSerialMapper,
+        props,
+        catchupFactory,
+        hwmFetcher,
+        pipelineFactory,
+        metrics,
+        telemetry,
+        logSuppression,
+        null);
+  }
+
+  @SuppressWarnings("java:S107")
+  public PgSubscriptionFactory(
+      PgConnectionSupplier connectionSupplier,
+      @Nullable OffloadDataSource offloadDataSource,
+      EventBus eventBus,
+      PgFactIdToSerialMapper idToSerialMapper,
+      StoreConfigurationProperties props,
+      PgCatchupFactory catchupFactory,
+      HighWaterMarkFetcher hwmFetcher,
+      ServerPipelineFactory pipelineFactory,
+      PgMetrics metrics,
+      PgStoreTelemetry telemetry,
+      LogSuppression logSuppression,
+      @Nullable SharedTailReader sharedTailReader) {
+    this(
+        connectionSupplier,
+        offloadDataSource,
+        eventBus,
+        idToSerialMapper,
+        props,
+        catchupFactory,
+        hwmFetcher,
+        pipelineFactory,
+        metrics,
+        telemetry,
+        logSuppression,
+        sharedTailReader,
+        null);
+  }
+
+  @SuppressWarnings("java:S107")
+  public PgSubscriptionFactory(
+      PgConnectionSupplier connectionSupplier,
+      @Nullable OffloadDataSource offloadDataSource,
+      EventBus eventBus,
+      PgFactIdToSerialMapper idToSerialMapper,
+      StoreConfigurationProperties props,
+      PgCatchupFactory catchupFactory,
+      HighWaterMarkFetcher hwmFetcher,
+      ServerPipelineFactory pipelineFactory,
+      PgMetrics metrics,
+      PgStoreTelemetry telemetry,
+      LogSuppression logSuppression,
+      @Nullable SharedTailReader sharedTailReader,
+      @Nullable CatchupCoalescer catchupCoalescer) {
+    this(
+        connectionSupplier,
+        offloadDataSource,
+        eventBus,
+        idToSerialMapper,
+        props,
+        catchupFactory,
+        hwmFetcher,
+        pipelineFactory,
+        metrics,
+        telemetry,
+        logSuppression,
+        sharedTailReader,
+        catchupCoalescer,
+        null);
+  }
+
+  @SuppressWarnings("java:S107")
+  public PgSubscriptionFactory(
+      PgConnectionSupplier connectionSupplier,
+      @Nullable OffloadDataSource offloadDataSource,
+      EventBus eventBus,
+      PgFactIdToSerialMapper idToSerialMapper,
+      StoreConfigurationProperties props,
+      PgCatchupFactory catchupFactory,
+      HighWaterMarkFetcher hwmFetcher,
+      ServerPipelineFactory pipelineFactory,
+      PgMetrics metrics,
+      PgStoreTelemetry telemetry,
+      LogSuppression logSuppression,
+      @Nullable SharedTailReader sharedTailReader,
+      @Nullable CatchupCoalescer catchupCoalescer,
+      @Nullable CatchupScheduler catchupScheduler) {
     this.connectionSupplier = connectionSupplier;
     this.eventBus = eventBus;
     this.idToSerialMapper = idToSerialMapper;
@@ -77,10 +175,16 @@ public PgSubscriptionFactory(
     this.offloadDataSource = offloadDataSource;
     this.maxPipelineBufferSize = props.getTransformationCachePageSize();
     this.logSuppression = logSuppression;
+    this.sharedTailReader = sharedTailReader;
+    this.catchupCoalescer = catchupCoalescer;
+    this.catchupScheduler = catchupScheduler;
 
+    // with a scheduler, the number of concurrent catchups is limited per database instead
     this.es =
         metrics.monitor(
-            Executors.newFixedThreadPool(props.getSizeOfThreadPoolForSubscriptions()),
+            catchupScheduler != null
+                ? Executors.newCachedThreadPool()
+                : Executors.newFixedThreadPool(props.getSizeOfThreadPoolForSubscriptions()),
             "subscription-factory");
   }
 
@@ -101,7 +205,10 @@ public Subscription subscribe(SubscriptionRequestTO req, FactObserver observer)
             telemetry,
             props,
             req,
-            logSuppression);
+            logSuppression,
+            sharedTailReader,
+            catchupCoalescer,
+            catchupScheduler);
 
     // when closing the subscription, also close the PgFactStream
     subscription.onClose(pgsub::close);
@@ -21,6 +21,7 @@
 import java.util.*;
 import java.util.concurrent.atomic.*;
 import java.util.function.*;
+import javax.annotation.Nullable;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -66,6 +67,15 @@ class PgSynchronizedQuery {
   @NonNull final CurrentStatementHolder statementHolder;
   private final @NonNull PgConnectionSupplier connectionSupplier;
 
+  @Nullable final RangeQuery rangeQuery;
+
+  /**
+   * the query bounded by the serial of the latest fact to look for, used if that is known from the
+   * insert notification.
+   */
+  record RangeQuery(
+      @NonNull String sql, @NonNull LongFunction<PreparedStatementSetter> setterUntil) {}
+
   PgSynchronizedQuery(
       @NonNull String debugInfo,
       @NonNull ServerPipeline pipe,
@@ -76,6 +86,58 @@ class PgSynchronizedQuery {
       @NonNull AtomicLong serialToContinueFrom,
       @NonNull HighWaterMarkFetcher hwmFetcher,
       @NonNull CurrentStatementHolder statementHolder) {
+    this(
+        debugInfo,
+        pipe,
+        connectionSupplier,
+        sql,
+        setter,
+        isConnected,
+        serialToContinueFrom,
+        hwmFetcher,
+        statementHolder,
+        null);
+  }
+
+  @SuppressWarnings("java:S107")
+  PgSynchronizedQuery(
+      @NonNull String debugInfo,
+      @NonNull ServerPipeline pipe,
+      @NonNull PgConnectionSupplier connectionSupplier,
+      @NonNull String sql,
+      @NonNull PreparedStatementSetter setter,
+      @NonNull Supplier<Boolean> isConnected,
+      @NonNull AtomicLong serialToContinueFrom,
+      @NonNull HighWaterMarkFetcher hwmFetcher,
+      @NonNull CurrentStatementHolder statementHolder,
+      @Nullable PgFactIdToSerialMapper idToSerialMapper) {
+    this(
+        debugInfo,
+        pipe,
+        connectionSupplier,
+        sql,
+        setter,
+        isConnected,
+        serialToContinueFrom,
+        hwmFetcher,
+        statementHolder,
+        idToSerialMapper,
+        null);
+  }
+
+  @SuppressWarnings("java:S107")
+  PgSynchronizedQuery(
+      @NonNull String debugInfo,
+      @NonNull ServerPipeline pipe,
+      @NonNull PgConnectionSupplier connectionSupplier,
+      @NonNull String sql,
+      @NonNull PreparedStatementSetter setter,
+      @NonNull Supplier<Boolean> isConnected,
+      @NonNull AtomicLong serialToContinueFrom,
+      @NonNull HighWaterMarkFetcher hwmFetcher,
+      @NonNull CurrentStatementHolder statementHolder,
+      @Nullable PgFactIdToSerialMapper idToSerialMapper,
+      @Nullable RangeQuery rangeQuery) {
     this.debugInfo = debugInfo;
     this.pipe = pipe;
     this.serialToContinueFrom = serialToContinueFrom;
@@ -84,15 +146,31 @@ class PgSynchronizedQuery {
     this.sql = sql;
     this.setter = setter;
     this.statementHolder = statementHolder;
+    this.rangeQuery = rangeQuery;
 
     rowHandler =
         new PgSynchronizedQuery.FactRowCallbackHandler(
-            pipe, isConnected, serialToContinueFrom, statementHolder);
+            pipe, isConnected, serialToContinueFrom, statementHolder, idToSerialMapper);
   }
 
+  public void run(boolean useIndex) {
+    run(useIndex, null);
+  }
+
+  /**
+   * @param untilSerial the serial of the latest fact inserted, if known from the insert
+   *     notification. Saves the lookup of the high water mark, and the query altogether if already
+   *     passed.
+   */
   // the synchronized here is crucial!
   @SuppressWarnings({"SameReturnValue", "java:S1181"})
-  public synchronized void run(boolean useIndex) {
+  public synchronized void run(boolean useIndex, @Nullable Long untilSerial) {
+    boolean bounded = untilSerial != null && rangeQuery != null;
+    if (bounded && untilSerial <= serialToContinueFrom.get()) {
+      log.trace("{} skipping query, as facts until {} were already passed", debugInfo, untilSerial);
+      return;
+    }
+
     List<ConnectionModifier> filters =
         Lists.newArrayList(ConnectionModifier.withApplicationName(debugInfo));
     if (!useIndex) {
@@ -103,13 +181,24 @@ public synchronized void run(boolean useIndex) {
       filters.add(ConnectionModifier.withCustomPlanForced());
     }
     try (SingleConnectionDataSource ds = connectionSupplier.getPooledAsSingleDataSource(filters)) {
-      long latest = hwmFetcher.highWaterMark(ds).targetSer();
+      long latest;
+      String sqlToRun;
+      PreparedStatementSetter setterToUse;
+      if (bounded) {
+        latest = untilSerial;
+        sqlToRun = rangeQuery.sql();
+        setterToUse = rangeQuery.setterUntil().apply(untilSerial);
+      } else {
+        latest = hwmFetcher.highWaterMark(ds).targetSer();
+        sqlToRun = sql;
+        setterToUse = setter;
+      }
       new JdbcTemplate(ds)
           .query(
-              sql,
+              sqlToRun,
               ps -> {
                 statementHolder.statement(ps);
-                setter.setValues(ps);
+                setterToUse.setValues(ps);
               },
               rowHandler);
 
@@ -149,6 +238,8 @@ static class FactRowCallbackHandler implements RowCallbackHandler {
 
     final CurrentStatementHolder statementHolder;
 
+    @Nullable final PgFactIdToSerialMapper idToSerialMapper;
+
     @SuppressWarnings("NullableProblems")
     @Override
     public void processRow(ResultSet rs) throws SQLException {
@@ -165,7 +256,11 @@ public void processRow(ResultSet rs) throws SQLException {
         try {
           f = PgFact.from(rs);
           pipe.process(Signal.of(f));
-          serial.set(rs.getLong(PgConstants.COLUMN_SER));
+          long ser = rs.getLong(PgConstants.COLUMN_SER);
+          serial.set(ser);
+          if (idToSerialMapper != null) {
+            idToSerialMapper.remember(f.id(), ser);
+          }
         } catch (PSQLException psql) {
           // see #2088
           if (statementHolder.wasCanceled()) {
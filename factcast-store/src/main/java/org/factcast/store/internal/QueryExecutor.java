@@ -33,7 +33,7 @@
 class QueryExecutor {
 
   private final PgSynchronizedQuery target;
-  private final Supplier<Boolean> connectionStateSupplier;
+  final Supplier<Boolean> connectionStateSupplier;
   private final Set<String> interests;
 
   public QueryExecutor(
@@ -69,7 +69,12 @@ public void trigger() {
   public void onEvent(FactInsertionNotification ev) {
     // only trigger if necessary
     if (mightMatch(ev.ns(), ev.type())) {
-      trigger();
+      Long until = ev.maxFactSer();
+      if (until == null) {
+        trigger();
+      } else if (Boolean.TRUE.equals(connectionStateSupplier.get())) {
+        runTarget(until);
+      }
     }
   }
 
@@ -95,6 +100,15 @@ protected synchronized void runTarget() {
     }
   }
 
+  /** runs the target, bounded by the serial of the latest fact inserted */
+  protected synchronized void runTarget(long untilSerial) {
+    try {
+      target.run(false, untilSerial);
+    } catch (Exception e) {
+      log.error("cannot run Target: ", e);
+    }
+  }
+
   public void cancel() {
     // hook for cleaning up, no longer needed
   }
@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import jakarta.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.store.internal.filter.BasicMatcher;
+import org.factcast.store.internal.pipeline.ServerPipeline;
+import org.factcast.store.internal.pipeline.Signal;
+
+/**
+ * A {@link QueryExecutor} that is fed by the {@link SharedTailReader} rather than by the EventBus.
+ *
+ * <p>Facts from the shared window are matched in memory the same way the query would match them
+ * in the database, which means regardless of their version. Transformation, filter scripts and
+ * aggId properties are left to the {@link ServerPipeline}, as they would be for queried facts. The
+ * query is only used, if this follower lags behind the window.
+ *
+ * <p>Facts routed by an index that already contained this follower are not matched again. Facts
+ * fetched before are matched locally.
+ */
+@Slf4j
+class SharedTailFollower extends QueryExecutor {
+
+  private final @NonNull SharedTailReader reader;
+  private final @NonNull ServerPipeline pipe;
+  private final @NonNull AtomicLong serial;
+  private final @NonNull List<FactSpec> specs;
+  private final @NonNull List<BasicMatcher> matchers;
+  private final int id;
+
+  // version of the reader's index, this follower was first contained in
+  private volatile long indexedSince;
+
+  @VisibleForTesting final AtomicBoolean pending = new AtomicBoolean(false);
+
+  SharedTailFollower(
+      @NonNull PgSynchronizedQuery fallback,
+      @NonNull Supplier<Boolean> connectionStateSupplier,
+      @NonNull List<FactSpec> specs,
+      @NonNull ServerPipeline pipe,
+      @NonNull AtomicLong serial,
+      @NonNull SharedTailReader reader) {
+    super(fallback, connectionStateSupplier, specs);
+    this.reader = reader;
+    this.pipe = pipe;
+    this.serial = serial;
+    this.specs = specs;
+    this.matchers = specs.stream().map(BasicMatcher::forQuery).toList();
+    this.id = reader.nextFollowerId();
+  }
+
+  int id() {
+    return id;
+  }
+
+  @NonNull
+  List<FactSpec> specs() {
+    return specs;
+  }
+
+  void indexedIn(long indexVersion) {
+    if (indexedSince == 0) {
+      indexedSince = indexVersion;
+    }
+  }
+
+  /** schedules consumption of the reader's current window, unless already scheduled */
+  void schedule(@NonNull Executor executor) {
+    if (pending.compareAndSet(false, true)) {
+      try {
+        executor.execute(
+            () -> {
+              pending.set(false);
+              consume(reader.window());
+            });
+      } catch (RejectedExecutionException e) {
+        // shutting down
+        pending.set(false);
+        log.trace("Dispatch rejected", e);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  @SuppressWarnings("java:S1181")
+  synchronized void consume(@Nullable TailWindow window) {
+    if (!isConnected()) {
+      return;
+    }
+
+    long current = serial.get();
+    if (window == null || !window.covers(current)) {
+      // lagging behind, so that we cannot continue from the window
+      reader.countFallback();
+      runTarget();
+      return;
+    }
+
+    if (current >= window.toInclusive()) {
+      // nothing new for us
+      return;
+    }
+
+    try {
+      TailWindow.Entry[] entries = window.entries();
+      for (int i = window.indexAfter(current); i < window.size(); i++) {
+        if (!isConnected()) {
+          return;
+        }
+        TailWindow.Entry e = entries[i];
+        if (isInterestedIn(e)) {
+          pipe.process(Signal.of(e.fact()));
+        }
+      }
+      serial.set(Math.max(window.toInclusive(), serial.get()));
+    } catch (Exception e) {
+      pipe.process(Signal.of(e));
+    } finally {
+      try {
+        // involves transformation & IO, so can throw exception
+        pipe.process(Signal.flush());
+      } catch (Throwable e) {
+        // see PgSynchronizedQuery
+        pipe.process(Signal.of(e));
+      }
+    }
+  }
+
+  @VisibleForTesting
+  boolean isInterestedIn(@NonNull TailWindow.Entry e) {
+    long since = indexedSince;
+    if (since != 0 && e.indexVersion() >= since) {
+      return Arrays.binarySearch(e.interested(), id) >= 0;
+    } else {
+      return matches(e.fact());
+    }
+  }
+
+  @VisibleForTesting
+  boolean matches(@NonNull PgFact f) {
+    for (BasicMatcher m : matchers) {
+      if (m.test(f)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isConnected() {
+    return Boolean.TRUE.equals(connectionStateSupplier.get());
+  }
+
+  @Override
+  public void cancel() {
+    reader.unregister(this);
+  }
+}
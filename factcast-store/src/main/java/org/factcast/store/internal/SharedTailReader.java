@@ -0,0 +1,260 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import io.micrometer.core.instrument.Counter;
+import jakarta.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.factcast.store.StoreConfigurationProperties;
+import org.factcast.store.internal.filter.FactSpecIndex;
+import org.factcast.store.internal.notification.FactInsertionNotification;
+import org.factcast.store.internal.query.PgFactIdToSerialMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Fetches newly inserted facts once per node and hands them to all registered {@link
+ * SharedTailFollower}s, which match them in memory, instead of having every follower query the
+ * database on every insert notification.
+ *
+ * <p>The reader keeps a bounded {@link TailWindow} of the latest facts. Followers that lag behind
+ * this window fall back to their own query. This includes bursts of inserts exceeding the window,
+ * after which the window starts over at the end of the log.
+ *
+ * <p>Every fetched fact is routed once through a {@link FactSpecIndex} of all followers' specs, so
+ * that followers do not need to test every fact in the window themselves.
+ */
+@Slf4j
+public class SharedTailReader implements DisposableBean {
+
+  private final @NonNull EventBus bus;
+  private final @NonNull JdbcTemplate jdbc;
+  private final @NonNull PgMetrics metrics;
+  private final @NonNull PgFactIdToSerialMapper idToSerialMapper;
+  private final int windowSize;
+
+  @VisibleForTesting final ExecutorService dispatcher;
+
+  @VisibleForTesting final Set<SharedTailFollower> followers = ConcurrentHashMap.newKeySet();
+
+  private final ReentrantLock fetchLock = new ReentrantLock();
+  private final AtomicBoolean fetchRequested = new AtomicBoolean(false);
+
+  @Nullable private volatile TailWindow window;
+
+  private final AtomicInteger nextFollowerId = new AtomicInteger(0);
+  private final AtomicBoolean indexOutdated = new AtomicBoolean(false);
+  // the following are only accessed while holding the fetchLock
+  private FactSpecIndex index = FactSpecIndex.builder().build();
+  private long indexVersion;
+  private final FactSpecIndex.Matches matches = new FactSpecIndex.Matches();
+  // there are only few distinct sets of followers interested in a fact, so that the arrays routed
+  // to can be reused instead of being allocated for every fact
+  private final int[][] interestedCache = new int[64][];
+
+  private final @NonNull Counter fallbacks;
+
+  public SharedTailReader(
+      @NonNull EventBus bus,
+      @NonNull JdbcTemplate jdbc,
+      @NonNull PgMetrics metrics,
+      @NonNull PgFactIdToSerialMapper idToSerialMapper,
+      @NonNull StoreConfigurationProperties props) {
+    this(
+        bus,
+        jdbc,
+        metrics,
+        idToSerialMapper,
+        props.getSharedTailWindowSize(),
+        metrics.monitor(
+            Executors.newFixedThreadPool(props.getSizeOfThreadPoolForSharedTailDispatch()),
+            "shared-tail-dispatch"));
+  }
+
+  @VisibleForTesting
+  SharedTailReader(
+      @NonNull EventBus bus,
+      @NonNull JdbcTemplate jdbc,
+      @NonNull PgMetrics metrics,
+      @NonNull PgFactIdToSerialMapper idToSerialMapper,
+      int windowSize,
+      @NonNull ExecutorService dispatcher) {
+    this.bus = bus;
+    this.jdbc = jdbc;
+    this.metrics = metrics;
+    this.idToSerialMapper = idToSerialMapper;
+    this.windowSize = windowSize;
+    this.dispatcher = dispatcher;
+    this.fallbacks = metrics.counter(StoreMetrics.EVENT.SHARED_TAIL_FALLBACK);
+    bus.register(this);
+  }
+
+  int nextFollowerId() {
+    return nextFollowerId.getAndIncrement();
+  }
+
+  void register(@NonNull SharedTailFollower follower) {
+    followers.add(follower);
+    indexOutdated.set(true);
+  }
+
+  void unregister(@NonNull SharedTailFollower follower) {
+    followers.remove(follower);
+    indexOutdated.set(true);
+  }
+
+  void countFallback() {
+    fallbacks.increment();
+  }
+
+  /**
+   * @return the current window or null, if there is none (yet)
+   */
+  @Nullable
+  TailWindow window() {
+    return window;
+  }
+
+  // called by the EventBus
+  @Subscribe
+  public void onEvent(FactInsertionNotification ev) {
+    Long until = ev.maxFactSer();
+    TailWindow w = window;
+    if (until != null && w != null && until <= w.toInclusive()) {
+      // already fetched
+      return;
+    }
+    // we fetch the whole tail, regardless of ns/type, as it is shared by all followers
+    fetchAndDispatch();
+  }
+
+  @VisibleForTesting
+  void fetchAndDispatch() {
+    // concurrent notifications are coalesced into (at most) one more fetch, rather than
+    // stacking up queries
+    fetchRequested.set(true);
+    while (fetchRequested.get() && fetchLock.tryLock()) {
+      try {
+        fetchRequested.set(false);
+
+        if (followers.isEmpty()) {
+          // no point in keeping the window up to date
+          window = null;
+        } else {
+          try {
+            refreshIndex();
+            window = metrics.time(StoreMetrics.OP.SHARED_TAIL_FETCH, () -> fetch(window));
+          } catch (Exception e) {
+            log.warn("Cannot fetch tail, followers will fall back to their own query", e);
+            window = null;
+          }
+          followers.forEach(f -> f.schedule(dispatcher));
+        }
+      } finally {
+        fetchLock.unlock();
+      }
+    }
+  }
+
+  @VisibleForTesting
+  @NonNull
+  TailWindow fetch(@Nullable TailWindow current) {
+    TailWindow w = current != null ? current : TailWindow.startingAfter(lastSerial());
+    long[] serials = new long[windowSize];
+    List<TailWindow.Entry> entries = new ArrayList<>(windowSize);
+    jdbc.query(
+        PgConstants.SELECT_TAIL,
+        rs -> {
+          long ser = rs.getLong(PgConstants.COLUMN_SER);
+          PgFact fact = PgFact.from(rs);
+          serials[entries.size()] = ser;
+          entries.add(route(fact));
+          // subscriptions are likely to resume from here
+          idToSerialMapper.remember(fact.id(), ser);
+        },
+        w.toInclusive(),
+        windowSize);
+    int fetched = entries.size();
+
+    if (fetched == windowSize) {
+      // there might be more than fits into the window. Rather than reading all of it while holding
+      // the fetchLock, we continue from the end of the log, so that followers lagging behind fall
+      // back to their own query.
+      w = TailWindow.startingAfter(lastSerial());
+      log.debug("Burst exceeds the shared tail window, skipping to {}", w.toInclusive());
+    } else {
+      w = w.append(Arrays.copyOf(serials, fetched), entries, windowSize);
+    }
+
+    log.trace("Shared tail window now covers ({},{}]", w.fromExclusive(), w.toInclusive());
+    return w;
+  }
+
+  @NonNull
+  private TailWindow.Entry route(@NonNull PgFact fact) {
+    index.collect(fact, matches);
+    return new TailWindow.Entry(fact, indexVersion, interested());
+  }
+
+  /** the collected matches as a sorted array, shared by all facts routed to the same followers */
+  @NonNull
+  private int[] interested() {
+    int slot = matches.hash() & (interestedCache.length - 1);
+    int[] cached = interestedCache[slot];
+    if (cached == null || !matches.containsExactly(cached)) {
+      cached = matches.toSortedArray();
+      interestedCache[slot] = cached;
+    }
+    return cached;
+  }
+
+  @VisibleForTesting
+  void refreshIndex() {
+    if (indexOutdated.getAndSet(false)) {
+      long version = indexVersion + 1;
+      FactSpecIndex.Builder b = FactSpecIndex.builder();
+      followers.forEach(
+          f -> {
+            b.add(f.id(), f.specs());
+            f.indexedIn(version);
+          });
+      index = b.build();
+      indexVersion = version;
+      log.trace("Rebuilt index for {} followers (version {})", followers.size(), version);
+    }
+  }
+
+  private long lastSerial() {
+    Long ser = jdbc.queryForObject(PgConstants.LAST_SERIAL_IN_LOG, Long.class);
+    return ser != null ? ser : 0L;
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    bus.unregister(this);
+    dispatcher.shutdown();
+    dispatcher.awaitTermination(2, TimeUnit.SECONDS);
+  }
+}
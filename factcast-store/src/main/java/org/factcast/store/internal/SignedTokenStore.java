@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.core.store.State;
+import org.factcast.core.store.StateToken;
+import org.factcast.core.store.TokenStore;
+import org.factcast.core.util.FactCastJson;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * TokenStore that does not store tokens, but encodes the serial of the state into the token
+ * itself, so that creating, checking and invalidating a token needs no database round-trip.
+ *
+ * <p>As tokens are UUIDs on the wire, they cannot carry the specs of the state. Instead, every
+ * distinct list of specs is registered once in the state_token_specs table, and only its id is
+ * encoded. The token is a version 8 UUID containing the serial (48 bits), the id of the specs (32
+ * bits) and an HMAC of both (42 bits), so that tokens cannot be forged without knowing the key.
+ *
+ * <p>Tokens that cannot be encoded that way (and tokens created before) are handled by the
+ * delegate. Note that signed tokens cannot be invalidated, they stay valid until the state changes.
+ * All nodes of a cluster need to use the same key.
+ */
+@Slf4j
+public class SignedTokenStore implements TokenStore {
+
+  private static final long MAX_CACHED_SPECS = 10_000;
+  private static final int VERSION = 8;
+  private static final int VARIANT = 2;
+  private static final long MAX_SERIAL = (1L << 48) - 1;
+  private static final long MAC_MASK = (1L << 42) - 1;
+  private static final TypeReference<List<FactSpec>> SPECS_TYPE = new TypeReference<>() {};
+
+  private final JdbcTemplate jdbc;
+  private final TokenStore delegate;
+  private final HashFunction hmac;
+
+  private final Cache<String, Integer> idsBySpecs =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_SPECS).build();
+  private final Cache<Integer, List<FactSpec>> specsById =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_SPECS).build();
+
+  public SignedTokenStore(
+      @NonNull JdbcTemplate jdbc, @NonNull TokenStore delegate, @NonNull String signingKey) {
+    if (signingKey.isBlank()) {
+      throw new IllegalArgumentException("signingKey must not be blank");
+    }
+    this.jdbc = jdbc;
+    this.delegate = delegate;
+    hmac = Hashing.hmacSha256(signingKey.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public @NonNull StateToken create(@NonNull State state) {
+    Collection<FactSpec> specs = state.specs();
+    long serial = state.serialOfLastMatchingFact();
+    if (specs == null || serial < 0 || serial > MAX_SERIAL) {
+      return delegate.create(state);
+    }
+    return new StateToken(encode(serial, idOf(new ArrayList<>(specs))));
+  }
+
+  @Override
+  public void invalidate(@NonNull StateToken token) {
+    if (!isSigned(token.uuid())) {
+      delegate.invalidate(token);
+    }
+    // signed tokens are not stored, hence there is nothing to invalidate
+  }
+
+  @Override
+  public @NonNull Optional<State> get(@NonNull StateToken token) {
+    UUID uuid = token.uuid();
+    if (!isSigned(uuid)) {
+      return delegate.get(token);
+    }
+    long serial = uuid.getMostSignificantBits() >>> 16;
+    int specsId = specsIdOf(uuid);
+    if ((uuid.getLeastSignificantBits() & MAC_MASK) != mac(serial, specsId)) {
+      log.warn("Rejecting state token {} with invalid signature", uuid);
+      return Optional.empty();
+    }
+    return specsOf(specsId).map(specs -> State.of(specs, serial));
+  }
+
+  @Override
+  @Scheduled(cron = "0 0 4 * * *")
+  @SchedulerLock(name = "tokenStoreCompact", lockAtMostFor = "PT10m")
+  public void compact() {
+    delegate.compact();
+  }
+
+  @VisibleForTesting
+  UUID encode(long serial, int specsId) {
+    long msb = (serial << 16) | ((long) VERSION << 12) | ((specsId >>> 20) & 0xFFFL);
+    long lsb = ((long) VARIANT << 62) | ((specsId & 0xFFFFFL) << 42) | mac(serial, specsId);
+    return new UUID(msb, lsb);
+  }
+
+  @VisibleForTesting
+  static boolean isSigned(@NonNull UUID uuid) {
+    return uuid.version() == VERSION && uuid.variant() == VARIANT;
+  }
+
+  private static int specsIdOf(UUID uuid) {
+    return (int)
+        (((uuid.getMostSignificantBits() & 0xFFFL) << 20)
+            | ((uuid.getLeastSignificantBits() >>> 42) & 0xFFFFFL));
+  }
+
+  private long mac(long serial, int specsId) {
+    return hmac.newHasher().putLong(serial).putInt(specsId).hash().asLong() & MAC_MASK;
+  }
+
+  private int idOf(List<FactSpec> specs) {
+    String json = FactCastJson.writeValueAsString(specs);
+    Integer id = idsBySpecs.getIfPresent(json);
+    if (id == null) {
+      // registering concurrently is fine, as the same id is returned
+      String hash = Hashing.sha256().hashString(json, StandardCharsets.UTF_8).toString();
+      id = jdbc.queryForObject(PgConstants.INSERT_STATE_TOKEN_SPECS, Integer.class, hash, json);
+      idsBySpecs.put(json, Objects.requireNonNull(id));
+      specsById.put(id, specs);
+    }
+    return id;
+  }
+
+  private Optional<List<FactSpec>> specsOf(int id) {
+    List<FactSpec> specs = specsById.getIfPresent(id);
+    if (specs == null) {
+      try {
+        String json = jdbc.queryForObject(PgConstants.SELECT_STATE_TOKEN_SPECS, String.class, id);
+        specs = FactCastJson.readValue(SPECS_TYPE, Objects.requireNonNull(json));
+        specsById.put(id, specs);
+      } catch (EmptyResultDataAccessException e) {
+        return Optional.empty();
+      }
+    }
+    return Optional.of(specs);
+  }
+}
@@ -39,9 +39,25 @@ public class StoreMetrics {
 
   static final String TAG_FETCHING_MODE_FROM_SERIAL_VALUE = "fromSerial";
 
+  public static final String TAG_LOCK_MODE_KEY = "lockMode";
+
+  public static final String TAG_LOCK_MODE_SHARED_VALUE = "shared";
+
+  public static final String TAG_LOCK_MODE_EXCLUSIVE_VALUE = "exclusive";
+
+  public static final String TAG_LOCK_MODE_GLOBAL_VALUE = "global";
+
+  public static final String TAG_DATABASE_KEY = "database";
+
+  public static final String TAG_DATABASE_PRIMARY_VALUE = "primary";
+
+  public static final String TAG_DATABASE_OFFLOAD_VALUE = "offload";
+
   public enum OP implements MetricName {
     PUBLISH("publish"),
 
+    PUBLISH_BULK("publishBulk"),
+
     SUBSCRIBE_FOLLOW("subscribe-follow"),
 
     SUBSCRIBE_CATCHUP("subscribe-catchup"),
@@ -49,6 +65,8 @@ public enum OP implements MetricName {
     FETCH_BY_ID("fetchById"),
     FETCH_BY_SER("fetchBySer"),
 
+    FETCH_PAGE("fetchPage"),
+
     SERIAL_OF("serialOf"),
 
     ENUMERATE_NAMESPACES("enumerateNamespaces"),
@@ -66,7 +84,14 @@ public enum OP implements MetricName {
     NOTIFY_ROUNDTRIP("notifyRoundTripLatency"),
 
     RESULT_STREAM_START("resultStreamStart"),
-    SELECT_DISTINCT_NOTIFICATIONS("selectDistinctNotifications");
+    SELECT_DISTINCT_NOTIFICATIONS("selectDistinctNotifications"),
+    SHARED_TAIL_FETCH("sharedTailFetch"),
+
+    FILTER_SCRIPT_EVAL("filterScriptEval"),
+
+    ACQUIRE_PUBLISH_LOCK("acquirePublishLock"),
+
+    CATCHUP_ADMISSION_WAIT("catchupAdmissionWait");
 
     @NonNull final String name;
 
@@ -83,7 +108,13 @@ public String getName() {
   public enum EVENT implements MetricName {
     MISSED_ROUNDTRIP("missedRoundtrip"),
     UNSUCCESSFUL_CONDITIONAL_PUBLISH("unsuccessfulConditionalPublish"),
-    FACTS_SENT("factsSent");
+    FACTS_SENT("factsSent"),
+    FACTS_BULK_PUBLISHED("factsBulkPublished"),
+    SHARED_TAIL_FALLBACK("sharedTailFallback"),
+    FILTER_SCRIPT_CONTEXT_CREATED("filterScriptContextCreated"),
+    PUBLISH_LOCK_GLOBAL_FALLBACK("publishLockGlobalFallback"),
+    CATCHUP_COALESCED("catchupCoalesced"),
+    CATCHUP_COALESCING_FALLBACK("catchupCoalescingFallback");
 
     @NonNull final String name;
 
@@ -99,7 +130,10 @@ public String getName() {
 
   public enum VALUE implements MetricName {
     CATCHUP_TRANSFORMATION_RATIO("catchupTransformationRatio"),
-    TAIL_INDICES("tailIndices");
+    TAIL_INDICES("tailIndices"),
+    FACT_PARTITIONS("factPartitions"),
+    FILTER_SCRIPT_CONTEXTS_IN_USE("filterScriptContextsInUse"),
+    CATCHUP_ADMISSION_QUEUE_DEPTH("catchupAdmissionQueueDepth");
 
     @NonNull final String name;
 
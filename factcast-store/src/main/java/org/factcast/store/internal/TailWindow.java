@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import lombok.NonNull;
+
+/**
+ * Immutable snapshot of the most recent facts fetched by the {@link SharedTailReader}.
+ *
+ * <p>A window is complete for the range of serials (fromExclusive, toInclusive], which means that
+ * a follower positioned anywhere in that range can continue from the window without missing a
+ * fact.
+ *
+ * @param serials ascending serials, index-aligned with entries
+ */
+@SuppressWarnings("java:S6218") // equality of arrays is not needed here
+record TailWindow(
+    long fromExclusive, long toInclusive, @NonNull long[] serials, @NonNull Entry[] entries) {
+
+  /**
+   * A fact together with the ids of the followers found interested in it.
+   *
+   * @param indexVersion version of the index used to route this fact, 0 if not routed at all
+   * @param interested sorted ids of the followers known to the index that match the fact
+   */
+  record Entry(@NonNull PgFact fact, long indexVersion, @NonNull int[] interested) {
+    private static final int[] NONE = new int[0];
+
+    static Entry unrouted(@NonNull PgFact fact) {
+      return new Entry(fact, 0, NONE);
+    }
+  }
+
+  static TailWindow startingAfter(long ser) {
+    return new TailWindow(ser, ser, new long[0], new Entry[0]);
+  }
+
+  int size() {
+    return serials.length;
+  }
+
+  /**
+   * @return true, if a follower that has seen everything up to the given serial can continue from
+   *     this window
+   */
+  boolean covers(long ser) {
+    return ser >= fromExclusive;
+  }
+
+  /**
+   * @return index of the first fact with a serial greater than the given one, or {@link #size()}
+   *     if there is none
+   */
+  int indexAfter(long ser) {
+    int idx = Arrays.binarySearch(serials, ser);
+    // either the found position + 1 or the insertion point
+    return idx >= 0 ? idx + 1 : -(idx + 1);
+  }
+
+  /**
+   * @param newSerials serials of the appended entries, ascending and greater than {@link
+   *     #toInclusive()}
+   * @return a new window containing the appended entries, where the oldest entries are dropped in
+   *     order to keep at most maxSize
+   */
+  TailWindow append(@NonNull long[] newSerials, @NonNull List<Entry> newEntries, int maxSize) {
+    if (newSerials.length == 0) {
+      return this;
+    }
+
+    int total = serials.length + newSerials.length;
+    int drop = Math.max(0, total - maxSize);
+    int size = total - drop;
+
+    long[] s = new long[size];
+    Entry[] e = new Entry[size];
+
+    long from = fromExclusive;
+    int pos = 0;
+    for (int i = 0; i < total; i++) {
+      long ser = i < serials.length ? serials[i] : newSerials[i - serials.length];
+      Entry entry = i < serials.length ? entries[i] : newEntries.get(i - serials.length);
+      if (i < drop) {
+        // the window is complete from here on
+        from = ser;
+      } else {
+        s[pos] = ser;
+        e[pos] = entry;
+        pos++;
+      }
+    }
+
+    return new TailWindow(from, newSerials[newSerials.length - 1], s, e);
+  }
+}
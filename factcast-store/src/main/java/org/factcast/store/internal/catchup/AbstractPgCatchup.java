@@ -24,6 +24,7 @@
 import org.factcast.store.internal.PgMetrics;
 import org.factcast.store.internal.pipeline.ServerPipeline;
 import org.factcast.store.internal.query.CurrentStatementHolder;
+import org.factcast.store.internal.query.PgQueryBuilder;
 
 @RequiredArgsConstructor
 @SuppressWarnings("java:S107")
@@ -33,6 +34,8 @@ public abstract class AbstractPgCatchup implements PgCatchup {
 
   protected long fastForward = 0;
 
+  protected boolean aggIdLookup = false;
+
   @NonNull protected final StoreConfigurationProperties props;
   @NonNull protected final PgMetrics metrics;
   @NonNull protected final SubscriptionRequestTO req;
@@ -46,4 +49,14 @@ public abstract class AbstractPgCatchup implements PgCatchup {
   public final void fastForward(long serialToStartFrom) {
     this.fastForward = serialToStartFrom;
   }
+
+  /** lets the catchup query by aggregate id using the (completely backfilled) lookup table. */
+  public final void useAggIdLookup() {
+    this.aggIdLookup = true;
+  }
+
+  protected PgQueryBuilder createQueryBuilder() {
+    PgQueryBuilder b = new PgQueryBuilder(req.specs(), statementHolder);
+    return aggIdLookup ? b.useAggIdLookup() : b;
+  }
 }
@@ -0,0 +1,277 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.catchup;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.micrometer.core.instrument.Counter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.*;
+import java.util.stream.Collectors;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.store.StoreConfigurationProperties;
+import org.factcast.store.internal.PgFact;
+import org.factcast.store.internal.PgMetrics;
+import org.factcast.store.internal.StoreMetrics;
+import org.factcast.store.internal.pipeline.AbstractServerPipeline;
+import org.factcast.store.internal.pipeline.ServerPipeline;
+import org.factcast.store.internal.pipeline.Signal;
+
+/**
+ * Lets concurrent catchups with equivalent fact specs share a single database scan, so that
+ * restarting many replicas of a service at once does not multiply the database I/O.
+ *
+ * <p>The first catchup for a set of specs leads the scan, and hands every fact it reads to the
+ * catchups attached to it. A catchup attaching later first catches up privately on the facts the
+ * scan already passed, and then picks up the facts handed to it in order. As the leader never waits
+ * for the attached catchups, each of them has a bounded buffer, and detaches when falling behind. A
+ * catchup that is already ahead of the scan does not attach, as it would have to wait for the scan
+ * to get to its serial, but catches up privately.
+ *
+ * <p>Every attached catchup still processes the facts through its own pipeline, so that
+ * transformation and filtering are not affected. When a scan ends (or an attached catchup detaches
+ * from it), the attached catchup continues privately from where it left off, which is cheap when
+ * the scan got through.
+ */
+@Slf4j
+public class CatchupCoalescer {
+
+  private static final long POLL_MILLIS = 100;
+
+  private final int bufferSize;
+  private final Counter coalesced;
+  private final Counter fallbacks;
+
+  private final Map<Set<FactSpec>, Scan> scans = new HashMap<>();
+
+  public CatchupCoalescer(
+      @NonNull PgMetrics metrics, @NonNull StoreConfigurationProperties props) {
+    this.bufferSize = props.getCatchupCoalescingBufferSize();
+    this.coalesced = metrics.counter(StoreMetrics.EVENT.CATCHUP_COALESCED);
+    this.fallbacks = metrics.counter(StoreMetrics.EVENT.CATCHUP_COALESCING_FALLBACK);
+  }
+
+  /**
+   * Either leads a scan for the given specs, or attaches to the one in flight, unless the given
+   * serial is ahead of it.
+   *
+   * @param scan runs the catchup into the given pipeline, called if leading the scan
+   * @param prefix catches up privately from the current serial up to (and including) the given
+   *     serial, called if attached to a scan that already passed the current serial
+   * @return true if the catchup was done by leading the scan, false if the caller needs to
+   *     continue privately from its serial
+   */
+  public boolean catchup(
+      @NonNull Collection<FactSpec> specs,
+      @NonNull ServerPipeline pipeline,
+      @NonNull AtomicLong serial,
+      @NonNull BooleanSupplier isConnected,
+      @NonNull Consumer<ServerPipeline> scan,
+      @NonNull LongConsumer prefix) {
+    Set<FactSpec> key = keyOf(specs);
+
+    Scan leading = null;
+    Follower following = null;
+    synchronized (scans) {
+      Scan inFlight = scans.get(key);
+      if (inFlight == null) {
+        leading = new Scan(serial.get());
+        scans.put(key, leading);
+      } else {
+        following = inFlight.attach(serial.get(), bufferSize);
+      }
+    }
+
+    if (leading != null) {
+      lead(key, leading, pipeline, scan);
+      return true;
+    } else if (following != null) {
+      coalesced.increment();
+      follow(following, pipeline, serial, isConnected, prefix);
+      return false;
+    } else {
+      log.trace("catching up privately, as the shared scan is behind serial {}", serial.get());
+      fallbacks.increment();
+      return false;
+    }
+  }
+
+  private void lead(
+      Set<FactSpec> key, Scan s, ServerPipeline pipeline, Consumer<ServerPipeline> scan) {
+    try {
+      scan.accept(new ScanningServerPipeline(pipeline, s));
+    } finally {
+      synchronized (scans) {
+        scans.remove(key, s);
+      }
+      s.end();
+    }
+  }
+
+  private void follow(
+      Follower f,
+      ServerPipeline pipeline,
+      AtomicLong serial,
+      BooleanSupplier isConnected,
+      LongConsumer prefix) {
+    try {
+      if (serial.get() < f.from) {
+        log.trace("catching up on {} facts missed by the shared scan", f.from - serial.get());
+        prefix.accept(f.from);
+      }
+
+      while (isConnected.getAsBoolean()) {
+        Row r = f.rows.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (r == null) {
+          if (f.ended) {
+            // ended is set after the last row was offered
+            r = f.rows.poll();
+            if (r == null) {
+              break;
+            }
+          } else {
+            continue;
+          }
+        }
+        if (r.serial > serial.get()) {
+          pipeline.process(Signal.of(r.fact));
+          serial.set(r.serial);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      f.detach();
+      if (f.overflown) {
+        fallbacks.increment();
+      }
+    }
+  }
+
+  /**
+   * the specs as far as they affect the facts read from the database: order does not matter, and
+   * neither do versions (unless used for filtering by aggregate id property) or filter scripts, as
+   * both are applied by the pipeline.
+   */
+  @VisibleForTesting
+  static Set<FactSpec> keyOf(@NonNull Collection<FactSpec> specs) {
+    return specs.stream()
+        .map(
+            s -> {
+              FactSpec n = s.copy().filterScript(null);
+              return s.aggIdProperties().isEmpty() ? n.version(0) : n;
+            })
+        .collect(Collectors.toSet());
+  }
+
+  @VisibleForTesting
+  int inFlight() {
+    synchronized (scans) {
+      return scans.size();
+    }
+  }
+
+  private record Row(long serial, @NonNull PgFact fact) {}
+
+  private static final class Follower {
+    final long from;
+    final BlockingQueue<Row> rows;
+    final Scan scan;
+    volatile boolean ended;
+    volatile boolean overflown;
+
+    Follower(long from, int bufferSize, Scan scan) {
+      this.from = from;
+      this.rows = new ArrayBlockingQueue<>(bufferSize);
+      this.scan = scan;
+    }
+
+    void detach() {
+      scan.detach(this);
+    }
+  }
+
+  private static final class Scan {
+    private final List<Follower> followers = new ArrayList<>();
+    private long position;
+    private boolean ended;
+
+    Scan(long position) {
+      this.position = position;
+    }
+
+    /**
+     * @return null if the scan ended or is behind the given serial
+     */
+    synchronized Follower attach(long serial, int bufferSize) {
+      if (ended || serial > position) {
+        return null;
+      }
+      Follower f = new Follower(position, bufferSize, this);
+      followers.add(f);
+      return f;
+    }
+
+    synchronized void detach(Follower f) {
+      followers.remove(f);
+    }
+
+    synchronized void publish(@NonNull PgFact fact) {
+      Long ser = fact.header().serial();
+      if (ser == null) {
+        return;
+      }
+      position = ser;
+      Iterator<Follower> i = followers.iterator();
+      while (i.hasNext()) {
+        Follower f = i.next();
+        if (!f.rows.offer(new Row(ser, fact))) {
+          // the leader never waits, so the follower needs to continue on its own
+          f.overflown = true;
+          f.ended = true;
+          i.remove();
+        }
+      }
+    }
+
+    synchronized void end() {
+      ended = true;
+      followers.forEach(f -> f.ended = true);
+      followers.clear();
+    }
+  }
+
+  /** hands every fact processed by the leader to the catchups attached to its scan. */
+  private static final class ScanningServerPipeline extends AbstractServerPipeline {
+    private final Scan scan;
+
+    ScanningServerPipeline(@NonNull ServerPipeline parent, @NonNull Scan scan) {
+      super(parent);
+      this.scan = scan;
+    }
+
+    @Override
+    public void process(@NonNull Signal s) {
+      parent.process(s);
+      if (s instanceof Signal.FactSignal fs) {
+        scan.publish(fs.fact());
+      }
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.catchup;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import lombok.NonNull;
+import org.factcast.core.subscription.SubscriptionRequestTO;
+import org.factcast.store.StoreConfigurationProperties;
+import org.factcast.store.internal.PgMetrics;
+import org.factcast.store.internal.StoreMetrics;
+
+/**
+ * Limits the number of catchups running concurrently per database. Catchups waiting for admission
+ * are queued per client (as identified by the pid of the subscribing process), and the queues are
+ * served round robin, so that one client replaying lots of subscriptions does not starve the
+ * reconnects of all others. Catchups about to enter follow mode are admitted first.
+ */
+public class CatchupScheduler {
+
+  private static final long POLL_MILLIS = 100;
+  private static final String UNKNOWN_CLIENT = "unknown";
+
+  public enum Database {
+    PRIMARY,
+    OFFLOAD
+  }
+
+  private final Map<Database, Gate> gates = new EnumMap<>(Database.class);
+
+  public CatchupScheduler(
+      @NonNull PgMetrics metrics, @NonNull StoreConfigurationProperties props) {
+    gates.put(
+        Database.PRIMARY,
+        new Gate(
+            props.getMaxConcurrentCatchupsOnPrimary(),
+            metrics,
+            StoreMetrics.TAG_DATABASE_PRIMARY_VALUE));
+    gates.put(
+        Database.OFFLOAD,
+        new Gate(
+            props.getMaxConcurrentCatchupsOnOffload(),
+            metrics,
+            StoreMetrics.TAG_DATABASE_OFFLOAD_VALUE));
+  }
+
+  /**
+   * Waits until the catchup for the given request is admitted to the given database.
+   *
+   * @param priority if true, the catchup is admitted before all others waiting
+   * @return the admission to close after the catchup, or null if the subscription was disconnected
+   *     while waiting
+   */
+  @Nullable
+  public Admission admit(
+      @NonNull Database db,
+      @NonNull SubscriptionRequestTO request,
+      boolean priority,
+      @NonNull BooleanSupplier isConnected) {
+    String client = Optional.ofNullable(request.pid()).orElse(UNKNOWN_CLIENT);
+    return gates.get(db).admit(client, priority, isConnected);
+  }
+
+  @VisibleForTesting
+  int running(@NonNull Database db) {
+    return gates.get(db).running();
+  }
+
+  @VisibleForTesting
+  int waiting(@NonNull Database db) {
+    return gates.get(db).waiting();
+  }
+
+  /** permission to run a catchup, to be closed as soon as it is done. */
+  public static final class Admission implements AutoCloseable {
+    private final Gate gate;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private Admission(@NonNull Gate gate) {
+      this.gate = gate;
+    }
+
+    @Override
+    public void close() {
+      if (closed.compareAndSet(false, true)) {
+        gate.release();
+      }
+    }
+  }
+
+  private static final class Waiter {
+    final String client;
+    final CountDownLatch admitted = new CountDownLatch(1);
+
+    Waiter(String client) {
+      this.client = client;
+    }
+  }
+
+  private static final class Gate {
+    private final int limit;
+    private final DistributionSummary queueDepth;
+    private final Timer waitTime;
+
+    private final Deque<Waiter> prioritized = new ArrayDeque<>();
+    // waiting catchups per client, with the client to be served next first
+    private final LinkedHashMap<String, Deque<Waiter>> queues = new LinkedHashMap<>();
+    private int running;
+    private int waiting;
+
+    Gate(int limit, @NonNull PgMetrics metrics, @NonNull String database) {
+      this.limit = limit;
+      Tags tags = Tags.of(StoreMetrics.TAG_DATABASE_KEY, database);
+      this.queueDepth =
+          metrics.distributionSummary(StoreMetrics.VALUE.CATCHUP_ADMISSION_QUEUE_DEPTH, tags);
+      this.waitTime = metrics.timer(StoreMetrics.OP.CATCHUP_ADMISSION_WAIT, tags);
+    }
+
+    @Nullable
+    Admission admit(String client, boolean priority, BooleanSupplier isConnected) {
+      Waiter w = new Waiter(client);
+      synchronized (this) {
+        if (running < limit && waiting == 0) {
+          running++;
+          return new Admission(this);
+        }
+        if (priority) {
+          prioritized.add(w);
+        } else {
+          queues.computeIfAbsent(client, c -> new ArrayDeque<>()).add(w);
+        }
+        waiting++;
+        queueDepth.record(waiting);
+      }
+
+      Timer.Sample sample = Timer.start();
+      try {
+        while (!w.admitted.await(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+          if (!isConnected.getAsBoolean()) {
+            return withdraw(w);
+          }
+        }
+        return new Admission(this);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return withdraw(w);
+      } finally {
+        sample.stop(waitTime);
+      }
+    }
+
+    /** removes the waiter, unless it was admitted meanwhile, in which case it releases again. */
+    @Nullable
+    private Admission withdraw(Waiter w) {
+      synchronized (this) {
+        if (w.admitted.getCount() > 0) {
+          boolean removed = prioritized.remove(w);
+          if (!removed) {
+            Deque<Waiter> q = queues.get(w.client);
+            if (q != null && q.remove(w) && q.isEmpty()) {
+              queues.remove(w.client);
+            }
+          }
+          waiting--;
+          return null;
+        }
+      }
+      release();
+      return null;
+    }
+
+    synchronized void release() {
+      running--;
+      Waiter next = next();
+      if (next != null) {
+        waiting--;
+        running++;
+        next.admitted.countDown();
+      }
+    }
+
+    @Nullable
+    private Waiter next() {
+      Waiter w = prioritized.poll();
+      if (w != null) {
+        return w;
+      }
+      Iterator<Map.Entry<String, Deque<Waiter>>> i = queues.entrySet().iterator();
+      if (!i.hasNext()) {
+        return null;
+      }
+      Map.Entry<String, Deque<Waiter>> first = i.next();
+      i.remove();
+      Deque<Waiter> q = first.getValue();
+      w = q.poll();
+      if (!q.isEmpty()) {
+        // the client goes to the end of the line
+        queues.put(first.getKey(), q);
+      }
+      return w;
+    }
+
+    synchronized int running() {
+      return running;
+    }
+
+    synchronized int waiting() {
+      return waiting;
+    }
+  }
+}
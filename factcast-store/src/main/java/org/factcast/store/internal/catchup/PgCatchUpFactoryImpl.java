@@ -15,6 +15,7 @@
  */
 package org.factcast.store.internal.catchup;
 
+import jakarta.annotation.Nullable;
 import java.util.concurrent.atomic.*;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +26,7 @@
 import org.factcast.store.internal.catchup.chunkedwithhold.PgChunkedWithHoldCursorCatchup;
 import org.factcast.store.internal.catchup.cursor.PgCursorCatchup;
 import org.factcast.store.internal.pipeline.ServerPipeline;
+import org.factcast.store.internal.query.AggIdLookup;
 import org.factcast.store.internal.query.CurrentStatementHolder;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 
@@ -33,11 +35,20 @@ public class PgCatchUpFactoryImpl implements PgCatchupFactory {
 
   @NonNull final StoreConfigurationProperties props;
   @NonNull final PgMetrics metrics;
+  @Nullable final AggIdLookup aggIdLookup;
 
   public PgCatchUpFactoryImpl(
       @NonNull StoreConfigurationProperties props, @NonNull PgMetrics metrics) {
+    this(props, metrics, null);
+  }
+
+  public PgCatchUpFactoryImpl(
+      @NonNull StoreConfigurationProperties props,
+      @NonNull PgMetrics metrics,
+      @Nullable AggIdLookup aggIdLookup) {
     this.props = props;
     this.metrics = metrics;
+    this.aggIdLookup = aggIdLookup;
   }
 
   @Override
@@ -49,6 +60,20 @@ public PgCatchup create(
       @NonNull SingleConnectionDataSource ds,
       @NonNull Phase phase) {
 
+    AbstractPgCatchup catchup = createCatchup(request, pipeline, serial, holder, ds, phase);
+    if (aggIdLookup != null && aggIdLookup.isComplete()) {
+      catchup.useAggIdLookup();
+    }
+    return catchup;
+  }
+
+  private AbstractPgCatchup createCatchup(
+      SubscriptionRequestTO request,
+      ServerPipeline pipeline,
+      AtomicLong serial,
+      CurrentStatementHolder holder,
+      SingleConnectionDataSource ds,
+      Phase phase) {
     // does not make sense to use in phase 2 altogether, as we're not expecting many facts there.
     if (phase == Phase.PHASE_2) {
       return new PgCursorCatchup(props, metrics, request, pipeline, serial, holder, ds, phase);
@@ -91,7 +91,7 @@ void logIfAboveThreshold(Logger log, Duration elapsed) {
   /** returns true if fetch was not completely empty */
   @VisibleForTesting
   boolean fetchAll(@NonNull Cursor cursor) throws SQLException {
-    final var queryBuilder = new PgQueryBuilder(req.specs(), statementHolder);
+    final var queryBuilder = createQueryBuilder();
     queryBuilder.serialsOnly();
 
     final var extractor = new PgFactExtractor(serial);
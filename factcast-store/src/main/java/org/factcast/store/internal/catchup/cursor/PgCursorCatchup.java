@@ -33,7 +33,6 @@
 import org.factcast.store.internal.pipeline.ServerPipeline;
 import org.factcast.store.internal.pipeline.Signal;
 import org.factcast.store.internal.query.CurrentStatementHolder;
-import org.factcast.store.internal.query.PgQueryBuilder;
 import org.factcast.store.internal.rowmapper.PgFactExtractor;
 import org.postgresql.util.PSQLException;
 import org.springframework.jdbc.core.RowCallbackHandler;
@@ -59,7 +58,7 @@ public PgCursorCatchup(
   public void run() {
     try {
 
-      final var b = new PgQueryBuilder(req.specs(), statementHolder);
+      final var b = createQueryBuilder();
       final var extractor = new PgFactExtractor(serial);
       final var fromSerial = serial.get() < fastForward ? new AtomicLong(fastForward) : serial;
       final var catchupSQL = b.createSQL();
@@ -103,7 +102,7 @@ private void logIfAboveThreshold(Duration elapsed) {
   RowCallbackHandler createRowCallbackHandler(PgFactExtractor extractor) {
     return rs -> {
       try {
-        // PreFetchingQuery supplies a CachedRowSet, which does not support the isClosed() check
+        // PreFetchingQuery supplies detached rows, which do not reflect the statement being closed
         if (statementHolder.wasCanceled()) {
           return;
         }
@@ -25,7 +25,9 @@ public interface FetchingQuery {
   @NonNull CallbackAfterQueryFinished NOP = () -> {};
 
   static FetchingQuery create(@NonNull StoreConfigurationProperties props) {
-    return props.isCatchupAsyncFetch() ? FetchingQuery.async() : FetchingQuery.sync();
+    return props.isCatchupAsyncFetch()
+        ? FetchingQuery.async(props.getCatchupAsyncFetchMaxBytes())
+        : FetchingQuery.sync();
   }
 
   int executeAndProcess(
@@ -47,6 +49,10 @@ static FetchingQuery async() {
     return new PreFetchingQuery();
   }
 
+  static FetchingQuery async(long maxBytes) {
+    return new PreFetchingQuery(maxBytes);
+  }
+
   /** the user must not call rs.next() */
   interface RowProcessor {
     void process(ResultSet row) throws SQLException;
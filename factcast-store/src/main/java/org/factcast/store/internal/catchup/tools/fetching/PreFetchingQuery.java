@@ -17,15 +17,31 @@
 
 import java.sql.*;
 import java.util.concurrent.*;
-import javax.sql.rowset.*;
 import lombok.NonNull;
-import lombok.experimental.Delegate;
 import lombok.extern.slf4j.Slf4j;
 
 @SuppressWarnings("java:S2142")
 @Slf4j
 public class PreFetchingQuery implements FetchingQuery {
 
+  public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+  private final long maxBytes;
+
+  public PreFetchingQuery() {
+    this(DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * @param maxBytes the max estimated heap size of rows fetched ahead of processing
+   */
+  public PreFetchingQuery(long maxBytes) {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("maxBytes must be positive");
+    }
+    this.maxBytes = maxBytes;
+  }
+
   @Override
   public int executeAndProcess(
       @NonNull PreparedStatement ps,
@@ -44,11 +60,9 @@ public int executeAndProcess(
     if (fetchSize == 0)
       throw new IllegalArgumentException("Fetch size is not set on the PreparedStatement.");
 
-    ArrayBlockingQueue<ResultSet> q =
-        new ArrayBlockingQueue<>(1); // one in progress, one prefetched
+    PrefetchBuffer buffer = new PrefetchBuffer(maxBytes);
     // set to half the fetch size, so that we end up using the
-    // same kind of heap memory, if we have one RS in processing
-    // and one waiting.
+    // same kind of heap memory for the driver, while rows are prefetched into the buffer.
     ps.setFetchSize(Math.max(1, fetchSize / 2));
 
     CompletableFuture<Void> producer = null;
@@ -57,40 +71,23 @@ public int executeAndProcess(
         ResultSet resultSet = ps.executeQuery()) {
       onFinished.afterQueryFinished();
 
-      // async producer, terminated by closing the rs
-      producer = CompletableFuture.runAsync(() -> produce(resultSet, q));
+      // async producer, terminated by closing the rs or the buffer
+      producer = CompletableFuture.runAsync(() -> produce(resultSet, buffer));
 
       // sync consumer
       try {
-
-        int pageNumber = 0;
-        boolean exhausted;
-        do {
-          exhausted = true;
-          ResultSet page = q.take();
-
-          log.trace("processing page {}", ++pageNumber);
-
-          while (page.next() && !ps.isClosed()) {
-            exhausted = false;
-            rowProcessor.process(page);
-            rows++;
-          }
-          page.close(); // not strictly necessary
-        } while (!exhausted);
-
+        PrefetchedRow row;
+        while ((row = buffer.take()) != null && !ps.isClosed()) {
+          rowProcessor.process(row);
+          rows++;
+        }
       } catch (InterruptedException e) {
         // in that case we do not care.
       }
       return rows;
     } finally {
-      // we want to be  extra-sure the resultset is closed, so that clearing the queue will make the
-      // producer terminate.
-      // this is guaranteed by ResultSet.close() being called from the try-with-resources.
-
-      // as the ResultSet is closed by now, this should unblock a producer, and give it the chance
-      // to terminate.
-      q.clear();
+      // unblocks a producer waiting for space in the buffer and makes it terminate.
+      buffer.close();
 
       // even though it does not help the producer much, we also cancel the future.
       // note that CFuture says:
@@ -104,30 +101,24 @@ public int executeAndProcess(
     }
   }
 
-  @SuppressWarnings({
-    "java:S2445",
-    "java:S2095",
-    "java:S2093",
-    "SynchronizationOnLocalVariableOrMethodParameter"
-  })
-  private void produce(@NonNull ResultSet resultSet, @NonNull ArrayBlockingQueue<ResultSet> q) {
+  private void produce(@NonNull ResultSet resultSet, @NonNull PrefetchBuffer buffer) {
     //noinspection TryFinallyCanBeTryWithResources
     try {
-      int page = 0;
-      while (!resultSet.isClosed()) {
-        CachedRowSet crs = RowSetProvider.newFactory().createCachedRowSet();
-        synchronized (resultSet) {
-          log.trace("fetching page {} to memory (size={})", ++page, resultSet.getFetchSize());
-          crs.populate(new ResultSetPage(resultSet));
+      PrefetchedRow.Columns columns = null;
+      while (!resultSet.isClosed() && resultSet.next()) {
+        if (columns == null) {
+          columns = new PrefetchedRow.Columns(resultSet.getMetaData());
+        }
+        // this will block if the buffer is full
+        if (!buffer.put(PrefetchedRow.copyOf(resultSet, columns))) {
+          // consumer is gone
+          return;
         }
-        put(q, crs); // this will block if the queue is full
       }
-
-      // signal the end
-      put(q, RowSetProvider.newFactory().createCachedRowSet());
+      buffer.complete();
     } catch (Exception e) {
-      // we're relying on the consumer to instanceOf
-      put(q, new ThrowingResultSet(e));
+      // rethrown by the consumer
+      buffer.fail(e);
     } finally {
       try {
         resultSet.close();
@@ -136,37 +127,4 @@ private void produce(@NonNull ResultSet resultSet, @NonNull ArrayBlockingQueue<R
       }
     }
   }
-
-  /**
-   * The only reason for this method to exist (apart from swallowing InterruptedException) is to
-   * remind the reader that we're using Queue.put here instead of Queue.add, as add would throw an
-   * exception on a full queue, while put blocks (which is exactly what we want here)
-   */
-  private void put(ArrayBlockingQueue<ResultSet> q, ResultSet rs) {
-    try {
-      q.put(rs);
-    } catch (InterruptedException e) {
-      // in that case we do not care.
-    }
-  }
-
-  /**
-   * Wraps a given ResultSet and limits the number of rows returned. Only intended for use with
-   * CachedRowSet.
-   */
-  private static class ResultSetPage implements ResultSet {
-    @Delegate final ResultSet rs;
-    private final int limit;
-    private int row = 0;
-
-    public ResultSetPage(@NonNull ResultSet source) throws SQLException {
-      rs = source;
-      limit = source.getFetchSize();
-    }
-
-    public boolean next() throws SQLException {
-      if (++row > limit) return false;
-      else return rs.next();
-    }
-  }
 }
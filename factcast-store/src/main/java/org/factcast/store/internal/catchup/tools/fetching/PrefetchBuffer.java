@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.catchup.tools.fetching;
+
+import jakarta.annotation.Nullable;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.*;
+import lombok.NonNull;
+
+/**
+ * Hands rows from the producing to the consuming thread of a {@link PreFetchingQuery}. Bounded by
+ * the estimated size of the buffered rows rather than by their number, so that a page of huge facts
+ * does not take more memory than a page of small ones.
+ */
+class PrefetchBuffer {
+  private final long maxBytes;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+
+  private final ArrayDeque<PrefetchedRow> rows = new ArrayDeque<>();
+  private long bytes;
+  private boolean completed;
+  private boolean closed;
+  private SQLException failure;
+
+  PrefetchBuffer(long maxBytes) {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("maxBytes must be positive");
+    }
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Blocks while the buffer is full. A row is always accepted by an empty buffer, regardless of its
+   * size.
+   *
+   * @return false if the buffer was closed by the consumer, so that there is no point in producing
+   *     any further rows.
+   */
+  boolean put(@NonNull PrefetchedRow row) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (!closed && !rows.isEmpty() && bytes + row.estimatedSize() > maxBytes) {
+        notFull.await();
+      }
+      if (closed) {
+        return false;
+      }
+      rows.add(row);
+      bytes += row.estimatedSize();
+      notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** signals that no more rows will follow */
+  void complete() {
+    lock.lock();
+    try {
+      completed = true;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** signals that no more rows will follow, because producing failed */
+  void fail(@NonNull Exception e) {
+    lock.lock();
+    try {
+      failure = ThrowingResultSet.asSqlException(e);
+      completed = true;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Blocks until a row is available.
+   *
+   * @return the next row, or null if all rows were consumed
+   * @throws SQLException if producing failed, after all rows produced before were consumed
+   */
+  @Nullable
+  PrefetchedRow take() throws SQLException, InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (rows.isEmpty() && !completed && !closed) {
+        notEmpty.await();
+      }
+      PrefetchedRow row = rows.poll();
+      if (row != null) {
+        bytes -= row.estimatedSize();
+        notFull.signal();
+        return row;
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** discards all buffered rows and unblocks the producer */
+  void close() {
+    lock.lock();
+    try {
+      closed = true;
+      rows.clear();
+      bytes = 0;
+      notFull.signalAll();
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long bufferedBytes() {
+    lock.lock();
+    try {
+      return bytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
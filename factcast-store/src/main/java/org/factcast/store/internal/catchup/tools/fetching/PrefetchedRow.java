@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.catchup.tools.fetching;
+
+import java.sql.*;
+import java.util.*;
+import lombok.NonNull;
+import lombok.experimental.Delegate;
+
+/**
+ * Compact copy of a single row, as used by {@link PreFetchingQuery}. Column values are kept as
+ * strings, while the column index is shared by all rows of a query. Only the getters needed to
+ * extract facts are supported.
+ */
+class PrefetchedRow implements ResultSet {
+
+  // rough per-object overhead used to estimate the heap footprint
+  private static final int ROW_OVERHEAD = 48;
+  private static final int VALUE_OVERHEAD = 40;
+
+  @Delegate ResultSet rs; // will throw NPE, if we're calling anything not implemented here
+
+  private final Columns columns;
+  private final String[] values;
+  private final long estimatedSize;
+  private boolean wasNull;
+
+  private PrefetchedRow(@NonNull Columns columns, @NonNull String[] values) {
+    this.columns = columns;
+    this.values = values;
+    long size = ROW_OVERHEAD;
+    for (String v : values) {
+      size += VALUE_OVERHEAD + (v == null ? 0 : 2L * v.length());
+    }
+    estimatedSize = size;
+  }
+
+  /** copies the current row of the given resultSet */
+  static PrefetchedRow copyOf(@NonNull ResultSet source, @NonNull Columns columns)
+      throws SQLException {
+    String[] values = new String[columns.count()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = source.getString(i + 1);
+    }
+    return new PrefetchedRow(columns, values);
+  }
+
+  /**
+   * @return the estimated number of bytes this row occupies on the heap
+   */
+  long estimatedSize() {
+    return estimatedSize;
+  }
+
+  @Override
+  public String getString(int columnIndex) throws SQLException {
+    if (columnIndex < 1 || columnIndex > values.length) {
+      throw new SQLException("Invalid column index: " + columnIndex);
+    }
+    String v = values[columnIndex - 1];
+    wasNull = v == null;
+    return v;
+  }
+
+  @Override
+  public String getString(String columnLabel) throws SQLException {
+    return getString(findColumn(columnLabel));
+  }
+
+  @Override
+  public long getLong(int columnIndex) throws SQLException {
+    String v = getString(columnIndex);
+    return v == null ? 0 : Long.parseLong(v);
+  }
+
+  @Override
+  public long getLong(String columnLabel) throws SQLException {
+    return getLong(findColumn(columnLabel));
+  }
+
+  @Override
+  public int getInt(int columnIndex) throws SQLException {
+    String v = getString(columnIndex);
+    return v == null ? 0 : Integer.parseInt(v);
+  }
+
+  @Override
+  public int getInt(String columnLabel) throws SQLException {
+    return getInt(findColumn(columnLabel));
+  }
+
+  @Override
+  public boolean wasNull() {
+    return wasNull;
+  }
+
+  @Override
+  public int findColumn(String columnLabel) throws SQLException {
+    return columns.indexOf(columnLabel);
+  }
+
+  @Override
+  public boolean isClosed() {
+    return false;
+  }
+
+  @Override
+  public void close() {
+    // nothing to release
+  }
+
+  /** column labels of a query, shared by all of its rows */
+  static class Columns {
+    private final Map<String, Integer> indexByLabel = new HashMap<>();
+    private final int count;
+
+    Columns(@NonNull ResultSetMetaData metaData) throws SQLException {
+      count = metaData.getColumnCount();
+      for (int i = count; i > 0; i--) {
+        // first one wins, as with a regular ResultSet
+        String label = metaData.getColumnLabel(i);
+        if (label == null) {
+          continue;
+        }
+        indexByLabel.put(label, i);
+        indexByLabel.put(label.toLowerCase(Locale.ROOT), i);
+      }
+    }
+
+    int count() {
+      return count;
+    }
+
+    int indexOf(@NonNull String label) throws SQLException {
+      Integer i = indexByLabel.get(label);
+      if (i == null) {
+        i = indexByLabel.get(label.toLowerCase(Locale.ROOT));
+      }
+      if (i == null) {
+        throw new SQLException("Unknown column: " + label);
+      }
+      return i;
+    }
+  }
+}
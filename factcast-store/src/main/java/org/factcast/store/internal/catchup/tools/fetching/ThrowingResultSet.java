@@ -28,7 +28,7 @@ public ThrowingResultSet(@NonNull Exception e) {
     this.e = asSqlException(e);
   }
 
-  private SQLException asSqlException(Exception e) {
+  static SQLException asSqlException(Exception e) {
     if (e instanceof SQLException sql) return sql;
     if (e.getCause() instanceof SQLException sql) return sql;
     // ok, not superclean, but hey...
@@ -44,6 +44,10 @@ public final class BasicMatcher implements PGFactMatcher {
   final Map<String, Boolean> metaKeyExists;
 
   public BasicMatcher(@NonNull FactSpec spec) {
+    this(spec, true);
+  }
+
+  private BasicMatcher(@NonNull FactSpec spec, boolean matchVersion) {
     // opt: prevent method calls by prefetching to final fields.
     // yes, they might be inlined at some point, but making decisions based
     // on final fields should help.
@@ -51,7 +55,7 @@ public BasicMatcher(@NonNull FactSpec spec) {
     // this Predicate is pretty performance critical
     ns = spec.ns();
     type = spec.type();
-    version = spec.version();
+    version = matchVersion ? spec.version() : 0;
     aggIds = spec.aggIds();
     meta = spec.meta();
     metaKeyExists = spec.metaKeyExists();
@@ -120,4 +124,14 @@ boolean aggIdMatch(Fact t) {
   public static BasicMatcher matches(@NonNull FactSpec spec) {
     return new BasicMatcher(spec);
   }
+
+  /**
+   * matches what the database query would select for the given spec. This does not include the
+   * version, as facts are transformed into the requested version only after being selected (see
+   * PgQueryBuilder, which uses the version only to decide whether aggId properties can be checked
+   * in the database).
+   */
+  public static BasicMatcher forQuery(@NonNull FactSpec spec) {
+    return new BasicMatcher(spec, false);
+  }
 }
@@ -0,0 +1,312 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.filter;
+
+import jakarta.annotation.Nullable;
+import java.util.*;
+import lombok.NonNull;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.store.internal.PgFact;
+
+/**
+ * Immutable index over the {@link FactSpec}s of many subscribers, used to find all subscribers
+ * interested in a fact without testing every single spec.
+ *
+ * <p>Specs are indexed by ns → type, where wildcards ("*" or a null type) have their own branch.
+ * Specs with aggIds are kept in posting lists keyed by their first aggId. Meta constraints are
+ * checked on the remaining candidates only, as they require parsing the header.
+ *
+ * <p>Like {@link BasicMatcher#forQuery(FactSpec)}, this matches what the database query would
+ * select. Versions are not considered, as facts are transformed into the requested version later
+ * on, and neither are filter scripts or aggId properties.
+ *
+ * <p>Subscribers are identified by non-negative ints. Matching does not allocate, as long as the
+ * {@link Matches} passed in is reused.
+ */
+public final class FactSpecIndex {
+
+  private static final String WILDCARD = "*";
+
+  private final Map<String, NsNode> byNs;
+  @Nullable private final NsNode anyNs;
+  private final int maxId;
+
+  private FactSpecIndex(Map<String, NsNode> byNs, @Nullable NsNode anyNs, int maxId) {
+    this.byNs = byNs;
+    this.anyNs = anyNs;
+    this.maxId = maxId;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * @return the highest subscriber id added to this index, or -1 if empty
+   */
+  public int maxId() {
+    return maxId;
+  }
+
+  /**
+   * collects the ids of all subscribers having at least one spec matching the given fact.
+   *
+   * @param matches will be reset before collecting
+   */
+  public void collect(@NonNull PgFact fact, @NonNull Matches matches) {
+    matches.reset(maxId);
+    NsNode ns = byNs.get(fact.ns());
+    if (ns != null) {
+      ns.collect(fact, matches);
+    }
+    if (anyNs != null) {
+      anyNs.collect(fact, matches);
+    }
+  }
+
+  /** Reusable, deduplicating collector of subscriber ids. Not threadsafe. */
+  public static final class Matches {
+    private long[] seen = new long[1];
+    private int[] ids = new int[16];
+    private int size;
+
+    void reset(int maxId) {
+      // only clear what we set, rather than the whole bitset
+      for (int i = 0; i < size; i++) {
+        int id = ids[i];
+        seen[id >>> 6] &= ~(1L << id);
+      }
+      size = 0;
+      int words = (maxId >>> 6) + 1;
+      if (seen.length < words) {
+        seen = new long[words];
+      }
+    }
+
+    void add(int id) {
+      long bit = 1L << id;
+      int word = id >>> 6;
+      if ((seen[word] & bit) == 0) {
+        seen[word] |= bit;
+        if (size == ids.length) {
+          ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+      }
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public int get(int i) {
+      Objects.checkIndex(i, size);
+      return ids[i];
+    }
+
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    /**
+     * @return true, if exactly the given ids were collected
+     */
+    public boolean containsExactly(@NonNull int[] otherIds) {
+      if (otherIds.length != size) {
+        return false;
+      }
+      for (int id : otherIds) {
+        int word = id >>> 6;
+        if (word >= seen.length || (seen[word] & (1L << id)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @return a hash of the collected ids, regardless of their order
+     */
+    public int hash() {
+      int h = 0;
+      for (int i = 0; i < size; i++) {
+        h += ids[i] * 0x9E3779B9;
+      }
+      return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return a sorted copy of the collected ids
+     */
+    public int[] toSortedArray() {
+      int[] ret = Arrays.copyOf(ids, size);
+      Arrays.sort(ret);
+      return ret;
+    }
+  }
+
+  public static final class Builder {
+    private final Map<String, NsNode.Builder> byNs = new HashMap<>();
+    private NsNode.Builder anyNs;
+    private int maxId = -1;
+
+    private Builder() {}
+
+    public Builder add(int subscriberId, @NonNull FactSpec spec) {
+      if (subscriberId < 0) {
+        throw new IllegalArgumentException("subscriberId must not be negative");
+      }
+      maxId = Math.max(maxId, subscriberId);
+      NsNode.Builder ns;
+      if (WILDCARD.equals(spec.ns())) {
+        if (anyNs == null) {
+          anyNs = new NsNode.Builder();
+        }
+        ns = anyNs;
+      } else {
+        ns = byNs.computeIfAbsent(spec.ns(), k -> new NsNode.Builder());
+      }
+      ns.add(new Entry(subscriberId, spec), spec);
+      return this;
+    }
+
+    public Builder add(int subscriberId, @NonNull Collection<FactSpec> specs) {
+      specs.forEach(s -> add(subscriberId, s));
+      return this;
+    }
+
+    public FactSpecIndex build() {
+      Map<String, NsNode> ns = new HashMap<>();
+      byNs.forEach((k, v) -> ns.put(k, v.build()));
+      return new FactSpecIndex(ns, anyNs == null ? null : anyNs.build(), maxId);
+    }
+  }
+
+  private record NsNode(Map<String, Bucket> byType, @Nullable Bucket anyType) {
+
+    void collect(PgFact fact, Matches matches) {
+      String type = fact.type();
+      if (type != null) {
+        Bucket t = byType.get(type);
+        if (t != null) {
+          t.collect(fact, matches);
+        }
+      }
+      if (anyType != null) {
+        anyType.collect(fact, matches);
+      }
+    }
+
+    static final class Builder {
+      final Map<String, Bucket.Builder> byType = new HashMap<>();
+      Bucket.Builder anyType;
+
+      void add(Entry e, FactSpec spec) {
+        String type = spec.type();
+        Bucket.Builder t;
+        if (type == null || WILDCARD.equals(type)) {
+          if (anyType == null) {
+            anyType = new Bucket.Builder();
+          }
+          t = anyType;
+        } else {
+          t = byType.computeIfAbsent(type, k -> new Bucket.Builder());
+        }
+        t.add(e);
+      }
+
+      NsNode build() {
+        Map<String, Bucket> types = new HashMap<>();
+        byType.forEach((k, v) -> types.put(k, v.build()));
+        return new NsNode(types, anyType == null ? null : anyType.build());
+      }
+    }
+  }
+
+  private record Bucket(Entry[] unconstrained, Map<UUID, Entry[]> byAggId) {
+
+    void collect(PgFact fact, Matches matches) {
+      for (Entry e : unconstrained) {
+        e.collect(fact, matches);
+      }
+      if (!byAggId.isEmpty()) {
+        Set<UUID> aggIds = fact.aggIds();
+        if (aggIds != null) {
+          for (UUID aggId : aggIds) {
+            Entry[] posting = byAggId.get(aggId);
+            if (posting != null) {
+              for (Entry e : posting) {
+                e.collect(fact, matches);
+              }
+            }
+          }
+        }
+      }
+    }
+
+    static final class Builder {
+      final List<Entry> unconstrained = new ArrayList<>();
+      final Map<UUID, List<Entry>> byAggId = new HashMap<>();
+
+      void add(Entry e) {
+        if (e.aggIds == null) {
+          unconstrained.add(e);
+        } else {
+          // one posting list is enough, as the fact needs to contain all of them anyway
+          byAggId.computeIfAbsent(e.aggIds[0], k -> new ArrayList<>()).add(e);
+        }
+      }
+
+      Bucket build() {
+        Map<UUID, Entry[]> postings = new HashMap<>();
+        byAggId.forEach((k, v) -> postings.put(k, v.toArray(new Entry[0])));
+        return new Bucket(unconstrained.toArray(new Entry[0]), postings);
+      }
+    }
+  }
+
+  private static final class Entry {
+    final int id;
+
+    /** null if unconstrained */
+    @Nullable final UUID[] aggIds;
+
+    /** null if there is no meta constraint */
+    @Nullable final BasicMatcher residual;
+
+    Entry(int id, FactSpec spec) {
+      this.id = id;
+      Set<UUID> a = spec.aggIds();
+      this.aggIds = a == null || a.isEmpty() ? null : a.toArray(new UUID[0]);
+      this.residual =
+          spec.meta().isEmpty() && spec.metaKeyExists().isEmpty() ? null : new BasicMatcher(spec);
+    }
+
+    void collect(PgFact fact, Matches matches) {
+      if (aggIds != null && aggIds.length > 1) {
+        Set<UUID> factAggIds = fact.aggIds();
+        for (int i = 1; i < aggIds.length; i++) {
+          if (!factAggIds.contains(aggIds[i])) {
+            return;
+          }
+        }
+      }
+      if (residual == null || (residual.metaMatch(fact) && residual.metaKeyExistsMatch(fact))) {
+        matches.add(id);
+      }
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.filter;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.*;
+import io.micrometer.core.instrument.*;
+import java.time.Duration;
+import lombok.NonNull;
+import org.factcast.store.internal.*;
+import org.factcast.store.internal.script.graaljs.GraalJSContextPool;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Keeps evaluated filter scripts around, so that a GraalJS context is not created and the script is
+ * not evaluated again for every single fact.
+ *
+ * <p>Header and payload are handed to the script as JSON and parsed by the JS engine, rather than
+ * parsed into Maps by Jackson beforehand.
+ *
+ * <p>As a context is reused for many facts, globals a script assigns while testing a fact are
+ * removed afterward, so that one fact cannot affect the test of the next. Changes to built-in
+ * objects (like JSON or Object.prototype) are not reverted, though.
+ */
+public class JSFilterScriptContextPool implements DisposableBean {
+
+  private static final Duration EXPIRE_AFTER_ACCESS = Duration.ofMinutes(10);
+
+  /** Receives header and payload as JSON, in order to let the JS engine do the parsing. */
+  interface BooleanFunction {
+    boolean test(String header, String payload);
+  }
+
+  private final PgMetrics metrics;
+  private final GraalJSContextPool<BooleanFunction> contexts;
+  private final DistributionSummary utilization;
+  private final Timer evaluation;
+  private final LoadingCache<String, String> scripts;
+
+  public JSFilterScriptContextPool(@NonNull PgMetrics metrics, int maxIdlePerScript) {
+    this.metrics = metrics;
+    Counter created = metrics.counter(StoreMetrics.EVENT.FILTER_SCRIPT_CONTEXT_CREATED);
+    this.contexts =
+        new GraalJSContextPool<>(
+            BooleanFunction.class, maxIdlePerScript, EXPIRE_AFTER_ACCESS, created::increment);
+    this.utilization =
+        metrics.distributionSummary(StoreMetrics.VALUE.FILTER_SCRIPT_CONTEXTS_IN_USE);
+    // scripts come from clients, so that they are not used as a tag
+    this.evaluation = metrics.timer(StoreMetrics.OP.FILTER_SCRIPT_EVAL);
+    this.scripts =
+        CacheBuilder.newBuilder()
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS)
+            .build(CacheLoader.from(JSFilterScriptContextPool::wrap));
+  }
+
+  private static String wrap(String script) {
+    // filterscript might be named like "function x(header,payload){...}" so that
+    // we need to convert it into an anonymous function
+    return "(function () {"
+        + " var fn="
+        + script
+        + "; var known=new Set(Object.getOwnPropertyNames(globalThis));"
+        + " return function (h,p) {"
+        + " try { return fn(JSON.parse(h),JSON.parse(p)); }"
+        + " finally { Object.getOwnPropertyNames(globalThis).forEach(function (k) {"
+        + " if (!known.has(k)) { delete globalThis[k]; } }); }"
+        + " };"
+        + " })()";
+  }
+
+  /**
+   * @param script the JS function source, taking header and payload as parameters
+   */
+  public boolean test(@NonNull String script, @NonNull PgFact fact) {
+    String wrapped = scripts.getUnchecked(script);
+    Timer.Sample sample = metrics.startSample();
+    try {
+      return contexts.apply(
+          wrapped,
+          fn -> {
+            utilization.record(contexts.inUse());
+            return fn.test(fact.jsonHeader(), fact.jsonPayload());
+          });
+    } finally {
+      sample.stop(evaluation);
+    }
+  }
+
+  @VisibleForTesting
+  int idle(@NonNull String script) {
+    return contexts.idle(scripts.getUnchecked(script));
+  }
+
+  @Override
+  public void destroy() {
+    contexts.close();
+  }
+}
@@ -15,15 +15,10 @@
  */
 package org.factcast.store.internal.filter;
 
-import com.google.common.base.Preconditions;
-import java.util.Map;
 import javax.annotation.Nullable;
 import lombok.*;
 import org.factcast.core.spec.*;
-import org.factcast.core.util.FactCastJson;
 import org.factcast.store.internal.PgFact;
-import org.factcast.store.internal.script.graaljs.NashornCompatContextBuilder;
-import org.graalvm.polyglot.*;
 
 /**
  * Matches facts against specifications using the contained filterScripts
@@ -32,21 +27,12 @@
  */
 public final class JSFilterScriptMatcher implements PGFactMatcher {
 
-  private static final Engine engine = Engine.newBuilder("js").build();
+  private final JSFilterScriptContextPool pool;
+  private final String script;
 
-  interface BooleanFunction {
-    boolean test(Map<String, Object> header, Map<String, Object> payload);
-  }
-
-  private final Source source;
-
-  private JSFilterScriptMatcher(@NonNull FactSpec spec) {
-    FilterScript filterScript = spec.filterScript();
-    // filterscript might be named like "function x(header,payload){...}" so that
-    // we need to convert it into an anonymous function
-    String finalScript = "function (h,p) { var fn=" + filterScript.source() + "; return fn(h,p); }";
-    this.source = Source.create(filterScript.languageIdentifier(), finalScript);
-    Preconditions.checkNotNull(source);
+  private JSFilterScriptMatcher(@NonNull FactSpec spec, @NonNull JSFilterScriptContextPool pool) {
+    this.pool = pool;
+    this.script = spec.filterScript().source();
   }
 
   @Override
@@ -54,21 +40,15 @@ public boolean test(PgFact t) {
     return scriptMatch(t);
   }
 
-  @SneakyThrows
-  @Generated
   boolean scriptMatch(PgFact t) {
-    Map<String, Object> header = FactCastJson.readValue(Map.class, t.jsonHeader());
-    Map<String, Object> payload = FactCastJson.readValue(Map.class, t.jsonPayload());
-
-    try (Context ctx = NashornCompatContextBuilder.CTX.engine(engine).build()) {
-      return ctx.eval(source).as(BooleanFunction.class).test(header, payload);
-    }
+    return pool.test(script, t);
   }
 
-  public static @Nullable JSFilterScriptMatcher matches(@NonNull FactSpec spec) {
+  public static @Nullable JSFilterScriptMatcher matches(
+      @NonNull FactSpec spec, @NonNull JSFilterScriptContextPool pool) {
     FilterScript script = spec.filterScript();
     if (script != null && !script.source().isBlank()) {
-      return new JSFilterScriptMatcher(spec);
+      return new JSFilterScriptMatcher(spec, pool);
     }
 
     // otherwise
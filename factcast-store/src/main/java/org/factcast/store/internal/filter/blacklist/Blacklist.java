@@ -15,9 +15,7 @@
  */
 package org.factcast.store.internal.filter.blacklist;
 
-import com.google.common.collect.Sets;
-import java.util.Collections;
-import java.util.HashSet;
+import com.google.common.annotations.VisibleForTesting;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -25,21 +23,93 @@
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+/**
+ * Holds the ids of blocked facts as an immutable snapshot, that is replaced as a whole whenever the
+ * blacklist changes. As it is checked for every fact sent, a lookup takes neither a lock nor
+ * allocates anything.
+ */
 @Component
 @RequiredArgsConstructor
 public final class Blacklist implements Consumer<Set<UUID>> {
 
-  private final Set<UUID> blocked = Collections.synchronizedSet(new HashSet<>());
+  private volatile Snapshot blocked = Snapshot.EMPTY;
 
   public boolean isBlocked(@NonNull UUID factId) {
-    return blocked.contains(factId);
+    return blocked.contains(factId.getMostSignificantBits(), factId.getLeastSignificantBits());
   }
 
   @Override
   public void accept(@NonNull Set<UUID> currentList) {
-    // we should not just replace it in order to not mess with the reference
-    Sets.SetView<UUID> toRemove = Sets.difference(blocked, currentList);
-    blocked.removeAll(toRemove);
-    blocked.addAll(currentList);
+    blocked = Snapshot.of(currentList);
+  }
+
+  @VisibleForTesting
+  int size() {
+    return blocked.size;
+  }
+
+  /** open addressing set of uuids, kept as pairs of primitive longs. */
+  private static final class Snapshot {
+    static final Snapshot EMPTY = new Snapshot(0);
+
+    // msb and lsb of each slot, interleaved
+    private final long[] ids;
+    private final boolean[] used;
+    private final int mask;
+    private int size;
+
+    private Snapshot(int expectedSize) {
+      // at most half full, so that probe sequences stay short
+      int slots = Integer.highestOneBit(Math.max(1, expectedSize) * 4 - 1);
+      ids = new long[slots * 2];
+      used = new boolean[slots];
+      mask = slots - 1;
+    }
+
+    static Snapshot of(@NonNull Set<UUID> ids) {
+      if (ids.isEmpty()) {
+        return EMPTY;
+      }
+      Snapshot s = new Snapshot(ids.size());
+      ids.forEach(s::add);
+      return s;
+    }
+
+    private void add(@NonNull UUID id) {
+      long msb = id.getMostSignificantBits();
+      long lsb = id.getLeastSignificantBits();
+      int i = slotOf(msb, lsb);
+      while (used[i]) {
+        if (ids[i * 2] == msb && ids[i * 2 + 1] == lsb) {
+          return;
+        }
+        i = (i + 1) & mask;
+      }
+      used[i] = true;
+      ids[i * 2] = msb;
+      ids[i * 2 + 1] = lsb;
+      size++;
+    }
+
+    boolean contains(long msb, long lsb) {
+      if (size == 0) {
+        return false;
+      }
+      int i = slotOf(msb, lsb);
+      while (used[i]) {
+        if (ids[i * 2] == msb && ids[i * 2 + 1] == lsb) {
+          return true;
+        }
+        i = (i + 1) & mask;
+      }
+      return false;
+    }
+
+    private int slotOf(long msb, long lsb) {
+      long h = msb * 0x9E3779B97F4A7C15L + lsb;
+      h ^= h >>> 32;
+      h *= 0x9E3779B97F4A7C15L;
+      return (int) (h >>> 32) & mask;
+    }
   }
 }
@@ -17,6 +17,7 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.eventbus.*;
+import jakarta.annotation.Nullable;
 import java.sql.*;
 import java.time.Duration;
 import java.util.*;
@@ -122,9 +123,10 @@ public void run() {
     }
   }
 
-  public record FetchNotificationTuple(long max, String ns, String type) {
+  public record FetchNotificationTuple(
+      long max, String ns, String type, @Nullable Long minFactSer, @Nullable Long maxFactSer) {
     public StoreNotification toFactInsertionNotification() {
-      return FactInsertionNotification.internal(ns(), type());
+      return FactInsertionNotification.internal(ns(), type(), minFactSer(), maxFactSer());
     }
   }
 
@@ -138,7 +140,7 @@ void fetchPairsAndDispatch() {
 
         List<FetchNotificationTuple> tuples =
             jdbc.query(
-                "SELECT max(ser) as max,ns,type FROM notification WHERE notification.ser > ? GROUP BY DISTINCT(ns,type) ORDER BY max",
+                "SELECT max(ser) as max,ns,type,min(min_fact_ser) as min_fact_ser,max(max_fact_ser) as max_fact_ser FROM notification WHERE notification.ser > ? GROUP BY DISTINCT(ns,type) ORDER BY max",
                 DataClassRowMapper.newInstance(FetchNotificationTuple.class),
                 notificationSer.get());
 
@@ -18,11 +18,13 @@
 import lombok.Getter;
 
 public enum AdvisoryLocks {
-  PUBLISH();
+  PUBLISH(128),
+  // class of the two-key advisory locks derived from fact specs, see SpecScopedAdvisoryWriteLock
+  PUBLISH_SCOPE(129);
 
   @Getter private final int code;
 
-  AdvisoryLocks() {
-    this.code = 128;
+  AdvisoryLocks(int code) {
+    this.code = code;
   }
 }
@@ -15,9 +15,28 @@
  */
 package org.factcast.store.internal.lock;
 
+import java.util.Collection;
+import lombok.NonNull;
+import org.factcast.core.Fact;
+import org.factcast.core.spec.FactSpec;
+
 public interface FactTableWriteLock {
 
   void acquireSharedTXLock();
 
   void acquireExclusiveTXLock();
+
+  /** acquires the lock needed to publish the given facts unconditionally */
+  default void acquireSharedTXLock(@NonNull Collection<? extends Fact> facts) {
+    acquireSharedTXLock();
+  }
+
+  /**
+   * acquires the lock needed to publish the given facts, on the condition that no fact matching the
+   * given specs was published in the meantime
+   */
+  default void acquireExclusiveTXLock(
+      @NonNull Collection<FactSpec> specs, @NonNull Collection<? extends Fact> facts) {
+    acquireExclusiveTXLock();
+  }
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.lock;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.*;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import lombok.NonNull;
+import org.factcast.core.Fact;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.store.internal.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.*;
+
+/**
+ * Lets conditional publishes with disjoint fact specs proceed in parallel, rather than serializing
+ * all of them on the exclusive publish lock.
+ *
+ * <p>Every publish still holds the publish lock in shared mode. On top of that, a conditional
+ * publish takes exclusive locks on keys derived from the specs of its state token (ns, ns/type or
+ * ns/type/aggId), while every publish takes shared locks on the keys of the facts it writes. Specs
+ * with a wildcard namespace fall back to the exclusive publish lock. Keys are hashed, so that a
+ * collision only causes unnecessary waiting.
+ *
+ * <p>All locks of a transaction are taken in one statement, in ascending order of their keys, in
+ * order to avoid deadlocks between publishers. Note that all nodes of a cluster need to use the
+ * same kind of lock.
+ */
+@SuppressWarnings({"java:S2077", "UnstableApiUsage"})
+public class SpecScopedAdvisoryWriteLock extends AdvisoryWriteLock {
+
+  private static final HashFunction HASH = Hashing.murmur3_32_fixed();
+  private static final String WILDCARD = "*";
+
+  private final JdbcTemplate tpl;
+  private final PgMetrics metrics;
+
+  public SpecScopedAdvisoryWriteLock(@NonNull JdbcTemplate tpl, @NonNull PgMetrics metrics) {
+    super(tpl);
+    this.tpl = tpl;
+    this.metrics = metrics;
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void acquireSharedTXLock(@NonNull Collection<? extends Fact> facts) {
+    SortedMap<Integer, Boolean> keys = new TreeMap<>();
+    addShared(keys, facts);
+    lock(keys, StoreMetrics.TAG_LOCK_MODE_SHARED_VALUE);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void acquireExclusiveTXLock(
+      @NonNull Collection<FactSpec> specs, @NonNull Collection<? extends Fact> facts) {
+    Set<Integer> exclusive = keysOf(specs);
+    if (exclusive == null) {
+      metrics.counter(StoreMetrics.EVENT.PUBLISH_LOCK_GLOBAL_FALLBACK).increment();
+      metrics
+          .timer(
+              StoreMetrics.OP.ACQUIRE_PUBLISH_LOCK,
+              Tags.of(StoreMetrics.TAG_LOCK_MODE_KEY, StoreMetrics.TAG_LOCK_MODE_GLOBAL_VALUE))
+          .record(this::acquireExclusiveTXLock);
+      return;
+    }
+    SortedMap<Integer, Boolean> keys = new TreeMap<>();
+    exclusive.forEach(k -> keys.put(k, true));
+    addShared(keys, facts);
+    lock(keys, StoreMetrics.TAG_LOCK_MODE_EXCLUSIVE_VALUE);
+  }
+
+  private void lock(SortedMap<Integer, Boolean> keys, String mode) {
+    String sql = lockSql(keys);
+    metrics
+        .timer(StoreMetrics.OP.ACQUIRE_PUBLISH_LOCK, Tags.of(StoreMetrics.TAG_LOCK_MODE_KEY, mode))
+        .record(() -> tpl.execute(sql));
+  }
+
+  /** the shared publish lock first, then the scoped locks in the order of their keys */
+  @VisibleForTesting
+  static String lockSql(@NonNull SortedMap<Integer, Boolean> keys) {
+    StringBuilder sb =
+        new StringBuilder("SELECT pg_advisory_xact_lock_shared(")
+            .append(AdvisoryLocks.PUBLISH.code())
+            .append(")");
+    keys.forEach(
+        (k, exclusive) ->
+            sb.append(exclusive ? ", pg_advisory_xact_lock(" : ", pg_advisory_xact_lock_shared(")
+                .append(AdvisoryLocks.PUBLISH_SCOPE.code())
+                .append(", ")
+                .append(k)
+                .append(")"));
+    return sb.toString();
+  }
+
+  private static void addShared(
+      SortedMap<Integer, Boolean> keys, Collection<? extends Fact> facts) {
+    for (Fact f : facts) {
+      keysOf(f).forEach(k -> keys.putIfAbsent(k, false));
+    }
+  }
+
+  /**
+   * @return the keys any spec matching the given fact might lock
+   */
+  @VisibleForTesting
+  static Set<Integer> keysOf(@NonNull Fact f) {
+    Set<Integer> keys = new HashSet<>();
+    String ns = f.ns();
+    keys.add(key(ns));
+    String type = f.type();
+    if (type != null) {
+      keys.add(key(ns, type));
+      Set<UUID> aggIds = f.aggIds();
+      if (aggIds != null) {
+        aggIds.forEach(id -> keys.add(key(ns, type, id)));
+      }
+    }
+    return keys;
+  }
+
+  /**
+   * @return the keys to lock exclusively, in order to prevent facts matching the given specs from
+   *     being published, or null if the specs cannot be scoped
+   */
+  @VisibleForTesting
+  @Nullable
+  static Set<Integer> keysOf(@NonNull Collection<FactSpec> specs) {
+    Set<Integer> keys = new HashSet<>();
+    for (FactSpec spec : specs) {
+      String ns = spec.ns();
+      if (WILDCARD.equals(ns)) {
+        return null;
+      }
+      String type = spec.type();
+      if (type == null || WILDCARD.equals(type)) {
+        keys.add(key(ns));
+      } else if (spec.aggIds().isEmpty()) {
+        keys.add(key(ns, type));
+      } else {
+        // a matching fact carries all of these aggIds, and publishers lock each of them
+        spec.aggIds().forEach(id -> keys.add(key(ns, type, id)));
+      }
+    }
+    return keys;
+  }
+
+  private static int key(String ns) {
+    return HASH.hashString(ns, StandardCharsets.UTF_8).asInt();
+  }
+
+  private static int key(String ns, String type) {
+    return HASH.newHasher()
+        .putString(ns, StandardCharsets.UTF_8)
+        .putByte((byte) 0)
+        .putString(type, StandardCharsets.UTF_8)
+        .hash()
+        .asInt();
+  }
+
+  private static int key(String ns, String type, UUID aggId) {
+    return HASH.newHasher()
+        .putString(ns, StandardCharsets.UTF_8)
+        .putByte((byte) 0)
+        .putString(type, StandardCharsets.UTF_8)
+        .putByte((byte) 0)
+        .putLong(aggId.getMostSignificantBits())
+        .putLong(aggId.getLeastSignificantBits())
+        .hash()
+        .asInt();
+  }
+}
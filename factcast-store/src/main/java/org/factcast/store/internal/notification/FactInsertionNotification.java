@@ -37,6 +37,29 @@ public class FactInsertionNotification extends StoreNotification {
   @Nullable String type;
   @Nullable Long ser;
 
+  /** the range of fact serials inserted, if known */
+  @Nullable Long minFactSer;
+
+  @Nullable Long maxFactSer;
+
+  public FactInsertionNotification(
+      @Nullable String ns, @Nullable String type, @Nullable Long ser) {
+    this(ns, type, ser, null, null);
+  }
+
+  public FactInsertionNotification(
+      @Nullable String ns,
+      @Nullable String type,
+      @Nullable Long ser,
+      @Nullable Long minFactSer,
+      @Nullable Long maxFactSer) {
+    this.ns = ns;
+    this.type = type;
+    this.ser = ser;
+    this.minFactSer = minFactSer;
+    this.maxFactSer = maxFactSer;
+  }
+
   public static StoreNotification internal() {
     return new FactInsertionNotification(null, null, null) {
       @Override
@@ -47,7 +70,12 @@ public boolean distributed() {
   }
 
   public static FactInsertionNotification internal(String ns, String type) {
-    return new FactInsertionNotification(ns, type, null) {
+    return internal(ns, type, null, null);
+  }
+
+  public static FactInsertionNotification internal(
+      String ns, String type, @Nullable Long minFactSer, @Nullable Long maxFactSer) {
+    return new FactInsertionNotification(ns, type, null, minFactSer, maxFactSer) {
       @Override
       public boolean distributed() {
         return false;
@@ -34,7 +34,7 @@ public BlacklistFilterServerPipeline(
   public void process(@NonNull Signal s) {
     if (s instanceof Signal.FactSignal fs) {
       Fact fact = fs.fact();
-      if (!blacklist.isBlocked(fact.header().id())) {
+      if (!blacklist.isBlocked(fact.id())) {
         parent.process(s);
       } else {
         log.trace("removing blacklisted fact from pipeline {}", fact);
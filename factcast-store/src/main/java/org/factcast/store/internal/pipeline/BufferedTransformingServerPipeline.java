@@ -43,8 +43,10 @@ public class BufferedTransformingServerPipeline extends AbstractServerPipeline {
   private final FactTransformerService service;
   private final FactTransformers transformers;
   private final int maxBufferSize;
+  private final int prefetchChunkSize;
   //
   private final List<Supplier<Signal>> buffer;
+  private final List<TransformationRequest> unprefetched = new ArrayList<>();
   private Mode mode = Mode.DIRECT;
 
   enum Mode {
@@ -76,11 +78,27 @@ public BufferedTransformingServerPipeline(
       @NonNull FactTransformerService service,
       @NonNull FactTransformers transformers,
       int maxBufferSize) {
+    this(parent, service, transformers, maxBufferSize, 0);
+  }
+
+  /**
+   * @param prefetchChunkSize if greater than zero, every time this many transformation requests
+   *     have been buffered, they are handed to the service for prefetching, so that cached
+   *     transformations are looked up while the buffer is still being filled.
+   */
+  public BufferedTransformingServerPipeline(
+      @NonNull ServerPipeline parent,
+      @NonNull FactTransformerService service,
+      @NonNull FactTransformers transformers,
+      int maxBufferSize,
+      int prefetchChunkSize) {
     super(parent);
     Preconditions.checkArgument(maxBufferSize > 2, "maxBufferSize must be >2");
+    Preconditions.checkArgument(prefetchChunkSize >= 0, "prefetchChunkSize must be >=0");
     this.service = service;
     this.transformers = transformers;
     this.maxBufferSize = maxBufferSize;
+    this.prefetchChunkSize = prefetchChunkSize;
     buffer = new ArrayList<>(maxBufferSize);
   }
 
@@ -126,9 +144,22 @@ void buffer(Signal s) {
 
   void buffer(TransformationRequest transformationRequest) {
     buffer.add(new TransformedFactSupplier(transformationRequest));
+    prefetchIfNecessary(transformationRequest);
     flushIfNecessary();
   }
 
+  @VisibleForTesting
+  void prefetchIfNecessary(@NonNull TransformationRequest transformationRequest) {
+    if (prefetchChunkSize > 0) {
+      unprefetched.add(transformationRequest);
+      // the last chunk would be flushed right away, so prefetching it would not help
+      if (unprefetched.size() >= prefetchChunkSize && buffer.size() < maxBufferSize) {
+        service.prefetch(List.copyOf(unprefetched));
+        unprefetched.clear();
+      }
+    }
+  }
+
   void flushIfNecessary(@Nullable Signal s) {
     if (buffer.size() >= maxBufferSize || (s != null && s.indicatesFlush())) {
       doFlush();
@@ -182,6 +213,7 @@ void doFlush() {
       } finally {
         // reset buffer
         buffer.clear();
+        unprefetched.clear();
         mode = Mode.DIRECT;
       }
     }
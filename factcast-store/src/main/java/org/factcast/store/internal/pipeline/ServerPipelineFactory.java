@@ -22,6 +22,7 @@
 import org.factcast.core.util.NoCoverageReportToBeGenerated;
 import org.factcast.store.StoreConfigurationProperties;
 import org.factcast.store.internal.*;
+import org.factcast.store.internal.filter.JSFilterScriptContextPool;
 import org.factcast.store.internal.filter.blacklist.Blacklist;
 import org.factcast.store.internal.transformation.FactTransformerService;
 import org.factcast.store.internal.transformation.FactTransformers;
@@ -34,6 +35,7 @@ public class ServerPipelineFactory {
   @NonNull final Blacklist blacklist;
   @NonNull final FactTransformerService factTransformerService;
   @NonNull final StoreConfigurationProperties properties;
+  @NonNull final JSFilterScriptContextPool filterScripts;
 
   public ServerPipeline create(
       @NonNull SubscriptionRequest subreq, @NonNull SubscriptionImpl sub, int maxBufferSize) {
@@ -42,11 +44,15 @@ public ServerPipeline create(
     chain = new MetricServerPipeline(chain, metrics);
 
     // needs to be executed AFTER transformation
-    chain = new FilteringServerPipeline(chain, new FactFilter(subreq));
+    chain = new FilteringServerPipeline(chain, new FactFilter(subreq, filterScripts));
 
     chain =
         new BufferedTransformingServerPipeline(
-            chain, factTransformerService, FactTransformers.createFor(subreq), maxBufferSize);
+            chain,
+            factTransformerService,
+            FactTransformers.createFor(subreq),
+            maxBufferSize,
+            properties.getTransformationCachePrefetchChunkSize());
 
     chain = new BlacklistFilterServerPipeline(chain, blacklist);
     chain = new AutoFlushingServerPipeline(chain, properties.getAutoFlushDelay());
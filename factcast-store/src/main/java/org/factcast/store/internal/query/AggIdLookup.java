@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.query;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.factcast.store.StoreConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the narrow lookup of the aggregate ids of facts, that {@link PgQueryBuilder} uses
+ * instead of the GIN index on the header once complete.
+ *
+ * <p>Enabling the lookup creates the triggers adding the aggregate ids of every fact published, and
+ * records the last serial published before in the same transaction. The facts up to that serial are
+ * then added in chunks, one transaction each, so that the backfill can be interrupted and continued
+ * by any node of the cluster.
+ */
+@Slf4j
+public class AggIdLookup {
+
+  // a run of the backfill stops after this long, and is continued by the next one
+  private static final Duration MAX_BACKFILL_DURATION = Duration.ofMinutes(10);
+
+  private static final String CREATE_TRIGGERS =
+      """
+      CREATE TRIGGER tr_fact_aggid_insert
+          AFTER INSERT ON fact
+          REFERENCING NEW TABLE AS new_rows
+          FOR EACH STATEMENT
+      EXECUTE FUNCTION addFactAggIdsOnFactInsert();
+      CREATE TRIGGER tr_fact_aggid_delete
+          AFTER DELETE ON fact
+          REFERENCING OLD TABLE AS old_rows
+          FOR EACH STATEMENT
+      EXECUTE FUNCTION removeFactAggIdsOnFactDelete();
+      """;
+
+  // creating the triggers waits for concurrent inserts, so that no fact is missed in between
+  private static final String START_BACKFILL =
+      "INSERT INTO fact_aggid_backfill (target_ser, backfilled_until) "
+          + "SELECT COALESCE(MAX(ser), 0), 0 FROM fact";
+
+  private static final String SELECT_BACKFILL =
+      "SELECT target_ser, backfilled_until FROM fact_aggid_backfill";
+
+  private static final String BACKFILL_CHUNK =
+      "INSERT INTO fact_aggid (agg_id, ser) "
+          + "SELECT a.agg_id::uuid, f.ser FROM fact f, "
+          + "jsonb_array_elements_text(f.header -> 'aggIds') a(agg_id) "
+          + "WHERE f.ser > ? AND f.ser <= ? ON CONFLICT DO NOTHING";
+
+  private static final String UPDATE_BACKFILL =
+      "UPDATE fact_aggid_backfill SET backfilled_until = GREATEST(backfilled_until, ?)";
+
+  private final @NonNull JdbcTemplate jdbc;
+  private final @NonNull TransactionTemplate tx;
+  private final @NonNull StoreConfigurationProperties props;
+
+  private volatile boolean complete;
+
+  public AggIdLookup(
+      @NonNull JdbcTemplate jdbc,
+      @NonNull PlatformTransactionManager platformTransactionManager,
+      @NonNull StoreConfigurationProperties props) {
+    this.jdbc = jdbc;
+    this.tx = new TransactionTemplate(platformTransactionManager);
+    this.props = props;
+  }
+
+  /** true, if the lookup covers every fact, so that queries can use it. */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+  @SchedulerLock(name = "aggIdLookupBackfill", lockAtMostFor = "PT15m")
+  public void backfill() {
+    if (complete || props.isReadOnlyModeEnabled()) {
+      return;
+    }
+
+    Backfill b = fetchBackfill().orElseGet(this::startBackfill);
+    long until = b.backfilledUntil();
+    long deadline = System.currentTimeMillis() + MAX_BACKFILL_DURATION.toMillis();
+    int chunkSize = props.getAggIdLookupBackfillChunkSize();
+
+    while (until < b.targetSer()) {
+      if (System.currentTimeMillis() > deadline) {
+        log.info(
+            "Paused backfilling the aggregate id lookup at serial {} of {}", until, b.targetSer());
+        return;
+      }
+      long from = until;
+      long to = Math.min(from + chunkSize, b.targetSer());
+      tx.executeWithoutResult(
+          s -> {
+            jdbc.update(BACKFILL_CHUNK, from, to);
+            jdbc.update(UPDATE_BACKFILL, to);
+          });
+      log.debug("Backfilled the aggregate id lookup up to serial {} of {}", to, b.targetSer());
+      until = to;
+    }
+
+    log.info("Aggregate id lookup is complete and will be used for queries");
+    complete = true;
+  }
+
+  /** picks up the backfill being completed by another node. */
+  @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+  public void refresh() {
+    if (!complete) {
+      complete = fetchBackfill().map(Backfill::isComplete).orElse(false);
+    }
+  }
+
+  @VisibleForTesting
+  Optional<Backfill> fetchBackfill() {
+    return jdbc
+        .query(
+            SELECT_BACKFILL,
+            (rs, i) -> new Backfill(rs.getLong("target_ser"), rs.getLong("backfilled_until")))
+        .stream()
+        .findFirst();
+  }
+
+  @VisibleForTesting
+  Backfill startBackfill() {
+    log.info("Creating the triggers to maintain the aggregate id lookup");
+    tx.executeWithoutResult(
+        s -> {
+          jdbc.execute(CREATE_TRIGGERS);
+          jdbc.update(START_BACKFILL);
+        });
+    return fetchBackfill().orElseThrow();
+  }
+
+  @VisibleForTesting
+  record Backfill(long targetSer, long backfilledUntil) {
+    boolean isComplete() {
+      return backfilledUntil >= targetSer;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.query;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import lombok.NonNull;
+
+/**
+ * A bounded map of fact ids to serials, that keeps the ids as pairs of primitive longs rather than
+ * boxed {@link UUID}/{@link Long} entries, so that it neither creates garbage on lookup nor
+ * depends on soft references to stay within bounds.
+ *
+ * <p>Entries are organized in buckets of {@link #WAYS} slots. When a bucket is full, its oldest
+ * entry is replaced. Buckets are guarded by striped {@link StampedLock}s, so that lookups usually
+ * do not need to acquire a lock at all.
+ */
+final class FactIdToSerialCache {
+
+  static final int WAYS = 4;
+  private static final int STRIPES = 64;
+
+  private final long[] msbs;
+  private final long[] lsbs;
+  // a serial of 0 marks an empty slot, as serials start at 1
+  private final long[] serials;
+  private final int bucketMask;
+  private final StampedLock[] locks = new StampedLock[STRIPES];
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder size = new LongAdder();
+
+  FactIdToSerialCache(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    int wanted = (capacity + WAYS - 1) / WAYS;
+    int buckets = wanted == 1 ? 1 : Integer.highestOneBit(wanted - 1) << 1;
+    msbs = new long[buckets * WAYS];
+    lsbs = new long[buckets * WAYS];
+    serials = new long[buckets * WAYS];
+    bucketMask = buckets - 1;
+    for (int i = 0; i < STRIPES; i++) {
+      locks[i] = new StampedLock();
+    }
+  }
+
+  /**
+   * @return the serial for the given id or 0, if it is not cached.
+   */
+  long get(@NonNull UUID id) {
+    long msb = id.getMostSignificantBits();
+    long lsb = id.getLeastSignificantBits();
+    int bucket = bucketOf(msb, lsb);
+    StampedLock lock = locks[bucket & (STRIPES - 1)];
+
+    long stamp = lock.tryOptimisticRead();
+    long serial = find(bucket * WAYS, msb, lsb);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        serial = find(bucket * WAYS, msb, lsb);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    if (serial > 0) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return serial;
+  }
+
+  void put(@NonNull UUID id, long serial) {
+    if (serial <= 0) {
+      return;
+    }
+    long msb = id.getMostSignificantBits();
+    long lsb = id.getLeastSignificantBits();
+    int bucket = bucketOf(msb, lsb);
+    int first = bucket * WAYS;
+    StampedLock lock = locks[bucket & (STRIPES - 1)];
+
+    long stamp = lock.writeLock();
+    try {
+      for (int i = first; i < first + WAYS; i++) {
+        if (serials[i] != 0 && msbs[i] == msb && lsbs[i] == lsb) {
+          serials[i] = serial;
+          return;
+        }
+      }
+      int last = first + WAYS - 1;
+      if (serials[last] == 0) {
+        size.increment();
+      }
+      // shift to evict the oldest entry of the bucket
+      System.arraycopy(msbs, first, msbs, first + 1, WAYS - 1);
+      System.arraycopy(lsbs, first, lsbs, first + 1, WAYS - 1);
+      System.arraycopy(serials, first, serials, first + 1, WAYS - 1);
+      msbs[first] = msb;
+      lsbs[first] = lsb;
+      serials[first] = serial;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private long find(int first, long msb, long lsb) {
+    for (int i = first; i < first + WAYS; i++) {
+      if (msbs[i] == msb && lsbs[i] == lsb) {
+        return serials[i];
+      }
+    }
+    return 0;
+  }
+
+  private int bucketOf(long msb, long lsb) {
+    long h = msb * 0x9E3779B97F4A7C15L + lsb;
+    h ^= h >>> 32;
+    h *= 0x9E3779B97F4A7C15L;
+    return (int) (h >>> 32) & bucketMask;
+  }
+
+  int capacity() {
+    return serials.length;
+  }
+
+  long size() {
+    return size.sum();
+  }
+
+  long hitCount() {
+    return hits.sum();
+  }
+
+  long missCount() {
+    return misses.sum();
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2017-2020 factcast.org
+ * Copyright © 2017-2026 factcast.org
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,41 +15,61 @@
  */
 package org.factcast.store.internal.query;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Tag;
-import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
-import java.time.Duration;
-import java.util.Collections;
-import java.util.UUID;
+import io.micrometer.core.instrument.Tags;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import lombok.NonNull;
+import org.factcast.core.util.ExceptionHelper;
 import org.factcast.store.internal.PgConstants;
 import org.factcast.store.internal.PgMetrics;
 import org.factcast.store.internal.StoreMetrics;
 import org.springframework.beans.factory.InitializingBean;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 /**
  * Fetches a SER from a Fact-Id.
  *
+ * <p>Besides remembering the results of lookups, the cache is written through by the tail readers
+ * with the facts they stream, so that subscriptions resuming from a recent fact usually do not
+ * need to query at all. Lookups that miss the cache are coalesced: while one query is in flight,
+ * concurrent lookups queue up and are resolved together by the next query, so that a burst of
+ * reconnecting subscriptions does not turn into a burst of single row queries.
+ *
  * @author uwe.schaefer@prisma-capacity.eu
  */
 public class PgFactIdToSerialMapper implements InitializingBean {
 
-  private static final long MAX_SIZE = 10_000;
+  public static final int DEFAULT_CACHE_SIZE = 1 << 18;
+  static final String CACHE_NAME = "serialLookupCache";
+  private static final int MAX_BATCH_SIZE = 1000;
+
   private final JdbcTemplate jdbcTemplate;
   private final PgMetrics metrics;
   private final MeterRegistry registry;
 
-  private final Cache<UUID, Long> cache;
+  private final FactIdToSerialCache cache;
+
+  // lookups waiting for the next query, guarded by itself
+  private final Map<UUID, CompletableFuture<Long>> pending = new HashMap<>();
+  private boolean querying;
 
   public PgFactIdToSerialMapper(
       JdbcTemplate jdbcTemplate, PgMetrics metrics, MeterRegistry registry) {
+    this(jdbcTemplate, metrics, registry, DEFAULT_CACHE_SIZE);
+  }
+
+  public PgFactIdToSerialMapper(
+      JdbcTemplate jdbcTemplate, PgMetrics metrics, MeterRegistry registry, int cacheSize) {
     this.jdbcTemplate = jdbcTemplate;
     this.metrics = metrics;
     this.registry = registry;
-    cache = CacheBuilder.newBuilder().expireAfterAccess(Duration.ofHours(8)).softValues().build();
+    cache = new FactIdToSerialCache(cacheSize);
   }
 
   /**
@@ -61,38 +81,138 @@ public PgFactIdToSerialMapper(
   public long retrieve(UUID id) {
     if (id == null) {
       return 0;
+    }
+    long cachedValue = cache.get(id);
+    if (cachedValue > 0) {
+      return cachedValue;
+    }
+    return lookup(id);
+  }
+
+  /**
+   * Fetches the SERs of many Facts at once, with one query for up to {@value #MAX_BATCH_SIZE} ids
+   * not found in the cache.
+   *
+   * @param ids the FactIds to look for
+   * @return the corresponding SERs by FactId. Ids, that no Fact is found for, are missing.
+   */
+  @NonNull
+  public Map<UUID, Long> retrieveAll(@NonNull Collection<UUID> ids) {
+    Map<UUID, Long> result = new HashMap<>();
+    List<UUID> missing = new ArrayList<>();
+    for (UUID id : ids) {
+      if (id != null) {
+        long cachedValue = cache.get(id);
+        if (cachedValue > 0) {
+          result.put(id, cachedValue);
+        } else {
+          missing.add(id);
+        }
+      }
+    }
+    if (!missing.isEmpty()) {
+      result.putAll(fetch(missing));
+    }
+    return result;
+  }
+
+  /** Adds a SER known from elsewhere, for instance from a fact just read, to the cache. */
+  public void remember(@NonNull UUID id, long serial) {
+    cache.put(id, serial);
+  }
+
+  private long lookup(@NonNull UUID id) {
+    CompletableFuture<Long> result;
+    boolean leading;
+    synchronized (pending) {
+      result = pending.computeIfAbsent(id, k -> new CompletableFuture<>());
+      leading = !querying;
+      querying = true;
+    }
+    if (leading) {
+      resolvePending();
+    }
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      throw ExceptionHelper.toRuntime(e.getCause());
+    }
+  }
 
-    } else {
-      Long cachedValue = cache.getIfPresent(id);
-      if (cachedValue != null && cachedValue > 0) {
-        return cachedValue;
-      } else {
-        return metrics.time(
-            StoreMetrics.OP.SERIAL_OF,
-            () -> {
-              try {
-                Long res =
-                    jdbcTemplate.queryForObject(PgConstants.SELECT_SER_BY_ID, Long.class, id);
-                if (res != null && res > 0) {
-                  cache.put(id, res);
-                  return res;
-                }
-              } catch (EmptyResultDataAccessException ignore) {
-                // ignore
-              }
-              return 0L;
-            });
+  // resolves everything that queued up meanwhile, until nothing is left
+  @SuppressWarnings("java:S1181")
+  private void resolvePending() {
+    while (true) {
+      Map<UUID, CompletableFuture<Long>> batch;
+      synchronized (pending) {
+        if (pending.isEmpty()) {
+          querying = false;
+          return;
+        }
+        batch = new HashMap<>(pending);
+        pending.clear();
       }
+      try {
+        Map<UUID, Long> found = fetch(batch.keySet());
+        batch.forEach((id, f) -> f.complete(found.getOrDefault(id, 0L)));
+      } catch (Throwable e) {
+        batch.values().forEach(f -> f.completeExceptionally(e));
+      }
+    }
+  }
+
+  @NonNull
+  private Map<UUID, Long> fetch(@NonNull Collection<UUID> ids) {
+    Map<UUID, Long> found = new HashMap<>();
+    metrics.time(
+        StoreMetrics.OP.SERIAL_OF,
+        () -> {
+          for (List<UUID> chunk : Lists.partition(new ArrayList<>(ids), MAX_BATCH_SIZE)) {
+            jdbcTemplate.query(
+                PgConstants.SELECT_SER_BY_IDS,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", chunk.toArray())),
+                rs -> {
+                  UUID id = UUID.fromString(rs.getString(PgConstants.ALIAS_ID));
+                  long serial = rs.getLong(PgConstants.COLUMN_SER);
+                  cache.put(id, serial);
+                  found.put(id, serial);
+                });
+          }
+        });
+    return found;
+  }
+
+  @VisibleForTesting
+  FactIdToSerialCache cache() {
+    return cache;
+  }
+
+  @VisibleForTesting
+  int pendingLookups() {
+    synchronized (pending) {
+      return pending.size();
     }
   }
 
   // has been pulled out of constructor in order to allow easier unit testing
   @Override
   public void afterPropertiesSet() throws Exception {
-    GuavaCacheMetrics.monitor(
-        registry,
-        cache,
-        "serialLookupCache",
-        Collections.singleton(Tag.of(StoreMetrics.TAG_STORE_KEY, StoreMetrics.TAG_STORE_VALUE)));
+    Tags tags =
+        Tags.of("cache", CACHE_NAME, StoreMetrics.TAG_STORE_KEY, StoreMetrics.TAG_STORE_VALUE);
+    // same names as the ones of micrometer's cache binders, so that existing dashboards still work
+    FunctionCounter.builder("cache.gets", cache, FactIdToSerialCache::hitCount)
+        .tags(tags)
+        .tag("result", "hit")
+        .description("the number of times cache lookup methods have returned a cached value.")
+        .register(registry);
+    FunctionCounter.builder("cache.gets", cache, FactIdToSerialCache::missCount)
+        .tags(tags)
+        .tag("result", "miss")
+        .description("the number of times cache lookup methods have not returned a cached value.")
+        .register(registry);
+    Gauge.builder("cache.size", cache, FactIdToSerialCache::size)
+        .tags(tags)
+        .description("The number of entries in this cache.")
+        .register(registry);
   }
 }
@@ -43,11 +43,21 @@ public class PgQueryBuilder {
   private static final String AND = " AND ";
   private static final String OR = " OR ";
   public static final String CONTAINS_JSONB = " @> ?::jsonb ";
+  private static final String AGG_ID_LOOKUP =
+      PgConstants.COLUMN_SER
+          + " IN (SELECT "
+          + PgConstants.COLUMN_SER
+          + FROM
+          + PgConstants.TABLE_FACT_AGGID
+          + WHERE
+          + PgConstants.COLUMN_AGG_ID
+          + "=?) ";
 
   private final @NonNull Collection<FactSpec> factSpecs;
   private final CurrentStatementHolder statementHolder;
   private String tempTableName = null;
   private boolean serialsOnly = false;
+  private boolean aggIdLookup = false;
 
   public PgQueryBuilder(@NonNull Collection<FactSpec> specs) {
     factSpecs = specs;
@@ -62,16 +72,7 @@ public PgQueryBuilder(
 
   public PreparedStatementSetter createStatementSetter(@NonNull AtomicLong serial) {
     return p -> {
-      int count = 0;
-      for (FactSpec spec : factSpecs) {
-        count = setNs(p, count, spec);
-        count = setType(p, count, spec);
-        // version is intentionally not used here
-        count = setAggIds(p, count, spec);
-        count = setAggProperties(p, count, spec);
-        count = setMeta(p, count, spec);
-        count = setMetaKeyExists(p, count, spec);
-      }
+      int count = setSpecParameters(p);
 
       p.setLong(++count, serial.get());
 
@@ -81,6 +82,56 @@ public PreparedStatementSetter createStatementSetter(@NonNull AtomicLong serial)
     };
   }
 
+  /**
+   * @param afterSerial exclusive lower bound
+   * @param untilSerial inclusive upper bound
+   * @param limit maximum number of rows to return
+   * @return the setter matching {@link #createPageSQL(boolean)}
+   */
+  public PreparedStatementSetter createPageStatementSetter(
+      long afterSerial, long untilSerial, int limit) {
+    return p -> {
+      int count = setSpecParameters(p);
+
+      p.setLong(++count, afterSerial);
+      p.setLong(++count, untilSerial);
+      p.setInt(++count, limit);
+    };
+  }
+
+  /**
+   * @param afterSerial exclusive lower bound, read when the statement is executed
+   * @param untilSerial inclusive upper bound
+   * @return the setter matching {@link #createRangeSQL()}
+   */
+  public PreparedStatementSetter createRangeStatementSetter(
+      @NonNull AtomicLong afterSerial, long untilSerial) {
+    return p -> {
+      int count = setSpecParameters(p);
+
+      p.setLong(++count, afterSerial.get());
+      p.setLong(++count, untilSerial);
+
+      if (statementHolder != null) {
+        statementHolder.statement(p);
+      }
+    };
+  }
+
+  private int setSpecParameters(PreparedStatement p) throws SQLException {
+    int count = 0;
+    for (FactSpec spec : factSpecs) {
+      count = setNs(p, count, spec);
+      count = setType(p, count, spec);
+      // version is intentionally not used here
+      count = setAggIds(p, count, spec);
+      count = setAggProperties(p, count, spec);
+      count = setMeta(p, count, spec);
+      count = setMetaKeyExists(p, count, spec);
+    }
+    return count;
+  }
+
   @SneakyThrows
   private int setAggProperties(PreparedStatement p, int count, FactSpec spec) {
 
@@ -141,7 +192,11 @@ private int setMetaKeyExists(PreparedStatement p, int count, FactSpec spec) thro
   }
 
   private int setAggIds(PreparedStatement p, int count, FactSpec spec) throws SQLException {
-    if (filterByAggregateIds(spec)) {
+    if (filterByAggregateIds(spec) && aggIdLookup) {
+      for (UUID aggId : spec.aggIds()) {
+        p.setObject(++count, aggId);
+      }
+    } else if (filterByAggregateIds(spec)) {
       String a =
           spec.aggIds().stream()
               .map(UUID::toString)
@@ -190,7 +245,10 @@ private String createWhereClause() {
             sb.append(AND).append(PgConstants.COLUMN_HEADER).append(CONTAINS_JSONB);
           }
 
-          if (filterByAggregateIds(spec)) {
+          if (filterByAggregateIds(spec) && aggIdLookup) {
+            // a fact needs to have all the aggIds, just like with the containment below
+            spec.aggIds().forEach(id -> sb.append(AND).append(AGG_ID_LOOKUP));
+          } else if (filterByAggregateIds(spec)) {
             sb.append(AND).append(PgConstants.COLUMN_HEADER).append(CONTAINS_JSONB);
           }
 
@@ -276,6 +334,41 @@ public String createStateSQL() {
     return sql;
   }
 
+  /**
+   * Creates a query for one page of facts between two serials, so that paging through the facts
+   * only ever reads the rows of the requested page (keyset pagination).
+   *
+   * @param descending if true, the page ends at the upper bound rather than starting at the lower
+   *     one
+   */
+  public String createPageSQL(boolean descending) {
+    String sql = createRangeSQL(descending) + " LIMIT ?";
+    log.trace("creating page SQL for {} - SQL={}", factSpecs, sql);
+    return sql;
+  }
+
+  /** Creates a query for all the facts between two serials, in ascending order. */
+  public String createRangeSQL() {
+    String sql = createRangeSQL(false);
+    log.trace("creating range SQL for {} - SQL={}", factSpecs, sql);
+    return sql;
+  }
+
+  private String createRangeSQL(boolean descending) {
+    return "SELECT "
+        + PgConstants.PROJECTION_FACT
+        + FROM
+        + PgConstants.TABLE_FACT
+        + WHERE
+        + createWhereClause()
+        + AND
+        + PgConstants.COLUMN_SER
+        + "<=?"
+        + ORDER_BY
+        + PgConstants.COLUMN_SER
+        + (descending ? " DESC" : " ASC");
+  }
+
   /**
    * @deprecated will be removed with CHUNKED
    * @param tempTableName
@@ -291,4 +384,13 @@ public PgQueryBuilder serialsOnly() {
     serialsOnly = true;
     return this;
   }
+
+  /**
+   * Looks up facts by aggregate id in the narrow aggregate id table rather than by the header. Must
+   * only be used once the table is completely backfilled.
+   */
+  public PgQueryBuilder useAggIdLookup() {
+    aggIdLookup = true;
+    return this;
+  }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.script.graaljs;
+
+import com.google.common.cache.*;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.*;
+
+/**
+ * Pools GraalJS {@link Context}s per script, each with the script already evaluated to a function
+ * of the given type.
+ *
+ * <p>As a context must not be used by more than one thread at a time, a context is borrowed for the
+ * duration of one call and returned afterward. Contexts that failed are discarded rather than
+ * returned, as they might be in an inconsistent state. All contexts share one {@link Engine}, so
+ * that parsed sources are shared as well.
+ *
+ * <p>Pools of scripts that have not been used for the given duration are discarded.
+ *
+ * @param <F> the interface the evaluated script is mapped to
+ */
+@Slf4j
+public class GraalJSContextPool<F> implements AutoCloseable {
+
+  private static final Engine engine = Engine.newBuilder("js").build();
+
+  private final Class<F> functionType;
+  private final int maxIdlePerScript;
+  private final Runnable onCreate;
+  private final AtomicInteger inUse = new AtomicInteger();
+
+  private final LoadingCache<String, ScriptPool> pools;
+
+  /**
+   * @param functionType the interface evaluated scripts are mapped to
+   * @param maxIdlePerScript contexts returned beyond this number are closed
+   * @param expireAfterAccess pools of scripts not used for this long are discarded
+   * @param onCreate called whenever a new context needs to be created
+   */
+  public GraalJSContextPool(
+      @NonNull Class<F> functionType,
+      int maxIdlePerScript,
+      @NonNull Duration expireAfterAccess,
+      @NonNull Runnable onCreate) {
+    this.functionType = functionType;
+    this.maxIdlePerScript = maxIdlePerScript;
+    this.onCreate = onCreate;
+    this.pools =
+        CacheBuilder.newBuilder()
+            .expireAfterAccess(expireAfterAccess)
+            .removalListener((RemovalListener<String, ScriptPool>) n -> n.getValue().close())
+            .build(CacheLoader.from(ScriptPool::new));
+  }
+
+  /**
+   * Borrows a context for the given script and applies call to the evaluated function.
+   *
+   * @param script source of a JS function, that can be mapped to the function type
+   */
+  public <T> T apply(@NonNull String script, @NonNull Function<F, T> call) {
+    ScriptPool pool = pools.getUnchecked(script);
+    PooledContext<F> ctx = pool.borrow();
+    inUse.incrementAndGet();
+    boolean healthy = false;
+    try {
+      T ret = call.apply(ctx.fn());
+      healthy = true;
+      return ret;
+    } finally {
+      inUse.decrementAndGet();
+      if (healthy) {
+        pool.release(ctx);
+      } else {
+        ctx.close();
+      }
+    }
+  }
+
+  /**
+   * @return the number of contexts currently borrowed
+   */
+  public int inUse() {
+    return inUse.get();
+  }
+
+  /**
+   * @return the number of idle contexts for the given script
+   */
+  public int idle(@NonNull String script) {
+    ScriptPool pool = pools.getIfPresent(script);
+    return pool == null ? 0 : pool.idleCount.get();
+  }
+
+  @Override
+  public void close() {
+    pools.invalidateAll();
+  }
+
+  private record PooledContext<F>(Context ctx, F fn) {
+    void close() {
+      try {
+        ctx.close();
+      } catch (Exception e) {
+        log.debug("While closing context", e);
+      }
+    }
+  }
+
+  private final class ScriptPool {
+    private final Source source;
+    private final ConcurrentLinkedDeque<PooledContext<F>> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    ScriptPool(String script) {
+      source = Source.create("js", script);
+    }
+
+    PooledContext<F> borrow() {
+      PooledContext<F> ctx = idle.pollFirst();
+      if (ctx != null) {
+        idleCount.decrementAndGet();
+        return ctx;
+      }
+      onCreate.run();
+      Context c = NashornCompatContextBuilder.CTX.engine(engine).build();
+      try {
+        return new PooledContext<>(c, c.eval(source).as(functionType));
+      } catch (RuntimeException e) {
+        c.close();
+        throw e;
+      }
+    }
+
+    void release(PooledContext<F> ctx) {
+      if (closed) {
+        ctx.close();
+      } else if (idleCount.incrementAndGet() > maxIdlePerScript) {
+        idleCount.decrementAndGet();
+        ctx.close();
+      } else {
+        // LIFO, so that the most recently used contexts are reused first
+        idle.offerFirst(ctx);
+        if (closed) {
+          // closed concurrently
+          drain();
+        }
+      }
+    }
+
+    void close() {
+      closed = true;
+      drain();
+    }
+
+    private void drain() {
+      PooledContext<F> ctx;
+      while ((ctx = idle.pollFirst()) != null) {
+        idleCount.decrementAndGet();
+        ctx.close();
+      }
+    }
+  }
+}
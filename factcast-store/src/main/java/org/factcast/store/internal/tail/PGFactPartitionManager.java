@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.tail;
+
+import java.util.concurrent.TimeUnit;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.factcast.store.StoreConfigurationProperties;
+import org.factcast.store.internal.PgConstants;
+import org.factcast.store.internal.PgMetrics;
+import org.factcast.store.internal.StoreMetrics;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Keeps partitions ahead of the serials published, once the fact table was partitioned by serial
+ * ranges. As inserting a fact fails without a partition to take it, this runs every minute, and
+ * creates partitions long before they are needed.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PGFactPartitionManager {
+  private final @NonNull JdbcTemplate jdbc;
+  private final @NonNull StoreConfigurationProperties props;
+  private final @NonNull PgMetrics pgMetrics;
+
+  @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+  @SchedulerLock(name = "createFactPartitions", lockAtMostFor = "5m")
+  public void createPartitionsAhead() {
+    if (!isFactTablePartitioned(jdbc)) {
+      return;
+    }
+
+    Integer created =
+        jdbc.queryForObject(
+            PgConstants.CREATE_FACT_PARTITIONS_AHEAD,
+            Integer.class,
+            props.getFactPartitionSize(),
+            props.getFactPartitionsAhead());
+    if (created != null && created > 0) {
+      log.info("Created {} fact partition(s) of {} serials", created, props.getFactPartitionSize());
+    }
+
+    Long partitions = jdbc.queryForObject(PgConstants.COUNT_FACT_PARTITIONS, Long.class);
+    if (partitions != null) {
+      pgMetrics.distributionSummary(StoreMetrics.VALUE.FACT_PARTITIONS).record(partitions);
+    }
+  }
+
+  static boolean isFactTablePartitioned(@NonNull JdbcTemplate jdbc) {
+    return Boolean.TRUE.equals(
+        jdbc.queryForObject(PgConstants.FACT_TABLE_IS_PARTITIONED, Boolean.class));
+  }
+}
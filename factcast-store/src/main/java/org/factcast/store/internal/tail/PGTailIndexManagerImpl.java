@@ -57,6 +57,11 @@ public void triggerTailCreation() {
     }
 
     try (var jdbc = buildTemplate()) {
+      if (PGFactPartitionManager.isFactTablePartitioned(jdbc)) {
+        log.debug("Skipping tail index maintenance, as the fact table is partitioned");
+        return;
+      }
+
       log.info("Triggering tail index maintenance");
 
       var maintenancePossible = !isAnyIndexOperationInProgress(jdbc);
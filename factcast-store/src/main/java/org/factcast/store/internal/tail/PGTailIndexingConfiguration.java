@@ -24,6 +24,7 @@
 import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 @Configuration
 public class PGTailIndexingConfiguration {
@@ -37,6 +38,13 @@ public PGTailIndexManager pgTailIndexManager(
     return new PGTailIndexManagerImpl(pgConnectionSupplier, props, pgMetrics);
   }
 
+  @Bean
+  @IsReadAndWriteEnv
+  public PGFactPartitionManager pgFactPartitionManager(
+      JdbcTemplate jdbcTemplate, StoreConfigurationProperties props, PgMetrics pgMetrics) {
+    return new PGFactPartitionManager(jdbcTemplate, props, pgMetrics);
+  }
+
   @Bean
   @ConditionalOnMissingBean
   @DependsOnDatabaseInitialization
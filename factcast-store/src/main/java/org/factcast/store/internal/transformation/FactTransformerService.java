@@ -25,4 +25,10 @@ public interface FactTransformerService {
   Fact transform(@NonNull TransformationRequest req) throws TransformationException;
 
   List<PgFact> transform(@NonNull List<TransformationRequest> req) throws TransformationException;
+
+  /**
+   * Hints that the given requests are about to be passed to {@link #transform(List)}, so that
+   * previously transformed facts can be fetched in the background. Does nothing by default.
+   */
+  default void prefetch(@NonNull List<TransformationRequest> req) {}
 }
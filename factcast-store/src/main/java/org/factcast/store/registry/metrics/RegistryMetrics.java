@@ -57,6 +57,8 @@ <R, E extends Exception> R timed(
 
   AtomicLong gauge(GAUGE gauge, AtomicLong value);
 
+  <T> void gauge(GAUGE gauge, T obj, ToDoubleFunction<T> value);
+
   ExecutorService monitor(ExecutorService executor, String name);
 
   enum OP {
@@ -75,6 +77,9 @@ enum OP {
   enum EVENT {
     TRANSFORMATION_CACHE_HIT("transformationCache-hit"),
     TRANSFORMATION_CACHE_MISS("transformationCache-miss"),
+    TRANSFORMATION_CACHE_EVICTION("transformationCache-eviction"),
+    TRANSFORMATION_CACHE_PREFETCH_HIT("transformationCache-prefetch-hit"),
+    TRANSFORMATION_CACHE_PREFETCH_MISS("transformationCache-prefetch-miss"),
     MISSING_TRANSFORMATION_INFO("missingTransformationInformation"),
     TRANSFORMATION_CONFLICT("transformationConflict"),
     REGISTRY_FILE_FETCH_FAILED("registryFileFetchFailed"),
@@ -93,7 +98,8 @@ enum EVENT {
   }
 
   enum GAUGE {
-    CACHE_BUFFER("transformationCacheBufferSize");
+    CACHE_BUFFER("transformationCacheBufferSize"),
+    TRANSFORMATION_CACHE_HIT_RATIO("transformationCacheHitRatio");
 
     @NonNull @Getter final String metric;
 
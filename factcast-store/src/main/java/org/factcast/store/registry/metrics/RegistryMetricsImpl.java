@@ -158,6 +158,13 @@ public AtomicLong gauge(@NonNull GAUGE gauge, AtomicLong value) {
     return gauge(gauge, Tags.empty(), value);
   }
 
+  @Override
+  public <T> void gauge(@NonNull GAUGE gauge, @NonNull T obj, @NonNull ToDoubleFunction<T> value) {
+    Gauge.builder(METRIC_NAME_GAUGE, obj, value)
+        .tags(Tags.of(Tag.of(TAG_NAME_KEY, gauge.metric())))
+        .register(meterRegistry);
+  }
+
   @Override
   public void afterPropertiesSet() throws Exception {
     /*
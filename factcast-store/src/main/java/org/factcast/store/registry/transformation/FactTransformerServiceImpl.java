@@ -198,6 +198,25 @@ public List<PgFact> transform(@NonNull List<TransformationRequest> req)
     }
   }
 
+  @Override
+  public void prefetch(@NonNull List<TransformationRequest> req) {
+    try {
+      List<TransformationCache.Key> keys =
+          req.stream()
+              .map(
+                  r -> {
+                    TransformationChain chain = toChain(r);
+                    return TransformationCache.Key.of(
+                        r.toTransform().id(), chain.toVersion(), chain.versionPath());
+                  })
+              .toList();
+      cache.prefetch(keys);
+    } catch (Exception e) {
+      // just a hint, the actual transformation will run into the same problem and escalate it
+      log.debug("Skipping prefetch of {} transformations", req.size(), e);
+    }
+  }
+
   @NonNull
   public PgFact doTransform(@NonNull PgFact e, @NonNull TransformationChain chain) {
     return registryMetrics.timed(
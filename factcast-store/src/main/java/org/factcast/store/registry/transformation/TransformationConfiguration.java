@@ -65,7 +65,7 @@ public TransformationCache transformationCache(
 
     // otherwise
     return new InMemTransformationCache(
-        props.getInMemTransformationCacheCapacity(), registryMetrics);
+        props.getInMemTransformationCacheMaxBytes(), registryMetrics);
   }
 
   @Bean
@@ -15,43 +15,108 @@
  */
 package org.factcast.store.registry.transformation.cache;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.annotations.VisibleForTesting;
 import java.util.*;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.map.LRUMap;
 import org.factcast.core.Fact;
 import org.factcast.store.registry.metrics.RegistryMetrics;
 
+/**
+ * Keeps transformed facts in memory, bounded by the size of their header and payload rather than
+ * by their number. Eviction is frequency and recency based (W-TinyLFU), so that a single catchup
+ * transforming lots of facts once does not push out the facts transformed over and over again.
+ *
+ * <p>The keys of cached facts are indexed by namespace and type, so that invalidating a
+ * transformation does not need to scan the whole cache.
+ */
 @Slf4j
 public class InMemTransformationCache implements TransformationCache {
   private final RegistryMetrics registryMetrics;
 
   // very low, but ok for tests
-  private static final int DEFAULT_CAPACITY = 100;
+  private static final long DEFAULT_MAX_BYTES = 1024 * 1024;
 
-  private final Map<Key, Fact> cache;
+  private final Cache<Key, Fact> cache;
+
+  // guarded by the map itself, as sets are only accessed within compute
+  private final Map<NsAndType, Set<Key>> keysByNsAndType = new ConcurrentHashMap<>();
 
   public InMemTransformationCache(RegistryMetrics registryMetrics) {
-    this(DEFAULT_CAPACITY, registryMetrics);
+    this(DEFAULT_MAX_BYTES, registryMetrics);
   }
 
-  public InMemTransformationCache(int capacity, RegistryMetrics registryMetrics) {
-    cache = Collections.synchronizedMap(new LRUMap<>(Math.min(capacity, DEFAULT_CAPACITY)));
+  public InMemTransformationCache(long maxBytes, RegistryMetrics registryMetrics) {
     this.registryMetrics = registryMetrics;
+    cache =
+        Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Key k, Fact f) -> weightOf(f))
+            .evictionListener(this::onEviction)
+            // keeps index maintenance on the calling threads
+            .executor(Runnable::run)
+            .recordStats()
+            .build();
+    registryMetrics.gauge(
+        RegistryMetrics.GAUGE.TRANSFORMATION_CACHE_HIT_RATIO, cache, c -> c.stats().hitRate());
+  }
+
+  @VisibleForTesting
+  static int weightOf(@NonNull Fact f) {
+    return f.jsonHeader().length() + f.jsonPayload().length();
+  }
+
+  private void onEviction(Key key, Fact fact, RemovalCause cause) {
+    if (key != null && fact != null) {
+      unindex(NsAndType.of(fact), key);
+    }
+    if (cause.wasEvicted()) {
+      registryMetrics.count(RegistryMetrics.EVENT.TRANSFORMATION_CACHE_EVICTION);
+    }
   }
 
   @Override
   public void put(@NonNull TransformationCache.Key key, @NonNull Fact f) {
-    cache.put(key, f);
+    // indexing while the entry is locked, so that evicting it cannot unindex the key before it was
+    // indexed
+    cache
+        .asMap()
+        .compute(
+            key,
+            (k, previous) -> {
+              index(NsAndType.of(f), k);
+              return f;
+            });
+  }
+
+  private void index(@NonNull NsAndType nsAndType, @NonNull Key key) {
+    keysByNsAndType.compute(
+        nsAndType,
+        (t, keys) -> {
+          Set<Key> s = keys == null ? new HashSet<>() : keys;
+          s.add(key);
+          return s;
+        });
+  }
+
+  private void unindex(@NonNull NsAndType nsAndType, @NonNull Key key) {
+    keysByNsAndType.computeIfPresent(
+        nsAndType,
+        (t, keys) -> {
+          keys.remove(key);
+          return keys.isEmpty() ? null : keys;
+        });
   }
 
   @Override
   @Nonnull
   public Optional<Fact> find(@NonNull TransformationCache.Key key) {
-    Optional<Fact> cached = Optional.ofNullable(cache.get(key));
+    Optional<Fact> cached = Optional.ofNullable(cache.getIfPresent(key));
     registryMetrics.count(
         cached.isPresent()
             ? RegistryMetrics.EVENT.TRANSFORMATION_CACHE_HIT
@@ -62,14 +127,7 @@ public Optional<Fact> find(@NonNull TransformationCache.Key key) {
   @Override
   @Nonnull
   public Set<Fact> findAll(Collection<Key> keys) {
-    Set<Fact> found = new HashSet<>(keys.size());
-    keys.forEach(
-        k -> {
-          Fact fact = cache.get(k);
-          if (fact != null) {
-            found.add(fact);
-          }
-        });
+    Set<Fact> found = new HashSet<>(cache.getAllPresent(keys).values());
 
     var hits = found.size();
     var misses = keys.size() - hits;
@@ -86,34 +144,51 @@ public Set<Fact> findAll(Collection<Key> keys) {
 
   @Override
   public void invalidateTransformationFor(@Nonnull String ns, @Nonnull String type) {
-    synchronized (cache) {
-      Set<Key> toBeInvalidated =
-          cache.entrySet().stream()
-              .filter(
-                  e -> e.getValue().ns().equals(ns) && Objects.equals(e.getValue().type(), type))
-              .map(Entry::getKey)
-              .collect(Collectors.toSet());
-      if (!toBeInvalidated.isEmpty()) {
-        toBeInvalidated.forEach(cache::remove);
-      }
+    Set<Key> toBeInvalidated = keysByNsAndType.remove(new NsAndType(ns, type));
+    if (toBeInvalidated != null) {
+      cache.invalidateAll(toBeInvalidated);
     }
   }
 
   @Override
   public void invalidateTransformationFor(@Nonnull UUID factId) {
-    synchronized (cache) {
-      Set<Key> toBeInvalidated =
-          cache.keySet().stream()
-              .filter(k -> factId.equals(k.factId()))
-              .collect(Collectors.toSet());
-      if (!toBeInvalidated.isEmpty()) {
-        toBeInvalidated.forEach(cache::remove);
-      }
-    }
+    // rare enough to not justify another index
+    cache
+        .asMap()
+        .forEach(
+            (k, f) -> {
+              if (factId.equals(k.factId()) && cache.asMap().remove(k, f)) {
+                unindex(NsAndType.of(f), k);
+              }
+            });
+  }
+
+  @VisibleForTesting
+  long weightedSize() {
+    cache.cleanUp();
+    return cache.policy().eviction().orElseThrow().weightedSize().orElse(0);
+  }
+
+  @VisibleForTesting
+  long size() {
+    cache.cleanUp();
+    return cache.estimatedSize();
+  }
+
+  @VisibleForTesting
+  int indexedKeys(@NonNull String ns, String type) {
+    Set<Key> keys = keysByNsAndType.get(new NsAndType(ns, type));
+    return keys == null ? 0 : keys.size();
   }
 
   @Override
   public void flush() {
     // NOOP
   }
+
+  private record NsAndType(@NonNull String ns, String type) {
+    static NsAndType of(@NonNull Fact f) {
+      return new NsAndType(f.ns(), f.type());
+    }
+  }
 }
@@ -15,9 +15,13 @@
  */
 package org.factcast.store.registry.transformation.cache;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.*;
+import jakarta.annotation.Nullable;
 import java.sql.*;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import lombok.AccessLevel;
@@ -46,6 +50,46 @@ public class PgTransformationCache implements TransformationCache, AutoCloseable
   final ThreadPoolExecutor tpe =
       new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
 
+  /**
+   * The statement text does not depend on the number of keys, so that it can be prepared once by
+   * the driver and reused, rather than being parsed and planned again for every lookup.
+   */
+  @VisibleForTesting
+  static final String SELECT_BY_KEYS =
+      "SELECT tc.fact_id, tc.version, tc.path, tc.header, tc.payload FROM transformation_cache tc"
+          + " JOIN unnest(?::uuid[], ?::int[], ?::text[]) AS k(fact_id, version, path)"
+          + " ON tc.fact_id = k.fact_id AND tc.version = k.version AND tc.path = k.path::int[]";
+
+  static final int PREFETCH_THREADS = 2;
+  static final int PREFETCH_QUEUE_SIZE = 64;
+  static final int PREFETCH_CAPACITY = 10_000;
+  static final Duration PREFETCH_RETENTION = Duration.ofMinutes(1);
+
+  @Getter(AccessLevel.PACKAGE)
+  final ThreadPoolExecutor prefetchPool =
+      new ThreadPoolExecutor(
+          PREFETCH_THREADS,
+          PREFETCH_THREADS,
+          0L,
+          TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(PREFETCH_QUEUE_SIZE));
+
+  // results of prefetched lookups, including the ones that found nothing. Entries are removed
+  // when consumed by findAll, so that this near cache only holds what is about to be needed.
+  private final Cache<Key, Prefetched> prefetched =
+      Caffeine.newBuilder()
+          .maximumSize(PREFETCH_CAPACITY)
+          .expireAfterWrite(PREFETCH_RETENTION)
+          .build();
+
+  private final Map<Key, CompletableFuture<Void>> pendingPrefetches = new ConcurrentHashMap<>();
+
+  // guarded by prefetched, incremented on invalidation, so that lookups started before an
+  // invalidation do not publish stale results afterwards
+  private long prefetchGeneration;
+
+  private final boolean prefetchEnabled;
+
   private static final CompletableFuture<Void> COMPLETED_FUTURE =
       CompletableFuture.completedFuture(null);
 
@@ -87,11 +131,14 @@ public PgTransformationCache(
     this.storeConfigurationProperties = storeConfigurationProperties;
 
     registryMetrics.monitor(tpe, "transformation-cache");
+    registryMetrics.monitor(prefetchPool, "transformation-cache-prefetch");
 
     this.maxBufferSize =
         Math.min(maxBufferSize, 9999); // the batchUpdates used only support up to 10k
     this.buffer = new CacheBuffer(registryMetrics);
     this.bufferThreshold = (THRESHOLD_PERCENT * this.maxBufferSize) / 100;
+    this.prefetchEnabled =
+        storeConfigurationProperties.getTransformationCachePrefetchChunkSize() > 0;
   }
 
   @Override
@@ -135,6 +182,23 @@ public Set<Fact> findAll(Collection<Key> keysToFind) {
       }
     }
 
+    if (prefetchEnabled && !keys.isEmpty()) {
+      int prefetchHits = 0;
+      iterator = keys.iterator();
+      while (iterator.hasNext()) {
+        Prefetched p = takePrefetched(iterator.next());
+        if (p != null) {
+          iterator.remove();
+          prefetchHits++;
+          if (p.fact() != null) {
+            facts.add(p.fact());
+          }
+        }
+      }
+      registryMetrics.increase(EVENT.TRANSFORMATION_CACHE_PREFETCH_HIT, prefetchHits);
+      registryMetrics.increase(EVENT.TRANSFORMATION_CACHE_PREFETCH_MISS, keys.size());
+    }
+
     if (!keys.isEmpty()) {
 
       facts.addAll(jdbcTemplate.query(selectByKeys(keys), new PgFactRowMapper()));
@@ -148,29 +212,121 @@ public Set<Fact> findAll(Collection<Key> keysToFind) {
     return Sets.newHashSet(facts);
   }
 
+  /**
+   * Looks up the given keys in the background, so that a later call to {@link #findAll} for (some
+   * of) them does not need to wait for the database. If there is no capacity left to do so, the
+   * prefetch is skipped.
+   */
+  @Override
+  public void prefetch(@NonNull Collection<Key> keys) {
+    List<Key> toFetch =
+        keys.stream()
+            .distinct()
+            .filter(
+                k ->
+                    buffer.get(k) == null
+                        && prefetched.getIfPresent(k) == null
+                        && !pendingPrefetches.containsKey(k))
+            .toList();
+    if (toFetch.isEmpty()) {
+      return;
+    }
+
+    long generation;
+    synchronized (prefetched) {
+      generation = prefetchGeneration;
+    }
+
+    CompletableFuture<Void> lookup;
+    try {
+      lookup = CompletableFuture.runAsync(() -> fetchPrefetched(toFetch, generation), prefetchPool);
+    } catch (RejectedExecutionException e) {
+      log.debug("Prefetch queue exhausted, skipping prefetch of {} keys", toFetch.size());
+      return;
+    }
+    toFetch.forEach(k -> pendingPrefetches.put(k, lookup));
+    // runs right away in case the lookup is already done, so that nothing is left behind
+    lookup.whenComplete((v, e) -> toFetch.forEach(k -> pendingPrefetches.remove(k, lookup)));
+  }
+
+  @VisibleForTesting
+  void fetchPrefetched(@NonNull List<Key> keys, long generation) {
+    try {
+      Map<Key, PgFact> found = new HashMap<>();
+      PgFactRowMapper factMapper = new PgFactRowMapper();
+      jdbcTemplate.query(
+          selectByKeys(keys),
+          (RowCallbackHandler) rs -> found.put(keyOf(rs), factMapper.mapRow(rs, 0)));
+
+      synchronized (prefetched) {
+        if (generation == prefetchGeneration) {
+          keys.forEach(k -> prefetched.put(k, new Prefetched(found.get(k))));
+        }
+      }
+    } catch (Exception e) {
+      // the keys will be looked up again when needed
+      log.warn("While prefetching {} transformations", keys.size(), e);
+    }
+  }
+
+  @Nullable
+  private Prefetched takePrefetched(@NonNull Key key) {
+    CompletableFuture<Void> pending = pendingPrefetches.get(key);
+    if (pending != null) {
+      // the lookup is already underway, waiting for it is cheaper than issuing another one
+      pending.join();
+    }
+    return prefetched.asMap().remove(key);
+  }
+
+  private void clearPrefetched() {
+    synchronized (prefetched) {
+      prefetchGeneration++;
+      prefetched.invalidateAll();
+    }
+  }
+
+  @VisibleForTesting
+  boolean isPrefetched(@NonNull Key key) {
+    return prefetched.getIfPresent(key) != null;
+  }
+
+  private static Key keyOf(ResultSet rs) throws SQLException {
+    return Key.of(
+        rs.getObject("fact_id", UUID.class),
+        rs.getInt("version"),
+        Arrays.asList((Integer[]) rs.getArray("path").getArray()));
+  }
+
   @NotNull
   static PreparedStatementCreator selectByKeys(@NonNull List<Key> keys) {
     return con -> {
-      StringBuilder sql =
-          new StringBuilder(
-              "SELECT header, payload FROM transformation_cache WHERE (fact_id, version, path) IN (");
+      UUID[] ids = new UUID[keys.size()];
+      Integer[] versions = new Integer[keys.size()];
+      // paths differ in length, so they cannot be passed as a two-dimensional array
+      String[] paths = new String[keys.size()];
       for (int i = 0; i < keys.size(); i++) {
-        if (i > 0) sql.append(", ");
-        sql.append("(?, ?, ?::int[])");
-      }
-      sql.append(")");
-
-      PreparedStatement ps = con.prepareStatement(sql.toString());
-      int idx = 1;
-      for (Key key : keys) {
-        ps.setObject(idx++, key.factId());
-        ps.setInt(idx++, key.version());
-        ps.setArray(idx++, con.createArrayOf("int4", key.path().toArray(new Integer[0])));
+        Key key = keys.get(i);
+        ids[i] = key.factId();
+        versions[i] = key.version();
+        paths[i] = toArrayLiteral(key.path());
       }
+
+      PreparedStatement ps = con.prepareStatement(SELECT_BY_KEYS);
+      ps.setArray(1, con.createArrayOf("uuid", ids));
+      ps.setArray(2, con.createArrayOf("int4", versions));
+      ps.setArray(3, con.createArrayOf("text", paths));
       return ps;
     };
   }
 
+  @VisibleForTesting
+  static String toArrayLiteral(@NonNull List<Integer> path) {
+    StringJoiner joiner = new StringJoiner(",", "{", "}");
+    path.forEach(i -> joiner.add(String.valueOf(i)));
+    return joiner.toString();
+  }
+
   @VisibleForTesting
   CompletableFuture<Void> registerWrite(@NonNull TransformationCache.Key key, @NonNull Fact f) {
     buffer.put(key, (PgFact) f);
@@ -202,6 +358,7 @@ CompletableFuture<Void> flushIfNecessary() {
   public void invalidateTransformationFor(String ns, String type) {
     // we need to flush even if we're in read only mode in order to prevent a buffer overflow
     flush();
+    clearPrefetched();
 
     if (!storeConfigurationProperties.isReadOnlyModeEnabled()) {
       // it is fine if flush worked in another transaction, it just has to be serialized
@@ -218,6 +375,7 @@ public void invalidateTransformationFor(String ns, String type) {
   public void invalidateTransformationFor(UUID factId) {
     // we need to flush even if we're in read only mode in order to prevent a buffer overflow
     flush();
+    clearPrefetched();
 
     if (!storeConfigurationProperties.isReadOnlyModeEnabled()) {
       // it is fine if flush worked in another transaction, it just has to be serialized
@@ -308,5 +466,9 @@ public int getBatchSize() {
   @Override
   public void close() throws Exception {
     tpe.shutdownNow();
+    prefetchPool.shutdownNow();
   }
+
+  /** a prefetched lookup, fact being null if nothing was found */
+  private record Prefetched(@Nullable PgFact fact) {}
 }
@@ -34,6 +34,12 @@ public interface TransformationCache {
 
   Set<Fact> findAll(Collection<Key> keys);
 
+  /**
+   * Hints that the given keys are about to be looked up by {@link #findAll(Collection)}, so that
+   * implementations can start fetching them in the background. Does nothing by default.
+   */
+  default void prefetch(@NonNull Collection<Key> keys) {}
+
   void invalidateTransformationFor(String ns, String type);
 
   void invalidateTransformationFor(UUID factId);
@@ -16,35 +16,84 @@
 package org.factcast.store.registry.transformation.chains;
 
 import com.google.common.cache.*;
+import java.time.Duration;
 import java.util.*;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.factcast.core.subscription.TransformationException;
 import org.factcast.core.util.FactCastJson;
 import org.factcast.store.internal.script.JsonString;
-import org.factcast.store.internal.script.graaljs.NashornCompatContextBuilder;
+import org.factcast.store.internal.script.graaljs.GraalJSContextPool;
 import org.factcast.store.registry.transformation.Transformation;
-import org.graalvm.polyglot.*;
+import org.springframework.beans.factory.DisposableBean;
 
-@RequiredArgsConstructor
+/**
+ * Runs transformations (usually {@link TransformationChain}s) in pooled GraalJS contexts, that have
+ * the composed transformation function already evaluated.
+ *
+ * <p>The payload is handed to the script as a Java Map, and written back via Jackson, just like
+ * with a context per fact, so that scripts and numbers behave the same regardless of the payload.
+ *
+ * <p>As a context is reused for many facts, globals a script assigns while transforming a fact are
+ * removed afterward, so that the result does not depend on the facts transformed before. Changes
+ * to built-in objects are not reverted, though.
+ */
 @Slf4j
-public class JsTransformer implements Transformer {
-  protected static final Engine engine = Engine.newBuilder("js").build();
-  protected static final CacheLoader<String, Source> loader =
-      CacheLoader.from(key -> Source.create("js", key));
-  protected static final LoadingCache<String, Source> cache =
-      CacheBuilder.newBuilder().softValues().build(loader);
+public class JsTransformer implements Transformer, DisposableBean {
+
+  static final int DEFAULT_MAX_IDLE_CONTEXTS_PER_TRANSFORMATION = 8;
+
+  private static final Duration EXPIRE_AFTER_ACCESS = Duration.ofMinutes(30);
+
+  interface Fnc {
+    void run(Map<String, Object> arg);
+  }
+
+  private final GraalJSContextPool<Fnc> contexts;
+  private final LoadingCache<String, String> scripts;
+
+  public JsTransformer() {
+    this(DEFAULT_MAX_IDLE_CONTEXTS_PER_TRANSFORMATION);
+  }
+
+  /**
+   * @param maxIdleContextsPerTransformation should match the number of threads transforming
+   *     concurrently
+   */
+  public JsTransformer(int maxIdleContextsPerTransformation) {
+    contexts =
+        new GraalJSContextPool<>(
+            Fnc.class, maxIdleContextsPerTransformation, EXPIRE_AFTER_ACCESS, () -> {});
+    scripts =
+        CacheBuilder.newBuilder()
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS)
+            .build(CacheLoader.from(JsTransformer::wrap));
+  }
+
+  private static String wrap(String transformationCode) {
+    return "(function () {"
+        + " var wrapped="
+        + transformationCode
+        + "; var known=new Set(Object.getOwnPropertyNames(globalThis));"
+        + " return function (e) {"
+        + " try { wrapped(e); }"
+        + " finally { Object.getOwnPropertyNames(globalThis).forEach(function (k) {"
+        + " if (!known.has(k)) { delete globalThis[k]; } }); }"
+        + " };"
+        + " })()";
+  }
 
   @SuppressWarnings("unchecked")
   private JsonString runJSTransformation(JsonString input, String js) {
     try {
-      Source s = cache.get(js);
       final Map<String, Object> jsonAsMap = FactCastJson.readValue(Map.class, input.json());
-      try (Context ctx = NashornCompatContextBuilder.CTX.engine(engine).build()) {
-        ctx.eval(s).as(Fnc.class).run(jsonAsMap);
-        return JsonString.of(FactCastJson.toJsonNode(jsonAsMap).toString());
-      }
-
+      contexts.apply(
+          js,
+          fn -> {
+            fn.run(jsonAsMap);
+            return null;
+          });
+      return JsonString.of(FactCastJson.toJsonNode(jsonAsMap).toString());
     } catch (Exception e) {
       // debug level, because it is escalated.
       log.debug("Exception during transformation. Escalating.", e);
@@ -52,10 +101,6 @@ private JsonString runJSTransformation(JsonString input, String js) {
     }
   }
 
-  interface Fnc {
-    void run(Map<String, Object> arg);
-  }
-
   @Override
   public JsonString transform(Transformation t, JsonString input) throws TransformationException {
 
@@ -64,9 +109,12 @@ public JsonString transform(Transformation t, JsonString input) throws Transform
     if (transformationCode.isEmpty()) {
       return input;
     } else {
-      String script =
-          "function (e) { var wrapped=" + transformationCode.get() + "; wrapped(e); return e; }";
-      return runJSTransformation(input, script);
+      return runJSTransformation(input, scripts.getUnchecked(transformationCode.get()));
     }
   }
+
+  @Override
+  public void destroy() {
+    contexts.close();
+  }
 }
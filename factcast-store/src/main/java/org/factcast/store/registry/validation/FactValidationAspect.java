@@ -16,25 +16,59 @@
 package org.factcast.store.registry.validation;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.stream.*;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.factcast.core.Fact;
 import org.factcast.core.FactValidationException;
+import org.factcast.core.util.ExceptionHelper;
 
 @Aspect
 @Slf4j
-@RequiredArgsConstructor
-public class FactValidationAspect {
+public class FactValidationAspect implements AutoCloseable {
 
   public static final int MAX_ERROR_MESSAGES = 25;
+
+  /** publish bursts beyond this many pending chunks are validated by the publishing thread */
+  static final int QUEUE_SIZE = 1024;
+
   private final FactValidator validator;
+  private final ExecutorService executor;
+  private final int parallelism;
+
+  /** validates on the publishing thread only */
+  public FactValidationAspect(@NonNull FactValidator validator) {
+    this(validator, MoreExecutors.newDirectExecutorService(), 1);
+  }
+
+  public FactValidationAspect(
+      @NonNull FactValidator validator, @NonNull ExecutorService executor, int parallelism) {
+    this.validator = validator;
+    this.executor = executor;
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  /**
+   * creates a bounded executor for validation, that makes the publishing thread validate, when all
+   * threads are busy and the queue is full.
+   */
+  @NonNull
+  public static ThreadPoolExecutor createExecutor(int threads) {
+    return new ThreadPoolExecutor(
+        threads,
+        threads,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(QUEUE_SIZE),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
 
   @SuppressWarnings("unchecked")
   @Around("execution(public void org.factcast.core.store.FactStore.publish(*))")
@@ -48,9 +82,20 @@ public Object interceptPublish(ProceedingJoinPoint joinPoint) throws Throwable {
     return joinPoint.proceed();
   }
 
+  @SuppressWarnings("unchecked")
+  @Around("execution(public void org.factcast.core.store.FactStore.publishBulk(*))")
+  public Object interceptPublishBulk(ProceedingJoinPoint joinPoint) throws Throwable {
+    log.trace("intercepting publishBulk()");
+
+    Object[] args = joinPoint.getArgs();
+    List<? extends Fact> facts = (List<? extends Fact>) args[0];
+    validate(facts);
+
+    return joinPoint.proceed();
+  }
+
   private void validate(List<? extends Fact> facts) {
-    Stream<? extends Fact> stream = facts.stream().parallel();
-    List<FactValidationError> errors = validate(stream);
+    List<FactValidationError> errors = validateAll(facts);
 
     if (!errors.isEmpty()) {
       throw new FactValidationException(extractMessages(errors));
@@ -81,8 +126,47 @@ static List<String> extractMessages(@NonNull List<FactValidationError> errors) {
     return errMsgs;
   }
 
-  private List<FactValidationError> validate(Stream<? extends Fact> stream) {
-    return stream.map(validator::validate).flatMap(Collection::stream).collect(Collectors.toList());
+  /**
+   * validates in as many chunks as there are threads, in order to hand off once per thread rather
+   * than once per fact. The first chunk is validated by the publishing thread, which would wait
+   * anyway.
+   */
+  @VisibleForTesting
+  List<FactValidationError> validateAll(@NonNull List<? extends Fact> facts) {
+    if (facts.size() < 2 || parallelism < 2) {
+      return validateSequentially(facts);
+    }
+
+    int chunkSize = (facts.size() + parallelism - 1) / parallelism;
+    List<? extends List<? extends Fact>> chunks = Lists.partition(facts, chunkSize);
+    List<Future<List<FactValidationError>>> pending =
+        chunks.stream()
+            .skip(1)
+            .map(chunk -> executor.submit(() -> validateSequentially(chunk)))
+            .toList();
+
+    List<FactValidationError> errors = new ArrayList<>(validateSequentially(chunks.get(0)));
+    try {
+      for (Future<List<FactValidationError>> f : pending) {
+        errors.addAll(f.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw ExceptionHelper.toRuntime(e);
+    } catch (ExecutionException e) {
+      throw ExceptionHelper.toRuntime(e.getCause());
+    } finally {
+      // does not affect completed ones, but saves the work after a failure
+      pending.forEach(f -> f.cancel(true));
+    }
+    return errors;
+  }
+
+  private List<FactValidationError> validateSequentially(List<? extends Fact> facts) {
+    return facts.stream()
+        .map(validator::validate)
+        .flatMap(Collection::stream)
+        .collect(Collectors.toList());
   }
 
   @SuppressWarnings("unchecked")
@@ -95,4 +179,21 @@ public Object interceptPublishIfUnchanged(ProceedingJoinPoint joinPoint) throws
 
     return joinPoint.proceed();
   }
+
+  @SuppressWarnings("unchecked")
+  @Around(
+      "execution(public boolean org.factcast.core.store.FactStore.publishIfUnchangedSince(..))")
+  public Object interceptPublishIfUnchangedSince(ProceedingJoinPoint joinPoint) throws Throwable {
+    log.trace("intercepting publishIfUnchangedSince()");
+    Object[] args = joinPoint.getArgs();
+    List<? extends Fact> facts = (List<? extends Fact>) args[0];
+    validate(facts);
+
+    return joinPoint.proceed();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
 }
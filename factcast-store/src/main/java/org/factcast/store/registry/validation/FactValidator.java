@@ -15,9 +15,11 @@
  */
 package org.factcast.store.registry.validation;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import io.micrometer.core.instrument.Tags;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.*;
 import lombok.RequiredArgsConstructor;
@@ -65,9 +67,14 @@ List<FactValidationError> doValidate(Fact fact) {
     if (optSchema.isPresent()) {
       Schema jsonSchema = optSchema.get();
       try {
-        JSONObject toValidate = new JSONObject(fact.jsonPayload());
+        // the schema itself is compiled once and cached by the registry
+        JSONObject toValidate = PayloadReader.read(fact.jsonPayload());
         return tryValidate(key, jsonSchema, toValidate);
-      } catch (JSONException e) {
+      } catch (JsonProcessingException e) {
+        // the original message does not repeat the payload
+        return Lists.newArrayList(
+            new FactValidationError("Fact is not parseable. " + e.getOriginalMessage()));
+      } catch (IOException | JSONException e) {
         return Lists.newArrayList(
             new FactValidationError("Fact is not parseable. " + e.getMessage()));
       }
@@ -61,7 +61,13 @@ public FactValidator factValidator(
   @ConditionalOnExpression(
       "!'${factcast.store.schema-registry-url:}'.isEmpty() && ${factcast.store.validation-enabled:true}")
   public FactValidationAspect factValidationAspect(
-      StoreConfigurationProperties props, FactValidator v) {
-    return new FactValidationAspect(v);
+      StoreConfigurationProperties props,
+      FactValidator v,
+      @NonNull RegistryMetrics registryMetrics) {
+    int threads = props.getSizeOfThreadPoolForValidation();
+    return new FactValidationAspect(
+        v,
+        registryMetrics.monitor(FactValidationAspect.createExecutor(threads), "fact-validation"),
+        threads);
   }
 }
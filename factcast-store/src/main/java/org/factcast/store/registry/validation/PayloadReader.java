@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.registry.validation;
+
+import com.fasterxml.jackson.core.*;
+import java.io.IOException;
+import lombok.NonNull;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Reads a payload into the org.json model that everit validates against, by streaming the tokens
+ * of a Jackson parser directly into it, rather than going through the much slower org.json
+ * tokenizer.
+ *
+ * <p>Numbers are represented like org.json does: integers as Integer or Long (or Double if they
+ * exceed a long), decimals as Double. Unlike org.json, only strict JSON is accepted, which is what
+ * postgres' jsonb accepts anyway.
+ */
+final class PayloadReader {
+
+  private static final JsonFactory FACTORY =
+      JsonFactory.builder().enable(StreamReadFeature.STRICT_DUPLICATE_DETECTION).build();
+
+  private PayloadReader() {}
+
+  @NonNull
+  static JSONObject read(@NonNull String json) throws IOException, JSONException {
+    try (JsonParser p = FACTORY.createParser(json)) {
+      if (p.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException(p, "Payload must be a JSON object");
+      }
+      JSONObject o = readObject(p);
+      if (p.nextToken() != null) {
+        throw new JsonParseException(p, "Unexpected content after the payload");
+      }
+      return o;
+    }
+  }
+
+  private static JSONObject readObject(JsonParser p) throws IOException, JSONException {
+    JSONObject o = new JSONObject();
+    String name;
+    while ((name = p.nextFieldName()) != null) {
+      o.put(name, readValue(p, p.nextToken()));
+    }
+    return o;
+  }
+
+  private static JSONArray readArray(JsonParser p) throws IOException, JSONException {
+    JSONArray a = new JSONArray();
+    JsonToken t;
+    while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+      a.put(readValue(p, t));
+    }
+    return a;
+  }
+
+  private static Object readValue(JsonParser p, JsonToken t) throws IOException, JSONException {
+    if (t == null) {
+      throw new JsonParseException(p, "Unexpected end of payload");
+    }
+    return switch (t) {
+      case START_OBJECT -> readObject(p);
+      case START_ARRAY -> readArray(p);
+      case VALUE_STRING -> p.getText();
+      case VALUE_NUMBER_INT -> readInteger(p);
+      case VALUE_NUMBER_FLOAT -> p.getDoubleValue();
+      case VALUE_TRUE -> Boolean.TRUE;
+      case VALUE_FALSE -> Boolean.FALSE;
+      case VALUE_NULL -> JSONObject.NULL;
+      default -> throw new JsonParseException(p, "Unexpected token " + t);
+    };
+  }
+
+  private static Object readInteger(JsonParser p) throws IOException {
+    return switch (p.getNumberType()) {
+      case INT -> p.getIntValue();
+      case LONG -> p.getLongValue();
+      default -> p.getDoubleValue();
+    };
+  }
+}
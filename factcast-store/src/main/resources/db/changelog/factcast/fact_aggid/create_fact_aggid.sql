@@ -0,0 +1,44 @@
+-- narrow lookup of the aggregate ids of facts, used instead of the GIN index on the header once
+-- backfilled. The triggers maintaining it are only created once the lookup is enabled.
+CREATE TABLE IF NOT EXISTS fact_aggid
+(
+    agg_id uuid   NOT NULL,
+    ser    bigint NOT NULL,
+    PRIMARY KEY (agg_id, ser)
+);
+
+-- progress of the backfill, written once the triggers are created
+CREATE TABLE IF NOT EXISTS fact_aggid_backfill
+(
+    id               int PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    target_ser       bigint NOT NULL,
+    backfilled_until bigint NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION addFactAggIdsOnFactInsert()
+    RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO fact_aggid(agg_id, ser)
+    SELECT a.agg_id::uuid, n.ser
+    FROM new_rows n,
+         jsonb_array_elements_text(n.header -> 'aggIds') a(agg_id)
+    ON CONFLICT DO NOTHING;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION removeFactAggIdsOnFactDelete()
+    RETURNS trigger AS
+$$
+BEGIN
+    DELETE
+    FROM fact_aggid l
+        USING old_rows o, jsonb_array_elements_text(o.header -> 'aggIds') a(agg_id)
+    WHERE l.agg_id = a.agg_id::uuid
+      AND l.ser = o.ser;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
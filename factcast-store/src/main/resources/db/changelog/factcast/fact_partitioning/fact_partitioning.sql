@@ -0,0 +1,193 @@
+-- Range partitioning of the fact table by ser. Nothing is changed here, this only installs the
+-- functions to migrate and maintain it. As migrating is a matter of a maintenance window, we kindly
+-- ask you to execute the migration manually:
+--
+--   CALL prepareFactPartitioning(100000000);  -- headroom of serials left to the current table
+--   CALL partitionFactTable();                 -- switch, takes an exclusive lock for a moment
+--
+-- After that, factcast creates partitions ahead of the serials published on its own.
+
+-- unique indexes on partitioned tables need to contain the partition key, so that fact ids are only
+-- unique per partition by index. Rather than probing every partition, the ids are registered in a
+-- narrow table, whose primary key makes them unique across partitions with a single index lookup
+-- (and also for concurrent inserts into different partitions).
+CREATE TABLE IF NOT EXISTS fact_id
+(
+    id uuid PRIMARY KEY
+);
+
+CREATE OR REPLACE FUNCTION registerFactId()
+    RETURNS trigger AS
+$$
+BEGIN
+    -- a duplicate id violates the primary key (no exception block, as that would open a
+    -- subtransaction per fact)
+    INSERT INTO fact_id (id) VALUES ((NEW.header ->> 'id')::uuid);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- creates a table and attaches it as a partition, as attaching does not block reads and writes on
+-- the fact table (other than creating a partition directly)
+CREATE OR REPLACE FUNCTION createFactPartition(lower_ser bigint, upper_ser bigint)
+    RETURNS void AS
+$$
+DECLARE
+    partition_name text := 'fact_' || lower_ser;
+BEGIN
+    EXECUTE format('CREATE TABLE %I (LIKE fact INCLUDING DEFAULTS INCLUDING STORAGE)',
+                   partition_name);
+    EXECUTE format('CREATE UNIQUE INDEX %I ON %I (((header ->> ''id'')::uuid))',
+                   partition_name || '_unique_uuid', partition_name);
+    -- the indexes of the fact table are created on the partition when attaching it
+    EXECUTE format('ALTER TABLE fact ATTACH PARTITION %I FOR VALUES FROM (%s) TO (%s)',
+                   partition_name, lower_ser, upper_ser);
+END;
+$$ LANGUAGE plpgsql;
+
+-- makes sure there are partitions for the given number of partition sizes beyond the serials
+-- handed out by the sequence, returns the number of partitions created
+CREATE OR REPLACE FUNCTION createFactPartitionsAhead(partition_size bigint, partitions_ahead int)
+    RETURNS int AS
+$$
+DECLARE
+    upper_ser bigint;
+    last_ser  bigint;
+    created   int := 0;
+BEGIN
+    -- rather wait for the next run than queueing up reads and writes behind the attach
+    PERFORM set_config('lock_timeout', '10s', true);
+
+    SELECT max(substring(pg_get_expr(c.relpartbound, c.oid) FROM 'TO \(''?(\d+)''?\)')::bigint)
+    INTO upper_ser
+    FROM pg_inherits i
+             JOIN pg_class c ON c.oid = i.inhrelid
+    WHERE i.inhparent = 'fact'::regclass;
+
+    IF upper_ser IS NULL THEN
+        RAISE EXCEPTION 'fact is not partitioned by ser';
+    END IF;
+
+    SELECT last_value INTO last_ser FROM fact_ser_seq;
+
+    WHILE upper_ser < last_ser + partition_size * partitions_ahead
+        LOOP
+            PERFORM createFactPartition(upper_ser, upper_ser + partition_size);
+            upper_ser := upper_ser + partition_size;
+            created := created + 1;
+        END LOOP;
+
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- registers the ids of all facts, and limits the serials of the current fact table, so that it can
+-- be attached as the first partition without being scanned while locked. Registering the ids and
+-- validating the limit scan the table, but do not block reads and writes.
+CREATE OR REPLACE PROCEDURE prepareFactPartitioning(headroom bigint)
+AS
+$$
+DECLARE
+    chunk_size CONSTANT bigint := 1000000;
+    from_ser            bigint := 0;
+    max_ser             bigint;
+    limit_ser           bigint;
+BEGIN
+    -- waits for the inserts in flight, so that every fact published from now on is registered
+    DROP TRIGGER IF EXISTS tr_fact_register_id ON fact;
+    CREATE TRIGGER tr_fact_register_id
+        BEFORE INSERT
+        ON fact
+        FOR EACH ROW
+    EXECUTE FUNCTION registerFactId();
+    COMMIT;
+
+    SELECT coalesce(max(ser), 0) INTO max_ser FROM fact;
+    WHILE from_ser <= max_ser
+        LOOP
+            INSERT INTO fact_id (id)
+            SELECT (header ->> 'id')::uuid
+            FROM fact
+            WHERE ser >= from_ser
+              AND ser < from_ser + chunk_size
+            ON CONFLICT DO NOTHING;
+            COMMIT;
+            from_ser := from_ser + chunk_size;
+        END LOOP;
+
+    SELECT last_value + headroom INTO limit_ser FROM fact_ser_seq;
+
+    EXECUTE format('ALTER TABLE fact ADD CONSTRAINT fact_legacy_range CHECK (ser < %s) NOT VALID',
+                   limit_ser);
+    COMMIT;
+
+    ALTER TABLE fact VALIDATE CONSTRAINT fact_legacy_range;
+END;
+$$ LANGUAGE plpgsql;
+
+-- replaces the fact table by a partitioned one, with the current table as its first partition
+CREATE OR REPLACE PROCEDURE partitionFactTable()
+AS
+$$
+DECLARE
+    limit_ser bigint;
+    t         record;
+    triggers  text[] := '{}';
+    def       text;
+BEGIN
+    LOCK TABLE fact IN ACCESS EXCLUSIVE MODE;
+
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'fact'::regclass) THEN
+        RAISE EXCEPTION 'fact is already partitioned';
+    END IF;
+
+    SELECT substring(pg_get_constraintdef(oid) FROM '(\d+)')::bigint
+    INTO limit_ser
+    FROM pg_constraint
+    WHERE conrelid = 'fact'::regclass
+      AND conname = 'fact_legacy_range'
+      AND convalidated;
+
+    IF limit_ser IS NULL THEN
+        RAISE EXCEPTION 'fact is not prepared for partitioning, CALL prepareFactPartitioning first';
+    END IF;
+
+    -- triggers (including tr_fact_register_id) are moved to the partitioned table, which passes row
+    -- triggers on to its partitions
+    FOR t IN SELECT tgname, pg_get_triggerdef(oid) AS def
+             FROM pg_trigger
+             WHERE tgrelid = 'fact'::regclass
+               AND NOT tgisinternal
+        LOOP
+            triggers := triggers || t.def;
+            EXECUTE format('DROP TRIGGER %I ON fact', t.tgname);
+        END LOOP;
+
+    -- the partitions keep the indexes small, which is what the tail indexes were for
+    FOR t IN SELECT indexname
+             FROM pg_indexes
+             WHERE tablename = 'fact'
+               AND indexname LIKE 'idx\_fact\_tail\_%'
+        LOOP
+            EXECUTE format('DROP INDEX %I', t.indexname);
+        END LOOP;
+
+    ALTER TABLE fact RENAME TO fact_legacy;
+    ALTER INDEX IF EXISTS fact_pkey RENAME TO fact_legacy_pkey;
+    ALTER INDEX IF EXISTS idx_fact_header RENAME TO fact_legacy_header;
+    ALTER INDEX IF EXISTS idx_fact_unique_uuid RENAME TO fact_legacy_unique_uuid;
+
+    CREATE TABLE fact (LIKE fact_legacy INCLUDING DEFAULTS INCLUDING STORAGE) PARTITION BY RANGE (ser);
+    ALTER TABLE fact ADD CONSTRAINT fact_pkey PRIMARY KEY (ser);
+    CREATE INDEX idx_fact_header ON fact USING GIN (header jsonb_path_ops) WITH (fastupdate = false);
+
+    -- the matching indexes of the legacy table are attached rather than built again
+    EXECUTE format('ALTER TABLE fact ATTACH PARTITION fact_legacy FOR VALUES FROM (MINVALUE) TO (%s)',
+                   limit_ser);
+
+    FOREACH def IN ARRAY triggers
+        LOOP
+            EXECUTE def;
+        END LOOP;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,20 @@
+-- the range of fact serials inserted, so that followers can bound their queries
+ALTER TABLE notification ADD COLUMN IF NOT EXISTS min_fact_ser bigint;
+ALTER TABLE notification ADD COLUMN IF NOT EXISTS max_fact_ser bigint;
+
+CREATE OR REPLACE FUNCTION createNotificationOnFactInsert()
+    RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO notification(ns, type, min_fact_ser, max_fact_ser)
+    SELECT n.header ->> 'ns' as ns, n.header ->> 'type' as type, min(n.ser), max(n.ser)
+    FROM new_rows n
+    GROUP BY 1, 2
+    ON CONFLICT (tw, ns, type)
+        DO UPDATE set ser=nextval('notification_ser_seq'),
+                      min_fact_ser=least(notification.min_fact_ser, excluded.min_fact_ser),
+                      max_fact_ser=greatest(notification.max_fact_ser, excluded.max_fact_ser);
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
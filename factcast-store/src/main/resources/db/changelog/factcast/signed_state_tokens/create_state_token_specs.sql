@@ -0,0 +1,7 @@
+-- Fact specs referenced by signed state tokens, registered once per distinct
+-- list of specs. The hash is the sha256 of the specs' JSON representation.
+CREATE TABLE IF NOT EXISTS state_token_specs(
+    id    serial PRIMARY KEY,
+    hash  varchar(64) NOT NULL UNIQUE,
+    specs jsonb       NOT NULL
+);
@@ -18,6 +18,7 @@
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.UUID;
 import lombok.NonNull;
 import org.assertj.core.api.Assertions;
@@ -32,6 +33,9 @@
 @ExtendWith(MockitoExtension.class)
 class FactFilterTest {
 
+  final JSFilterScriptContextPool filterScripts =
+      new JSFilterScriptContextPool(new PgMetrics(new SimpleMeterRegistry()), 2);
+
   @Nested
   class WhenTesting {
 
@@ -39,7 +43,7 @@ class WhenTesting {
     void skipsIfNoFilterScriptAndNoAggregateIdPropertyInvolved() {
       @NonNull FactSpec spec = FactSpec.ns("x").type("y").version(2);
       @NonNull SubscriptionRequest req = SubscriptionRequest.catchup(spec).fromScratch();
-      FactFilter uut = new FactFilter(req);
+      FactFilter uut = new FactFilter(req, filterScripts);
       assertThat(uut.canBeSkipped()).isTrue();
     }
 
@@ -52,7 +56,7 @@ void testOnFilterScriptTrue() {
               .version(2)
               .filterScript(FilterScript.js("function(a,b){return true;};"));
       @NonNull SubscriptionRequest req = SubscriptionRequest.catchup(spec).fromScratch();
-      FactFilter uut = new FactFilter(req);
+      FactFilter uut = new FactFilter(req, filterScripts);
       assertThat(uut.canBeSkipped()).isFalse();
 
       Assertions.assertThat(uut.test(PgFact.from(new TestFact().ns("x").type("y").version(2))))
@@ -68,7 +72,7 @@ void testOnFilterScriptFalse() {
               .version(2)
               .filterScript(FilterScript.js("function(a,b){return false;};"));
       @NonNull SubscriptionRequest req = SubscriptionRequest.catchup(spec).fromScratch();
-      FactFilter uut = new FactFilter(req);
+      FactFilter uut = new FactFilter(req, filterScripts);
       assertThat(uut.canBeSkipped()).isFalse();
 
       Assertions.assertThat(uut.test(PgFact.from(new TestFact().ns("x").type("y").version(2))))
@@ -84,7 +88,7 @@ void testOnFilterScriptBasicMismatch() {
               .version(2)
               .filterScript(FilterScript.js("function(a,b){return true;};"));
       @NonNull SubscriptionRequest req = SubscriptionRequest.catchup(spec).fromScratch();
-      FactFilter uut = new FactFilter(req);
+      FactFilter uut = new FactFilter(req, filterScripts);
       assertThat(uut.canBeSkipped()).isFalse();
 
       Assertions.assertThat(uut.test(PgFact.from(new TestFact().ns("a").type("b").version(2))))
@@ -96,7 +100,7 @@ void testOnAggIdProperty() {
       @NonNull
       FactSpec spec = FactSpec.ns("x").type("y").version(2).aggIdProperty("a", UUID.randomUUID());
       @NonNull SubscriptionRequest req = SubscriptionRequest.catchup(spec).fromScratch();
-      FactFilter uut = new FactFilter(req);
+      FactFilter uut = new FactFilter(req, filterScripts);
       assertThat(uut.canBeSkipped()).isFalse();
     }
   }
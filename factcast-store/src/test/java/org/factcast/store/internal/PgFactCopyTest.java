@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2017-2020 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+import lombok.SneakyThrows;
+import org.assertj.core.util.Lists;
+import org.factcast.core.Fact;
+import org.junit.jupiter.api.Test;
+
+class PgFactCopyTest {
+
+  @SneakyThrows
+  @Test
+  void writesBinaryCopyFormat() {
+    Fact f1 = Fact.builder().id(UUID.randomUUID()).ns("ns").type("type").build("{\"a\":\"ä\"}");
+    Fact f2 = Fact.builder().id(UUID.randomUUID()).ns("ns").buildWithoutPayload();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    PgFactCopy.write(bytes, Lists.newArrayList(f1, f2));
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    byte[] signature = new byte[11];
+    in.readFully(signature);
+    assertThat(signature)
+        .containsExactly('P', 'G', 'C', 'O', 'P', 'Y', '\n', 0xFF, '\r', '\n', '\0');
+    // flags and header extension
+    assertThat(in.readInt()).isZero();
+    assertThat(in.readInt()).isZero();
+
+    for (Fact f : Lists.newArrayList(f1, f2)) {
+      assertThat(in.readShort()).isEqualTo((short) 2);
+      assertThat(readJsonb(in)).isEqualTo(f.jsonHeader());
+      assertThat(readJsonb(in)).isEqualTo(f.jsonPayload());
+    }
+
+    assertThat(in.readShort()).isEqualTo((short) -1);
+    assertThat(in.available()).isZero();
+  }
+
+  @SneakyThrows
+  @Test
+  void writesEmptyCopy() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    PgFactCopy.write(bytes, Collections.emptyList());
+
+    // signature, flags, extension and trailer
+    assertThat(bytes.size()).isEqualTo(11 + 4 + 4 + 2);
+  }
+
+  @SneakyThrows
+  private String readJsonb(DataInputStream in) {
+    int length = in.readInt();
+    // jsonb version
+    assertThat(in.readByte()).isEqualTo((byte) 1);
+    byte[] json = new byte[length - 1];
+    in.readFully(json);
+    return new String(json, StandardCharsets.UTF_8);
+  }
+}
@@ -15,6 +15,7 @@
  */
 package org.factcast.store.internal;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -49,6 +50,18 @@ void testRetrieve() {
     assertTrue(retrieve > 0);
   }
 
+  @Test
+  void testRetrieveAll() {
+    Fact a = Fact.builder().buildWithoutPayload();
+    Fact b = Fact.builder().buildWithoutPayload();
+    store.publish(Arrays.asList(a, b));
+    Map<UUID, Long> found =
+        new PgFactIdToSerialMapper(tpl, metrics, registry)
+            .retrieveAll(Arrays.asList(a.id(), b.id(), UUID.randomUUID()));
+    assertEquals(Set.of(a.id(), b.id()), found.keySet());
+    assertTrue(found.get(a.id()) < found.get(b.id()));
+  }
+
   @Test
   void testRetrieveNonExistant() {
     try {
@@ -16,6 +16,7 @@
 package org.factcast.store.internal;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.nio.charset.StandardCharsets;
 import java.time.*;
@@ -235,6 +236,52 @@ void getStateOnEmptyFactTableReturns0() {
     assertThat(state.get()).extracting(State::serialOfLastMatchingFact).isEqualTo(0L);
   }
 
+  @Nested
+  class PublishingInBulk {
+    @Test
+    void augmentsSerialsInOrder() {
+      List<Fact> facts = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        facts.add(
+            Fact.builder()
+                .id(UUID.randomUUID())
+                .ns("bulk")
+                .type("test")
+                .build("{\"i\":" + i + ",\"umlaut\":\"\u00e4\"}"));
+      }
+
+      fs.publishBulk(facts);
+
+      long previous = 0;
+      for (Fact f : facts) {
+        Fact fetched = fs.fetchById(f.id()).orElseThrow();
+        long ser = fetched.header().serial();
+        assertThat(ser).isGreaterThan(previous);
+        assertThat(fetched.header().meta().getFirst("_ser")).isEqualTo(String.valueOf(ser));
+        assertThat(fetched.header().timestamp()).isNotNull();
+        assertThat(fetched.jsonPayload()).contains("\u00e4");
+        previous = ser;
+      }
+      assertThat(fs.latestSerial()).isEqualTo(previous);
+    }
+
+    @Test
+    void rejectsDuplicates() {
+      Fact fact =
+          Fact.builder().id(UUID.randomUUID()).ns("bulk").type("test").buildWithoutPayload();
+      fs.publish(Collections.singletonList(fact));
+
+      Fact other =
+          Fact.builder().id(UUID.randomUUID()).ns("bulk").type("test").buildWithoutPayload();
+      List<Fact> facts = Lists.newArrayList(other, fact);
+      assertThatThrownBy(() -> fs.publishBulk(facts))
+          .isInstanceOf(DuplicateFactException.class);
+
+      // atomic, so that the other one is not published either
+      assertThat(fs.fetchById(other.id())).isEmpty();
+    }
+  }
+
   @SuppressWarnings("deprecation")
   @Nested
   class FactStoreTest {
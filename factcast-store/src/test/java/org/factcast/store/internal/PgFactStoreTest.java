@@ -41,7 +41,9 @@
 import org.factcast.core.subscription.SubscriptionRequestTO;
 import org.factcast.core.subscription.observer.FactObserver;
 import org.factcast.store.StoreConfigurationProperties;
+import org.factcast.store.internal.filter.blacklist.Blacklist;
 import org.factcast.store.internal.lock.FactTableWriteLock;
+import org.factcast.store.internal.query.AggIdLookup;
 import org.factcast.store.internal.query.PgFactIdToSerialMapper;
 import org.factcast.store.internal.query.PgQueryBuilder;
 import org.factcast.store.internal.transformation.FactTransformerService;
@@ -87,6 +89,10 @@ class PgFactStoreTest {
 
   @Mock PlatformTransactionManager platformTransactionManager;
 
+  @Spy Blacklist blacklist = new Blacklist();
+
+  @Mock AggIdLookup aggIdLookup;
+
   @InjectMocks PgFactStore underTest;
 
   @Nested
@@ -211,7 +217,7 @@ void publishLock() {
               eq(Lists.newArrayList(fact)),
               eq(Integer.MAX_VALUE),
               any(ParameterizedPreparedStatementSetter.class));
-      verify(lock).acquireSharedTXLock();
+      verify(lock).acquireSharedTXLock(Lists.newArrayList(fact));
     }
 
     @Test
@@ -414,7 +420,7 @@ void doesNotExclusivelyLockWithoutToken() {
       underTest = spy(underTest);
 
       boolean b = underTest.publishIfUnchanged(Lists.newArrayList(fact), Optional.empty());
-      verify(lock, never()).acquireExclusiveTXLock();
+      verify(lock, never()).acquireExclusiveTXLock(any(), any());
       assertThat(b).isTrue();
       verify(underTest).publishBatchable(any());
       verify(counter, never()).increment();
@@ -435,7 +441,7 @@ void brokenToken() {
 
       boolean b =
           underTest.publishIfUnchanged(Lists.newArrayList(fact), Optional.of(optionalToken));
-      verify(lock).acquireExclusiveTXLock();
+      verify(lock).acquireExclusiveTXLock(specs, Lists.newArrayList(fact));
       assertThat(b).isFalse();
       verify(underTest, never()).publish(any(List.class));
       verify(counter).increment();
@@ -475,7 +481,7 @@ void currentToken() {
 
       boolean b =
           underTest.publishIfUnchanged(Lists.newArrayList(fact), Optional.of(optionalToken));
-      verify(lock).acquireExclusiveTXLock();
+      verify(lock).acquireExclusiveTXLock(specs, Lists.newArrayList(fact));
       assertThat(b).isTrue();
       verify(underTest).publish(any());
       verify(counter, never()).increment();
@@ -496,6 +502,60 @@ void throwOnPublishIfUnchangedInReadOnlyMode() {
     }
   }
 
+  @Nested
+  class WhenPublishingIfUnchangedSince {
+    @Mock Fact fact;
+    @Mock Counter counter;
+
+    final List<FactSpec> specs = Lists.newArrayList(FactSpec.ns("hubba"));
+
+    @Test
+    void publishesIfUnchanged() {
+      configureMetricTimeSupplier();
+      underTest = spy(underTest);
+      // query for newer serial should return 0
+      when(jdbcTemplate.query(
+              anyString(), any(PreparedStatementSetter.class), any(ResultSetExtractor.class)))
+          .thenReturn(0L);
+
+      boolean b = underTest.publishIfUnchangedSince(Lists.newArrayList(fact), specs, 32L);
+
+      verify(lock).acquireExclusiveTXLock(specs, Lists.newArrayList(fact));
+      assertThat(b).isTrue();
+      verify(underTest).publish(any());
+      verifyNoInteractions(tokenStore);
+    }
+
+    @Test
+    void rejectsIfChanged() {
+      configureMetricTimeSupplier();
+      when(metrics.counter(StoreMetrics.EVENT.UNSUCCESSFUL_CONDITIONAL_PUBLISH))
+          .thenReturn(counter);
+      underTest = spy(underTest);
+      when(jdbcTemplate.query(
+              anyString(), any(PreparedStatementSetter.class), any(ResultSetExtractor.class)))
+          .thenReturn(33L);
+
+      boolean b = underTest.publishIfUnchangedSince(Lists.newArrayList(fact), specs, 32L);
+
+      verify(lock).acquireExclusiveTXLock(specs, Lists.newArrayList(fact));
+      assertThat(b).isFalse();
+      verify(underTest, never()).publish(any(List.class));
+      verify(counter).increment();
+    }
+
+    @Test
+    void throwsInReadOnlyMode() {
+      when(storeConfigurationProperties.isReadOnlyModeEnabled()).thenReturn(true);
+
+      assertThatThrownBy(
+              () -> underTest.publishIfUnchangedSince(Collections.singletonList(fact), specs, 1L))
+          .isInstanceOf(UnsupportedOperationException.class);
+
+      verifyNoInteractions(lock);
+    }
+  }
+
   @Nested
   class WhenGettingStateFor {
     @Mock FactSpec factSpec;
@@ -601,6 +661,55 @@ void fetchesFact() {
     }
   }
 
+  @Nested
+  class WhenFetchingPage {
+    final List<FactSpec> specs = Collections.singletonList(FactSpec.ns("ns"));
+
+    @BeforeEach
+    void setup() {
+      configureMetricTimeSupplier();
+    }
+
+    @Test
+    void queriesPage() {
+      Fact fact = Fact.builder().ns("ns").id(UUID.randomUUID()).buildWithoutPayload();
+      ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+      when(jdbcTemplate.query(
+              sql.capture(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+          .thenReturn(Lists.newArrayList(fact));
+
+      assertThat(underTest.fetchPage(specs, 10, 100, 5, true)).containsExactly(fact);
+      assertThat(sql.getValue()).contains("ORDER BY ser DESC LIMIT ?");
+      verify(metrics).time(eq(StoreMetrics.OP.FETCH_PAGE), any(Supplier.class));
+    }
+
+    @Test
+    void filtersBlacklisted() {
+      Fact fact = Fact.builder().ns("ns").id(UUID.randomUUID()).buildWithoutPayload();
+      Fact blocked = Fact.builder().ns("ns").id(UUID.randomUUID()).buildWithoutPayload();
+      blacklist.accept(Collections.singleton(blocked.id()));
+      when(jdbcTemplate.query(
+              anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+          .thenReturn(Lists.newArrayList(blocked, fact));
+
+      assertThat(underTest.fetchPage(specs, 0, 100, 5, false)).containsExactly(fact);
+    }
+
+    @Test
+    void skipsEmptyRange() {
+      assertThat(underTest.fetchPage(specs, 10, 10, 5, false)).isEmpty();
+      assertThat(underTest.fetchPage(specs, 0, 10, 0, false)).isEmpty();
+      assertThat(underTest.fetchPage(Collections.emptyList(), 0, 10, 5, false)).isEmpty();
+
+      verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void supportsFetchPage() {
+      assertThat(underTest.supportsFetchPage()).isTrue();
+    }
+  }
+
   @Nested
   class WhenFetchingLatestSerial {
     @BeforeEach
@@ -745,11 +854,72 @@ void publishes() {
 
       underTest.batchPublish(facts);
 
-      verify(lock).acquireSharedTXLock();
+      verify(lock).acquireSharedTXLock(facts);
       verify(jdbcTemplate).batchUpdate(eq(PgConstants.INSERT_FACT), any(), anyInt(), any());
     }
   }
 
+  @Nested
+  class WhenPublishingInBulk {
+    @Mock TransactionTemplate tx;
+    @Mock Counter counter;
+
+    @BeforeEach
+    void setup() {
+      configureMetricTimeRunnable();
+      ReflectionTestUtils.setField(underTest, "tx", tx);
+    }
+
+    @Test
+    void copiesInTransaction() {
+      Fact fact = mock(Fact.class);
+      List<Fact> facts = Lists.newArrayList(fact, fact);
+      when(metrics.counter(StoreMetrics.EVENT.FACTS_BULK_PUBLISHED)).thenReturn(counter);
+      when(tx.execute(any()))
+          .thenAnswer(
+              inv -> {
+                TransactionCallback<Void> callback = inv.getArgument(0);
+                return callback.doInTransaction(mock(TransactionStatus.class));
+              });
+
+      underTest.publishBulk(facts);
+
+      verify(lock).acquireSharedTXLock(facts);
+      verify(jdbcTemplate).execute(any(ConnectionCallback.class));
+      verify(counter).increment(2);
+    }
+
+    @Test
+    void skipsEmpty() {
+      underTest.publishBulk(Collections.emptyList());
+
+      verifyNoInteractions(tx, jdbcTemplate);
+    }
+
+    @Test
+    void failsInReadOnlyMode() {
+      storeConfigurationProperties.setReadOnlyModeEnabled(true);
+
+      assertThatThrownBy(() -> underTest.publishBulk(Lists.newArrayList(mock(Fact.class))))
+          .isInstanceOf(UnsupportedOperationException.class);
+      verifyNoInteractions(tx);
+    }
+
+    @Test
+    void throwsDuplicateFactExceptionOnDuplicateKey() {
+      when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+          .thenThrow(new DuplicateKeyException("duplicate"));
+
+      assertThatThrownBy(() -> underTest.copyInTransaction(Lists.newArrayList(mock(Fact.class))))
+          .isInstanceOf(DuplicateFactException.class);
+    }
+
+    @Test
+    void supportsPublishBulk() {
+      assertThat(underTest.supportsPublishBulk()).isTrue();
+    }
+  }
+
   @Nested
   class WhenBatchPublishingInTransaction {
 
@@ -760,7 +930,7 @@ void publishes() {
 
       underTest.batchPublishInTransaction(facts);
 
-      verify(lock).acquireSharedTXLock();
+      verify(lock).acquireSharedTXLock(facts);
       verify(jdbcTemplate).batchUpdate(eq(PgConstants.INSERT_FACT), any(), anyInt(), any());
     }
 
@@ -809,4 +979,25 @@ void publishes() {
       verify(spy).batchPublish(facts);
     }
   }
+
+  @Nested
+  class WhenCreatingQueryBuilder {
+    final List<FactSpec> specs = List.of(FactSpec.ns("ns").aggId(new UUID(0, 1)));
+
+    @Test
+    void usesAggIdLookupOnceComplete() {
+      when(aggIdLookup.isComplete()).thenReturn(true);
+
+      assertThat(underTest.createQueryBuilder(specs).createStateSQL())
+          .contains(PgConstants.TABLE_FACT_AGGID);
+    }
+
+    @Test
+    void usesHeaderUntilAggIdLookupIsComplete() {
+      when(aggIdLookup.isComplete()).thenReturn(false);
+
+      assertThat(underTest.createQueryBuilder(specs).createStateSQL())
+          .doesNotContain(PgConstants.TABLE_FACT_AGGID);
+    }
+  }
 }
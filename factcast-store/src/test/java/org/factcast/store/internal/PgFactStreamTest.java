@@ -23,13 +23,16 @@
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Supplier;
+import java.util.function.*;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
 import org.factcast.core.*;
+import org.factcast.core.spec.FactSpec;
 import org.factcast.core.subscription.SubscriptionRequestTO;
 import org.factcast.core.subscription.observer.*;
 import org.factcast.store.*;
+import org.factcast.store.internal.catchup.CatchupCoalescer;
+import org.factcast.store.internal.catchup.CatchupScheduler;
 import org.factcast.store.internal.catchup.PgCatchup;
 import org.factcast.store.internal.catchup.PgCatchupFactory;
 import org.factcast.store.internal.listen.*;
@@ -225,6 +228,40 @@ void registersQueryExecutorIfRequestIsContinuous() {
       verifyNoInteractions(pipeline);
     }
 
+    @Test
+    void registersWithSharedTailReaderIfConfigured() {
+      SharedTailReader reader = mock(SharedTailReader.class);
+      SharedTailFollower follower = mock(SharedTailFollower.class);
+      PgFactStream sharedUut =
+          spy(
+              new PgFactStream(
+                  connectionSupplier,
+                  null,
+                  eventBus,
+                  id2ser,
+                  pgCatchupFactory,
+                  hwmFetcher,
+                  pipeline,
+                  telemetry,
+                  props,
+                  reqTo,
+                  logSuppression,
+                  reader));
+      doReturn(follower).when(sharedUut).createSharedTailFollower(reqTo, query);
+      when(reqTo.continuous()).thenReturn(true);
+
+      sharedUut.follow(reqTo, query);
+
+      verify(reader).register(follower);
+      verify(follower).trigger();
+      verifyNoInteractions(eventBus);
+
+      sharedUut.close();
+
+      verify(follower).cancel();
+      verifyNoInteractions(eventBus);
+    }
+
     @Test
     void computesDelayForConsumers() {
       var maxBatchDelay = 100L;
@@ -513,6 +550,30 @@ void usesPrimaryDataSourceForBothPhasesByDefault() {
       verify(catchup2).fastForward(24L);
     }
 
+    @Test
+    void admitsPhasesSeparatelyAndPhaseTwoWithPriority() {
+      doReturn(12L).when(uut).catchupPhaseOne(any());
+      doNothing().when(uut).catchupPhaseTwo(any(), anyLong());
+
+      uut.doCatchup();
+
+      InOrder inOrder = inOrder(uut);
+      inOrder.verify(uut).admit(CatchupScheduler.Database.PRIMARY, false);
+      inOrder.verify(uut).catchupPhaseOne(mds);
+      inOrder.verify(uut).admit(CatchupScheduler.Database.PRIMARY, true);
+      inOrder.verify(uut).catchupPhaseTwo(any(), eq(12L));
+    }
+
+    @Test
+    void skipsPhaseIfDisconnectedWhileWaitingForAdmission() {
+      when(uut.isConnected()).thenReturn(true, true, false);
+
+      uut.doCatchup();
+
+      verify(uut).admit(CatchupScheduler.Database.PRIMARY, false);
+      verify(uut, never()).catchupPhaseOne(any());
+    }
+
     @Test
     void phase2UsesPrimaryDataSourceAndStartsFromPhase1Highwatermark() {
       long phase1Hwm = 123L;
@@ -774,4 +835,130 @@ void fromUnknownId() {
       assertThat(uut.serial()).hasValue(0);
     }
   }
+
+  @Nested
+  class WhenSchedulingCatchup {
+    @Mock CatchupScheduler scheduler;
+    @Mock CatchupScheduler.Admission admission;
+
+    @Test
+    void admitsWithoutWaitingIfNoScheduler() {
+      assertThat(uut.admit(CatchupScheduler.Database.PRIMARY, false)).isNull();
+    }
+
+    @Test
+    void asksSchedulerForAdmission() {
+      PgFactStream uut =
+          new PgFactStream(
+              connectionSupplier,
+              null,
+              eventBus,
+              id2ser,
+              pgCatchupFactory,
+              hwmFetcher,
+              pipeline,
+              telemetry,
+              props,
+              reqTo,
+              logSuppression,
+              null,
+              null,
+              scheduler);
+      when(scheduler.admit(same(CatchupScheduler.Database.OFFLOAD), same(reqTo), eq(true), any()))
+          .thenReturn(admission);
+
+      assertThat(uut.admit(CatchupScheduler.Database.OFFLOAD, true)).isSameAs(admission);
+    }
+  }
+
+  @Nested
+  class WhenCoalescingCatchup {
+    @Mock CatchupCoalescer coalescer;
+    @Mock PgCatchup catchup;
+    @Mock ServerPipeline scanPipeline;
+    final List<FactSpec> specs = List.of(FactSpec.ns("ns"));
+
+    PgFactStream uut;
+
+    @BeforeEach
+    void setup() {
+      uut =
+          spy(
+              new PgFactStream(
+                  connectionSupplier,
+                  null,
+                  eventBus,
+                  id2ser,
+                  pgCatchupFactory,
+                  hwmFetcher,
+                  pipeline,
+                  telemetry,
+                  props,
+                  reqTo,
+                  logSuppression,
+                  null,
+                  coalescer));
+      lenient().doReturn(true).when(uut).isConnected();
+      when(hwmFetcher.highWaterMark(mds)).thenReturn(HighWaterMark.of(UUID.randomUUID(), 24));
+      when(reqTo.specs()).thenReturn(specs);
+    }
+
+    @Test
+    void continuesPrivatelyAfterFollowingSharedScan() {
+      when(coalescer.catchup(same(specs), same(pipeline), same(uut.serial()), any(), any(), any()))
+          .thenReturn(false);
+      when(pgCatchupFactory.create(
+              same(reqTo),
+              same(pipeline),
+              same(uut.serial()),
+              any(CurrentStatementHolder.class),
+              same(mds),
+              eq(PgCatchupFactory.Phase.PHASE_1)))
+          .thenReturn(catchup);
+
+      assertThat(uut.catchupPhaseOne(mds)).isEqualTo(24L);
+
+      verify(catchup).run();
+    }
+
+    @Test
+    void leadsSharedScanThroughPipelineHandedOut() {
+      when(coalescer.catchup(any(), any(), any(), any(), any(), any()))
+          .thenAnswer(
+              i -> {
+                i.<Consumer<ServerPipeline>>getArgument(4).accept(scanPipeline);
+                return true;
+              });
+      when(pgCatchupFactory.create(
+              same(reqTo),
+              same(scanPipeline),
+              same(uut.serial()),
+              any(CurrentStatementHolder.class),
+              same(mds),
+              eq(PgCatchupFactory.Phase.PHASE_1)))
+          .thenReturn(catchup);
+
+      uut.catchupPhaseOne(mds);
+
+      verify(catchup).run();
+      verify(pgCatchupFactory, never())
+          .create(any(), same(pipeline), any(), any(), any(), any());
+    }
+
+    @Test
+    void catchesUpOnPrefixMissedBySharedScan() {
+      when(coalescer.catchup(any(), any(), any(), any(), any(), any()))
+          .thenAnswer(
+              i -> {
+                i.<LongConsumer>getArgument(5).accept(12L);
+                return true;
+              });
+      doNothing().when(uut).catchupRange(mds, 12L);
+
+      uut.catchupPhaseOne(mds);
+
+      verify(uut).catchupRange(mds, 12L);
+      verifyNoInteractions(pgCatchupFactory);
+    }
+  }
 }
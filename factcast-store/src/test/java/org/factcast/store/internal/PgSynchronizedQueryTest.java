@@ -27,6 +27,7 @@
 import nl.altindag.log.LogCaptor;
 import org.factcast.core.subscription.SubscriptionImpl;
 import org.factcast.core.subscription.SubscriptionRequestTO;
+import org.factcast.core.subscription.observer.HighWaterMark;
 import org.factcast.core.subscription.observer.HighWaterMarkFetcher;
 import org.factcast.store.internal.listen.*;
 import org.factcast.store.internal.pipeline.*;
@@ -206,6 +207,7 @@ class FactRowCallbackHandlerTest {
     @Mock ServerPipeline pipe;
 
     @Mock CurrentStatementHolder statementHolder;
+    @Mock PgFactIdToSerialMapper idToSerialMapper;
     @InjectMocks private PgSynchronizedQuery.FactRowCallbackHandler uut;
 
     @Test
@@ -300,6 +302,8 @@ void test_happyCase() {
 
       verify(pipe, times(1)).process(any(Signal.FactSignal.class));
       verify(serial).set(10L);
+      verify(idToSerialMapper)
+          .remember(UUID.fromString("550e8400-e29b-11d4-a716-446655440000"), 10L);
     }
 
     @Test
@@ -324,6 +328,7 @@ void test_exception_during_iteration() {
       verify(pipe).process(Signal.of(exception));
       verify(rs).close();
       verify(serial, never()).set(10L);
+      verifyNoInteractions(idToSerialMapper);
     }
   }
 
@@ -374,4 +379,98 @@ void exception_during_flush_must_not_forward_fsp() {
       }
     }
   }
+
+  @Nested
+  class WhenBoundedByInsertNotification {
+    @Mock HighWaterMarkFetcher hwmFetcher;
+    @Mock PreparedStatementSetter rangeSetter;
+    @Mock SingleConnectionDataSource ds;
+    @Mock Connection con;
+    @Mock PreparedStatement p;
+    @Mock ResultSet rs;
+
+    final AtomicLong serial = new AtomicLong(10);
+
+    PgSynchronizedQuery create(PgSynchronizedQuery.RangeQuery rangeQuery) {
+      return new PgSynchronizedQuery(
+          "test",
+          pipeline,
+          connectionSupplier,
+          sql,
+          setter,
+          () -> true,
+          serial,
+          hwmFetcher,
+          statementHolder,
+          null,
+          rangeQuery);
+    }
+
+    @SneakyThrows
+    void mockQuery(String expectedSql) {
+      when(connectionSupplier.getPooledAsSingleDataSource(any())).thenReturn(ds);
+      when(ds.getConnection()).thenReturn(con);
+      when(con.prepareStatement(expectedSql)).thenReturn(p);
+      when(p.executeQuery()).thenReturn(rs);
+    }
+
+    @Test
+    void skipsQueryIfAlreadyPassed() {
+      uut = create(new PgSynchronizedQuery.RangeQuery("SELECT 43", until -> rangeSetter));
+
+      uut.run(false, 10L);
+
+      verifyNoInteractions(connectionSupplier, hwmFetcher, rangeSetter);
+      assertThat(serial).hasValue(10);
+    }
+
+    @SneakyThrows
+    @Test
+    void queriesRangeWithoutLookingUpHighWaterMark() {
+      mockQuery("SELECT 43");
+      List<Long> bounds = new ArrayList<>();
+      uut =
+          create(
+              new PgSynchronizedQuery.RangeQuery(
+                  "SELECT 43",
+                  until -> {
+                    bounds.add(until);
+                    return rangeSetter;
+                  }));
+
+      uut.run(false, 12L);
+
+      assertThat(bounds).containsExactly(12L);
+      verify(rangeSetter).setValues(p);
+      verifyNoInteractions(hwmFetcher, setter);
+      assertThat(serial).hasValue(12);
+    }
+
+    @SneakyThrows
+    @Test
+    void looksUpHighWaterMarkWithoutRangeQuery() {
+      mockQuery(sql);
+      when(hwmFetcher.highWaterMark(ds)).thenReturn(HighWaterMark.of(UUID.randomUUID(), 14));
+      uut = create(null);
+
+      uut.run(false, 12L);
+
+      verify(setter).setValues(p);
+      assertThat(serial).hasValue(14);
+    }
+
+    @SneakyThrows
+    @Test
+    void looksUpHighWaterMarkIfUnbounded() {
+      mockQuery(sql);
+      when(hwmFetcher.highWaterMark(ds)).thenReturn(HighWaterMark.of(UUID.randomUUID(), 14));
+      uut = create(new PgSynchronizedQuery.RangeQuery("SELECT 43", until -> rangeSetter));
+
+      uut.run(false);
+
+      verify(setter).setValues(p);
+      verifyNoInteractions(rangeSetter);
+      assertThat(serial).hasValue(14);
+    }
+  }
 }
@@ -71,6 +71,21 @@ void onEventTriggersWhenMightMatch() {
       verify(callback).run(false);
     }
 
+    @Test
+    void onEventBoundsQueryBySerialRange() {
+      when(connectionStateSupplier.get()).thenReturn(true);
+      uut.onEvent(FactInsertionNotification.internal("ns", "type", 11L, 12L));
+      verify(callback).run(false, 12L);
+      verify(callback, never()).run(anyBoolean());
+    }
+
+    @Test
+    void onEventWithSerialRangeDoesNotTriggerWhenConnectionIsInactive() {
+      when(connectionStateSupplier.get()).thenReturn(false);
+      uut.onEvent(FactInsertionNotification.internal("ns", "type", 11L, 12L));
+      verifyNoInteractions(callback);
+    }
+
     @Test
     void onEventDoesNotTriggerWhenMightNotMatch() {
       FactInsertionNotification ev = FactInsertionNotification.internal("otherNs", "type");
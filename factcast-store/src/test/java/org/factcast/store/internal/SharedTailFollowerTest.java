@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.factcast.core.TestFact;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.store.internal.pipeline.ServerPipeline;
+import org.factcast.store.internal.pipeline.Signal;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SharedTailFollowerTest {
+
+  @Mock PgSynchronizedQuery fallback;
+  @Mock Supplier<Boolean> connected;
+  @Mock ServerPipeline pipe;
+  @Mock SharedTailReader reader;
+
+  final AtomicLong serial = new AtomicLong(10);
+
+  final PgFact matching = PgFact.from(new TestFact().ns("ns").type("type"));
+  final PgFact other = PgFact.from(new TestFact().ns("other").type("type"));
+
+  SharedTailFollower uut;
+
+  @BeforeEach
+  void setup() {
+    uut =
+        new SharedTailFollower(
+            fallback,
+            connected,
+            List.of(FactSpec.ns("ns").type("type")),
+            pipe,
+            serial,
+            reader);
+  }
+
+  @Nested
+  class WhenConsuming {
+
+    @Test
+    void doesNothingWhenDisconnected() {
+      when(connected.get()).thenReturn(false);
+
+      uut.consume(null);
+
+      verifyNoInteractions(fallback, pipe);
+    }
+
+    @Test
+    void fallsBackWithoutWindow() {
+      when(connected.get()).thenReturn(true);
+
+      uut.consume(null);
+
+      verify(fallback).run(false);
+      verify(reader).countFallback();
+      verifyNoInteractions(pipe);
+    }
+
+    @Test
+    void fallsBackWhenLagging() {
+      when(connected.get()).thenReturn(true);
+      TailWindow w =
+          TailWindow.startingAfter(11)
+              .append(new long[] {12}, List.of(TailWindow.Entry.unrouted(matching)), 10);
+
+      uut.consume(w);
+
+      verify(fallback).run(false);
+      verifyNoInteractions(pipe);
+    }
+
+    @Test
+    void skipsWhenUpToDate() {
+      when(connected.get()).thenReturn(true);
+
+      uut.consume(TailWindow.startingAfter(10));
+
+      verifyNoInteractions(fallback, pipe);
+    }
+
+    @Test
+    void processesOnlyMatchingFactsAfterSerial() {
+      when(connected.get()).thenReturn(true);
+      PgFact before = PgFact.from(new TestFact().ns("ns").type("type"));
+      TailWindow w =
+          TailWindow.startingAfter(5)
+              .append(
+                  new long[] {8, 11, 12},
+                  List.of(
+                      TailWindow.Entry.unrouted(before),
+                      TailWindow.Entry.unrouted(matching),
+                      TailWindow.Entry.unrouted(other)),
+                  10);
+
+      uut.consume(w);
+
+      ArgumentCaptor<Signal> captor = ArgumentCaptor.forClass(Signal.class);
+      verify(pipe, times(2)).process(captor.capture());
+      assertThat(captor.getAllValues().get(0)).isEqualTo(Signal.of(matching));
+      assertThat(captor.getAllValues().get(1)).isInstanceOf(Signal.FlushSignal.class);
+      assertThat(serial.get()).isEqualTo(12);
+      verifyNoInteractions(fallback);
+    }
+
+    @Test
+    void processesOtherVersionsToBeTransformedByThePipeline() {
+      when(connected.get()).thenReturn(true);
+      uut =
+          new SharedTailFollower(
+              fallback,
+              connected,
+              List.of(FactSpec.ns("ns").type("type").version(2)),
+              pipe,
+              serial,
+              reader);
+      PgFact older = PgFact.from(new TestFact().ns("ns").type("type").version(1));
+      TailWindow w =
+          TailWindow.startingAfter(10)
+              .append(new long[] {11}, List.of(TailWindow.Entry.unrouted(older)), 10);
+
+      uut.consume(w);
+
+      verify(pipe).process(Signal.of(older));
+      assertThat(serial.get()).isEqualTo(11);
+    }
+
+    @Test
+    void escalatesErrors() {
+      when(connected.get()).thenReturn(true);
+      RuntimeException e = new RuntimeException();
+      doThrow(e).when(pipe).process(Signal.of(matching));
+      TailWindow w =
+          TailWindow.startingAfter(10)
+              .append(new long[] {11}, List.of(TailWindow.Entry.unrouted(matching)), 10);
+
+      uut.consume(w);
+
+      verify(pipe).process(Signal.of(e));
+      assertThat(serial.get()).isEqualTo(10);
+    }
+  }
+
+  @Nested
+  class WhenRouted {
+
+    @Test
+    void usesRoutingOnceIndexed() {
+      uut.indexedIn(2);
+
+      // routed without us
+      assertThat(uut.isInterestedIn(new TailWindow.Entry(matching, 2, new int[] {7}))).isFalse();
+      // routed to us
+      assertThat(uut.isInterestedIn(new TailWindow.Entry(other, 2, new int[] {0, 7}))).isTrue();
+    }
+
+    @Test
+    void matchesLocallyIfRoutedBeforeIndexed() {
+      uut.indexedIn(2);
+      // the first version sticks
+      uut.indexedIn(3);
+
+      assertThat(uut.isInterestedIn(new TailWindow.Entry(matching, 1, new int[0]))).isTrue();
+      assertThat(uut.isInterestedIn(new TailWindow.Entry(other, 1, new int[0]))).isFalse();
+    }
+
+    @Test
+    void matchesLocallyIfNotIndexed() {
+      assertThat(uut.isInterestedIn(new TailWindow.Entry(matching, 5, new int[0]))).isTrue();
+    }
+  }
+
+  @Nested
+  class WhenScheduling {
+    @Mock Executor executor;
+
+    @Test
+    void coalescesPendingDispatch() {
+      uut.schedule(executor);
+      uut.schedule(executor);
+
+      verify(executor, times(1)).execute(any());
+      assertThat(uut.pending.get()).isTrue();
+    }
+  }
+
+  @Nested
+  class WhenCanceling {
+    @Test
+    void unregisters() {
+      uut.cancel();
+      verify(reader).unregister(uut);
+    }
+  }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.google.common.eventbus.EventBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import lombok.SneakyThrows;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.store.internal.notification.FactInsertionNotification;
+import org.factcast.store.internal.query.PgFactIdToSerialMapper;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+@ExtendWith(MockitoExtension.class)
+class SharedTailReaderTest {
+
+  @Mock EventBus bus;
+  @Mock JdbcTemplate jdbc;
+  @Mock ExecutorService dispatcher;
+  @Mock SharedTailFollower follower;
+  @Mock PgFactIdToSerialMapper idToSerialMapper;
+
+  final PgMetrics metrics = new PgMetrics(new SimpleMeterRegistry());
+
+  SharedTailReader uut;
+
+  @BeforeEach
+  void setup() {
+    uut = new SharedTailReader(bus, jdbc, metrics, idToSerialMapper, 100, dispatcher);
+    lenient().when(follower.specs()).thenReturn(List.of(FactSpec.ns("ns")));
+  }
+
+  @Test
+  void registersOnBus() {
+    verify(bus).register(uut);
+  }
+
+  @Nested
+  class WhenFetching {
+    @Mock(strictness = Mock.Strictness.LENIENT)
+    ResultSet rs;
+
+    @Test
+    void skipsFetchWithoutFollowers() {
+      uut.onEvent(FactInsertionNotification.internal("ns", "type"));
+
+      verifyNoInteractions(jdbc);
+      assertThat(uut.window()).isNull();
+    }
+
+    @Test
+    void initializesWindowFromLastSerialAndDispatches() {
+      when(jdbc.queryForObject(PgConstants.LAST_SERIAL_IN_LOG, Long.class)).thenReturn(42L);
+      uut.register(follower);
+
+      uut.fetchAndDispatch();
+
+      verify(jdbc)
+          .query(eq(PgConstants.SELECT_TAIL), any(RowCallbackHandler.class), eq(42L), eq(100));
+      assertThat(uut.window()).isNotNull();
+      assertThat(uut.window().toInclusive()).isEqualTo(42L);
+      verify(follower).schedule(dispatcher);
+    }
+
+    @Test
+    void continuesFromExistingWindow() {
+      when(jdbc.queryForObject(PgConstants.LAST_SERIAL_IN_LOG, Long.class)).thenReturn(42L);
+      uut.register(follower);
+      uut.fetchAndDispatch();
+
+      uut.fetchAndDispatch();
+
+      verify(jdbc, times(1)).queryForObject(PgConstants.LAST_SERIAL_IN_LOG, Long.class);
+      verify(jdbc, times(2))
+          .query(eq(PgConstants.SELECT_TAIL), any(RowCallbackHandler.class), eq(42L), eq(100));
+    }
+
+    @Test
+    void skipsFetchIfNotificationWasAlreadyFetched() {
+      when(jdbc.queryForObject(PgConstants.LAST_SERIAL_IN_LOG, Long.class)).thenReturn(42L);
+      uut.register(follower);
+      uut.fetchAndDispatch();
+
+      uut.onEvent(FactInsertionNotification.internal("ns", "type", 40L, 42L));
+
+      verify(jdbc, times(1))
+          .query(eq(PgConstants.SELECT_TAIL), any(RowCallbackHandler.class), eq(42L), eq(100));
+    }
+
+    @Test
+    void fetchesIfNotificationIsAhead() {
+      when(jdbc.queryForObject(PgConstants.LAST_SERIAL_IN_LOG, Long.class)).thenReturn(42L);
+      uut.register(follower);
+      uut.fetchAndDispatch();
+
+      uut.onEvent(FactInsertionNotification.internal("ns", "type", 43L, 43L));
+
+      verify(jdbc, times(2))
+          .query(eq(PgConstants.SELECT_TAIL), any(RowCallbackHandler.class), eq(42L), eq(100));
+    }
+
+    @Test
+    @SneakyThrows
+    void remembersSerialsOfFetchedFacts() {
+      UUID id = UUID.randomUUID();
+      when(rs.getLong(PgConstants.COLUMN_SER)).thenReturn(43L);
+      when(rs.getString(PgConstants.ALIAS_ID)).thenReturn(id.toString());
+      when(rs.getString(PgConstants.ALIAS_NS)).thenReturn("ns");
+      when(rs.getString(PgConstants.COLUMN_HEADER)).thenReturn("{}");
+      when(rs.getString(PgConstants.COLUMN_PAYLOAD)).thenReturn("{}");
+      doAnswer(
+              i -> {
+                i.getArgument(1, RowCallbackHandler.class).processRow(rs);
+                return null;
+              })
+          .when(jdbc)
+          .query(eq(PgConstants.SELECT_TAIL), any(RowCallbackHandler.class), eq(42L), eq(100));
+
+      uut.fetch(TailWindow.startingAfter(42L));
+
+      verify(idToSerialMapper).remember(id, 43L);
+    }
+
+    @Test
+    @SneakyThrows
+    void sharesRoutingBetweenFactsOfTheSameFollowers() {
+      uut.register(follower);
+      uut.refreshIndex();
+      when(rs.getLong(PgConstants.COLUMN_SER)).thenReturn(43L, 44L);
+      when(rs.getString(PgConstants.ALIAS_ID))
+          .thenReturn(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+      when(rs.getString(PgConstants.ALIAS_NS)).thenReturn("ns");
+      when(rs.getString(PgConstants.COLUMN_HEADER)).thenReturn("{}");
+      when(rs.getString(PgConstants.COLUMN_PAYLOAD)).thenReturn("{}");
+      doAnswer(
+              i -> {
+                RowCallbackHandler h = i.getArgument(1, RowCallbackHandler.class);
+                h.processRow(rs);
+                h.processRow(rs);
+                return null;
+              })
+          .when(jdbc)
+          .query(eq(PgConstants.SELECT_TAIL), any(RowCallbackHandler.class), eq(42L), eq(100));
+
+      TailWindow w = uut.fetch(TailWindow.startingAfter(42L));
+
+      assertThat(w.size()).isEqualTo(2);
+      assertThat(w.entries()[0].interested()).containsExactly(0);
+      assertThat(w.entries()[1].interested()).isSameAs(w.entries()[0].interested());
+    }
+
+    @Test
+    @SneakyThrows
+    void skipsToEndOfLogIfBurstExceedsWindow() {
+      uut = new SharedTailReader(bus, jdbc, metrics, idToSerialMapper, 2, dispatcher);
+      when(jdbc.queryForObject(PgConstants.LAST_SERIAL_IN_LOG, Long.class)).thenReturn(1000L);
+      when(rs.getLong(PgConstants.COLUMN_SER)).thenReturn(43L, 44L);
+      when(rs.getString(PgConstants.ALIAS_ID))
+          .thenReturn(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+      when(rs.getString(PgConstants.ALIAS_NS)).thenReturn("ns");
+      when(rs.getString(PgConstants.COLUMN_HEADER)).thenReturn("{}");
+      when(rs.getString(PgConstants.COLUMN_PAYLOAD)).thenReturn("{}");
+      doAnswer(
+              i -> {
+                RowCallbackHandler h = i.getArgument(1, RowCallbackHandler.class);
+                h.processRow(rs);
+                h.processRow(rs);
+                return null;
+              })
+          .when(jdbc)
+          .query(eq(PgConstants.SELECT_TAIL), any(RowCallbackHandler.class), eq(42L), eq(2));
+
+      TailWindow w = uut.fetch(TailWindow.startingAfter(42L));
+
+      // only one page is read
+      verify(jdbc, times(1))
+          .query(eq(PgConstants.SELECT_TAIL), any(RowCallbackHandler.class), anyLong(), eq(2));
+      assertThat(w.fromExclusive()).isEqualTo(1000L);
+      assertThat(w.size()).isZero();
+    }
+
+    @Test
+    void dropsWindowOnFailure() {
+      when(jdbc.queryForObject(PgConstants.LAST_SERIAL_IN_LOG, Long.class))
+          .thenThrow(new IllegalStateException());
+      uut.register(follower);
+
+      uut.fetchAndDispatch();
+
+      assertThat(uut.window()).isNull();
+      // so that followers fall back to their own query
+      verify(follower).schedule(dispatcher);
+    }
+  }
+
+  @Nested
+  class WhenIndexing {
+
+    @Test
+    void rebuildsIndexOnlyAfterChanges() {
+      uut.register(follower);
+
+      uut.refreshIndex();
+      uut.refreshIndex();
+
+      verify(follower, times(1)).indexedIn(1);
+
+      uut.unregister(follower);
+      uut.register(follower);
+      uut.refreshIndex();
+
+      verify(follower).indexedIn(2);
+    }
+  }
+
+  @Nested
+  class WhenUnregistering {
+    @Test
+    void removesFollower() {
+      uut.register(follower);
+      uut.unregister(follower);
+      assertThat(uut.followers).isEmpty();
+    }
+  }
+
+  @Nested
+  class WhenDestroying {
+    @Test
+    void unregistersAndShutsDown() throws Exception {
+      uut.destroy();
+      verify(bus).unregister(uut);
+      verify(dispatcher).shutdown();
+    }
+  }
+}
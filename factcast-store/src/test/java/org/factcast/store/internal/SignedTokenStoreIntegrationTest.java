@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.core.store.State;
+import org.factcast.core.store.StateToken;
+import org.factcast.test.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+@SpringJUnitConfig(classes = {PgTestConfiguration.class})
+@IntegrationTest
+class SignedTokenStoreIntegrationTest {
+
+  @Autowired PgMetrics metrics;
+  @Autowired JdbcTemplate jdbc;
+
+  SignedTokenStore node() {
+    return new SignedTokenStore(jdbc, new PgTokenStore(jdbc, metrics), "secret");
+  }
+
+  @Test
+  void tokensAreValidOnOtherNodes() {
+    List<FactSpec> specs = List.of(FactSpec.ns("ns").type("type").aggId(UUID.randomUUID()));
+
+    StateToken token = node().create(State.of(specs, 123));
+
+    assertThat(node().get(token)).contains(State.of(specs, 123));
+  }
+
+  @Test
+  void registersSpecsOnlyOnce() {
+    List<FactSpec> specs = List.of(FactSpec.ns("ns").type(UUID.randomUUID().toString()));
+
+    StateToken t1 = node().create(State.of(specs, 1));
+    StateToken t2 = node().create(State.of(specs, 1));
+
+    assertThat(t1).isEqualTo(t2);
+  }
+
+  @Test
+  void handlesTokensCreatedBefore() {
+    List<FactSpec> specs = List.of(FactSpec.ns("ns"));
+    StateToken stored = new PgTokenStore(jdbc, metrics).create(State.of(specs, 1));
+    SignedTokenStore uut = node();
+
+    assertThat(uut.get(stored)).contains(State.of(specs, 1));
+    uut.invalidate(stored);
+    assertThat(uut.get(stored)).isEmpty();
+  }
+}
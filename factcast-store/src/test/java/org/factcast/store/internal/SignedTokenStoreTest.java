@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.core.store.State;
+import org.factcast.core.store.StateToken;
+import org.factcast.core.store.TokenStore;
+import org.factcast.core.util.FactCastJson;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class SignedTokenStoreTest {
+
+  @Mock JdbcTemplate jdbc;
+  @Mock TokenStore delegate;
+
+  final List<FactSpec> specs = List.of(FactSpec.ns("ns").type("type").aggId(UUID.randomUUID()));
+
+  SignedTokenStore underTest;
+
+  @BeforeEach
+  void setup() {
+    underTest = new SignedTokenStore(jdbc, delegate, "secret");
+  }
+
+  void registersSpecsAs(int id) {
+    when(jdbc.queryForObject(
+            eq(PgConstants.INSERT_STATE_TOKEN_SPECS),
+            eq(Integer.class),
+            anyString(),
+            eq(FactCastJson.writeValueAsString(specs))))
+        .thenReturn(id);
+  }
+
+  @Test
+  void rejectsBlankKey() {
+    assertThatThrownBy(() -> new SignedTokenStore(jdbc, delegate, " "))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Nested
+  class WhenCreating {
+    @Test
+    void encodesState() {
+      registersSpecsAs(42);
+
+      StateToken token = underTest.create(State.of(specs, 4711));
+
+      assertThat(SignedTokenStore.isSigned(token.uuid())).isTrue();
+      assertThat(underTest.get(token)).contains(State.of(specs, 4711));
+      verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void registersSpecsOnce() {
+      registersSpecsAs(42);
+
+      StateToken t1 = underTest.create(State.of(specs, 1));
+      StateToken t2 = underTest.create(State.of(new ArrayList<>(specs), 2));
+
+      assertThat(t1).isNotEqualTo(t2);
+      verify(jdbc, times(1)).queryForObject(anyString(), eq(Integer.class), any(), any());
+    }
+
+    @Test
+    void delegatesWithoutSpecs() {
+      State state = new State().serialOfLastMatchingFact(1);
+      StateToken token = new StateToken();
+      when(delegate.create(state)).thenReturn(token);
+
+      assertThat(underTest.create(state)).isSameAs(token);
+      verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void delegatesIfSerialExceedsToken() {
+      State state = State.of(specs, 1L << 48);
+      StateToken token = new StateToken();
+      when(delegate.create(state)).thenReturn(token);
+
+      assertThat(underTest.create(state)).isSameAs(token);
+    }
+  }
+
+  @Nested
+  class WhenGetting {
+    @Test
+    void encodesFullRange() {
+      UUID token = underTest.encode((1L << 48) - 1, -1);
+      when(jdbc.queryForObject(PgConstants.SELECT_STATE_TOKEN_SPECS, String.class, -1))
+          .thenReturn(FactCastJson.writeValueAsString(specs));
+
+      assertThat(underTest.get(new StateToken(token))).contains(State.of(specs, (1L << 48) - 1));
+    }
+
+    @Test
+    void readsUnknownSpecs() {
+      when(jdbc.queryForObject(PgConstants.SELECT_STATE_TOKEN_SPECS, String.class, 7))
+          .thenReturn(FactCastJson.writeValueAsString(specs));
+      StateToken token = new StateToken(underTest.encode(99, 7));
+
+      assertThat(underTest.get(token)).contains(State.of(specs, 99));
+      assertThat(underTest.get(token)).contains(State.of(specs, 99));
+      verify(jdbc, times(1)).queryForObject(PgConstants.SELECT_STATE_TOKEN_SPECS, String.class, 7);
+    }
+
+    @Test
+    void rejectsMissingSpecs() {
+      when(jdbc.queryForObject(PgConstants.SELECT_STATE_TOKEN_SPECS, String.class, 7))
+          .thenThrow(EmptyResultDataAccessException.class);
+
+      assertThat(underTest.get(new StateToken(underTest.encode(99, 7)))).isEmpty();
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+      UUID token = underTest.encode(99, 7);
+      UUID tampered =
+          new UUID(
+              token.getMostSignificantBits() + (1L << 16), token.getLeastSignificantBits());
+
+      assertThat(SignedTokenStore.isSigned(tampered)).isTrue();
+      assertThat(underTest.get(new StateToken(tampered))).isEmpty();
+      verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void rejectsTokenSignedWithOtherKey() {
+      UUID token = new SignedTokenStore(jdbc, delegate, "other").encode(99, 7);
+
+      assertThat(underTest.get(new StateToken(token))).isEmpty();
+    }
+
+    @Test
+    void delegatesUnsignedToken() {
+      StateToken token = new StateToken();
+      when(delegate.get(token)).thenReturn(Optional.of(State.of(specs, 1)));
+
+      assertThat(underTest.get(token)).contains(State.of(specs, 1));
+    }
+  }
+
+  @Nested
+  class WhenInvalidating {
+    @Test
+    void ignoresSignedToken() {
+      underTest.invalidate(new StateToken(underTest.encode(1, 1)));
+
+      verifyNoInteractions(delegate, jdbc);
+    }
+
+    @Test
+    void delegatesUnsignedToken() {
+      StateToken token = new StateToken();
+
+      underTest.invalidate(token);
+
+      verify(delegate).invalidate(token);
+    }
+  }
+
+  @Test
+  void delegatesCompaction() {
+    underTest.compact();
+
+    verify(delegate).compact();
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.factcast.core.TestFact;
+import org.junit.jupiter.api.*;
+
+class TailWindowTest {
+
+  final TailWindow.Entry f1 = TailWindow.Entry.unrouted(PgFact.from(new TestFact()));
+  final TailWindow.Entry f2 = TailWindow.Entry.unrouted(PgFact.from(new TestFact()));
+  final TailWindow.Entry f3 = TailWindow.Entry.unrouted(PgFact.from(new TestFact()));
+
+  @Nested
+  class WhenStarting {
+    @Test
+    void isEmpty() {
+      TailWindow uut = TailWindow.startingAfter(42);
+      assertThat(uut.size()).isZero();
+      assertThat(uut.fromExclusive()).isEqualTo(42);
+      assertThat(uut.toInclusive()).isEqualTo(42);
+      assertThat(uut.covers(42)).isTrue();
+      assertThat(uut.covers(41)).isFalse();
+    }
+  }
+
+  @Nested
+  class WhenAppending {
+    @Test
+    void appendsWithinCapacity() {
+      TailWindow uut =
+          TailWindow.startingAfter(10).append(new long[] {11, 13}, List.of(f1, f2), 10);
+
+      assertThat(uut.fromExclusive()).isEqualTo(10);
+      assertThat(uut.toInclusive()).isEqualTo(13);
+      assertThat(uut.serials()).containsExactly(11, 13);
+      assertThat(uut.entries()).containsExactly(f1, f2);
+    }
+
+    @Test
+    void dropsOldestBeyondCapacity() {
+      TailWindow uut =
+          TailWindow.startingAfter(10)
+              .append(new long[] {11, 12}, List.of(f1, f2), 2)
+              .append(new long[] {15}, List.of(f3), 2);
+
+      assertThat(uut.fromExclusive()).isEqualTo(11);
+      assertThat(uut.toInclusive()).isEqualTo(15);
+      assertThat(uut.serials()).containsExactly(12, 15);
+      assertThat(uut.entries()).containsExactly(f2, f3);
+      assertThat(uut.covers(10)).isFalse();
+      assertThat(uut.covers(11)).isTrue();
+    }
+
+    @Test
+    void returnsSameInstanceWhenNothingAppended() {
+      TailWindow uut = TailWindow.startingAfter(10);
+      assertThat(uut.append(new long[0], List.of(), 2)).isSameAs(uut);
+    }
+  }
+
+  @Nested
+  class WhenFindingIndex {
+    @Test
+    void findsFirstIndexAfterSerial() {
+      TailWindow uut =
+          TailWindow.startingAfter(10).append(new long[] {11, 13, 15}, List.of(f1, f2, f3), 10);
+
+      assertThat(uut.indexAfter(10)).isZero();
+      assertThat(uut.indexAfter(11)).isEqualTo(1);
+      assertThat(uut.indexAfter(12)).isEqualTo(1);
+      assertThat(uut.indexAfter(15)).isEqualTo(3);
+      assertThat(uut.indexAfter(99)).isEqualTo(3);
+    }
+  }
+}
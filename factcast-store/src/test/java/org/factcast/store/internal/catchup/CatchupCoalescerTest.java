@@ -0,0 +1,330 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.catchup;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.Counter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import org.factcast.core.Fact;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.core.spec.FilterScript;
+import org.factcast.store.StoreConfigurationProperties;
+import org.factcast.store.internal.PgFact;
+import org.factcast.store.internal.PgMetrics;
+import org.factcast.store.internal.StoreMetrics;
+import org.factcast.store.internal.pipeline.ServerPipeline;
+import org.factcast.store.internal.pipeline.Signal;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CatchupCoalescerTest {
+
+  static final List<FactSpec> SPECS = List.of(FactSpec.ns("ns").type("type"));
+
+  @Mock PgMetrics metrics;
+  @Mock Counter coalesced;
+  @Mock Counter fallbacks;
+  @Mock ServerPipeline leaderPipeline;
+  @Mock ServerPipeline followerPipeline;
+
+  final StoreConfigurationProperties props = new StoreConfigurationProperties();
+  final CountDownLatch attached = new CountDownLatch(1);
+
+  CatchupCoalescer underTest;
+
+  CatchupCoalescer coalescer(int bufferSize) {
+    when(metrics.counter(StoreMetrics.EVENT.CATCHUP_COALESCED)).thenReturn(coalesced);
+    when(metrics.counter(StoreMetrics.EVENT.CATCHUP_COALESCING_FALLBACK)).thenReturn(fallbacks);
+    props.setCatchupCoalescingBufferSize(bufferSize);
+    return new CatchupCoalescer(metrics, props);
+  }
+
+  static PgFact fact(long serial) {
+    return PgFact.from(Fact.builder().ns("ns").type("type").serial(serial).buildWithoutPayload());
+  }
+
+  /** leads a scan in the background, that waits for a follower after processing the first fact */
+  CompletableFuture<Boolean> leadInBackground(CountDownLatch started, long... serials) {
+    doAnswer(i -> attachedNow()).when(coalesced).increment();
+    return CompletableFuture.supplyAsync(
+        () ->
+            underTest.catchup(
+                SPECS,
+                leaderPipeline,
+                new AtomicLong(10),
+                () -> true,
+                p -> {
+                  p.process(Signal.of(fact(serials[0])));
+                  started.countDown();
+                  awaitQuietly(attached);
+                  for (int i = 1; i < serials.length; i++) {
+                    p.process(Signal.of(fact(serials[i])));
+                  }
+                },
+                until -> fail("leader must not catch up on a prefix")));
+  }
+
+  Object attachedNow() {
+    attached.countDown();
+    return null;
+  }
+
+  static void awaitQuietly(CountDownLatch l) {
+    try {
+      assertThat(l.await(10, TimeUnit.SECONDS)).isTrue();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  static List<Long> serialsProcessedBy(ServerPipeline p, int expected) {
+    ArgumentCaptor<Signal> captor = ArgumentCaptor.forClass(Signal.class);
+    verify(p, times(expected)).process(captor.capture());
+    return captor.getAllValues().stream()
+        .map(s -> ((Signal.FactSignal) s).fact().header().serial())
+        .toList();
+  }
+
+  @Nested
+  class WhenLeading {
+    @BeforeEach
+    void setup() {
+      underTest = coalescer(100);
+    }
+
+    @Test
+    void runsScanThroughGivenPipeline() {
+      boolean led =
+          underTest.catchup(
+              SPECS,
+              leaderPipeline,
+              new AtomicLong(0),
+              () -> true,
+              p -> p.process(Signal.of(fact(1))),
+              until -> fail("must not catch up on a prefix"));
+
+      assertThat(led).isTrue();
+      assertThat(serialsProcessedBy(leaderPipeline, 1)).containsExactly(1L);
+      assertThat(underTest.inFlight()).isZero();
+      verifyNoInteractions(coalesced, fallbacks);
+    }
+
+    @Test
+    void leadsAgainAfterScanEnded() {
+      underTest.catchup(SPECS, leaderPipeline, new AtomicLong(0), () -> true, p -> {}, u -> {});
+
+      assertThat(
+              underTest.catchup(
+                  SPECS, leaderPipeline, new AtomicLong(0), () -> true, p -> {}, u -> {}))
+          .isTrue();
+    }
+
+    @Test
+    void cleansUpIfScanFails() {
+      assertThatThrownBy(
+              () ->
+                  underTest.catchup(
+                      SPECS,
+                      leaderPipeline,
+                      new AtomicLong(0),
+                      () -> true,
+                      p -> {
+                        throw new IllegalStateException("expected");
+                      },
+                      u -> {}))
+          .isInstanceOf(IllegalStateException.class);
+
+      assertThat(underTest.inFlight()).isZero();
+    }
+  }
+
+  @Nested
+  class WhenFollowing {
+
+    @Test
+    @Timeout(30)
+    void catchesUpOnPrefixBeforeSharedFacts() throws Exception {
+      underTest = coalescer(100);
+      CountDownLatch started = new CountDownLatch(1);
+      CompletableFuture<Boolean> leader = leadInBackground(started, 11, 12, 13);
+      started.await();
+
+      AtomicLong serial = new AtomicLong(5);
+      List<Long> prefixes = new ArrayList<>();
+      boolean led =
+          underTest.catchup(
+              SPECS,
+              followerPipeline,
+              serial,
+              () -> true,
+              p -> fail("must not scan"),
+              until -> {
+                prefixes.add(until);
+                serial.set(until);
+              });
+
+      assertThat(led).isFalse();
+      assertThat(leader.get()).isTrue();
+      assertThat(prefixes).containsExactly(11L);
+      assertThat(serialsProcessedBy(followerPipeline, 2)).containsExactly(12L, 13L);
+      assertThat(serial).hasValue(13);
+      assertThat(underTest.inFlight()).isZero();
+      verifyNoInteractions(fallbacks);
+    }
+
+    @Test
+    @Timeout(30)
+    void catchesUpPrivatelyIfAheadOfScan() throws Exception {
+      underTest = coalescer(100);
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      CompletableFuture<Boolean> leader =
+          CompletableFuture.supplyAsync(
+              () ->
+                  underTest.catchup(
+                      SPECS,
+                      leaderPipeline,
+                      new AtomicLong(0),
+                      () -> true,
+                      p -> {
+                        p.process(Signal.of(fact(1)));
+                        started.countDown();
+                        awaitQuietly(release);
+                        p.process(Signal.of(fact(2)));
+                      },
+                      until -> fail("leader must not catch up on a prefix")));
+      started.await();
+
+      AtomicLong serial = new AtomicLong(1000);
+      boolean led =
+          underTest.catchup(
+              SPECS,
+              followerPipeline,
+              serial,
+              () -> true,
+              p -> fail("must not scan"),
+              until -> fail("must not catch up on a prefix"));
+
+      // returns right away rather than waiting for the scan to get to its serial
+      assertThat(led).isFalse();
+      assertThat(serial).hasValue(1000);
+      assertThat(underTest.inFlight()).isOne();
+      release.countDown();
+      assertThat(leader.get()).isTrue();
+      verifyNoInteractions(followerPipeline, coalesced);
+      verify(fallbacks).increment();
+    }
+
+    @Test
+    @Timeout(30)
+    void detachesWhenFallingBehind() throws Exception {
+      underTest = coalescer(1);
+      CountDownLatch started = new CountDownLatch(1);
+      CompletableFuture<Boolean> leader = leadInBackground(started, 11, 12, 13);
+      started.await();
+
+      AtomicLong serial = new AtomicLong(5);
+      underTest.catchup(
+          SPECS,
+          followerPipeline,
+          serial,
+          () -> true,
+          p -> fail("must not scan"),
+          until -> {
+            // let the leader overrun the buffer meanwhile
+            leader.join();
+            serial.set(until);
+          });
+
+      assertThat(serialsProcessedBy(followerPipeline, 1)).containsExactly(12L);
+      // the caller continues privately from here
+      assertThat(serial).hasValue(12);
+      verify(fallbacks).increment();
+    }
+
+    @Test
+    @Timeout(30)
+    void stopsWhenDisconnected() throws Exception {
+      underTest = coalescer(100);
+      CountDownLatch started = new CountDownLatch(1);
+      CompletableFuture<Boolean> leader = leadInBackground(started, 11, 12);
+      started.await();
+
+      AtomicLong serial = new AtomicLong(11);
+      underTest.catchup(
+          SPECS,
+          followerPipeline,
+          serial,
+          () -> false,
+          p -> fail("must not scan"),
+          until -> fail("must not catch up on a prefix"));
+
+      leader.get();
+      verifyNoInteractions(followerPipeline);
+      assertThat(serial).hasValue(11);
+    }
+  }
+
+  @Nested
+  class WhenCreatingKey {
+    @Test
+    void ignoresOrderVersionAndFilterScript() {
+      assertThat(
+              CatchupCoalescer.keyOf(
+                  List.of(FactSpec.ns("a").type("x").version(1), FactSpec.ns("b"))))
+          .isEqualTo(
+              CatchupCoalescer.keyOf(
+                  List.of(
+                      FactSpec.ns("b"),
+                      FactSpec.ns("a")
+                          .type("x")
+                          .version(2)
+                          .filterScript(FilterScript.js("function(h,e){return true;}")))));
+    }
+
+    @Test
+    void keepsVersionWhenFilteringByAggIdProperty() {
+      UUID id = UUID.randomUUID();
+      assertThat(
+              CatchupCoalescer.keyOf(
+                  List.of(FactSpec.ns("a").type("x").version(1).aggIdProperty("p", id))))
+          .isNotEqualTo(
+              CatchupCoalescer.keyOf(
+                  List.of(FactSpec.ns("a").type("x").version(2).aggIdProperty("p", id))));
+    }
+
+    @Test
+    void distinguishesAggIds() {
+      assertThat(CatchupCoalescer.keyOf(List.of(FactSpec.ns("a").aggId(UUID.randomUUID()))))
+          .isNotEqualTo(CatchupCoalescer.keyOf(List.of(FactSpec.ns("a").aggId(UUID.randomUUID()))));
+    }
+
+    @Test
+    void doesNotModifySpecs() {
+      FactSpec spec = FactSpec.ns("a").version(3);
+      CatchupCoalescer.keyOf(List.of(spec));
+      assertThat(spec.version()).isEqualTo(3);
+    }
+  }
+}
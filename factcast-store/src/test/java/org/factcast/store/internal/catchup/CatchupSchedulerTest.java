@@ -0,0 +1,213 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.catchup;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import org.awaitility.Awaitility;
+import org.factcast.core.subscription.SubscriptionRequestTO;
+import org.factcast.store.StoreConfigurationProperties;
+import org.factcast.store.internal.PgMetrics;
+import org.factcast.store.internal.StoreMetrics;
+import org.factcast.store.internal.catchup.CatchupScheduler.Admission;
+import org.factcast.store.internal.catchup.CatchupScheduler.Database;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CatchupSchedulerTest {
+
+  @Mock PgMetrics metrics;
+  @Mock DistributionSummary queueDepth;
+  @Mock Timer waitTime;
+
+  final StoreConfigurationProperties props = new StoreConfigurationProperties();
+  final ExecutorService es = Executors.newCachedThreadPool();
+
+  CatchupScheduler underTest;
+
+  @BeforeEach
+  void setup() {
+    when(metrics.distributionSummary(
+            eq(StoreMetrics.VALUE.CATCHUP_ADMISSION_QUEUE_DEPTH), any(Tags.class)))
+        .thenReturn(queueDepth);
+    when(metrics.timer(eq(StoreMetrics.OP.CATCHUP_ADMISSION_WAIT), any(Tags.class)))
+        .thenReturn(waitTime);
+    props.setMaxConcurrentCatchupsOnPrimary(1);
+    props.setMaxConcurrentCatchupsOnOffload(2);
+    underTest = new CatchupScheduler(metrics, props);
+  }
+
+  @AfterEach
+  void tearDown() {
+    es.shutdownNow();
+  }
+
+  static SubscriptionRequestTO request(String pid) {
+    SubscriptionRequestTO r = new SubscriptionRequestTO();
+    r.pid(pid);
+    return r;
+  }
+
+  Admission admitNow(Database db, String pid) {
+    Admission a = underTest.admit(db, request(pid), false, () -> true);
+    assertThat(a).isNotNull();
+    return a;
+  }
+
+  /** starts waiting for admission in the background, once all earlier waiters are queued */
+  Future<Admission> enqueue(Database db, String pid, boolean priority) {
+    int waiting = underTest.waiting(db);
+    Future<Admission> f = es.submit(() -> underTest.admit(db, request(pid), priority, () -> true));
+    Awaitility.await()
+        .atMost(Duration.ofSeconds(10))
+        .until(() -> underTest.waiting(db) == waiting + 1);
+    return f;
+  }
+
+  /** releases the given admission, and returns the name of the waiter admitted instead */
+  static String handOver(Admission a, Map<String, Future<Admission>> waiters) {
+    a.close();
+    Awaitility.await()
+        .atMost(Duration.ofSeconds(10))
+        .until(() -> waiters.values().stream().anyMatch(Future::isDone));
+    return waiters.entrySet().stream()
+        .filter(e -> e.getValue().isDone())
+        .findFirst()
+        .orElseThrow()
+        .getKey();
+  }
+
+  @Nested
+  class WhenAdmitting {
+    @Test
+    void admitsUpToLimitImmediately() {
+      admitNow(Database.OFFLOAD, "a");
+      admitNow(Database.OFFLOAD, "a");
+
+      assertThat(underTest.running(Database.OFFLOAD)).isEqualTo(2);
+      assertThat(underTest.waiting(Database.OFFLOAD)).isZero();
+      verifyNoInteractions(queueDepth, waitTime);
+    }
+
+    @Test
+    void limitsDatabasesIndependently() {
+      admitNow(Database.PRIMARY, "a");
+      admitNow(Database.OFFLOAD, "a");
+
+      assertThat(underTest.running(Database.PRIMARY)).isOne();
+      assertThat(underTest.running(Database.OFFLOAD)).isOne();
+    }
+
+    @Test
+    void queuesBeyondLimitUntilReleased() throws Exception {
+      Admission first = admitNow(Database.PRIMARY, "a");
+      Future<Admission> second = enqueue(Database.PRIMARY, "b", false);
+
+      verify(queueDepth).record(1);
+      assertThat(second).isNotDone();
+
+      first.close();
+
+      assertThat(second.get(10, TimeUnit.SECONDS)).isNotNull();
+      assertThat(underTest.running(Database.PRIMARY)).isOne();
+      assertThat(underTest.waiting(Database.PRIMARY)).isZero();
+      verify(waitTime).record(anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    void releasesOnlyOnce() {
+      Admission a = admitNow(Database.PRIMARY, "a");
+
+      a.close();
+      a.close();
+
+      assertThat(underTest.running(Database.PRIMARY)).isZero();
+    }
+  }
+
+  @Nested
+  class WhenQueueing {
+    @Test
+    void servesClientsRoundRobin() throws Exception {
+      Admission running = admitNow(Database.PRIMARY, "replay");
+      Map<String, Future<Admission>> waiters = new LinkedHashMap<>();
+      waiters.put("replay-1", enqueue(Database.PRIMARY, "replay", false));
+      waiters.put("replay-2", enqueue(Database.PRIMARY, "replay", false));
+      waiters.put("replay-3", enqueue(Database.PRIMARY, "replay", false));
+      waiters.put("other-1", enqueue(Database.PRIMARY, "other", false));
+
+      List<String> order = new ArrayList<>();
+      while (!waiters.isEmpty()) {
+        String next = handOver(running, waiters);
+        order.add(next);
+        running = waiters.remove(next).get();
+      }
+
+      assertThat(order).containsExactly("replay-1", "other-1", "replay-2", "replay-3");
+    }
+
+    @Test
+    void servesPriorityFirst() throws Exception {
+      Admission running = admitNow(Database.PRIMARY, "a");
+      Map<String, Future<Admission>> waiters = new LinkedHashMap<>();
+      waiters.put("catchup", enqueue(Database.PRIMARY, "a", false));
+      waiters.put("almostFollowing", enqueue(Database.PRIMARY, "b", true));
+
+      assertThat(handOver(running, waiters)).isEqualTo("almostFollowing");
+    }
+
+    @Test
+    void withdrawsWhenDisconnected() {
+      admitNow(Database.PRIMARY, "a");
+
+      Admission a = underTest.admit(Database.PRIMARY, request("b"), false, () -> false);
+
+      assertThat(a).isNull();
+      assertThat(underTest.waiting(Database.PRIMARY)).isZero();
+      assertThat(underTest.running(Database.PRIMARY)).isOne();
+    }
+
+    @Test
+    void withdrawingDoesNotAffectOthers() throws Exception {
+      Admission running = admitNow(Database.PRIMARY, "a");
+      Future<Admission> other = enqueue(Database.PRIMARY, "a", false);
+
+      assertThat(underTest.admit(Database.PRIMARY, request("a"), false, () -> false)).isNull();
+      running.close();
+
+      assertThat(other.get(10, TimeUnit.SECONDS)).isNotNull();
+      assertThat(underTest.waiting(Database.PRIMARY)).isZero();
+    }
+
+    @Test
+    void treatsRequestsWithoutPidAsOneClient() {
+      admitNow(Database.PRIMARY, null);
+
+      assertThat(underTest.running(Database.PRIMARY)).isOne();
+    }
+  }
+}
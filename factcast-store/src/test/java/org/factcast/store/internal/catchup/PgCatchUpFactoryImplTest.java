@@ -16,7 +16,7 @@
 package org.factcast.store.internal.catchup;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 import java.util.concurrent.atomic.AtomicLong;
 import org.factcast.core.subscription.SubscriptionRequestTO;
@@ -27,6 +27,7 @@
 import org.factcast.store.internal.catchup.chunkedwithhold.PgChunkedWithHoldCursorCatchup;
 import org.factcast.store.internal.catchup.cursor.PgCursorCatchup;
 import org.factcast.store.internal.pipeline.ServerPipeline;
+import org.factcast.store.internal.query.AggIdLookup;
 import org.factcast.store.internal.query.CurrentStatementHolder;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -96,5 +97,29 @@ void returnsHoldCursorInPhase1WhenStrategyIsHoldCursor() {
 
       assertThat(result).isInstanceOf(PgChunkedWithHoldCursorCatchup.class);
     }
+
+    @Test
+    void usesAggIdLookupOnceComplete() {
+      AggIdLookup lookup = mock(AggIdLookup.class);
+      when(lookup.isComplete()).thenReturn(true);
+      underTest = new PgCatchUpFactoryImpl(props, metrics, lookup);
+
+      var result =
+          underTest.create(request, pipeline, serial, holder, ds, PgCatchupFactory.Phase.PHASE_2);
+
+      assertThat(((AbstractPgCatchup) result).aggIdLookup).isTrue();
+    }
+
+    @Test
+    void doesNotUseIncompleteAggIdLookup() {
+      AggIdLookup lookup = mock(AggIdLookup.class);
+      when(lookup.isComplete()).thenReturn(false);
+      underTest = new PgCatchUpFactoryImpl(props, metrics, lookup);
+
+      var result =
+          underTest.create(request, pipeline, serial, holder, ds, PgCatchupFactory.Phase.PHASE_2);
+
+      assertThat(((AbstractPgCatchup) result).aggIdLookup).isFalse();
+    }
   }
 }
@@ -259,11 +259,11 @@ void testFetchChunk_MultipleRows_async_one_fetch() {
       when(rs.getMetaData()).thenReturn(rsMetaData);
       when(rsMetaData.getColumnCount()).thenReturn(3);
       when(rs.isClosed()).thenReturn(false);
-      when(rs.getFetchSize()).thenReturn(1000);
       when(rs.next()).thenReturn(true, true, false); // 2 rows
       when(extractor.mapRow(any(), anyInt())).thenReturn(mock(PgFact.class));
 
       when(props.isCatchupAsyncFetch()).thenReturn(true);
+      when(props.getCatchupAsyncFetchMaxBytes()).thenReturn(1024L);
 
       PgChunkedWithHoldCursorCatchup.Cursor cursor = underTest.new Cursor(1000);
       int rows = cursor.fetchChunk(extractor);
@@ -284,12 +284,12 @@ void testFetchChunk_MultipleRows_async_many_fetches() {
       when(rs.getMetaData()).thenReturn(rsMetaData);
       when(rsMetaData.getColumnCount()).thenReturn(3);
       when(rs.isClosed()).thenReturn(false);
-      when(rs.getFetchSize()).thenReturn(2);
       when(rs.next())
           .thenReturn(true, true, true, true, true, true, true, true, true, true, false); // 10 rows
       when(extractor.mapRow(any(), anyInt())).thenReturn(mock(PgFact.class));
 
       when(props.isCatchupAsyncFetch()).thenReturn(true);
+      when(props.getCatchupAsyncFetchMaxBytes()).thenReturn(1024L);
 
       PgChunkedWithHoldCursorCatchup.Cursor cursor = underTest.new Cursor(1000);
       int rows = cursor.fetchChunk(extractor);
@@ -48,6 +48,7 @@ void testCreateSync() {
   @Test
   void testCreateAsync() {
     when(props.isCatchupAsyncFetch()).thenReturn(true);
+    when(props.getCatchupAsyncFetchMaxBytes()).thenReturn(1024L);
     assertTrue(FetchingQuery.create(props) instanceof PreFetchingQuery);
   }
 }
@@ -23,6 +23,7 @@
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -72,24 +73,42 @@ void testSuccessfulProcessing() throws SQLException {
     when(ps.executeQuery()).thenReturn(resultSet);
 
     // Setup ResultSet for producer loop:
-    when(resultSet.getFetchSize()).thenReturn(10);
     when(resultSet.getMetaData()).thenReturn(resultSetMetaData);
     when(resultSetMetaData.getColumnCount()).thenReturn(1);
-    when(resultSetMetaData.getColumnName(1)).thenReturn("id");
-    when(resultSetMetaData.getColumnType(1)).thenReturn(java.sql.Types.VARCHAR);
-    when(resultSetMetaData.getColumnTypeName(1)).thenReturn("VARCHAR");
-    when(resultSetMetaData.isNullable(1)).thenReturn(ResultSetMetaData.columnNullable);
+    when(resultSetMetaData.getColumnLabel(1)).thenReturn("id");
 
     // Producer loop: one row, then exhausted
     when(resultSet.next()).thenReturn(true, false);
-    when(resultSet.getObject(1)).thenReturn("data");
+    when(resultSet.getString(1)).thenReturn("data");
 
-    underTest.executeAndProcess(ps, rowProcessor);
+    List<String> processed = new ArrayList<>();
+    int rows = underTest.executeAndProcess(ps, row -> processed.add(row.getString("id")));
 
-    // verify(rowProcessor, atLeastOnce()).process(any(ResultSet.class));
+    assertEquals(1, rows);
+    assertEquals(List.of("data"), processed);
     verify(resultSet, atLeastOnce()).close();
   }
 
+  @Test
+  void testProcessesRowsBeyondBufferSize() throws SQLException {
+    underTest = new PreFetchingQuery(1);
+    when(ps.getConnection()).thenReturn(connection);
+    when(connection.getAutoCommit()).thenReturn(false);
+    when(ps.getFetchSize()).thenReturn(10);
+    when(ps.executeQuery()).thenReturn(resultSet);
+    when(resultSet.getMetaData()).thenReturn(resultSetMetaData);
+    when(resultSetMetaData.getColumnCount()).thenReturn(1);
+    when(resultSetMetaData.getColumnLabel(1)).thenReturn("ser");
+    when(resultSet.next()).thenReturn(true, true, true, false);
+    when(resultSet.getString(1)).thenReturn("1", "2", "3");
+
+    List<Long> processed = new ArrayList<>();
+    int rows = underTest.executeAndProcess(ps, row -> processed.add(row.getLong("ser")));
+
+    assertEquals(3, rows);
+    assertEquals(List.of(1L, 2L, 3L), processed);
+  }
+
   @Test
   void testProducerException() throws SQLException, InterruptedException {
     when(ps.getConnection()).thenReturn(connection);
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.catchup.tools.fetching;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.*;
+import java.util.concurrent.*;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.*;
+
+class PrefetchBufferTest {
+
+  @SneakyThrows
+  static PrefetchedRow row(String value) {
+    ResultSetMetaData md = mock(ResultSetMetaData.class);
+    when(md.getColumnCount()).thenReturn(1);
+    when(md.getColumnLabel(1)).thenReturn("value");
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getString(1)).thenReturn(value);
+    return PrefetchedRow.copyOf(rs, new PrefetchedRow.Columns(md));
+  }
+
+  @Test
+  void rejectsNonPositiveSize() {
+    assertThatThrownBy(() -> new PrefetchBuffer(0)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void handsOverInOrderAndCompletes() throws Exception {
+    PrefetchBuffer uut = new PrefetchBuffer(1024 * 1024);
+    PrefetchedRow r1 = row("1");
+    PrefetchedRow r2 = row("2");
+
+    assertThat(uut.put(r1)).isTrue();
+    assertThat(uut.put(r2)).isTrue();
+    uut.complete();
+
+    assertThat(uut.take()).isSameAs(r1);
+    assertThat(uut.take()).isSameAs(r2);
+    assertThat(uut.take()).isNull();
+    assertThat(uut.bufferedBytes()).isZero();
+  }
+
+  @Test
+  void acceptsOversizedRowIfEmpty() throws Exception {
+    PrefetchBuffer uut = new PrefetchBuffer(1);
+
+    assertThat(uut.put(row("huge"))).isTrue();
+  }
+
+  @Test
+  @Timeout(10)
+  void blocksProducerWhileFull() throws Exception {
+    PrefetchedRow r1 = row("1");
+    PrefetchBuffer uut = new PrefetchBuffer(r1.estimatedSize());
+    uut.put(r1);
+
+    CompletableFuture<Boolean> put = CompletableFuture.supplyAsync(() -> put(uut, row("2")));
+
+    assertThatThrownBy(() -> put.get(100, TimeUnit.MILLISECONDS))
+        .isInstanceOf(TimeoutException.class);
+    assertThat(uut.take()).isSameAs(r1);
+    assertThat(put.get()).isTrue();
+  }
+
+  @Test
+  @Timeout(10)
+  void closeUnblocksProducer() throws Exception {
+    PrefetchedRow r1 = row("1");
+    PrefetchBuffer uut = new PrefetchBuffer(r1.estimatedSize());
+    uut.put(r1);
+
+    CompletableFuture<Boolean> put = CompletableFuture.supplyAsync(() -> put(uut, row("2")));
+    uut.close();
+
+    assertThat(put.get()).isFalse();
+    assertThat(uut.take()).isNull();
+  }
+
+  @Test
+  void rethrowsFailureAfterBufferedRows() throws Exception {
+    PrefetchBuffer uut = new PrefetchBuffer(1024);
+    PrefetchedRow r1 = row("1");
+    uut.put(r1);
+    SQLException e = new SQLException("broken");
+    uut.fail(e);
+
+    assertThat(uut.take()).isSameAs(r1);
+    assertThatThrownBy(uut::take).isSameAs(e);
+  }
+
+  @SneakyThrows
+  static boolean put(PrefetchBuffer buffer, PrefetchedRow row) {
+    return buffer.put(row);
+  }
+}
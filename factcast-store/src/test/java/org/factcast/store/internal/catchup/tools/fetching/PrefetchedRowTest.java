@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.catchup.tools.fetching;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PrefetchedRowTest {
+
+  @Mock ResultSet source;
+  @Mock ResultSetMetaData metaData;
+
+  PrefetchedRow underTest;
+
+  @BeforeEach
+  void setup() throws SQLException {
+    when(metaData.getColumnCount()).thenReturn(3);
+    when(metaData.getColumnLabel(1)).thenReturn("ser");
+    when(metaData.getColumnLabel(2)).thenReturn("header");
+    when(metaData.getColumnLabel(3)).thenReturn("aggids");
+    when(source.getString(1)).thenReturn("42");
+    when(source.getString(2)).thenReturn("{}");
+    when(source.getString(3)).thenReturn(null);
+
+    underTest = PrefetchedRow.copyOf(source, new PrefetchedRow.Columns(metaData));
+  }
+
+  @Test
+  void copiesValues() throws SQLException {
+    assertThat(underTest.getLong("ser")).isEqualTo(42);
+    assertThat(underTest.getInt(1)).isEqualTo(42);
+    assertThat(underTest.getString("header")).isEqualTo("{}");
+    assertThat(underTest.wasNull()).isFalse();
+  }
+
+  @Test
+  void findsColumnsIgnoringCase() throws SQLException {
+    assertThat(underTest.findColumn("aggIds")).isEqualTo(3);
+    assertThat(underTest.getString("aggIds")).isNull();
+    assertThat(underTest.wasNull()).isTrue();
+    assertThat(underTest.getLong("aggIds")).isZero();
+  }
+
+  @Test
+  void failsOnUnknownColumns() {
+    assertThatThrownBy(() -> underTest.getString("payload")).isInstanceOf(SQLException.class);
+    assertThatThrownBy(() -> underTest.getString(4)).isInstanceOf(SQLException.class);
+  }
+
+  @Test
+  void estimatesSize() {
+    // three values, two of them two chars long
+    assertThat(underTest.estimatedSize()).isEqualTo(48 + 3 * 40 + 2 * (2 + 2));
+  }
+
+  @Test
+  void doesNotHoldOnToSource() throws SQLException {
+    underTest.close();
+
+    assertThat(underTest.isClosed()).isFalse();
+    verify(source, never()).close();
+  }
+}
@@ -122,6 +122,13 @@ void testMatchesByVersion() {
     assertFalse(test(fs, new TestFact().ns("1").version(2)));
   }
 
+  @Test
+  void testMatchesForQueryIgnoresVersion() {
+    BasicMatcher uut = BasicMatcher.forQuery(FactSpec.ns("1").type("t1").version(2));
+    assertTrue(uut.test(PgFact.from(new TestFact().ns("1").type("t1").version(1))));
+    assertFalse(uut.test(PgFact.from(new TestFact().ns("1").type("t2").version(2))));
+  }
+
   @Test
   void testMatchesByAggId() {
     FactSpec fs = FactSpec.ns("1").aggId(new UUID(0, 1));
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.filter;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.factcast.core.Fact;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.store.internal.PgFact;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Compares routing a fact via {@link FactSpecIndex} to testing every spec one by one. */
+@State(Scope.Thread)
+public class FactSpecIndexBenchmark {
+
+  private static final int SPECS = 10_000;
+
+  private static final List<BasicMatcher> matchers = new ArrayList<>(SPECS);
+  private static final FactSpecIndex index;
+  private static final PgFact[] facts = new PgFact[64];
+
+  static {
+    Random rnd = new Random(42);
+    UUID[] aggIds = new UUID[1000];
+    for (int i = 0; i < aggIds.length; i++) {
+      aggIds[i] = UUID.randomUUID();
+    }
+
+    FactSpecIndex.Builder b = FactSpecIndex.builder();
+    for (int i = 0; i < SPECS; i++) {
+      FactSpec spec = FactSpec.ns("ns" + rnd.nextInt(20)).type("type" + rnd.nextInt(50));
+      if (rnd.nextBoolean()) {
+        spec.aggId(aggIds[rnd.nextInt(aggIds.length)]);
+      }
+      b.add(i, spec);
+      matchers.add(BasicMatcher.forQuery(spec));
+    }
+    index = b.build();
+
+    for (int i = 0; i < facts.length; i++) {
+      facts[i] =
+          PgFact.from(
+              Fact.builder()
+                  .ns("ns" + rnd.nextInt(20))
+                  .type("type" + rnd.nextInt(50))
+                  .aggId(aggIds[rnd.nextInt(aggIds.length)])
+                  .version(1)
+                  .build("{}"));
+    }
+  }
+
+  private final FactSpecIndex.Matches matches = new FactSpecIndex.Matches();
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 1)
+  public void index(Blackhole bh) {
+    for (PgFact f : facts) {
+      index.collect(f, matches);
+      bh.consume(matches.size());
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 1)
+  public void linearScan(Blackhole bh) {
+    for (PgFact f : facts) {
+      int count = 0;
+      for (BasicMatcher m : matchers) {
+        if (m.test(f)) {
+          count++;
+        }
+      }
+      bh.consume(count);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Main.main(args);
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.filter;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+import org.factcast.core.TestFact;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.store.internal.PgFact;
+import org.junit.jupiter.api.*;
+
+class FactSpecIndexTest {
+
+  final FactSpecIndex.Matches matches = new FactSpecIndex.Matches();
+
+  int[] match(FactSpecIndex index, TestFact f) {
+    index.collect(PgFact.from(f), matches);
+    return matches.toSortedArray();
+  }
+
+  @Test
+  void emptyIndexMatchesNothing() {
+    FactSpecIndex uut = FactSpecIndex.builder().build();
+    assertThat(uut.maxId()).isEqualTo(-1);
+    assertThat(match(uut, new TestFact())).isEmpty();
+  }
+
+  @Test
+  void rejectsNegativeIds() {
+    FactSpecIndex.Builder b = FactSpecIndex.builder();
+    FactSpec spec = FactSpec.ns("ns");
+    assertThatThrownBy(() -> b.add(-1, spec)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void matchesByNsAndTypeRegardlessOfVersion() {
+    FactSpecIndex uut =
+        FactSpecIndex.builder()
+            .add(1, FactSpec.ns("ns"))
+            .add(2, FactSpec.ns("ns").type("a"))
+            .add(3, FactSpec.ns("ns").type("a").version(2))
+            .add(4, FactSpec.ns("ns").type("b"))
+            .add(5, FactSpec.ns("other"))
+            .build();
+
+    assertThat(match(uut, new TestFact().ns("ns").type("a").version(2))).containsExactly(1, 2, 3);
+    // transformed into version 2 later on
+    assertThat(match(uut, new TestFact().ns("ns").type("a").version(1))).containsExactly(1, 2, 3);
+    assertThat(match(uut, new TestFact().ns("ns").type("b"))).containsExactly(1, 4);
+    assertThat(match(uut, new TestFact().ns("unknown").type("a"))).isEmpty();
+  }
+
+  @Test
+  void matchesWildcards() {
+    FactSpecIndex uut =
+        FactSpecIndex.builder()
+            .add(1, FactSpec.ns("*"))
+            .add(2, FactSpec.ns("*").type("a"))
+            .add(3, FactSpec.ns("ns").type("*"))
+            .build();
+
+    assertThat(match(uut, new TestFact().ns("ns").type("a"))).containsExactly(1, 2, 3);
+    assertThat(match(uut, new TestFact().ns("x").type("a"))).containsExactly(1, 2);
+    assertThat(match(uut, new TestFact().ns("x").type("b"))).containsExactly(1);
+  }
+
+  @Test
+  void matchesAggIds() {
+    UUID a1 = UUID.randomUUID();
+    UUID a2 = UUID.randomUUID();
+    FactSpecIndex uut =
+        FactSpecIndex.builder()
+            .add(1, FactSpec.ns("ns").aggId(a1))
+            .add(2, FactSpec.ns("ns").aggId(a1).aggId(a2))
+            .add(3, FactSpec.ns("ns").aggId(a2))
+            .build();
+
+    assertThat(match(uut, new TestFact().ns("ns").aggId(a1))).containsExactly(1);
+    assertThat(match(uut, new TestFact().ns("ns").aggId(a1, a2))).containsExactly(1, 2, 3);
+    assertThat(match(uut, new TestFact().ns("ns").aggId(UUID.randomUUID()))).isEmpty();
+  }
+
+  @Test
+  void matchesMeta() {
+    FactSpecIndex uut =
+        FactSpecIndex.builder()
+            .add(1, FactSpec.ns("ns").meta("foo", "bar"))
+            .add(2, FactSpec.ns("ns").metaExists("foo"))
+            .add(3, FactSpec.ns("ns").metaDoesNotExist("foo"))
+            .build();
+
+    assertThat(match(uut, new TestFact().ns("ns").meta("foo", "bar"))).containsExactly(1, 2);
+    assertThat(match(uut, new TestFact().ns("ns").meta("foo", "baz"))).containsExactly(2);
+    assertThat(match(uut, new TestFact().ns("ns"))).containsExactly(3);
+  }
+
+  @Test
+  void deduplicatesSubscribersWithSeveralMatchingSpecs() {
+    FactSpecIndex uut =
+        FactSpecIndex.builder()
+            .add(70, List.of(FactSpec.ns("ns"), FactSpec.ns("ns").type("a"), FactSpec.ns("*")))
+            .build();
+
+    assertThat(match(uut, new TestFact().ns("ns").type("a"))).containsExactly(70);
+  }
+
+  @Test
+  void agreesWithBasicMatcherForQuery() {
+    UUID a1 = UUID.randomUUID();
+    List<FactSpec> specs =
+        List.of(
+            FactSpec.ns("ns"),
+            FactSpec.ns("ns").type("a"),
+            FactSpec.ns("ns").type("a").version(1),
+            FactSpec.ns("ns").type("b").aggId(a1),
+            FactSpec.ns("*").type("b"),
+            FactSpec.ns("x").meta("k", "v"));
+    FactSpecIndex.Builder b = FactSpecIndex.builder();
+    for (int i = 0; i < specs.size(); i++) {
+      b.add(i, specs.get(i));
+    }
+    FactSpecIndex uut = b.build();
+
+    List<TestFact> facts =
+        List.of(
+            new TestFact().ns("ns").type("a").version(1),
+            new TestFact().ns("ns").type("a").version(2),
+            new TestFact().ns("ns").type("b").aggId(a1),
+            new TestFact().ns("ns").type("b"),
+            new TestFact().ns("x").type("b").meta("k", "v"),
+            new TestFact().ns("y").type("c"));
+
+    for (TestFact f : facts) {
+      PgFact pf = PgFact.from(f);
+      int[] expected =
+          java.util.stream.IntStream.range(0, specs.size())
+              .filter(i -> BasicMatcher.forQuery(specs.get(i)).test(pf))
+              .toArray();
+      assertThat(match(uut, f)).containsExactly(expected);
+    }
+  }
+
+  @Nested
+  class WhenReusingMatches {
+    @Test
+    void resetsBetweenCalls() {
+      FactSpecIndex uut =
+          FactSpecIndex.builder().add(1, FactSpec.ns("a")).add(200, FactSpec.ns("b")).build();
+
+      assertThat(match(uut, new TestFact().ns("b"))).containsExactly(200);
+      assertThat(match(uut, new TestFact().ns("a"))).containsExactly(1);
+      assertThat(matches.size()).isOne();
+      assertThat(matches.get(0)).isOne();
+      assertThatThrownBy(() -> matches.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void comparesRegardlessOfOrder() {
+      FactSpecIndex uut =
+          FactSpecIndex.builder().add(3, FactSpec.ns("a")).add(70, FactSpec.ns("*")).build();
+      int[] ids = match(uut, new TestFact().ns("a"));
+
+      assertThat(matches.containsExactly(new int[] {3, 70})).isTrue();
+      assertThat(matches.containsExactly(new int[] {70, 3})).isTrue();
+      assertThat(matches.containsExactly(new int[] {3})).isFalse();
+      assertThat(matches.containsExactly(new int[] {3, 71})).isFalse();
+      assertThat(matches.containsExactly(new int[] {3, 700})).isFalse();
+
+      match(uut, new TestFact().ns("b"));
+      assertThat(matches.containsExactly(ids)).isFalse();
+      assertThat(matches.containsExactly(new int[] {70})).isTrue();
+    }
+
+    @Test
+    void hashesRegardlessOfOrder() {
+      FactSpecIndex uut =
+          FactSpecIndex.builder().add(3, FactSpec.ns("a")).add(70, FactSpec.ns("*")).build();
+      FactSpecIndex reversed =
+          FactSpecIndex.builder().add(70, FactSpec.ns("a")).add(3, FactSpec.ns("*")).build();
+
+      match(uut, new TestFact().ns("a"));
+      int hash = matches.hash();
+      match(reversed, new TestFact().ns("a"));
+
+      assertThat(matches.hash()).isEqualTo(hash);
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+      FactSpecIndex.Builder b = FactSpecIndex.builder();
+      for (int i = 0; i < 100; i++) {
+        b.add(i, FactSpec.ns("ns"));
+      }
+
+      assertThat(match(b.build(), new TestFact().ns("ns"))).hasSize(100);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.filter;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.factcast.core.TestFact;
+import org.factcast.store.internal.*;
+import org.junit.jupiter.api.*;
+
+class JSFilterScriptContextPoolTest {
+
+  static final String SCRIPT = "function (h,p) { return p.test == 1 }";
+
+  final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  final JSFilterScriptContextPool uut = new JSFilterScriptContextPool(new PgMetrics(registry), 2);
+
+  @AfterEach
+  void tearDown() {
+    uut.destroy();
+  }
+
+  PgFact fact(String payload) {
+    return PgFact.from(new TestFact().jsonPayload(payload));
+  }
+
+  double created() {
+    return registry
+        .find("factcast.store.meter")
+        .tag("operation", StoreMetrics.EVENT.FILTER_SCRIPT_CONTEXT_CREATED.getName())
+        .counter()
+        .count();
+  }
+
+  @Test
+  void evaluatesScript() {
+    assertThat(uut.test(SCRIPT, fact("{\"test\":1}"))).isTrue();
+    assertThat(uut.test(SCRIPT, fact("{\"test\":2}"))).isFalse();
+    assertThat(uut.test(SCRIPT, fact("{}"))).isFalse();
+  }
+
+  @Test
+  void evaluatesNamedFunction() {
+    assertThat(uut.test("function x(h,p) { return h.meta.x == 'y' }", fact("{}"))).isFalse();
+    assertThat(
+            uut.test(
+                "function x(h,p) { return h.meta.x == 'y' }",
+                PgFact.from(new TestFact().meta("x", "y"))))
+        .isTrue();
+  }
+
+  @Test
+  void reusesContext() {
+    uut.test(SCRIPT, fact("{\"test\":1}"));
+    uut.test(SCRIPT, fact("{\"test\":1}"));
+    uut.test(SCRIPT, fact("{\"test\":1}"));
+
+    assertThat(created()).isOne();
+    assertThat(uut.idle(SCRIPT)).isOne();
+  }
+
+  @Test
+  void removesGlobalsBetweenFacts() {
+    String leaking =
+        "function (h,p) { var seen = typeof leaked !== 'undefined'; leaked = true; return !seen }";
+
+    assertThat(uut.test(leaking, fact("{}"))).isTrue();
+    assertThat(uut.test(leaking, fact("{}"))).isTrue();
+    assertThat(created()).isOne();
+  }
+
+  @Test
+  void timesScriptsWithoutTellingThemApart() {
+    uut.test(SCRIPT, fact("{}"));
+    uut.test("function (h,p) { return true }", fact("{}"));
+
+    assertThat(
+            registry
+                .find("factcast.store.timer")
+                .tag("operation", StoreMetrics.OP.FILTER_SCRIPT_EVAL.getName())
+                .timers())
+        .hasSize(1)
+        .first()
+        .extracting(t -> t.count())
+        .isEqualTo(2L);
+  }
+
+  @Test
+  void keepsContextsPerScript() {
+    uut.test(SCRIPT, fact("{}"));
+    uut.test("function (h,p) { return true }", fact("{}"));
+
+    assertThat(created()).isEqualTo(2);
+    assertThat(uut.idle(SCRIPT)).isOne();
+  }
+
+  @Test
+  void discardsContextOnFailure() {
+    String failing = "function (h,p) { throw 'nope' }";
+    assertThatThrownBy(() -> uut.test(failing, fact("{}"))).isInstanceOf(RuntimeException.class);
+
+    assertThat(uut.idle(failing)).isZero();
+  }
+
+  @Test
+  void closesIdleContextsOnDestroy() {
+    uut.test(SCRIPT, fact("{}"));
+
+    uut.destroy();
+
+    assertThat(uut.idle(SCRIPT)).isZero();
+  }
+}
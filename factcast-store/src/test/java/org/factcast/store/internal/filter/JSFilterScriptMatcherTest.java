@@ -18,18 +18,23 @@
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.*;
 import java.util.function.Predicate;
 import lombok.NonNull;
 import org.factcast.core.*;
 import org.factcast.core.spec.*;
 import org.factcast.store.internal.PgFact;
+import org.factcast.store.internal.PgMetrics;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 
 /** see FactSpecMatcherScriptingTest for more tests including execution of scripts */
 class JSFilterScriptMatcherTest {
 
+  final JSFilterScriptContextPool pool =
+      new JSFilterScriptContextPool(new PgMetrics(new SimpleMeterRegistry()), 2);
+
   @Test
   void testScriptMatch() {
     assertTrue(scriptMatch(FactSpec.ns("default"), PgFact.from(new TestFact())));
@@ -60,7 +65,7 @@ void testScriptMatchWithNamedFunction() {
   }
 
   private boolean scriptMatch(@NonNull FactSpec s, @NonNull PgFact f) {
-    JSFilterScriptMatcher matches = JSFilterScriptMatcher.matches(s);
+    JSFilterScriptMatcher matches = JSFilterScriptMatcher.matches(s, pool);
     return matches == null || matches.scriptMatch(f);
   }
 
@@ -68,7 +73,7 @@ private boolean scriptMatch(@NonNull FactSpec s, @NonNull PgFact f) {
   void testMatchesByScript() {
     String script = "function (h,p) { return p.test == 1 }";
     Predicate<PgFact> p =
-        JSFilterScriptMatcher.matches(FactSpec.ns("1").filterScript(FilterScript.js(script)));
+        JSFilterScriptMatcher.matches(FactSpec.ns("1").filterScript(FilterScript.js(script)), pool);
     assertThat(p).isNotNull();
     assertTrue(p.test(PgFact.from(new TestFact().ns("1").jsonPayload("{\"test\":1}"))));
     assertFalse(p.test(PgFact.from(new TestFact().ns("1").jsonPayload("{\"test\":2}"))));
@@ -77,13 +82,16 @@ void testMatchesByScript() {
 
   @Test
   void skipsBlank() {
-    assertThat(JSFilterScriptMatcher.matches(FactSpec.ns("1").filterScript(FilterScript.js("  "))))
+    assertThat(
+            JSFilterScriptMatcher.matches(
+                FactSpec.ns("1").filterScript(FilterScript.js("  ")), pool))
         .isNull();
   }
 
   @Test
   void skipsEmpty() {
-    assertThat(JSFilterScriptMatcher.matches(FactSpec.ns("1").filterScript(FilterScript.js(""))))
+    assertThat(
+            JSFilterScriptMatcher.matches(FactSpec.ns("1").filterScript(FilterScript.js("")), pool))
         .isNull();
   }
 
@@ -91,7 +99,7 @@ void skipsEmpty() {
   void doesNotSkipNonEmpty() {
     assertThat(
             JSFilterScriptMatcher.matches(
-                FactSpec.ns("1").filterScript(FilterScript.js("  true "))))
+                FactSpec.ns("1").filterScript(FilterScript.js("  true ")), pool))
         .isNotNull();
   }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2017-2020 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.filter.blacklist;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares checking facts against the {@link Blacklist} from 200 concurrent pipelines to checking
+ * them against the synchronized set it used to be backed by.
+ */
+@State(Scope.Benchmark)
+public class BlacklistBenchmark {
+
+  private static final int BLOCKED = 100;
+  private static final int FACTS = 1024;
+
+  private final Blacklist blacklist = new Blacklist();
+  private final Set<UUID> synchronizedSet = Collections.synchronizedSet(new HashSet<>());
+  // as almost always, none of them is blocked
+  private final UUID[] factIds = new UUID[FACTS];
+
+  @Setup
+  public void setup() {
+    Set<UUID> blocked = new HashSet<>();
+    for (int i = 0; i < BLOCKED; i++) {
+      blocked.add(UUID.randomUUID());
+    }
+    blacklist.accept(blocked);
+    synchronizedSet.addAll(blocked);
+    for (int i = 0; i < FACTS; i++) {
+      factIds[i] = UUID.randomUUID();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(200)
+  @Warmup(iterations = 2)
+  public void snapshot(Blackhole bh) {
+    for (UUID id : factIds) {
+      bh.consume(blacklist.isBlocked(id));
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(200)
+  @Warmup(iterations = 2)
+  public void synchronizedSet(Blackhole bh) {
+    for (UUID id : factIds) {
+      bh.consume(synchronizedSet.contains(id));
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Main.main(args);
+  }
+}
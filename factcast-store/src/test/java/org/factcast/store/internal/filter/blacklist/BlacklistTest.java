@@ -17,9 +17,7 @@
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -60,5 +58,30 @@ void updatesSet() {
       assertThat(underTest.isBlocked(FACT_ID)).isFalse();
       assertThat(underTest.isBlocked(NEW_FACT_ID)).isFalse();
     }
+
+    @Test
+    void handlesManyIds() {
+      Set<UUID> ids = new HashSet<>();
+      for (int i = 0; i < 10_000; i++) {
+        ids.add(UUID.randomUUID());
+      }
+      underTest.accept(ids);
+
+      assertThat(underTest.size()).isEqualTo(ids.size());
+      assertThat(ids).allMatch(underTest::isBlocked);
+      for (int i = 0; i < 10_000; i++) {
+        assertThat(underTest.isBlocked(UUID.randomUUID())).isFalse();
+      }
+    }
+
+    @Test
+    void handlesNilId() {
+      UUID nil = new UUID(0, 0);
+      assertThat(underTest.isBlocked(nil)).isFalse();
+
+      underTest.accept(Set.of(nil));
+      assertThat(underTest.isBlocked(nil)).isTrue();
+      assertThat(underTest.isBlocked(FACT_ID)).isFalse();
+    }
   }
 }
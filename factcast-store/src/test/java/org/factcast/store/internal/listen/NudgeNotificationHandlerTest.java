@@ -144,14 +144,14 @@ void notifesForEachPair() throws Exception {
         .thenReturn(true);
 
     when(jdbc.query(
-            startsWith("SELECT max(ser) as max,ns,type FROM notification WHERE"),
+            startsWith("SELECT max(ser) as max,ns,type,"),
             any(DataClassRowMapper.class),
             any(Object[].class)))
         .thenReturn(
             List.of(
-                new NudgeNotificationHandler.FetchNotificationTuple(7L, "ns", "t1"),
-                new NudgeNotificationHandler.FetchNotificationTuple(8L, "ns", "t2"),
-                new NudgeNotificationHandler.FetchNotificationTuple(9L, "ns", "t3")),
+                new NudgeNotificationHandler.FetchNotificationTuple(7L, "ns", "t1", 20L, 21L),
+                new NudgeNotificationHandler.FetchNotificationTuple(8L, "ns", "t2", 22L, 22L),
+                new NudgeNotificationHandler.FetchNotificationTuple(9L, "ns", "t3", 23L, 25L)),
             Collections.emptyList());
 
     final CountDownLatch cdl = new CountDownLatch(3);
@@ -166,9 +166,9 @@ void notifesForEachPair() throws Exception {
     handler.nudge(new NudgeNotification(13));
     assertThat(cdl.await(5, TimeUnit.SECONDS)).isTrue();
 
-    verify(bus).post(eq(FactInsertionNotification.internal("ns", "t1")));
-    verify(bus).post(eq(FactInsertionNotification.internal("ns", "t2")));
-    verify(bus).post(eq(FactInsertionNotification.internal("ns", "t3")));
+    verify(bus).post(eq(FactInsertionNotification.internal("ns", "t1", 20L, 21L)));
+    verify(bus).post(eq(FactInsertionNotification.internal("ns", "t2", 22L, 22L)));
+    verify(bus).post(eq(FactInsertionNotification.internal("ns", "t3", 23L, 25L)));
     verify(bus).register(any());
     verifyNoMoreInteractions(bus);
   }
@@ -188,15 +188,16 @@ void notifiesQuicklyAfterScheduledPoll() throws Exception {
         .thenReturn(true);
 
     when(jdbc.query(
-            startsWith("SELECT max(ser) as max,ns,type FROM notification WHERE"),
+            startsWith("SELECT max(ser) as max,ns,type,"),
             any(DataClassRowMapper.class),
             any(Object[].class)))
         .thenReturn(
             List.of(
-                new NudgeNotificationHandler.FetchNotificationTuple(7L, "ns", "t1"),
-                new NudgeNotificationHandler.FetchNotificationTuple(8L, "ns", "t2"),
-                new NudgeNotificationHandler.FetchNotificationTuple(9L, "ns", "t3")),
-            List.of(new NudgeNotificationHandler.FetchNotificationTuple(10L, "ns", "t1")));
+                new NudgeNotificationHandler.FetchNotificationTuple(7L, "ns", "t1", null, null),
+                new NudgeNotificationHandler.FetchNotificationTuple(8L, "ns", "t2", null, null),
+                new NudgeNotificationHandler.FetchNotificationTuple(9L, "ns", "t3", null, null)),
+            List.of(
+                new NudgeNotificationHandler.FetchNotificationTuple(10L, "ns", "t1", null, null)));
 
     final CountDownLatch cdl = new CountDownLatch(3);
     final CountDownLatch cdl4 = new CountDownLatch(4);
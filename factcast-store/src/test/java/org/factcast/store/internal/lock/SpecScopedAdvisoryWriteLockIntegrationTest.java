@@ -0,0 +1,242 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.lock;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.factcast.core.Fact;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.core.store.*;
+import org.factcast.store.internal.*;
+import org.factcast.test.IntegrationTest;
+import org.junit.jupiter.api.*;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringJUnitConfig(classes = {PgTestConfiguration.class})
+@TestPropertySource(properties = "factcast.store.spec-scoped-publish-lock-enabled=true")
+@Sql(scripts = "/wipe.sql", config = @SqlConfig(separator = "#"))
+@IntegrationTest
+@Slf4j
+class SpecScopedAdvisoryWriteLockIntegrationTest {
+
+  static final String NS = "lock";
+  static final String TYPE = "changed";
+
+  @Autowired FactStore store;
+  @Autowired FactTableWriteLock lock;
+  @Autowired JdbcTemplate jdbcTemplate;
+  @Autowired PgMetrics metrics;
+  @Autowired PlatformTransactionManager txManager;
+
+  final ExecutorService es = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void tearDown() {
+    es.shutdownNow();
+  }
+
+  static FactSpec spec(UUID aggId) {
+    return FactSpec.ns(NS).type(TYPE).aggId(aggId);
+  }
+
+  static Fact fact(UUID aggId) {
+    return Fact.builder().ns(NS).type(TYPE).aggId(aggId).buildWithoutPayload();
+  }
+
+  @Test
+  void isConfigured() {
+    assertThat(AopUtils.getTargetClass(lock)).isEqualTo(SpecScopedAdvisoryWriteLock.class);
+  }
+
+  @Test
+  void conditionalPublishOnlyFailsForChangedAggregate() {
+    UUID a = UUID.randomUUID();
+    UUID b = UUID.randomUUID();
+    StateToken tokenA = store.currentStateFor(List.of(spec(a)));
+    StateToken tokenB = store.currentStateFor(List.of(spec(b)));
+
+    store.publish(List.of(fact(a)));
+
+    assertThat(store.publishIfUnchanged(List.of(fact(a)), Optional.of(tokenA))).isFalse();
+    assertThat(store.publishIfUnchanged(List.of(fact(b)), Optional.of(tokenB))).isTrue();
+  }
+
+  @Nested
+  class WhenHoldingExclusiveLock {
+    final UUID a = UUID.randomUUID();
+    final UUID b = UUID.randomUUID();
+    final CountDownLatch locked = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    @SneakyThrows
+    void holdLockOnA() {
+      es.submit(
+          () ->
+              inTransaction(
+                  () -> {
+                    lock.acquireExclusiveTXLock(List.of(spec(a)), List.of(fact(a)));
+                    locked.countDown();
+                    await(release);
+                  }));
+      assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @AfterEach
+    void releaseLockOnA() {
+      release.countDown();
+    }
+
+    @Test
+    @SneakyThrows
+    void disjointConditionalPublishProceeds() {
+      Future<?> other =
+          es.submit(
+              () ->
+                  inTransaction(
+                      () -> lock.acquireExclusiveTXLock(List.of(spec(b)), List.of(fact(b)))));
+
+      other.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @SneakyThrows
+    void disjointUnconditionalPublishProceeds() {
+      Future<?> other = es.submit(() -> store.publish(List.of(fact(b))));
+
+      other.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @SneakyThrows
+    void overlappingConditionalPublishWaits() {
+      Future<?> other =
+          es.submit(
+              () ->
+                  inTransaction(
+                      () -> lock.acquireExclusiveTXLock(List.of(spec(a)), List.of(fact(a)))));
+
+      assertThatThrownBy(() -> other.get(500, TimeUnit.MILLISECONDS))
+          .isInstanceOf(TimeoutException.class);
+      release.countDown();
+      other.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @SneakyThrows
+    void overlappingUnconditionalPublishWaits() {
+      Future<?> other = es.submit(() -> store.publish(List.of(fact(a))));
+
+      assertThatThrownBy(() -> other.get(500, TimeUnit.MILLISECONDS))
+          .isInstanceOf(TimeoutException.class);
+      release.countDown();
+      other.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @SneakyThrows
+    void typeWideConditionalPublishWaits() {
+      Future<?> other =
+          es.submit(
+              () ->
+                  inTransaction(
+                      () ->
+                          lock.acquireExclusiveTXLock(
+                              List.of(FactSpec.ns(NS).type(TYPE)), List.of(fact(b)))));
+
+      assertThatThrownBy(() -> other.get(500, TimeUnit.MILLISECONDS))
+          .isInstanceOf(TimeoutException.class);
+      release.countDown();
+      other.get(10, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Compares conditional publishes on disjoint aggregates, holding the lock for a few millis each,
+   * between the global and the spec scoped lock.
+   */
+  @Test
+  void throughputOfDisjointConditionalPublishes() {
+    int threads = 8;
+    int iterations = 10;
+
+    Duration global =
+        measure(threads, iterations, new AdvisoryWriteLock(jdbcTemplate), "global");
+    Duration scoped =
+        measure(
+            threads,
+            iterations,
+            new SpecScopedAdvisoryWriteLock(jdbcTemplate, metrics),
+            "spec scoped");
+
+    // the global lock serializes all publishes, while the scoped ones run in parallel
+    assertThat(scoped).isLessThan(global.dividedBy(2));
+  }
+
+  @SneakyThrows
+  private Duration measure(int threads, int iterations, FactTableWriteLock l, String name) {
+    List<Callable<Void>> writers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      UUID aggId = UUID.randomUUID();
+      writers.add(
+          () -> {
+            for (int i = 0; i < iterations; i++) {
+              inTransaction(
+                  () -> {
+                    l.acquireExclusiveTXLock(List.of(spec(aggId)), List.of(fact(aggId)));
+                    // simulates checking the state and inserting
+                    jdbcTemplate.execute("SELECT pg_sleep(0.01)");
+                  });
+            }
+            return null;
+          });
+    }
+    long start = System.nanoTime();
+    for (Future<Void> f : es.invokeAll(writers)) {
+      f.get();
+    }
+    Duration d = Duration.ofNanos(System.nanoTime() - start);
+    log.info(
+        "{} lock: {} conditional publishes in {}ms ({}/s)",
+        name,
+        threads * iterations,
+        d.toMillis(),
+        threads * iterations * 1000L / Math.max(1, d.toMillis()));
+    return d;
+  }
+
+  private void inTransaction(Runnable r) {
+    new TransactionTemplate(txManager).executeWithoutResult(s -> r.run());
+  }
+
+  @SneakyThrows
+  private static void await(CountDownLatch latch) {
+    latch.await(30, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.lock;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.*;
+import org.factcast.core.Fact;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.store.internal.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class SpecScopedAdvisoryWriteLockTest {
+
+  static final UUID AGG_A = UUID.fromString("c0a1d0a4-4c1e-4d7c-9a3c-2d1b6f0e0a01");
+  static final UUID AGG_B = UUID.fromString("5b7e2f10-1f0a-4b9e-8c3d-7e6a9d2c0b02");
+
+  @Mock JdbcTemplate tpl;
+  @Mock PgMetrics metrics;
+  @Captor ArgumentCaptor<String> sql;
+
+  final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @InjectMocks SpecScopedAdvisoryWriteLock underTest;
+
+  static Fact fact(UUID aggId) {
+    return Fact.builder().ns("ns").type("type").aggId(aggId).buildWithoutPayload();
+  }
+
+  @Nested
+  class WhenLocking {
+    @BeforeEach
+    void setup() {
+      when(metrics.timer(any(), any(Tags.class))).thenReturn(registry.timer("lock"));
+    }
+
+    @Test
+    void locksFactKeysShared() {
+      underTest.acquireSharedTXLock(List.of(fact(AGG_A)));
+
+      verify(tpl).execute(sql.capture());
+      assertThat(sql.getValue())
+          .startsWith("SELECT pg_advisory_xact_lock_shared(" + AdvisoryLocks.PUBLISH.code() + ")")
+          .doesNotContain("pg_advisory_xact_lock(");
+      assertThat(sql.getValue().split("pg_advisory_xact_lock_shared\\(")).hasSize(1 + 1 + 3);
+    }
+
+    @Test
+    void locksSpecKeysExclusively() {
+      underTest.acquireExclusiveTXLock(
+          List.of(FactSpec.ns("ns").type("type").aggId(AGG_A)), List.of(fact(AGG_A)));
+
+      verify(tpl).execute(sql.capture());
+      // the aggregate key is locked exclusively, ns and ns/type keys of the fact shared
+      assertThat(sql.getValue().split("pg_advisory_xact_lock\\(")).hasSize(2);
+      assertThat(sql.getValue().split("pg_advisory_xact_lock_shared\\(")).hasSize(1 + 1 + 2);
+    }
+
+    @Test
+    void fallsBackToGlobalLockForWildcardNamespace() {
+      Counter counter = registry.counter("fallback");
+      when(metrics.counter(StoreMetrics.EVENT.PUBLISH_LOCK_GLOBAL_FALLBACK)).thenReturn(counter);
+
+      underTest.acquireExclusiveTXLock(List.of(FactSpec.ns("*")), List.of(fact(AGG_A)));
+
+      verify(tpl).execute("SELECT pg_advisory_xact_lock(" + AdvisoryLocks.PUBLISH.code() + ")");
+      assertThat(counter.count()).isOne();
+    }
+  }
+
+  @Nested
+  class WhenDerivingKeys {
+    @Test
+    void aggregateSpecOverlapsOnlyWithItsFacts() {
+      Set<Integer> specKeys =
+          SpecScopedAdvisoryWriteLock.keysOf(List.of(FactSpec.ns("ns").type("type").aggId(AGG_A)));
+
+      assertThat(specKeys).hasSize(1);
+      assertThat(SpecScopedAdvisoryWriteLock.keysOf(fact(AGG_A))).containsAll(specKeys);
+      assertThat(SpecScopedAdvisoryWriteLock.keysOf(fact(AGG_B)))
+          .doesNotContainAnyElementsOf(specKeys);
+    }
+
+    @Test
+    void typeSpecOverlapsWithAllFactsOfType() {
+      Set<Integer> specKeys =
+          SpecScopedAdvisoryWriteLock.keysOf(List.of(FactSpec.ns("ns").type("type")));
+
+      assertThat(SpecScopedAdvisoryWriteLock.keysOf(fact(AGG_A))).containsAll(specKeys);
+      assertThat(SpecScopedAdvisoryWriteLock.keysOf(fact(AGG_B))).containsAll(specKeys);
+      assertThat(
+              SpecScopedAdvisoryWriteLock.keysOf(
+                  Fact.builder().ns("ns").type("other").buildWithoutPayload()))
+          .doesNotContainAnyElementsOf(specKeys);
+    }
+
+    @Test
+    void namespaceSpecOverlapsWithFactsWithoutType() {
+      Set<Integer> specKeys = SpecScopedAdvisoryWriteLock.keysOf(List.of(FactSpec.ns("ns")));
+
+      assertThat(
+              SpecScopedAdvisoryWriteLock.keysOf(Fact.builder().ns("ns").buildWithoutPayload()))
+          .containsExactlyElementsOf(specKeys);
+      assertThat(SpecScopedAdvisoryWriteLock.keysOf(fact(AGG_A))).containsAll(specKeys);
+    }
+
+    @Test
+    void cannotScopeWildcardNamespace() {
+      assertThat(SpecScopedAdvisoryWriteLock.keysOf(List.of(FactSpec.ns("*")))).isNull();
+    }
+
+    @Test
+    void locksInOrderOfKeys() {
+      SortedMap<Integer, Boolean> keys = new TreeMap<>(Map.of(7, false, -3, true));
+
+      assertThat(SpecScopedAdvisoryWriteLock.lockSql(keys))
+          .isEqualTo(
+              "SELECT pg_advisory_xact_lock_shared(128), pg_advisory_xact_lock(129, -3),"
+                  + " pg_advisory_xact_lock_shared(129, 7)");
+    }
+  }
+}
@@ -52,6 +52,14 @@ void internalIsNotDistributed() {
       Assertions.assertThat(FactInsertionNotification.internal().distributed()).isFalse();
     }
 
+    @Test
+    void internalWithSerialRangeIsNotDistributed() {
+      FactInsertionNotification probe = FactInsertionNotification.internal("ns", "type", 3L, 5L);
+      Assertions.assertThat(probe.distributed()).isFalse();
+      Assertions.assertThat(probe.minFactSer()).isEqualTo(3L);
+      Assertions.assertThat(probe.maxFactSer()).isEqualTo(5L);
+    }
+
     @Test
     void distributedIfSerialKnown() {
       FactInsertionNotification probe = new FactInsertionNotification("ns", "type", 1L);
@@ -18,6 +18,7 @@
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import org.factcast.core.subscription.TransformationException;
@@ -29,6 +30,7 @@
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.testcontainers.shaded.org.checkerframework.checker.nullness.qual.NonNull;
@@ -128,6 +130,72 @@ void escalatesTransformationException() {
     }
   }
 
+  @Nested
+  class Prefetching {
+    @BeforeEach
+    void setUp() {
+      uut = new BufferedTransformingServerPipeline(parent, service, transformers, 5, 2);
+    }
+
+    @Test
+    void prefetchesChunksBeforeFlushing() {
+      List<PgFact> facts = new ArrayList<>();
+      List<TransformationRequest> requests = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        PgFact f = mock(PgFact.class);
+        facts.add(f);
+        requests.add(new TransformationRequest(f, Set.of(1)));
+      }
+      when(transformers.prepareTransformation(any()))
+          .thenReturn(
+              requests.get(0), requests.subList(1, 5).toArray(new TransformationRequest[0]));
+      when(service.transform(requests)).thenReturn(facts);
+
+      facts.forEach(f -> uut.process(Signal.of(f)));
+
+      InOrder inOrder = inOrder(service);
+      inOrder.verify(service).prefetch(requests.subList(0, 2));
+      inOrder.verify(service).prefetch(requests.subList(2, 4));
+      // the last one is flushed right away
+      inOrder.verify(service).transform(requests);
+      verifyNoMoreInteractions(service);
+    }
+
+    @Test
+    void startsOverAfterFlush() {
+      PgFact f = mock(PgFact.class);
+      TransformationRequest r1 = new TransformationRequest(f, Set.of(1));
+      TransformationRequest r2 = new TransformationRequest(f, Set.of(1));
+      TransformationRequest r3 = new TransformationRequest(f, Set.of(1));
+      when(transformers.prepareTransformation(any())).thenReturn(r1, r2, r3);
+      when(service.transform(List.of(r1))).thenReturn(List.of(f));
+
+      uut.process(Signal.of(f));
+      uut.process(Signal.flush());
+      uut.process(Signal.of(f));
+
+      verify(service, never()).prefetch(any());
+
+      uut.process(Signal.of(f));
+
+      verify(service).prefetch(List.of(r2, r3));
+    }
+
+    @Test
+    void doesNotPrefetchIfDisabled() {
+      uut = new BufferedTransformingServerPipeline(parent, service, transformers, 5, 0);
+      PgFact f = mock(PgFact.class);
+      when(transformers.prepareTransformation(any()))
+          .thenReturn(new TransformationRequest(f, Set.of(1)));
+
+      uut.process(Signal.of(f));
+      uut.process(Signal.of(f));
+      uut.process(Signal.of(f));
+
+      verify(service, never()).prefetch(any());
+    }
+  }
+
   @Nested
   class DirectMode {
 
@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.query;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.test.PostgresVersion;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.postgresql.Driver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+/**
+ * Compares querying the state of an aggregate via the GIN index on the header to querying it via
+ * the aggregate id lookup table, on a synthetic fact table of {@link #facts} rows with ten facts
+ * per aggregate.
+ *
+ * <p>Uses the postgres given by the environment variable pg_url (as the integration tests do), or
+ * starts a testcontainer otherwise. Populating 100M rows takes a while, and needs a couple of tens
+ * of GB of disk; pass {@code -p facts=1000000} for a quick run.
+ */
+@State(Scope.Benchmark)
+@SuppressWarnings("resource")
+public class AggIdLookupBenchmark {
+
+  private static final int FACTS_PER_AGGREGATE = 10;
+
+  @Param("100000000")
+  public long facts;
+
+  private PostgreSQLContainer postgres;
+  private JdbcTemplate jdbc;
+  private final Random rnd = new Random(42);
+
+  @Setup
+  public void setup() {
+    String url = System.getenv("pg_url");
+    if (url == null) {
+      postgres = new PostgreSQLContainer("postgres:" + PostgresVersion.get());
+      postgres.start();
+      jdbc =
+          new JdbcTemplate(
+              new SimpleDriverDataSource(
+                  new Driver(),
+                  postgres.getJdbcUrl(),
+                  postgres.getUsername(),
+                  postgres.getPassword()));
+    } else {
+      jdbc = new JdbcTemplate(new SimpleDriverDataSource(new Driver(), url));
+    }
+
+    jdbc.execute("DROP TABLE IF EXISTS fact, fact_aggid");
+    jdbc.execute("CREATE TABLE fact (ser bigint PRIMARY KEY, header jsonb NOT NULL)");
+    jdbc.update(
+        "INSERT INTO fact SELECT s, jsonb_build_object('ns', 'bench', 'type', 'type', "
+            + "'id', gen_random_uuid(), 'aggIds', jsonb_build_array("
+            + aggIdOf("s % ?")
+            + ")) FROM generate_series(1, ?) s",
+        facts / FACTS_PER_AGGREGATE,
+        facts);
+    jdbc.execute("CREATE INDEX idx_fact_header ON fact USING GIN(header jsonb_path_ops)");
+    jdbc.execute(
+        "CREATE TABLE fact_aggid (agg_id uuid NOT NULL, ser bigint NOT NULL, "
+            + "PRIMARY KEY (agg_id, ser))");
+    jdbc.execute(
+        "INSERT INTO fact_aggid SELECT a.agg_id::uuid, f.ser FROM fact f, "
+            + "jsonb_array_elements_text(f.header -> 'aggIds') a(agg_id)");
+    jdbc.execute("VACUUM ANALYZE fact");
+    jdbc.execute("VACUUM ANALYZE fact_aggid");
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (postgres != null) {
+      postgres.stop();
+    }
+  }
+
+  // the aggregate ids are derived from a number, so that picking a random one does not need a query
+  private static String aggIdOf(String number) {
+    return "('00000000-0000-0000-0000-' || lpad(to_hex(" + number + "), 12, '0'))";
+  }
+
+  private Collection<FactSpec> randomAggregate() {
+    long n = (long) (rnd.nextDouble() * (facts / FACTS_PER_AGGREGATE));
+    return List.of(FactSpec.ns("bench").type("type").aggId(new UUID(0, n)));
+  }
+
+  private void queryState(PgQueryBuilder b, Blackhole bh) {
+    bh.consume(
+        jdbc.query(
+            b.createStateSQL(),
+            b.createStatementSetter(new AtomicLong(0)),
+            rs -> rs.next() ? rs.getLong(1) : 0L));
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 2)
+  public void gin(Blackhole bh) {
+    queryState(new PgQueryBuilder(randomAggregate()), bh);
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 2)
+  public void lookup(Blackhole bh) {
+    queryState(new PgQueryBuilder(randomAggregate()).useAggIdLookup(), bh);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Main.main(args);
+  }
+}
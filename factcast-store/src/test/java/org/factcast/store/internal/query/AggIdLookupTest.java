@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import org.factcast.store.StoreConfigurationProperties;
+import org.factcast.store.internal.query.AggIdLookup.Backfill;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class AggIdLookupTest {
+
+  @Mock JdbcTemplate jdbc;
+  @Mock PlatformTransactionManager platformTransactionManager;
+  final StoreConfigurationProperties props = new StoreConfigurationProperties();
+
+  AggIdLookup underTest;
+
+  @BeforeEach
+  void setup() {
+    props.setAggIdLookupBackfillChunkSize(100);
+    underTest = new AggIdLookup(jdbc, platformTransactionManager, props);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void backfillState(List<Backfill> state) {
+    when(jdbc.query(startsWith("SELECT target_ser"), any(RowMapper.class))).thenReturn(state);
+  }
+
+  @Nested
+  class WhenBackfilling {
+
+    @Test
+    void addsFactsInChunksUpToTarget() {
+      backfillState(List.of(new Backfill(250, 0)));
+
+      underTest.backfill();
+
+      var inOrder = inOrder(jdbc);
+      inOrder.verify(jdbc).update(startsWith("INSERT INTO fact_aggid "), eq(0L), eq(100L));
+      inOrder.verify(jdbc).update(startsWith("UPDATE fact_aggid_backfill"), eq(100L));
+      inOrder.verify(jdbc).update(startsWith("INSERT INTO fact_aggid "), eq(100L), eq(200L));
+      inOrder.verify(jdbc).update(startsWith("UPDATE fact_aggid_backfill"), eq(200L));
+      inOrder.verify(jdbc).update(startsWith("INSERT INTO fact_aggid "), eq(200L), eq(250L));
+      inOrder.verify(jdbc).update(startsWith("UPDATE fact_aggid_backfill"), eq(250L));
+      assertThat(underTest.isComplete()).isTrue();
+    }
+
+    @Test
+    void continuesWhereItLeftOff() {
+      backfillState(List.of(new Backfill(250, 200)));
+
+      underTest.backfill();
+
+      verify(jdbc).update(startsWith("INSERT INTO fact_aggid "), eq(200L), eq(250L));
+      verify(jdbc, never()).update(startsWith("INSERT INTO fact_aggid "), eq(0L), anyLong());
+      assertThat(underTest.isComplete()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createsTriggersBeforeFirstBackfill() {
+      when(jdbc.query(startsWith("SELECT target_ser"), any(RowMapper.class)))
+          .thenReturn(List.of(), List.of(new Backfill(0, 0)));
+
+      underTest.backfill();
+
+      var inOrder = inOrder(jdbc);
+      inOrder.verify(jdbc).execute(contains("CREATE TRIGGER tr_fact_aggid_insert"));
+      inOrder.verify(jdbc).update(startsWith("INSERT INTO fact_aggid_backfill"));
+      assertThat(underTest.isComplete()).isTrue();
+    }
+
+    @Test
+    void skipsInReadOnlyMode() {
+      props.setReadOnlyModeEnabled(true);
+
+      underTest.backfill();
+
+      verifyNoInteractions(jdbc);
+      assertThat(underTest.isComplete()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void skipsOnceComplete() {
+      backfillState(List.of(new Backfill(250, 250)));
+      underTest.backfill();
+
+      underTest.backfill();
+
+      verify(jdbc).query(anyString(), any(RowMapper.class));
+      verifyNoMoreInteractions(jdbc);
+    }
+  }
+
+  @Nested
+  class WhenRefreshing {
+
+    @Test
+    void picksUpBackfillCompletedElsewhere() {
+      backfillState(List.of(new Backfill(250, 250)));
+
+      underTest.refresh();
+
+      assertThat(underTest.isComplete()).isTrue();
+    }
+
+    @Test
+    void staysIncompleteWhileBackfilling() {
+      backfillState(List.of(new Backfill(250, 100)));
+
+      underTest.refresh();
+
+      assertThat(underTest.isComplete()).isFalse();
+    }
+
+    @Test
+    void staysIncompleteBeforeBackfillStarted() {
+      backfillState(List.of());
+
+      underTest.refresh();
+
+      assertThat(underTest.isComplete()).isFalse();
+    }
+  }
+}
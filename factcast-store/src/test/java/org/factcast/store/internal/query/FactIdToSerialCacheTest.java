@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2017-2020 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.query;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+class FactIdToSerialCacheTest {
+
+  @Test
+  void returnsZeroIfMissing() {
+    FactIdToSerialCache uut = new FactIdToSerialCache(16);
+
+    assertThat(uut.get(UUID.randomUUID())).isZero();
+    assertThat(uut.missCount()).isOne();
+  }
+
+  @Test
+  void returnsPut() {
+    FactIdToSerialCache uut = new FactIdToSerialCache(16);
+    UUID id = UUID.randomUUID();
+
+    uut.put(id, 42);
+
+    assertThat(uut.get(id)).isEqualTo(42);
+    assertThat(uut.hitCount()).isOne();
+    assertThat(uut.size()).isOne();
+  }
+
+  @Test
+  void updatesExisting() {
+    FactIdToSerialCache uut = new FactIdToSerialCache(16);
+    UUID id = UUID.randomUUID();
+
+    uut.put(id, 42);
+    uut.put(id, 43);
+
+    assertThat(uut.get(id)).isEqualTo(43);
+    assertThat(uut.size()).isOne();
+  }
+
+  @Test
+  void ignoresInvalidSerials() {
+    FactIdToSerialCache uut = new FactIdToSerialCache(16);
+    UUID id = UUID.randomUUID();
+
+    uut.put(id, 0);
+
+    assertThat(uut.get(id)).isZero();
+    assertThat(uut.size()).isZero();
+  }
+
+  @Test
+  void evictsOldestOfBucket() {
+    // a single bucket
+    FactIdToSerialCache uut = new FactIdToSerialCache(FactIdToSerialCache.WAYS);
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 1; i <= FactIdToSerialCache.WAYS + 1; i++) {
+      UUID id = UUID.randomUUID();
+      ids.add(id);
+      uut.put(id, i);
+    }
+
+    assertThat(uut.get(ids.get(0))).isZero();
+    for (int i = 1; i < ids.size(); i++) {
+      assertThat(uut.get(ids.get(i))).isEqualTo(i + 1);
+    }
+    assertThat(uut.size()).isEqualTo(FactIdToSerialCache.WAYS);
+  }
+
+  @Test
+  void roundsCapacityUpToBuckets() {
+    assertThat(new FactIdToSerialCache(1).capacity()).isEqualTo(FactIdToSerialCache.WAYS);
+    assertThat(new FactIdToSerialCache(9).capacity()).isEqualTo(4 * FactIdToSerialCache.WAYS);
+    assertThat(new FactIdToSerialCache(1 << 18).capacity()).isEqualTo(1 << 18);
+  }
+
+  @Test
+  void rejectsNonPositiveCapacity() {
+    assertThatThrownBy(() -> new FactIdToSerialCache(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void keepsMostWhenHalfFull() {
+    FactIdToSerialCache uut = new FactIdToSerialCache(1024);
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 1; i <= 512; i++) {
+      UUID id = UUID.randomUUID();
+      ids.add(id);
+      uut.put(id, i);
+    }
+
+    long found = ids.stream().filter(id -> uut.get(id) > 0).count();
+    // collisions evict some, but the hash spreads well enough to keep the vast majority
+    assertThat(found).isGreaterThan(450);
+  }
+}
@@ -19,18 +19,21 @@
 import static org.mockito.Mockito.*;
 
 import io.micrometer.core.instrument.MeterRegistry;
-import java.util.UUID;
-import java.util.function.Supplier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.concurrent.*;
+import lombok.SneakyThrows;
+import org.factcast.store.internal.PgConstants;
 import org.factcast.store.internal.PgMetrics;
 import org.factcast.store.internal.StoreMetrics;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
 @ExtendWith(MockitoExtension.class)
 public class PgFactIdToSerialMapperTest {
@@ -39,11 +42,53 @@ public class PgFactIdToSerialMapperTest {
   @Mock PgMetrics metrics;
   @Mock MeterRegistry registry;
 
-  @Mock SqlRowSet rs;
-  @InjectMocks PgFactIdToSerialMapper uut;
+  PgFactIdToSerialMapper uut;
 
   @BeforeEach
-  void setup() {}
+  void setup() {
+    uut = new PgFactIdToSerialMapper(jdbc, metrics, registry, 64);
+  }
+
+  void runTimed() {
+    doAnswer(
+            i -> {
+              i.getArgument(1, Runnable.class).run();
+              return null;
+            })
+        .when(metrics)
+        .time(any(StoreMetrics.OP.class), any(Runnable.class));
+  }
+
+  @SneakyThrows
+  static void returnRows(RowCallbackHandler rch, Map<UUID, Long> rows) {
+    for (Map.Entry<UUID, Long> e : rows.entrySet()) {
+      ResultSet rs = mock(ResultSet.class);
+      when(rs.getString(PgConstants.ALIAS_ID)).thenReturn(e.getKey().toString());
+      when(rs.getLong(PgConstants.COLUMN_SER)).thenReturn(e.getValue());
+      rch.processRow(rs);
+    }
+  }
+
+  void whenQueried(Map<UUID, Long> rows) {
+    doAnswer(
+            i -> {
+              returnRows(i.getArgument(2), rows);
+              return null;
+            })
+        .when(jdbc)
+        .query(
+            eq(PgConstants.SELECT_SER_BY_IDS),
+            any(PreparedStatementSetter.class),
+            any(RowCallbackHandler.class));
+  }
+
+  void verifyQueried(int times) {
+    verify(jdbc, times(times))
+        .query(
+            eq(PgConstants.SELECT_SER_BY_IDS),
+            any(PreparedStatementSetter.class),
+            any(RowCallbackHandler.class));
+  }
 
   @Test
   public void acceptsNullParam() {
@@ -53,24 +98,157 @@ public void acceptsNullParam() {
 
   @Test
   void happyPath() {
-    doAnswer(i -> ((Supplier) i.getArgument(1)).get())
-        .when(metrics)
-        .time(any(StoreMetrics.OP.class), any(Supplier.class));
+    runTimed();
+    UUID id = UUID.randomUUID();
+    whenQueried(Map.of(id, 42L));
 
-    when(jdbc.queryForObject(anyString(), eq(Long.class), any())).thenReturn(42L);
-    var ret = uut.retrieve(UUID.randomUUID());
-    assertThat(ret).isEqualTo(42L);
+    assertThat(uut.retrieve(id)).isEqualTo(42L);
+    // cached
+    assertThat(uut.retrieve(id)).isEqualTo(42L);
+    verifyQueried(1);
   }
 
   @Test
   void empty() {
-    doAnswer(i -> ((Supplier) i.getArgument(1)).get())
-        .when(metrics)
-        .time(any(StoreMetrics.OP.class), any(Supplier.class));
+    runTimed();
+    whenQueried(Map.of());
+    UUID id = UUID.randomUUID();
+
+    assertThat(uut.retrieve(id)).isEqualTo(0);
+    // not cached
+    assertThat(uut.retrieve(id)).isEqualTo(0);
+    verifyQueried(2);
+  }
+
+  @Test
+  void returnsRememberedWithoutQuery() {
+    UUID id = UUID.randomUUID();
+    uut.remember(id, 7);
+
+    assertThat(uut.retrieve(id)).isEqualTo(7);
+    verifyNoInteractions(jdbc, metrics);
+  }
+
+  @Test
+  void propagatesFailure() {
+    runTimed();
+    IllegalStateException e = new IllegalStateException();
+    doThrow(e)
+        .when(jdbc)
+        .query(
+            eq(PgConstants.SELECT_SER_BY_IDS),
+            any(PreparedStatementSetter.class),
+            any(RowCallbackHandler.class));
+
+    assertThatThrownBy(() -> uut.retrieve(UUID.randomUUID())).isSameAs(e);
+    assertThat(uut.pendingLookups()).isZero();
+  }
+
+  @Nested
+  class WhenRetrievingAll {
+    @Test
+    void queriesOnlyMissing() {
+      runTimed();
+      UUID cached = UUID.randomUUID();
+      UUID missing = UUID.randomUUID();
+      UUID unknown = UUID.randomUUID();
+      uut.remember(cached, 1);
+      whenQueried(Map.of(missing, 2L));
+
+      assertThat(uut.retrieveAll(Arrays.asList(cached, missing, unknown, null)))
+          .containsOnly(entry(cached, 1L), entry(missing, 2L));
+      verifyQueried(1);
+      assertThat(uut.retrieve(missing)).isEqualTo(2L);
+    }
+
+    @Test
+    void doesNotQueryIfAllCached() {
+      UUID cached = UUID.randomUUID();
+      uut.remember(cached, 1);
+
+      assertThat(uut.retrieveAll(List.of(cached))).containsOnly(entry(cached, 1L));
+      verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void partitionsLargeBatches() {
+      runTimed();
+      whenQueried(Map.of());
+      List<UUID> ids = new ArrayList<>();
+      for (int i = 0; i < 2500; i++) {
+        ids.add(UUID.randomUUID());
+      }
+
+      assertThat(uut.retrieveAll(ids)).isEmpty();
+      verifyQueried(3);
+    }
+  }
+
+  @Nested
+  class WhenLookingUpConcurrently {
+    @Test
+    @SneakyThrows
+    void coalescesLookupsWhileQuerying() {
+      runTimed();
+      UUID first = UUID.randomUUID();
+      UUID second = UUID.randomUUID();
+      UUID third = UUID.randomUUID();
+      CountDownLatch querying = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      doAnswer(
+              i -> {
+                querying.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                returnRows(i.getArgument(2), Map.of(first, 1L, second, 2L, third, 3L));
+                return null;
+              })
+          .when(jdbc)
+          .query(
+              eq(PgConstants.SELECT_SER_BY_IDS),
+              any(PreparedStatementSetter.class),
+              any(RowCallbackHandler.class));
+
+      ExecutorService es = Executors.newFixedThreadPool(3);
+      try {
+        Future<Long> f1 = es.submit(() -> uut.retrieve(first));
+        assertThat(querying.await(10, TimeUnit.SECONDS)).isTrue();
+        Future<Long> f2 = es.submit(() -> uut.retrieve(second));
+        Future<Long> f3 = es.submit(() -> uut.retrieve(third));
+        while (uut.pendingLookups() < 2) {
+          Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertThat(f1.get(10, TimeUnit.SECONDS)).isEqualTo(1L);
+        assertThat(f2.get(10, TimeUnit.SECONDS)).isEqualTo(2L);
+        assertThat(f3.get(10, TimeUnit.SECONDS)).isEqualTo(3L);
+      } finally {
+        es.shutdownNow();
+      }
+      // one for the first, one for the two queued meanwhile
+      verifyQueried(2);
+    }
+  }
+
+  @Nested
+  class WhenRegisteringMetrics {
+    @Test
+    @SneakyThrows
+    void reportsHitsMissesAndSize() {
+      SimpleMeterRegistry meters = new SimpleMeterRegistry();
+      uut = new PgFactIdToSerialMapper(jdbc, metrics, meters, 64);
+      uut.afterPropertiesSet();
+      UUID id = UUID.randomUUID();
+      uut.remember(id, 1);
+
+      uut.retrieveAll(List.of(id));
 
-    when(jdbc.queryForObject(anyString(), eq(Long.class), any()))
-        .thenThrow(EmptyResultDataAccessException.class);
-    var ret = uut.retrieve(UUID.randomUUID());
-    assertThat(ret).isEqualTo(0);
+      assertThat(meters.get("cache.gets").tag("result", "hit").functionCounter().count())
+          .isEqualTo(1);
+      assertThat(meters.get("cache.gets").tag("result", "miss").functionCounter().count())
+          .isZero();
+      assertThat(meters.get("cache.size").tag("cache", "serialLookupCache").gauge().value())
+          .isEqualTo(1);
+    }
   }
 }
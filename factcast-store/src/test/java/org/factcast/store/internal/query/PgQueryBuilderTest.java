@@ -107,6 +107,27 @@ void setsCurrentStatement() {
 
       verify(holder).statement(ps);
     }
+
+    @SneakyThrows
+    @Test
+    void setsPageBounds() {
+      var underTest =
+          new PgQueryBuilder(Lists.newArrayList(FactSpec.ns("ns1").type("t1")), holder);
+      var setter = underTest.createPageStatementSetter(10L, 20L, 50);
+      var ps = mock(PreparedStatement.class);
+
+      setter.setValues(ps);
+
+      int index = 0;
+      verify(ps).setString(++index, "{\"ns\": \"ns1\"}");
+      verify(ps).setString(++index, "{\"type\": \"t1\"}");
+      // ser>? AND ser<=? LIMIT ?
+      verify(ps).setLong(++index, 10L);
+      verify(ps).setLong(++index, 20L);
+      verify(ps).setInt(++index, 50);
+      verifyNoMoreInteractions(ps);
+      verifyNoInteractions(holder);
+    }
   }
 
   @Nested
@@ -375,6 +396,148 @@ void happyPath() {
     }
   }
 
+  @Nested
+  class WhenCreatingRangeSQL {
+
+    @SneakyThrows
+    @Test
+    void ascendingWithoutLimit() {
+      var underTest = new PgQueryBuilder(Lists.newArrayList(FactSpec.ns("ns1")));
+      var sql = underTest.createRangeSQL();
+      var expected =
+          """
+SELECT ser, header, payload,
+  header->>'id' AS id, header->>'aggIds' AS aggIds,
+  header->>'ns' AS ns, header->>'type' AS type,
+  header->>'version' AS version
+  FROM fact
+  WHERE (
+  (true AND header @> ?::jsonb))
+  AND ser>? AND ser<=?
+  ORDER BY ser ASC
+""";
+
+      assertThat(normalized(sql)).isEqualTo(normalized(expected));
+    }
+
+    @SneakyThrows
+    @Test
+    void setsRangeBounds() {
+      CurrentStatementHolder holder = mock(CurrentStatementHolder.class);
+      var underTest = new PgQueryBuilder(Lists.newArrayList(FactSpec.ns("ns1")), holder);
+      var after = new AtomicLong(10);
+      var setter = underTest.createRangeStatementSetter(after, 20L);
+      var ps = mock(PreparedStatement.class);
+      after.set(12);
+
+      setter.setValues(ps);
+
+      verify(ps).setString(1, "{\"ns\": \"ns1\"}");
+      verify(ps).setLong(2, 12L);
+      verify(ps).setLong(3, 20L);
+      verifyNoMoreInteractions(ps);
+      verify(holder).statement(ps);
+    }
+  }
+
+  @Nested
+  class WhenCreatingPageSQL {
+
+    @SneakyThrows
+    @Test
+    void ascending() {
+      var underTest = new PgQueryBuilder(Lists.newArrayList(FactSpec.ns("ns1").type("t1")));
+      var sql = underTest.createPageSQL(false);
+      var expected =
+          """
+SELECT ser, header, payload,
+  header->>'id' AS id, header->>'aggIds' AS aggIds,
+  header->>'ns' AS ns, header->>'type' AS type,
+  header->>'version' AS version
+  FROM fact
+  WHERE (
+  (true AND header @> ?::jsonb AND header @> ?::jsonb))
+  AND ser>? AND ser<=?
+  ORDER BY ser ASC LIMIT ?
+""";
+
+      assertThat(normalized(sql)).isEqualTo(normalized(expected));
+    }
+
+    @SneakyThrows
+    @Test
+    void descending() {
+      var underTest = new PgQueryBuilder(Lists.newArrayList(FactSpec.ns("ns1")));
+      var sql = underTest.createPageSQL(true);
+      var expected =
+          """
+SELECT ser, header, payload,
+  header->>'id' AS id, header->>'aggIds' AS aggIds,
+  header->>'ns' AS ns, header->>'type' AS type,
+  header->>'version' AS version
+  FROM fact
+  WHERE (
+  (true AND header @> ?::jsonb))
+  AND ser>? AND ser<=?
+  ORDER BY ser DESC LIMIT ?
+""";
+
+      assertThat(normalized(sql)).isEqualTo(normalized(expected));
+    }
+  }
+
+  @Nested
+  class WhenUsingAggIdLookup {
+
+    @SneakyThrows
+    @Test
+    void looksUpEveryAggId() {
+      var spec1 = FactSpec.ns("ns1").type("t1").aggId(new UUID(0, 1), new UUID(0, 2));
+      var spec2 = FactSpec.ns("ns2");
+      var underTest = new PgQueryBuilder(Lists.newArrayList(spec1, spec2)).useAggIdLookup();
+      var sql = underTest.createStateSQL();
+      var expected =
+          """
+SELECT ser FROM fact
+WHERE (
+(true AND header @> ?::jsonb AND header @> ?::jsonb
+  AND ser IN (SELECT ser FROM fact_aggid WHERE agg_id=?)
+  AND ser IN (SELECT ser FROM fact_aggid WHERE agg_id=?)) OR
+(true AND header @> ?::jsonb))
+AND ser > ? ORDER BY ser DESC LIMIT 1
+""";
+
+      assertThat(normalized(sql)).isEqualTo(normalized(expected));
+    }
+
+    @SneakyThrows
+    @Test
+    void setsAggIdsAsUuids() {
+      var spec = FactSpec.ns("ns1").aggId(new UUID(0, 1), new UUID(0, 2));
+      var underTest = new PgQueryBuilder(Lists.newArrayList(spec)).useAggIdLookup();
+      var setter = underTest.createStatementSetter(new AtomicLong(42));
+      var ps = mock(PreparedStatement.class);
+
+      setter.setValues(ps);
+
+      int index = 0;
+      verify(ps).setString(++index, "{\"ns\": \"ns1\"}");
+      verify(ps).setObject(++index, new UUID(0, 1));
+      verify(ps).setObject(++index, new UUID(0, 2));
+      verify(ps).setLong(++index, 42);
+      verifyNoMoreInteractions(ps);
+    }
+
+    @SneakyThrows
+    @Test
+    void keepsSpecsWithoutAggIdsUnchanged() {
+      var specs = Lists.newArrayList(FactSpec.ns("ns1").type("t1"));
+
+      assertThat(new PgQueryBuilder(specs).useAggIdLookup().createSQL())
+          .isEqualTo(new PgQueryBuilder(specs).createSQL());
+    }
+  }
+
   @SneakyThrows
   private String normalized(String query) {
     return CCJSqlParserUtil.parse(query).toString();
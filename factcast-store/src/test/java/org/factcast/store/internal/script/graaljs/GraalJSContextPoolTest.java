@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.script.graaljs;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+
+class GraalJSContextPoolTest {
+
+  static final String SCRIPT = "function (s) { return s + '!' }";
+
+  interface StringFunction {
+    String run(String s);
+  }
+
+  final AtomicInteger created = new AtomicInteger();
+  final GraalJSContextPool<StringFunction> uut =
+      new GraalJSContextPool<>(
+          StringFunction.class, 2, Duration.ofMinutes(1), created::incrementAndGet);
+
+  @AfterEach
+  void tearDown() {
+    uut.close();
+  }
+
+  @Test
+  void appliesFunction() {
+    assertThat(uut.apply(SCRIPT, f -> f.run("foo"))).isEqualTo("foo!");
+    assertThat(uut.inUse()).isZero();
+  }
+
+  @Test
+  void reusesContext() {
+    uut.apply(SCRIPT, f -> f.run("1"));
+    uut.apply(SCRIPT, f -> f.run("2"));
+
+    assertThat(created).hasValue(1);
+    assertThat(uut.idle(SCRIPT)).isOne();
+  }
+
+  @Test
+  void keepsContextState() {
+    String counting = "var i = 0; (function (s) { return s + (++i) })";
+
+    uut.apply(counting, f -> f.run("a"));
+
+    // same context, so that the function was not evaluated again
+    assertThat(uut.apply(counting, f -> f.run("a"))).isEqualTo("a2");
+  }
+
+  @Test
+  void limitsIdleContexts() throws Exception {
+    int threads = 8;
+    CyclicBarrier barrier = new CyclicBarrier(threads);
+    ExecutorService es = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(
+            es.submit(
+                () ->
+                    uut.apply(
+                        SCRIPT,
+                        f -> {
+                          try {
+                            barrier.await();
+                          } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                          }
+                          return f.run("x");
+                        })));
+      }
+      for (Future<String> f : results) {
+        assertThat(f.get()).isEqualTo("x!");
+      }
+    } finally {
+      es.shutdown();
+    }
+
+    // all borrowed at the same time
+    assertThat(created).hasValue(threads);
+    assertThat(uut.idle(SCRIPT)).isEqualTo(2);
+  }
+
+  @Test
+  void discardsContextOnFailure() {
+    assertThatThrownBy(
+            () ->
+                uut.apply(
+                    SCRIPT,
+                    f -> {
+                      throw new IllegalStateException();
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(uut.idle(SCRIPT)).isZero();
+    assertThat(uut.inUse()).isZero();
+  }
+
+  @Test
+  void failsOnBrokenScript() {
+    assertThatThrownBy(() -> uut.apply("br0ken code", f -> f.run("x")))
+        .isInstanceOf(RuntimeException.class);
+  }
+
+  @Test
+  void closesIdleContexts() {
+    uut.apply(SCRIPT, f -> f.run("x"));
+
+    uut.close();
+
+    assertThat(uut.idle(SCRIPT)).isZero();
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.internal.tail;
+
+import static org.factcast.store.internal.PgConstants.*;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import org.factcast.store.StoreConfigurationProperties;
+import org.factcast.store.internal.PgMetrics;
+import org.factcast.store.internal.StoreMetrics;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class PGFactPartitionManagerTest {
+  @Mock private JdbcTemplate jdbc;
+  @Mock private StoreConfigurationProperties props;
+  @Mock private PgMetrics pgMetrics;
+  @Mock private DistributionSummary partitions;
+
+  @InjectMocks private PGFactPartitionManager underTest;
+
+  @Nested
+  class WhenCreatingPartitionsAhead {
+    @Test
+    void skipsIfFactTableIsNotPartitioned() {
+      when(jdbc.queryForObject(FACT_TABLE_IS_PARTITIONED, Boolean.class)).thenReturn(false);
+
+      underTest.createPartitionsAhead();
+
+      verify(jdbc).queryForObject(FACT_TABLE_IS_PARTITIONED, Boolean.class);
+      verifyNoMoreInteractions(jdbc);
+      verifyNoInteractions(pgMetrics);
+    }
+
+    @Test
+    void createsPartitionsAndReportsCount() {
+      when(jdbc.queryForObject(FACT_TABLE_IS_PARTITIONED, Boolean.class)).thenReturn(true);
+      when(props.getFactPartitionSize()).thenReturn(1000L);
+      when(props.getFactPartitionsAhead()).thenReturn(3);
+      when(jdbc.queryForObject(CREATE_FACT_PARTITIONS_AHEAD, Integer.class, 1000L, 3))
+          .thenReturn(2);
+      when(jdbc.queryForObject(COUNT_FACT_PARTITIONS, Long.class)).thenReturn(5L);
+      when(pgMetrics.distributionSummary(StoreMetrics.VALUE.FACT_PARTITIONS))
+          .thenReturn(partitions);
+
+      underTest.createPartitionsAhead();
+
+      verify(jdbc).queryForObject(CREATE_FACT_PARTITIONS_AHEAD, Integer.class, 1000L, 3);
+      verify(partitions).record(5L);
+    }
+  }
+}
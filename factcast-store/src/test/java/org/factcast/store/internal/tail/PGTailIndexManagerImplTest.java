@@ -66,6 +66,20 @@ void returnsIfTailCreationIsDisabled() {
       verifyNoInteractions(pgMetrics);
     }
 
+    @Test
+    void returnsIfFactTableIsPartitioned() {
+      var uut = spy(underTest);
+      doReturn(jdbc).when(uut).buildTemplate();
+      when(props.isTailIndexingEnabled()).thenReturn(true);
+      when(jdbc.queryForObject(FACT_TABLE_IS_PARTITIONED, Boolean.class)).thenReturn(true);
+
+      uut.triggerTailCreation();
+
+      verify(uut, never()).createNewTail(any());
+      verify(uut, never()).isAnyIndexOperationInProgress(any());
+      verify(uut, never()).reportMetrics(any(), anyBoolean());
+    }
+
     @Test
     void createsTailIfIndexesEmpty() {
       var uut = spy(underTest);
@@ -83,6 +83,9 @@ public AtomicLong gauge(GAUGE gauge, AtomicLong value) {
     return value;
   }
 
+  @Override
+  public <T> void gauge(GAUGE gauge, T obj, ToDoubleFunction<T> value) {}
+
   @Override
   public ExecutorService monitor(ExecutorService executor, String name) {
     return executor;
@@ -26,6 +26,7 @@
 import lombok.SneakyThrows;
 import nl.altindag.log.LogCaptor;
 import org.factcast.core.Fact;
+import org.factcast.core.subscription.MissingTransformationInformationException;
 import org.factcast.core.subscription.TransformationException;
 import org.factcast.store.StoreConfigurationProperties;
 import org.factcast.store.internal.PgFact;
@@ -105,6 +106,42 @@ void returnsCached() {
       Fact transformed = underTest.transform(req);
       assertThat(transformed).isSameAs(fact2);
     }
+
+    @Test
+    void prefetchesCacheKeys() {
+      when(fact.version()).thenReturn(4);
+      when(fact.ns()).thenReturn("ns");
+      when(fact.type()).thenReturn("type");
+      when(fact.id()).thenReturn(UUID.randomUUID());
+
+      TransformationKey key = TransformationKey.from(fact);
+
+      when(req.targetVersions()).thenReturn(Collections.singleton(5));
+      when(req.toTransform()).thenReturn(fact);
+
+      when(chain.toVersion()).thenReturn(5);
+      when(chain.versionPath()).thenReturn(List.of(4, 5));
+      when(chains.get(eq(key), eq(4), eq(Collections.singleton(5)))).thenReturn(chain);
+
+      underTest.prefetch(List.of(req));
+
+      verify(cache).prefetch(List.of(TransformationCache.Key.of(fact.id(), 5, List.of(4, 5))));
+    }
+
+    @Test
+    void skipsPrefetchOnMissingChain() {
+      when(fact.version()).thenReturn(4);
+      when(fact.ns()).thenReturn("ns");
+      when(fact.type()).thenReturn("type");
+      when(req.targetVersions()).thenReturn(Collections.singleton(5));
+      when(req.toTransform()).thenReturn(fact);
+      when(chains.get(any(), anyInt(), any()))
+          .thenThrow(new MissingTransformationInformationException("nope"));
+
+      underTest.prefetch(List.of(req));
+
+      verifyNoInteractions(cache);
+    }
   }
 
   @Nested
@@ -15,6 +15,17 @@
  */
 package org.factcast.store.registry.transformation.cache;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.factcast.core.Fact;
+import org.factcast.store.internal.PgFact;
+import org.factcast.store.registry.metrics.RegistryMetrics;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -24,4 +35,102 @@ class InMemTransformationCacheTest extends AbstractTransformationCacheTest {
   protected TransformationCache createUUT() {
     return new InMemTransformationCache(registryMetrics);
   }
+
+  static PgFact fact(String type, int payloadLength) {
+    return PgFact.from(
+        Fact.builder()
+            .ns("ns")
+            .type(type)
+            .id(UUID.randomUUID())
+            .version(1)
+            .build("{\"x\":\"" + "x".repeat(payloadLength) + "\"}"));
+  }
+
+  static TransformationCache.Key keyOf(Fact f) {
+    return TransformationCache.Key.of(f.id(), 1, List.of(1, 2));
+  }
+
+  @Test
+  void weighsHeaderAndPayload() {
+    PgFact f = fact("type", 10);
+
+    assertThat(InMemTransformationCache.weightOf(f))
+        .isEqualTo(f.jsonHeader().length() + f.jsonPayload().length());
+  }
+
+  @Test
+  void evictsByWeight() {
+    InMemTransformationCache small = new InMemTransformationCache(2000, registryMetrics);
+    int weight = InMemTransformationCache.weightOf(fact("type", 100));
+
+    for (int i = 0; i < 100; i++) {
+      PgFact f = fact("type", 100);
+      small.put(keyOf(f), f);
+    }
+
+    assertThat(small.weightedSize()).isLessThanOrEqualTo(2000);
+    // evicted keys are no longer indexed
+    assertThat(small.indexedKeys("ns", "type")).isLessThanOrEqualTo(2000 / weight);
+    verify(registryMetrics, atLeastOnce())
+        .count(RegistryMetrics.EVENT.TRANSFORMATION_CACHE_EVICTION);
+  }
+
+  @Test
+  void indexesExactlyTheCachedKeysWhenPuttingConcurrently() throws Exception {
+    InMemTransformationCache small = new InMemTransformationCache(2000, registryMetrics);
+    ExecutorService es = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> puts = new ArrayList<>();
+      for (int i = 0; i < 2000; i++) {
+        puts.add(
+            es.submit(
+                () -> {
+                  PgFact f = fact("type", 100);
+                  small.put(keyOf(f), f);
+                }));
+      }
+      for (Future<?> put : puts) {
+        put.get();
+      }
+    } finally {
+      es.shutdown();
+    }
+
+    assertThat(small.indexedKeys("ns", "type")).isEqualTo(small.size());
+  }
+
+  @Test
+  void invalidatesOnlyMatchingNsAndType() {
+    InMemTransformationCache cache = (InMemTransformationCache) uut;
+    PgFact a = fact("a", 1);
+    PgFact b = fact("b", 1);
+    cache.put(keyOf(a), a);
+    cache.put(keyOf(b), b);
+
+    cache.invalidateTransformationFor("ns", "a");
+
+    assertThat(cache.find(keyOf(a))).isEmpty();
+    assertThat(cache.find(keyOf(b))).contains(b);
+    assertThat(cache.indexedKeys("ns", "a")).isZero();
+    assertThat(cache.indexedKeys("ns", "b")).isOne();
+  }
+
+  @Test
+  void unindexesWhenInvalidatingFactId() {
+    InMemTransformationCache cache = (InMemTransformationCache) uut;
+    PgFact a = fact("a", 1);
+    cache.put(keyOf(a), a);
+    cache.put(TransformationCache.Key.of(a.id(), 2, List.of(1, 2)), a);
+
+    cache.invalidateTransformationFor(a.id());
+
+    assertThat(cache.find(keyOf(a))).isEmpty();
+    assertThat(cache.indexedKeys("ns", "a")).isZero();
+  }
+
+  @Test
+  void registersHitRatio() {
+    verify(registryMetrics)
+        .gauge(eq(RegistryMetrics.GAUGE.TRANSFORMATION_CACHE_HIT_RATIO), any(), any());
+  }
 }
@@ -74,21 +74,181 @@ void createsStatement() throws SQLException {
               TransformationCache.Key.of(id1, 1, List.of(1)),
               TransformationCache.Key.of(id2, 2, List.of(2)));
       when(con.prepareStatement(anyString())).thenReturn(ps);
-      when(con.createArrayOf(eq("int4"), any())).thenReturn(sqlArray);
+      when(con.createArrayOf(any(), any())).thenReturn(sqlArray);
 
       PreparedStatementCreator pc = PgTransformationCache.selectByKeys(keys);
       PreparedStatement result = pc.createPreparedStatement(con);
 
       assertThat(result).isSameAs(ps);
-      verify(con)
-          .prepareStatement(
-              "SELECT header, payload FROM transformation_cache WHERE (fact_id, version, path) IN ((?, ?, ?::int[]), (?, ?, ?::int[]))");
-      verify(ps).setObject(1, id1);
-      verify(ps).setInt(2, 1);
+      verify(con).prepareStatement(PgTransformationCache.SELECT_BY_KEYS);
+      verify(con).createArrayOf("uuid", new UUID[] {id1, id2});
+      verify(con).createArrayOf("int4", new Integer[] {1, 2});
+      verify(con).createArrayOf("text", new String[] {"{1}", "{2}"});
+      verify(ps).setArray(1, sqlArray);
+      verify(ps).setArray(2, sqlArray);
       verify(ps).setArray(3, sqlArray);
-      verify(ps).setObject(4, id2);
-      verify(ps).setInt(5, 2);
-      verify(ps).setArray(6, sqlArray);
+    }
+
+    @Test
+    void usesSameStatementRegardlessOfNumberOfKeys() throws SQLException {
+      when(con.prepareStatement(anyString())).thenReturn(ps);
+
+      PgTransformationCache.selectByKeys(
+              List.of(TransformationCache.Key.of(UUID.randomUUID(), 1, List.of(1))))
+          .createPreparedStatement(con);
+      PgTransformationCache.selectByKeys(
+              List.of(
+                  TransformationCache.Key.of(UUID.randomUUID(), 1, List.of(1)),
+                  TransformationCache.Key.of(UUID.randomUUID(), 2, List.of(1, 2))))
+          .createPreparedStatement(con);
+
+      verify(con, times(2)).prepareStatement(PgTransformationCache.SELECT_BY_KEYS);
+    }
+
+    @Test
+    void rendersPathAsArrayLiteral() {
+      assertThat(PgTransformationCache.toArrayLiteral(List.of(1, 2, 3))).isEqualTo("{1,2,3}");
+      assertThat(PgTransformationCache.toArrayLiteral(List.of(4))).isEqualTo("{4}");
+      assertThat(PgTransformationCache.toArrayLiteral(List.of())).isEqualTo("{}");
+    }
+  }
+
+  @Nested
+  class WhenPrefetching {
+    @Mock private ResultSet rs;
+    @Mock private Array sqlArray;
+
+    private final UUID id1 = UUID.randomUUID();
+    private final UUID id2 = UUID.randomUUID();
+    private final TransformationCache.Key key1 = TransformationCache.Key.of(id1, 2, List.of(1, 2));
+    private final TransformationCache.Key key2 = TransformationCache.Key.of(id2, 2, List.of(1, 2));
+    private final PgFact fact1 =
+        PgFact.from(Fact.builder().ns("ns").type("type").id(id1).version(2).build("{\"a\":1}"));
+
+    private PgTransformationCache underTest;
+
+    @BeforeEach
+    void setup() {
+      when(storeConfigurationProperties.getTransformationCachePrefetchChunkSize()).thenReturn(10);
+      underTest =
+          new PgTransformationCache(
+              platformTransactionManager,
+              jdbcTemplate,
+              registryMetrics,
+              storeConfigurationProperties,
+              10);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+      underTest.close();
+    }
+
+    private void returnsFact1() throws SQLException {
+      when(rs.getObject("fact_id", UUID.class)).thenReturn(id1);
+      when(rs.getInt("version")).thenReturn(2);
+      when(rs.getArray("path")).thenReturn(sqlArray);
+      when(sqlArray.getArray()).thenReturn(new Integer[] {1, 2});
+      when(rs.getString("header")).thenReturn(fact1.jsonHeader());
+      when(rs.getString("payload")).thenReturn(fact1.jsonPayload());
+      doAnswer(
+              i -> {
+                i.getArgument(1, RowCallbackHandler.class).processRow(rs);
+                return null;
+              })
+          .when(jdbcTemplate)
+          .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void remembersFoundAndMissing() throws SQLException {
+      returnsFact1();
+
+      underTest.fetchPrefetched(List.of(key1, key2), 0);
+
+      assertThat(underTest.isPrefetched(key1)).isTrue();
+      assertThat(underTest.isPrefetched(key2)).isTrue();
+    }
+
+    @Test
+    void findAllConsumesPrefetched() throws SQLException {
+      returnsFact1();
+      underTest.fetchPrefetched(List.of(key1, key2), 0);
+
+      assertThat(underTest.findAll(List.of(key1, key2)))
+          .singleElement()
+          .extracting(Fact::jsonPayload)
+          .isEqualTo(fact1.jsonPayload());
+
+      verify(jdbcTemplate, never())
+          .query(any(PreparedStatementCreator.class), any(RowMapper.class));
+      verify(registryMetrics).increase(RegistryMetrics.EVENT.TRANSFORMATION_CACHE_PREFETCH_HIT, 2);
+      verify(registryMetrics).increase(RegistryMetrics.EVENT.TRANSFORMATION_CACHE_PREFETCH_MISS, 0);
+      verify(registryMetrics).increase(RegistryMetrics.EVENT.TRANSFORMATION_CACHE_HIT, 1);
+      verify(registryMetrics).increase(RegistryMetrics.EVENT.TRANSFORMATION_CACHE_MISS, 1);
+      assertThat(underTest.isPrefetched(key1)).isFalse();
+      assertThat(underTest.isPrefetched(key2)).isFalse();
+    }
+
+    @Test
+    void findAllWaitsForPendingPrefetch() throws SQLException {
+      returnsFact1();
+
+      underTest.prefetch(List.of(key1));
+
+      assertThat(underTest.findAll(List.of(key1))).hasSize(1);
+      verify(jdbcTemplate, never())
+          .query(any(PreparedStatementCreator.class), any(RowMapper.class));
+      verify(registryMetrics).increase(RegistryMetrics.EVENT.TRANSFORMATION_CACHE_PREFETCH_HIT, 1);
+    }
+
+    @Test
+    void queriesWhatWasNotPrefetched() {
+      when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+          .thenReturn(Collections.singletonList(fact1));
+
+      assertThat(underTest.findAll(List.of(key1))).containsExactly(fact1);
+
+      verify(registryMetrics).increase(RegistryMetrics.EVENT.TRANSFORMATION_CACHE_PREFETCH_HIT, 0);
+      verify(registryMetrics).increase(RegistryMetrics.EVENT.TRANSFORMATION_CACHE_PREFETCH_MISS, 1);
+    }
+
+    @Test
+    void skipsBufferedKeys() {
+      underTest.put(key1, fact1);
+
+      underTest.prefetch(List.of(key1));
+
+      verifyNoInteractions(jdbcTemplate);
+      assertThat(underTest.isPrefetched(key1)).isFalse();
+    }
+
+    @Test
+    void discardsLookupsStartedBeforeInvalidation() throws SQLException {
+      returnsFact1();
+      when(storeConfigurationProperties.isReadOnlyModeEnabled()).thenReturn(true);
+      underTest.fetchPrefetched(List.of(key2), 0);
+
+      underTest.invalidateTransformationFor(id1);
+      assertThat(underTest.isPrefetched(key2)).isFalse();
+
+      // started with the generation before the invalidation
+      underTest.fetchPrefetched(List.of(key1), 0);
+      assertThat(underTest.isPrefetched(key1)).isFalse();
+
+      underTest.fetchPrefetched(List.of(key1), 1);
+      assertThat(underTest.isPrefetched(key1)).isTrue();
+    }
+
+    @Test
+    void ignoresFailingLookups() {
+      doThrow(new RuntimeException("expected"))
+          .when(jdbcTemplate)
+          .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+      underTest.fetchPrefetched(List.of(key1), 0);
+
+      assertThat(underTest.isPrefetched(key1)).isFalse();
     }
   }
 
@@ -615,6 +775,7 @@ void shutsDownThreadPool() {
       underTest.close();
 
       assertThat(underTest.tpe().isShutdown()).isTrue();
+      assertThat(underTest.prefetchPool().isShutdown()).isTrue();
     }
   }
 }
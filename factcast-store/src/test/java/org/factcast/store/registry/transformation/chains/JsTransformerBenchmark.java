@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2017-2026 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.registry.transformation.chains;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.factcast.core.util.FactCastJson;
+import org.factcast.store.internal.script.JsonString;
+import org.factcast.store.internal.script.graaljs.NashornCompatContextBuilder;
+import org.factcast.store.registry.transformation.*;
+import org.graalvm.polyglot.*;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the pooled {@link JsTransformer} to creating a context per fact, which is what it used
+ * to do, for chains of different length.
+ */
+@State(Scope.Benchmark)
+public class JsTransformerBenchmark {
+
+  private static final Engine engine = Engine.newBuilder("js").build();
+
+  private static final JsonString payload =
+      JsonString.of(
+          "{\"name\":\"Hugo\",\"age\":38,\"hobbies\":[\"foo\",\"bar\"],"
+              + "\"address\":{\"street\":\"Main St\",\"no\":1}}");
+
+  @Param({"1", "3", "10"})
+  int steps;
+
+  TransformationChain chain;
+  JsTransformer pooled;
+
+  @Setup
+  public void setup() {
+    TransformationKey key = TransformationKey.of("ns", "type");
+    List<Transformation> list = new ArrayList<>();
+    for (int i = 1; i <= steps; i++) {
+      list.add(
+          SingleTransformation.of(
+              key, i, i + 1, "function (e) { e.v" + i + " = e.age + " + i + "; }"));
+    }
+    chain = TransformationChain.of(key, list, "bench");
+    pooled = new JsTransformer(1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pooled.destroy();
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 1)
+  public JsonString pooled() {
+    return pooled.transform(chain, payload);
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Threads(1)
+  @Warmup(iterations = 1)
+  @SuppressWarnings("unchecked")
+  public JsonString contextPerFact() {
+    String script =
+        "function (e) { var wrapped="
+            + chain.transformationCode().get()
+            + "; wrapped(e); return e; }";
+    Map<String, Object> jsonAsMap = FactCastJson.readValue(Map.class, payload.json());
+    try (Context ctx = NashornCompatContextBuilder.CTX.engine(engine).build()) {
+      ctx.eval(Source.create("js", script)).as(JsTransformer.Fnc.class).run(jsonAsMap);
+      return JsonString.of(FactCastJson.toJsonNode(jsonAsMap).toString());
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Main.main(args);
+  }
+}
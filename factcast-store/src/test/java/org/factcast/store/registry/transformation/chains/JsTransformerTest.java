@@ -210,4 +210,78 @@ void logsExceptionBrokenParam() {
             logCaptor.getLogs().stream().anyMatch(f -> f.contains("during transformation")))
         .isTrue();
   }
+
+  @Test
+  void keepsLargeIntegers() {
+    when(transformation.transformationCode())
+        .thenReturn(Optional.of("function transform(e) { e.x = 1; }"));
+
+    var result =
+        uut.transform(transformation, JsonString.of("{\"big\":9007199254740993}")).toJsonNode();
+
+    Assertions.assertThat(result.get("big").asLong()).isEqualTo(9007199254740993L);
+    Assertions.assertThat(result.get("x").asInt()).isEqualTo(1);
+  }
+
+  @Test
+  void mutatesNestedArraysAndObjects() {
+    when(transformation.transformationCode())
+        .thenReturn(
+            Optional.of(
+                "function transform(e) { e.list[0] = e.list[1] + 1; e.count = e.list.length;"
+                    + " e.items[0].name = 'changed'; e.items[0].tags = ['x', {y: [1]}];"
+                    + " e.nested.obsolete = null; e.nested.deeper.values = [e.items[0].name]; }"));
+
+    // the same script, regardless of long digit sequences in the payload
+    for (String id : List.of("1", "12345678901234567890")) {
+      var result =
+          uut.transform(
+                  transformation,
+                  JsonString.of(
+                      "{\"id\":\""
+                          + id
+                          + "\",\"list\":[1,2],\"items\":[{\"name\":\"a\"}],"
+                          + "\"nested\":{\"obsolete\":true,\"deeper\":{\"values\":[]}}}"))
+              .toJsonNode();
+
+      Assertions.assertThat(result.get("list").toString()).isEqualTo("[3,2]");
+      Assertions.assertThat(result.get("count").asInt()).isEqualTo(2);
+      Assertions.assertThat(result.get("items").get(0).get("name").asText()).isEqualTo("changed");
+      Assertions.assertThat(result.get("items").get(0).get("tags").get(0).asText()).isEqualTo("x");
+      Assertions.assertThat(result.get("items").get(0).get("tags").get(1).get("y").isArray())
+          .isTrue();
+      Assertions.assertThat(result.get("nested").get("obsolete").isNull()).isTrue();
+      Assertions.assertThat(result.get("nested").get("deeper").get("values").get(0).asText())
+          .isEqualTo("changed");
+      Assertions.assertThat(result.get("id").asText()).isEqualTo(id);
+    }
+  }
+
+  @Test
+  void removesGlobalsBetweenFacts() {
+    when(transformation.transformationCode())
+        .thenReturn(
+            Optional.of(
+                "function transform(e) { if (typeof seen === 'undefined') { seen = 0; }"
+                    + " seen++; e.seen = seen; }"));
+
+    for (int i = 0; i < 3; i++) {
+      var result = uut.transform(transformation, JsonString.of("{}")).toJsonNode();
+
+      Assertions.assertThat(result.get("seen").asInt()).isOne();
+    }
+  }
+
+  @Test
+  void keepsNumbersUntouched() {
+    when(transformation.transformationCode())
+        .thenReturn(Optional.of("function transform(e) { e.x = 1; }"));
+
+    var result =
+        uut.transform(transformation, JsonString.of("{\"d\":1.0,\"i\":2}")).toJsonNode();
+
+    Assertions.assertThat(result.get("d").isDouble()).isTrue();
+    Assertions.assertThat(result.get("d").asDouble()).isEqualTo(1.0);
+    Assertions.assertThat(result.get("i").isIntegralNumber()).isTrue();
+  }
 }
@@ -16,15 +16,20 @@
 package org.factcast.store.registry.validation;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.*;
 
 import java.util.*;
+import java.util.concurrent.*;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.factcast.core.Fact;
 import org.factcast.core.FactValidationException;
 import org.factcast.core.TestFact;
+import org.factcast.core.spec.FactSpec;
+import org.factcast.core.store.FactStore;
 import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
 
 public class FactValidationAspectTest {
 
@@ -78,6 +83,65 @@ void testInterceptPublishConditional() throws Throwable {
     verify(jp).proceed();
   }
 
+  @Test
+  void testInterceptPublishIfUnchangedSince() throws Throwable {
+
+    when(jp.getArgs()).thenReturn(new Object[] {Collections.singletonList(f)});
+    when(v.validate(f)).thenReturn(new LinkedList<>());
+
+    uut.interceptPublishIfUnchangedSince(jp);
+
+    verify(jp).proceed();
+  }
+
+  @Test
+  void testInterceptPublishIfUnchangedSincePropagatesErrors() throws Throwable {
+
+    when(jp.getArgs()).thenReturn(new Object[] {Collections.singletonList(f)});
+    when(v.validate(f)).thenReturn(Collections.singletonList(new FactValidationError("doing")));
+
+    assertThatThrownBy(() -> uut.interceptPublishIfUnchangedSince(jp))
+        .isInstanceOf(FactValidationException.class);
+    verify(jp, never()).proceed();
+  }
+
+  @Test
+  void rejectsInvalidFactsPublishedIfUnchangedSince() {
+    FactStore store = mock(FactStore.class);
+    AspectJProxyFactory factory = new AspectJProxyFactory(store);
+    factory.addAspect(uut);
+    FactStore proxy = factory.getProxy();
+    when(v.validate(f)).thenReturn(Collections.singletonList(new FactValidationError("doing")));
+
+    List<Fact> facts = Collections.singletonList(f);
+    List<FactSpec> specs = Collections.singletonList(FactSpec.ns("ns"));
+    assertThatThrownBy(() -> proxy.publishIfUnchangedSince(facts, specs, 42))
+        .isInstanceOf(FactValidationException.class);
+    verify(store, never()).publishIfUnchangedSince(any(), any(), anyLong());
+  }
+
+  @Test
+  void testInterceptPublishBulk() throws Throwable {
+
+    when(jp.getArgs()).thenReturn(new Object[] {Collections.singletonList(f)});
+    when(v.validate(f)).thenReturn(new LinkedList<>());
+
+    uut.interceptPublishBulk(jp);
+
+    verify(jp).proceed();
+  }
+
+  @Test
+  void testInterceptPublishBulkPropagatesErrors() throws Throwable {
+
+    when(jp.getArgs()).thenReturn(new Object[] {Collections.singletonList(f)});
+    when(v.validate(f)).thenReturn(Collections.singletonList(new FactValidationError("doing")));
+
+    assertThatThrownBy(() -> uut.interceptPublishBulk(jp))
+        .isInstanceOf(FactValidationException.class);
+    verify(jp, never()).proceed();
+  }
+
   @Test
   void testInterceptPublishPropagatesErros() throws Throwable {
 
@@ -93,6 +157,75 @@ void testInterceptPublishPropagatesErros() throws Throwable {
     verify(jp, never()).proceed();
   }
 
+  @Test
+  void validatesInChunksOnExecutor() {
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try (FactValidationAspect parallel = new FactValidationAspect(v, executor, 4)) {
+      List<Fact> facts = new ArrayList<>();
+      Set<Thread> threads = ConcurrentHashMap.newKeySet();
+      for (int i = 0; i < 10; i++) {
+        Fact fact = TestFact.copy(f);
+        facts.add(fact);
+        when(v.validate(fact))
+            .thenAnswer(
+                inv -> {
+                  threads.add(Thread.currentThread());
+                  return List.of(new FactValidationError("error " + facts.indexOf(fact)));
+                });
+      }
+
+      List<FactValidationError> errors = parallel.validateAll(facts);
+
+      // in order of the facts, no matter which thread validated them
+      assertThat(errors)
+          .extracting(FactValidationError::message)
+          .containsExactly(
+              "error 0", "error 1", "error 2", "error 3", "error 4", "error 5", "error 6",
+              "error 7", "error 8", "error 9");
+      assertThat(threads).contains(Thread.currentThread()).hasSizeGreaterThan(1);
+    }
+    assertThat(executor.isShutdown()).isTrue();
+  }
+
+  @Test
+  void validatesSingleFactOnPublishingThread() {
+    ExecutorService executor = mock(ExecutorService.class);
+    FactValidationAspect parallel = new FactValidationAspect(v, executor, 4);
+    when(v.validate(f)).thenReturn(new LinkedList<>());
+
+    assertThat(parallel.validateAll(List.of(f))).isEmpty();
+
+    verifyNoInteractions(executor);
+  }
+
+  @Test
+  void propagatesExceptionsFromExecutor() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (FactValidationAspect parallel = new FactValidationAspect(v, executor, 2)) {
+      Fact other = TestFact.copy(f);
+      when(v.validate(f)).thenReturn(new LinkedList<>());
+      when(v.validate(other)).thenThrow(new IllegalStateException("expected"));
+
+      assertThatThrownBy(() -> parallel.validateAll(List.of(f, other)))
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessage("expected");
+    }
+  }
+
+  @Test
+  void createsBoundedExecutor() {
+    ThreadPoolExecutor executor = FactValidationAspect.createExecutor(3);
+    try {
+      assertThat(executor.getMaximumPoolSize()).isEqualTo(3);
+      assertThat(executor.getQueue().remainingCapacity())
+          .isEqualTo(FactValidationAspect.QUEUE_SIZE);
+      assertThat(executor.getRejectedExecutionHandler())
+          .isInstanceOf(ThreadPoolExecutor.CallerRunsPolicy.class);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Test
   void extractMessagesLimits() {
     List<FactValidationError> manyErrors = new ArrayList<>();
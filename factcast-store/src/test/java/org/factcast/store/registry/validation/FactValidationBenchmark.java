@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2017-2020 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.registry.validation;
+
+import java.util.concurrent.TimeUnit;
+import org.everit.json.schema.Schema;
+import org.factcast.store.registry.http.ValidationConstants;
+import org.json.JSONObject;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares validating small and large payloads after reading them with the org.json tokenizer to
+ * reading them with {@link PayloadReader}.
+ */
+@State(Scope.Benchmark)
+public class FactValidationBenchmark {
+
+  private static final Schema SCHEMA =
+      ValidationConstants.jsonString2SchemaV7(
+          """
+          {
+            "type": "object",
+            "properties": {
+              "id": { "type": "string" },
+              "count": { "type": "integer", "minimum": 0 },
+              "items": {
+                "type": "array",
+                "items": {
+                  "type": "object",
+                  "properties": {
+                    "name": { "type": "string" },
+                    "price": { "type": "number" },
+                    "tags": { "type": "array", "items": { "type": "string" } }
+                  },
+                  "required": ["name", "price"]
+                }
+              }
+            },
+            "required": ["id", "count"]
+          }
+          """);
+
+  @Param({"1", "500"})
+  public int items;
+
+  private String payload;
+
+  @Setup
+  public void setup() {
+    StringBuilder sb = new StringBuilder("{\"id\":\"4711\",\"count\":").append(items);
+    sb.append(",\"items\":[");
+    for (int i = 0; i < items; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"name\":\"item ")
+          .append(i)
+          .append("\",\"price\":")
+          .append(i * 1.25)
+          .append(",\"tags\":[\"a\",\"b\",\"c\"]}");
+    }
+    payload = sb.append("]}").toString();
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Warmup(iterations = 2)
+  public void orgJson(Blackhole bh) throws Exception {
+    JSONObject o = new JSONObject(payload);
+    SCHEMA.validate(o);
+    bh.consume(o);
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput})
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Fork(1)
+  @Warmup(iterations = 2)
+  public void payloadReader(Blackhole bh) throws Exception {
+    JSONObject o = PayloadReader.read(payload);
+    SCHEMA.validate(o);
+    bh.consume(o);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Main.main(args);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2017-2020 factcast.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.factcast.store.registry.validation;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.factcast.store.registry.http.ValidationConstants;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class PayloadReaderTest {
+
+  @Nested
+  class WhenReading {
+    @Test
+    void readsNestedStructures() throws Exception {
+      JSONObject o =
+          PayloadReader.read(
+              "{\"s\":\"x\",\"o\":{\"a\":[1,\"b\",{\"c\":true}]},\"n\":null,\"f\":false,\"e\":[]}");
+
+      assertThat(o.getString("s")).isEqualTo("x");
+      JSONArray a = o.getJSONObject("o").getJSONArray("a");
+      assertThat(a.length()).isEqualTo(3);
+      assertThat(a.get(0)).isEqualTo(1);
+      assertThat(a.get(1)).isEqualTo("b");
+      assertThat(a.getJSONObject(2).getBoolean("c")).isTrue();
+      assertThat(o.get("n")).isSameAs(JSONObject.NULL);
+      assertThat(o.get("f")).isEqualTo(false);
+      assertThat(o.getJSONArray("e").length()).isZero();
+    }
+
+    @Test
+    void representsNumbersLikeOrgJson() throws Exception {
+      String json =
+          "{\"i\":1,\"l\":12345678901,\"big\":123456789012345678901234567890,\"d\":1.5,\"x\":1e3}";
+
+      JSONObject o = PayloadReader.read(json);
+      JSONObject expected = new JSONObject(json);
+
+      for (String key : new String[] {"i", "l", "big", "d", "x"}) {
+        assertThat(o.get(key)).as(key).isEqualTo(expected.get(key));
+      }
+      assertThat(o.get("i")).isInstanceOf(Integer.class);
+      assertThat(o.get("l")).isInstanceOf(Long.class);
+      assertThat(o.get("d")).isInstanceOf(Double.class);
+    }
+
+    @Test
+    void rejectsNonObjects() {
+      assertThatThrownBy(() -> PayloadReader.read("[1]"))
+          .isInstanceOf(JsonProcessingException.class);
+      assertThatThrownBy(() -> PayloadReader.read("\"foo\""))
+          .isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void rejectsBrokenJson() {
+      assertThatThrownBy(() -> PayloadReader.read("is b0rken}"))
+          .isInstanceOf(JsonProcessingException.class);
+      assertThatThrownBy(() -> PayloadReader.read("{\"a\":[1,2"))
+          .isInstanceOf(JsonProcessingException.class);
+      assertThatThrownBy(() -> PayloadReader.read("{\"a\":1}{}"))
+          .isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void rejectsDuplicateKeys() {
+      assertThatThrownBy(() -> PayloadReader.read("{\"a\":1,\"a\":2}"))
+          .isInstanceOf(JsonProcessingException.class);
+    }
+  }
+
+  @Nested
+  class WhenValidating {
+    private final Schema schema =
+        ValidationConstants.jsonString2SchemaV7(
+            """
+            {
+              "type": "object",
+              "properties": {
+                "count": { "type": "integer", "minimum": 0 },
+                "ratio": { "type": "number" },
+                "tags": { "type": "array", "items": { "type": "string" } },
+                "parent": { "type": ["null", "string"] }
+              },
+              "required": ["count"]
+            }
+            """);
+
+    @Test
+    void acceptsWhatOrgJsonAccepts() throws Exception {
+      String json = "{\"count\":3,\"ratio\":0.5,\"tags\":[\"a\"],\"parent\":null}";
+
+      assertThatNoException().isThrownBy(() -> schema.validate(PayloadReader.read(json)));
+    }
+
+    @Test
+    void rejectsWhatOrgJsonRejects() {
+      for (String json :
+          new String[] {
+            "{\"count\":1.5}", "{\"count\":-1}", "{\"tags\":[1]}", "{\"count\":1,\"parent\":2}"
+          }) {
+        assertThatExceptionOfType(ValidationException.class)
+            .as(json)
+            .isThrownBy(() -> schema.validate(new JSONObject(json)));
+        assertThatExceptionOfType(ValidationException.class)
+            .as(json)
+            .isThrownBy(() -> schema.validate(PayloadReader.read(json)));
+      }
+    }
+  }
+}